@@ -0,0 +1,791 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntToLongFunction;
+
+import net.nativestruct.implementation.bytecode.sorting.SpecializedSorters;
+import net.nativestruct.implementation.field.Field;
+import net.nativestruct.implementation.field.FieldRun;
+import net.nativestruct.implementation.field.FieldSlot;
+import net.nativestruct.implementation.field.Fields;
+import net.nativestruct.implementation.field.StorageType;
+import net.nativestruct.implementation.memory.Memory;
+import net.nativestruct.sorting.AbstractSortedSubstitution;
+import net.nativestruct.sorting.OrderingSubstitution;
+import net.nativestruct.sorting.RadixSortedSubstitution;
+import net.nativestruct.sorting.RecordComparator;
+import net.nativestruct.sorting.SortKey;
+import net.nativestruct.sorting.SortedSubstitution;
+
+/**
+ * Holds internal storage of struct fields. Elements of every storage type are split into runs
+ * of fields, see {@link FieldRun}. Values of fields of a run are laid out record by record, so
+ * that an element index of a field equals <tt>start * capacity + record * width + position</tt>.
+ * By default there is a single run of all the fields of a storage type, while columnar layout
+ * makes a run per field. Subclasses decide where the elements are kept.
+ */
+public abstract class AbstractHolder implements ArrayHolder {
+    private static final StorageType[] STORAGES = StorageType.values();
+    private static final int GATHER_THRESHOLD = 1 << 16;
+
+    private final Fields        fields;
+    private final int[]         widths;
+    private final FieldRun[][]  runs;
+    private int                 size;
+    private int                 capacity;
+    private int                 generation;
+
+    private AbstractStruct[]    composites;
+
+    /**
+     * Construct internal storage holder.
+     *
+     * @param fields Fields description.
+     * @param accessors A list of fields accessors.
+     */
+    protected AbstractHolder(Fields fields, List<AbstractStruct> accessors) {
+        this.fields = fields;
+        this.widths = new int[STORAGES.length];
+        this.runs = new FieldRun[STORAGES.length][];
+        for (StorageType storage : STORAGES) {
+            widths[storage.ordinal()] = fields.fieldsOf(storage);
+            runs[storage.ordinal()] = fields.runsOf(storage);
+        }
+        if (fields.composites() > 0) {
+            this.composites = new AbstractStruct[fields.composites()];
+            for (int i = 0; i < composites.length; i++) {
+                composites[i] = accessors.get(i);
+            }
+        }
+    }
+
+    /**
+     * @return Fields description.
+     */
+    protected final Fields fields() {
+        return fields;
+    }
+
+    /**
+     * @param storage Storage type.
+     * @return The number of fields of the storage type per record.
+     */
+    protected final int width(StorageType storage) {
+        return widths[storage.ordinal()];
+    }
+
+    /**
+     * @param storage Storage type.
+     * @return Runs of the storage type elements, see {@link Fields#runsOf(StorageType)}.
+     */
+    protected final FieldRun[] runs(StorageType storage) {
+        return runs[storage.ordinal()];
+    }
+
+    /**
+     * @param run Field run.
+     * @param forCapacity Capacity of the storage.
+     * @return Index of the first element of the run.
+     */
+    protected static int runStart(FieldRun run, int forCapacity) {
+        return run.start() * forCapacity;
+    }
+
+    /**
+     * @param field Struct field.
+     * @return Distance between the field values of adjacent records.
+     */
+    final int stride(Field field) {
+        return field.slot().run().width();
+    }
+
+    /**
+     * @param field Struct field.
+     * @return Position of the field value of the first record.
+     */
+    final int offset(Field field) {
+        FieldSlot slot = field.slot();
+        return runStart(slot.run(), capacity) + slot.position();
+    }
+
+    /**
+     * @param field Primitive struct field.
+     * @return Base object for memory access of the field values.
+     */
+    final Object memoryBase(Field field) {
+        return memoryBase(field.storageType());
+    }
+
+    /**
+     * @param field Primitive struct field.
+     * @param index Record index.
+     * @return Offset of the field value relative to {@link #memoryBase(Field)}.
+     */
+    final long memoryOffset(Field field, int index) {
+        return memoryOffset(field.storageType(), index * stride(field) + offset(field));
+    }
+
+    /**
+     * @param field Struct field.
+     * @return Column of the field values in the current storage.
+     */
+    final Column column(Field field) {
+        Column result;
+        if (field.isPrimitive()) {
+            long origin = memoryOffset(field, 0);
+            result = new Column(this, field.storageType(), memoryBase(field), origin,
+                    memoryOffset(field, 1) - origin);
+        } else {
+            result = new Column(this, StorageType.OBJECT, objects(), offset(field),
+                    stride(field));
+        }
+        return result;
+    }
+
+    /**
+     * Reallocates internal storage for all fields of the struct.
+     * @param newCapacity The number of records the storage should hold.
+     */
+    final void reserve(int newCapacity) {
+        allocate(newCapacity);
+        this.capacity = newCapacity;
+        this.generation++;
+    }
+
+    /**
+     * Inserts empty elements in vector. Subsequent elements are shifted forward.
+     *
+     * @param index Insertion point.
+     * @param count The number of elements to insert.
+     */
+    final void insert(int index, int count) {
+        if (index < size) {
+            for (StorageType storage : STORAGES) {
+                for (FieldRun run : runs(storage)) {
+                    int start = runStart(run, capacity);
+                    int stride = run.width();
+                    moveElements(storage, start + index * stride,
+                            start + (index + count) * stride, (size - index) * stride);
+                    clearElements(storage, start + index * stride,
+                            start + (index + count) * stride);
+                }
+            }
+        }
+
+        increaseSize(count);
+    }
+
+    /**
+     * Increases the vector size. Elements being added are expected to be cleared already.
+     *
+     * @param count The number of elements being added.
+     */
+    final void increaseSize(int count) {
+        size += count;
+        sizeChanged();
+    }
+
+    /**
+     * Updates internal size.
+     *
+     * @param newSize Vector size.
+     */
+    final void resize(int newSize) {
+        if (newSize < this.size) {
+            for (StorageType storage : STORAGES) {
+                for (FieldRun run : runs(storage)) {
+                    int start = runStart(run, capacity);
+                    int stride = run.width();
+                    clearElements(storage, start + newSize * stride, start + size * stride);
+                }
+            }
+        }
+        this.size = newSize;
+        sizeChanged();
+    }
+
+    /**
+     * Copies one record from the source holder of the same struct. The source may keep its
+     * fields in a different kind of storage.
+     *
+     * @param targetIndex Index of the record being updated.
+     * @param source Source holder.
+     * @param sourceIndex Index of the record being copied.
+     */
+    final void copyRow(int targetIndex, AbstractHolder source, int sourceIndex) {
+        for (StorageType storage : STORAGES) {
+            for (FieldRun run : runs(storage)) {
+                copyRun(storage, run, runStart(run, capacity) + targetIndex * run.width(),
+                        source, runStart(run, source.capacity) + sourceIndex * run.width());
+            }
+        }
+    }
+
+    private void copyRun(StorageType storage, FieldRun run, int target,
+                         AbstractHolder source, int from) {
+        int stride = run.width();
+        if (storage.isPrimitive()) {
+            Memory.copy(source.memoryBase(storage), source.memoryOffset(storage, from),
+                    memoryBase(storage), memoryOffset(storage, target),
+                    (long) stride * storage.bytes());
+        } else {
+            System.arraycopy(source.objects(), from, objects(), target, stride);
+        }
+    }
+
+    /**
+     * Restores the state of a storage which already holds records, e.g. a mapped file.
+     *
+     * @param restoredSize The number of records.
+     * @param restoredCapacity The number of records the storage can hold.
+     */
+    protected final void restore(int restoredSize, int restoredCapacity) {
+        this.size = restoredSize;
+        this.capacity = restoredCapacity;
+        this.generation++;
+    }
+
+    /**
+     * Notifies the storage that the vector size has been changed.
+     */
+    protected void sizeChanged() {
+    }
+
+    /**
+     * Releases the storage. The vector becomes empty, its storage is reallocated on demand.
+     */
+    final void close() {
+        release();
+        this.size = 0;
+        this.capacity = 0;
+        this.generation++;
+    }
+
+    /**
+     * @return The number of storage reallocations, columns of the previous storage are stale.
+     */
+    final int generation() {
+        return this.generation;
+    }
+
+    @Override
+    public final int size() {
+        return this.size;
+    }
+
+    @Override
+    public final int capacity() {
+        return this.capacity;
+    }
+
+    @Override
+    public final AbstractStruct[] composites() {
+        return composites;
+    }
+
+    /**
+     * Searches the struct vector for the specified value using the binary search algorithm.
+     * The vector elements should be sorted prior to making the call. If the array contains
+     * multiple elements with the specified value, there is no guarantee which one will be
+     * found.
+     *
+     * @param stride Distance between the field values of adjacent records.
+     * @param offset Position of the field value of the first record.
+     * @param value The value to be searched for.
+     * @return Index of the struct record, if it is contained in the vector.
+     *         Otherwise <tt>(-(<i>insertion point</i>) - 1)</tt>.
+     */
+    abstract int binarySearch(int stride, int offset, int value);
+
+    /**
+     * Searches the struct vector for the specified value using the binary search algorithm.
+     * The vector elements should be sorted prior to making the call. If the array contains
+     * multiple elements with the specified value, there is no guarantee which one will be
+     * found.
+     *
+     * @param stride Distance between the field values of adjacent records.
+     * @param offset Position of the field value of the first record.
+     * @param value The value to be searched for.
+     * @return Index of the struct record, if it is contained in the vector.
+     *         Otherwise <tt>(-(<i>insertion point</i>) - 1)</tt>.
+     */
+    abstract int binarySearch(int stride, int offset, long value);
+
+    /**
+     * Searches the struct vector for the specified value using the binary search algorithm.
+     * The vector elements should be sorted prior to making the call. If the array contains
+     * multiple elements with the specified value, there is no guarantee which one will be
+     * found.
+     *
+     * @param stride Distance between the field values of adjacent records.
+     * @param offset Position of the field value of the first record.
+     * @param value The value to be searched for.
+     * @return Index of the struct record, if it is contained in the vector.
+     *         Otherwise <tt>(-(<i>insertion point</i>) - 1)</tt>.
+     */
+    abstract int binarySearch(int stride, int offset, float value);
+
+    /**
+     * Searches the struct vector for the specified value using the binary search algorithm.
+     * The vector elements should be sorted prior to making the call. If the array contains
+     * multiple elements with the specified value, there is no guarantee which one will be
+     * found.
+     *
+     * @param stride Distance between the field values of adjacent records.
+     * @param offset Position of the field value of the first record.
+     * @param value The value to be searched for.
+     * @return Index of the struct record, if it is contained in the vector.
+     *         Otherwise <tt>(-(<i>insertion point</i>) - 1)</tt>.
+     */
+    abstract int binarySearch(int stride, int offset, double value);
+
+    /**
+     * Searches the struct vector for the specified value using the binary search algorithm.
+     * The vector elements should be sorted prior to making the call. If the array contains
+     * multiple elements with the specified value, there is no guarantee which one will be
+     * found.
+     *
+     * @param stride Distance between the field values of adjacent records.
+     * @param offset Position of the field value of the first record.
+     * @param value The value to be searched for.
+     * @return Index of the struct record, if it is contained in the vector.
+     *         Otherwise <tt>(-(<i>insertion point</i>) - 1)</tt>.
+     */
+    abstract int binarySearch(int stride, int offset, short value);
+
+    /**
+     * Searches the struct vector for the specified value using the binary search algorithm.
+     * The vector elements should be sorted prior to making the call. If the array contains
+     * multiple elements with the specified value, there is no guarantee which one will be
+     * found.
+     *
+     * @param stride Distance between the field values of adjacent records.
+     * @param offset Position of the field value of the first record.
+     * @param value The value to be searched for.
+     * @return Index of the struct record, if it is contained in the vector.
+     *         Otherwise <tt>(-(<i>insertion point</i>) - 1)</tt>.
+     */
+    abstract int binarySearch(int stride, int offset, byte value);
+
+    /**
+     * Searches the struct vector for the specified value using the binary search algorithm.
+     * The vector elements should be sorted prior to making the call. If the array contains
+     * multiple elements with the specified value, there is no guarantee which one will be
+     * found.
+     *
+     * @param stride Distance between the field values of adjacent records.
+     * @param offset Position of the field value of the first record.
+     * @param value The value to be searched for.
+     * @return Index of the struct record, if it is contained in the vector.
+     *         Otherwise <tt>(-(<i>insertion point</i>) - 1)</tt>.
+     */
+    abstract int binarySearch(int stride, int offset, char value);
+
+    /**
+     * Searches the struct vector for the specified value using the binary search algorithm.
+     * The vector elements should be sorted prior to making the call. If the array contains
+     * multiple elements with the specified value, there is no guarantee which one will be
+     * found.
+     *
+     * @param stride Distance between the field values of adjacent records.
+     * @param offset Position of the field value of the first record.
+     * @param value The value to be searched for.
+     * @return Index of the struct record, if it is contained in the vector.
+     *         Otherwise <tt>(-(<i>insertion point</i>) - 1)</tt>.
+     */
+    abstract int binarySearch(int stride, int offset, boolean value);
+
+    /**
+     * Searches the struct vector for the specified value using the binary search algorithm.
+     * The vector elements should be sorted prior to making the call. If the array contains
+     * multiple elements with the specified value, there is no guarantee which one will be
+     * found.
+     *
+     * @param <U> Field type.
+     * @param stride Distance between the field values of adjacent records.
+     * @param offset Position of the field value of the first record.
+     * @param value The value to be searched for.
+     * @return Index of the struct record, if it is contained in the vector.
+     *         Otherwise <tt>(-(<i>insertion point</i>) - 1)</tt>.
+     */
+    final <U> int binarySearch(int stride, int offset, Comparable<U> value) {
+        Object[] array = objects();
+        int low = 0;
+        int high = size - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            @SuppressWarnings("unchecked")
+            U middleValue = (U) array[middle * stride + offset];
+            int comparison = value.compareTo(middleValue);
+
+            if (comparison > 0) {
+                low = middle + 1;
+            } else if (comparison < 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Creates substitution ordering records by a primitive field.
+     *
+     * @param field Primitive struct field.
+     * @return SortedSubstitution instance.
+     */
+    abstract SortedSubstitution sortedSubstitution(Field field);
+
+    /**
+     * Creates substitution ordering records by a primitive field using radix sort.
+     *
+     * @param field Int, long, float or double struct field.
+     * @return SortedSubstitution instance.
+     */
+    final SortedSubstitution radixSortedSubstitution(Field field) {
+        StorageType storage = field.storageType();
+        Object base = memoryBase(storage);
+        IntToLongFunction location = location(field);
+        SortedSubstitution substitution;
+        switch (storage) {
+            case INT:
+                substitution = RadixSortedSubstitution.ofNarrowKeys(size,
+                    index -> RadixSortedSubstitution.intKey(
+                        Memory.getInt(base, location.applyAsLong(index))));
+                break;
+            case FLOAT:
+                substitution = RadixSortedSubstitution.ofNarrowKeys(size,
+                    index -> RadixSortedSubstitution.floatKey(
+                        Memory.getFloat(base, location.applyAsLong(index))));
+                break;
+            case LONG:
+                substitution = RadixSortedSubstitution.ofWideKeys(size,
+                    index -> RadixSortedSubstitution.longKey(
+                        Memory.getLong(base, location.applyAsLong(index))));
+                break;
+            case DOUBLE:
+                substitution = RadixSortedSubstitution.ofWideKeys(size,
+                    index -> RadixSortedSubstitution.doubleKey(
+                        Memory.getDouble(base, location.applyAsLong(index))));
+                break;
+            default:
+                throw new IllegalArgumentException(
+                    "Radix sort is not supported for field " + field);
+        }
+        return substitution;
+    }
+
+    /**
+     * Creates substitution ordering records by a primitive field, which is sorted by a merge sort
+     * generated for the field.
+     *
+     * @param field Primitive struct field.
+     * @return SortedSubstitution instance.
+     */
+    final SortedSubstitution specializedSortedSubstitution(Field field) {
+        StorageType storage = field.storageType();
+        RecordComparator comparator = recordComparator(field, null);
+        return new AbstractSortedSubstitution.Generic(size,
+            (left, right) -> comparator.compare(left, right) <= 0,
+            SpecializedSorters.factory(fields.type(), field,
+                    memoryBase(storage), memoryOffset(storage, offset(field))));
+    }
+
+    /**
+     * Creates comparator ordering records by the key fields in the order of the sort keys.
+     *
+     * @param keyFields Key fields in the order of the keys.
+     * @param keys Sort keys.
+     * @return RecordComparator instance.
+     */
+    final RecordComparator recordComparator(Field[] keyFields, List<SortKey> keys) {
+        RecordComparator[] comparators = new RecordComparator[keyFields.length];
+        for (int i = 0; i < keyFields.length; i++) {
+            SortKey key = keys.get(i);
+            RecordComparator natural = recordComparator(keyFields[i], key::compare);
+            if (key.isDescending() && keyFields[i].isPrimitive()) {
+                comparators[i] = (left, right) -> natural.compare(right, left);
+            } else {
+                comparators[i] = natural;
+            }
+        }
+        return (left, right) -> {
+            int comparison = 0;
+            for (int i = 0; comparison == 0 && i < comparators.length; i++) {
+                comparison = comparators[i].compare(left, right);
+            }
+            return comparison;
+        };
+    }
+
+    /**
+     * Searches the vector sorted by the keys for the records having the specified values of the
+     * key fields. If the vector contains multiple such records, there is no guarantee which one
+     * will be found.
+     *
+     * @param keyFields Key fields in the order of the keys.
+     * @param keys Sort keys.
+     * @param values Values of the key fields, primitive values boxed.
+     * @return Index of the struct record, if it is contained in the vector.
+     *         Otherwise <tt>(-(<i>insertion point</i>) - 1)</tt>.
+     */
+    final int binarySearch(Field[] keyFields, List<SortKey> keys, Object[] values) {
+        int low = 0;
+        int high = size - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = 0;
+            for (int i = 0; comparison == 0 && i < keyFields.length; i++) {
+                comparison = keys.get(i).compare(value(keyFields[i], middle), values[i]);
+            }
+
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Creates comparator ordering records by a field in the natural order of its values.
+     *
+     * @param field Struct field.
+     * @param comparator Comparator of object field values, unused for primitive fields.
+     * @return RecordComparator instance.
+     */
+    final RecordComparator recordComparator(Field field, Comparator<Object> comparator) {
+        StorageType storage = field.storageType();
+        RecordComparator result;
+        if (storage.isPrimitive()) {
+            Object base = memoryBase(storage);
+            IntToLongFunction location = location(field);
+            result = (left, right)
+                -> storage.compare(base, location.applyAsLong(left), location.applyAsLong(right));
+        } else {
+            Object[] array = objects();
+            int stride = stride(field);
+            int offset = offset(field);
+            result = (left, right) -> comparator.compare(
+                    array[left * stride + offset], array[right * stride + offset]);
+        }
+        return result;
+    }
+
+    /**
+     * @param field Struct field.
+     * @param index Record index.
+     * @return Field value, boxed for primitive fields.
+     */
+    final Object value(Field field, int index) {
+        StorageType storage = field.storageType();
+        Object result;
+        if (storage.isPrimitive()) {
+            result = storage.read(memoryBase(storage), memoryOffset(field, index));
+        } else {
+            result = objects()[index * stride(field) + offset(field)];
+        }
+        return result;
+    }
+
+    private IntToLongFunction location(Field field) {
+        StorageType storage = field.storageType();
+        int stride = stride(field);
+        int offset = offset(field);
+        return index -> memoryOffset(storage, index * stride + offset);
+    }
+
+    /**
+     * Creates substitution ordering records by an object field.
+     *
+     * @param field Object struct field.
+     * @param comparator Comparator used for the field values comparison.
+     * @param <U> Type of the field.
+     * @return SortedSubstitution instance.
+     */
+    final <U> SortedSubstitution objectSortedSubstitution(
+            Field field, Comparator<U> comparator) {
+        return new AbstractSortedSubstitution.Objects(
+                objects(), size, stride(field), offset(field), comparator);
+    }
+
+    /**
+     * Reorder struct records by using substitution index array. Small vectors swap records in
+     * place. Big vectors gather records into buffers sequentially in the target order, so that
+     * only reads are random, and then copy the buffers back.
+     *
+     * @param substitution Substitution index array.
+     * @param parallelism Specifies how gathering is split between threads.
+     */
+    final void reorder(OrderingSubstitution substitution, Parallelism parallelism) {
+        if (size < GATHER_THRESHOLD) {
+            substitution.reorder(this::swapRows);
+        } else {
+            int[] rows = new int[size];
+            for (int i = 0; i < size; i++) {
+                rows[i] = substitution.forIndex(i);
+            }
+            for (StorageType storage : STORAGES) {
+                for (FieldRun run : runs(storage)) {
+                    RunGather gather = new RunGather(storage, run, rows);
+                    parallelism.forEachRange(0, size, gather::gather);
+                    gather.copyBack();
+                }
+            }
+        }
+    }
+
+    /**
+     * Swap two struct records specified by their indexes.
+     *
+     * @param first First record index.
+     * @param second Second record index.
+     */
+    private void swapRows(int first, int second) {
+        for (StorageType storage : STORAGES) {
+            for (FieldRun run : runs(storage)) {
+                int start = runStart(run, capacity);
+                int stride = run.width();
+                swapElements(storage, start + first * stride, start + second * stride, stride);
+            }
+        }
+    }
+
+    /**
+     * Reallocates storage preserving the current records. Vector size and the previous capacity
+     * are still available via {@link #size()} and {@link #capacity()}.
+     *
+     * @param newCapacity The number of records the storage should hold.
+     */
+    protected abstract void allocate(int newCapacity);
+
+    /**
+     * Releases the storage.
+     */
+    protected abstract void release();
+
+    /**
+     * Moves a range of elements, source and target ranges may overlap.
+     *
+     * @param storage Storage type.
+     * @param source Index of the first source element.
+     * @param target Index of the first target element.
+     * @param length The number of elements.
+     */
+    protected abstract void moveElements(StorageType storage, int source, int target,
+                                         int length);
+
+    /**
+     * Resets a range of elements to their default values.
+     *
+     * @param storage Storage type.
+     * @param from Index of the first element, inclusive.
+     * @param end Index after the last element.
+     */
+    protected abstract void clearElements(StorageType storage, int from, int end);
+
+    /**
+     * Swaps two non-overlapping ranges of elements.
+     *
+     * @param storage Storage type.
+     * @param first Index of the first element of the first range.
+     * @param second Index of the first element of the second range.
+     * @param length The number of elements in each range.
+     */
+    protected abstract void swapElements(StorageType storage, int first, int second, int length);
+
+    /**
+     * @param storage Primitive storage type.
+     * @return Base object for memory access of the storage elements, i.e. the backing array,
+     *         or null for off-heap memory.
+     */
+    protected abstract Object memoryBase(StorageType storage);
+
+    /**
+     * @param storage Primitive storage type.
+     * @param element Element index.
+     * @return Element offset relative to {@link #memoryBase(StorageType)}.
+     */
+    protected abstract long memoryOffset(StorageType storage, int element);
+
+    /**
+     * Gathers elements of a field run into a buffer in the order of records.
+     */
+    private final class RunGather {
+        private final StorageType storage;
+        private final int start;
+        private final int stride;
+        private final int[] rows;
+        private final Object buffer;
+
+        RunGather(StorageType storage, FieldRun run, int[] rows) {
+            this.storage = storage;
+            this.start = runStart(run, capacity);
+            this.stride = run.width();
+            this.rows = rows;
+            this.buffer = storage.newArray(rows.length * stride);
+        }
+
+        void gather(int from, int end) {
+            if (storage.isPrimitive()) {
+                Object base = memoryBase(storage);
+                int bytes = storage.bytes();
+                long offset = Memory.arrayOffset(buffer.getClass()) + (long) from * stride * bytes;
+                for (int i = from; i < end; i++) {
+                    long source = memoryOffset(storage, start + rows[i] * stride);
+                    for (int element = 0; element < stride; element++) {
+                        Memory.copyValue(base, source, buffer, offset, bytes);
+                        source += bytes;
+                        offset += bytes;
+                    }
+                }
+            } else {
+                Object[] array = objects();
+                Object[] target = (Object[]) buffer;
+                for (int i = from; i < end; i++) {
+                    System.arraycopy(array, start + rows[i] * stride, target, i * stride, stride);
+                }
+            }
+        }
+
+        void copyBack() {
+            if (storage.isPrimitive()) {
+                Memory.copy(buffer, Memory.arrayOffset(buffer.getClass()),
+                        memoryBase(storage), memoryOffset(storage, start),
+                        (long) rows.length * stride * storage.bytes());
+            } else {
+                System.arraycopy(buffer, 0, objects(), start, rows.length * stride);
+            }
+        }
+    }
+}
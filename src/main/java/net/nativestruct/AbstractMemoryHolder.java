@@ -0,0 +1,389 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct;
+
+import java.util.Arrays;
+import java.util.List;
+
+import net.nativestruct.implementation.field.Field;
+import net.nativestruct.implementation.field.FieldRun;
+import net.nativestruct.implementation.field.Fields;
+import net.nativestruct.implementation.field.StorageType;
+import net.nativestruct.implementation.memory.Memory;
+import net.nativestruct.sorting.AbstractSortedSubstitution;
+import net.nativestruct.sorting.SortedSubstitution;
+
+/**
+ * Holds primitive struct fields in a single block of memory outside of the Java heap. The block
+ * is split into regions, one per storage type, see {@link Fields#regionOf(StorageType)}.
+ * Object fields are kept in a Java array, because they can't be referenced from native memory.
+ * Subclasses decide how the block is obtained.
+ */
+public abstract class AbstractMemoryHolder extends AbstractHolder {
+    private static final StorageType[] STORAGES = StorageType.values();
+
+    private final int[]         regions;
+    private long                address;
+    private long                scratch;
+    private Object[]            objects;
+    private final Object[]      swap;
+
+    /**
+     * Construct memory holder.
+     *
+     * @param fields Fields description.
+     * @param accessors A list of fields accessors.
+     */
+    protected AbstractMemoryHolder(Fields fields, List<AbstractStruct> accessors) {
+        super(fields, accessors);
+        this.regions = new int[STORAGES.length];
+        for (StorageType storage : STORAGES) {
+            regions[storage.ordinal()] = fields.regionOf(storage);
+        }
+        this.swap = new Object[width(StorageType.OBJECT)];
+    }
+
+    @Override
+    protected final void allocate(int newCapacity) {
+        long bytes = (long) newCapacity * fields().memoryBytes();
+        long block = expand(newCapacity, bytes);
+        for (int i = STORAGES.length - 1; i >= 0; i--) {
+            StorageType storage = STORAGES[i];
+            if (storage.isPrimitive()) {
+                moveRuns(storage, block, newCapacity);
+            }
+        }
+        this.address = block;
+        if (scratch == 0) {
+            this.scratch = Memory.allocate(fields().memoryBytes());
+        }
+        allocateObjects(newCapacity);
+    }
+
+    /**
+     * Moves runs of a storage type to their locations for the new capacity. Runs are moved
+     * starting from the last one, since every run moves towards the end of the block.
+     *
+     * @param storage Primitive storage type.
+     * @param block Address of the grown block.
+     * @param newCapacity The number of records the block holds.
+     */
+    private void moveRuns(StorageType storage, long block, int newCapacity) {
+        FieldRun[] runs = runs(storage);
+        for (int i = runs.length - 1; i >= 0; i--) {
+            int bytes = runs[i].width() * storage.bytes();
+            long source = block + (long) capacity() * regions[storage.ordinal()]
+                + (long) runStart(runs[i], capacity()) * storage.bytes();
+            long target = block + (long) newCapacity * regions[storage.ordinal()]
+                + (long) runStart(runs[i], newCapacity) * storage.bytes();
+            long used = (long) size() * bytes;
+            Memory.copy(source, target, used);
+            Memory.clear(target + used, (long) (newCapacity - size()) * bytes);
+        }
+    }
+
+    private void allocateObjects(int newCapacity) {
+        int width = width(StorageType.OBJECT);
+        if (width > 0) {
+            Object[] array = new Object[newCapacity * width];
+            for (FieldRun run : runs(StorageType.OBJECT)) {
+                if (objects != null) {
+                    System.arraycopy(objects, runStart(run, capacity()),
+                            array, runStart(run, newCapacity), size() * run.width());
+                }
+            }
+            this.objects = array;
+        }
+    }
+
+    @Override
+    protected final void release() {
+        releaseMemory();
+        Memory.free(scratch);
+        this.address = 0;
+        this.scratch = 0;
+        this.objects = null;
+    }
+
+    /**
+     * Attaches a memory block which already holds records, instead of allocating a new one.
+     *
+     * @param restoredSize The number of records.
+     * @param restoredCapacity The number of records the block can hold.
+     */
+    protected final void attach(int restoredSize, int restoredCapacity) {
+        this.address = expand(restoredCapacity,
+                (long) restoredCapacity * fields().memoryBytes());
+        this.scratch = Memory.allocate(fields().memoryBytes());
+        allocateObjects(restoredCapacity);
+        restore(restoredSize, restoredCapacity);
+    }
+
+    /**
+     * Grows the memory block. Regions are moved to their new locations by the caller.
+     *
+     * @param newCapacity The number of records the block should hold.
+     * @param bytes New block size.
+     * @return Address of the block, which starts with the content of the previous block.
+     */
+    protected abstract long expand(int newCapacity, long bytes);
+
+    /**
+     * Releases the memory block.
+     */
+    protected abstract void releaseMemory();
+
+    @Override
+    protected final void moveElements(StorageType storage, int source, int target,
+                                      int length) {
+        if (storage.isPrimitive()) {
+            Memory.copy(elementAddress(storage, source), elementAddress(storage, target),
+                    (long) length * storage.bytes());
+        } else {
+            System.arraycopy(objects, source, objects, target, length);
+        }
+    }
+
+    @Override
+    protected final void clearElements(StorageType storage, int from, int end) {
+        if (storage.isPrimitive()) {
+            Memory.clear(elementAddress(storage, from), (long) (end - from) * storage.bytes());
+        } else {
+            Arrays.fill(objects, from, end, null);
+        }
+    }
+
+    @Override
+    protected final void swapElements(StorageType storage, int first, int second, int length) {
+        if (storage.isPrimitive()) {
+            long bytes = (long) length * storage.bytes();
+            Memory.copy(elementAddress(storage, first), scratch, bytes);
+            Memory.copy(elementAddress(storage, second), elementAddress(storage, first), bytes);
+            Memory.copy(scratch, elementAddress(storage, second), bytes);
+        } else {
+            System.arraycopy(objects, first, swap, 0, length);
+            System.arraycopy(objects, second, objects, first, length);
+            System.arraycopy(swap, 0, objects, second, length);
+        }
+    }
+
+    @Override
+    protected final Object memoryBase(StorageType storage) {
+        return null;
+    }
+
+    @Override
+    protected final long memoryOffset(StorageType storage, int element) {
+        return elementAddress(storage, element);
+    }
+
+    @Override
+    public final long address() {
+        return address;
+    }
+
+    @Override
+    public final int[] integers() {
+        return null;
+    }
+
+    @Override
+    public final long[] longs() {
+        return null;
+    }
+
+    @Override
+    public final float[] floats() {
+        return null;
+    }
+
+    @Override
+    public final double[] doubles() {
+        return null;
+    }
+
+    @Override
+    public final short[] shorts() {
+        return null;
+    }
+
+    @Override
+    public final byte[] bytes() {
+        return null;
+    }
+
+    @Override
+    public final char[] chars() {
+        return null;
+    }
+
+    @Override
+    public final boolean[] booleans() {
+        return null;
+    }
+
+    @Override
+    public final Object[] objects() {
+        return objects;
+    }
+
+    @Override
+    final int binarySearch(int stride, int offset, int value) {
+        return searchIntegral(StorageType.INT, stride, offset, value);
+    }
+
+    @Override
+    final int binarySearch(int stride, int offset, long value) {
+        return searchIntegral(StorageType.LONG, stride, offset, value);
+    }
+
+    @Override
+    final int binarySearch(int stride, int offset, float value) {
+        return searchFloating(StorageType.FLOAT, stride, offset, value);
+    }
+
+    @Override
+    final int binarySearch(int stride, int offset, double value) {
+        return searchFloating(StorageType.DOUBLE, stride, offset, value);
+    }
+
+    @Override
+    final int binarySearch(int stride, int offset, short value) {
+        return searchIntegral(StorageType.SHORT, stride, offset, value);
+    }
+
+    @Override
+    final int binarySearch(int stride, int offset, byte value) {
+        return searchIntegral(StorageType.BYTE, stride, offset, value);
+    }
+
+    @Override
+    final int binarySearch(int stride, int offset, char value) {
+        return searchIntegral(StorageType.CHAR, stride, offset, value);
+    }
+
+    @Override
+    final int binarySearch(int stride, int offset, boolean value) {
+        return searchIntegral(StorageType.BOOLEAN, stride, offset, value ? 1 : 0);
+    }
+
+    @Override
+    final SortedSubstitution sortedSubstitution(Field field) {
+        StorageType storage = field.storageType();
+        int stride = stride(field);
+        int offset = offset(field);
+        SortedSubstitution substitution;
+        if (storage == StorageType.FLOAT || storage == StorageType.DOUBLE) {
+            substitution = new AbstractSortedSubstitution.Generic(size(), (left, right)
+                -> Double.compare(readFloating(storage, left * stride + offset),
+                    readFloating(storage, right * stride + offset)) <= 0);
+        } else {
+            substitution = new AbstractSortedSubstitution.Generic(size(), (left, right)
+                -> readIntegral(storage, left * stride + offset)
+                    <= readIntegral(storage, right * stride + offset));
+        }
+        return substitution;
+    }
+
+    private long elementAddress(StorageType storage, int element) {
+        return address + (long) capacity() * regions[storage.ordinal()]
+            + (long) element * storage.bytes();
+    }
+
+    private int searchIntegral(StorageType storage, int stride, int offset, long value) {
+        int low = 0;
+        int high = size() - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long middleValue = readIntegral(storage, middle * stride + offset);
+
+            if (middleValue < value) {
+                low = middle + 1;
+            } else if (middleValue > value) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private int searchFloating(StorageType storage, int stride, int offset, double value) {
+        int low = 0;
+        int high = size() - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = Double.compare(
+                    readFloating(storage, middle * stride + offset), value);
+
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private long readIntegral(StorageType storage, int element) {
+        long location = elementAddress(storage, element);
+        long value;
+        switch (storage) {
+            case INT:
+                value = Memory.getInt(location);
+                break;
+            case LONG:
+                value = Memory.getLong(location);
+                break;
+            case SHORT:
+                value = Memory.getShort(location);
+                break;
+            case CHAR:
+                value = Memory.getChar(location);
+                break;
+            case BYTE:
+            case BOOLEAN:
+                value = Memory.getByte(location);
+                break;
+            default:
+                throw new IllegalArgumentException("Not an integral storage " + storage);
+        }
+        return value;
+    }
+
+    private double readFloating(StorageType storage, int element) {
+        long location = elementAddress(storage, element);
+        double value;
+        if (storage == StorageType.FLOAT) {
+            value = Memory.getFloat(location);
+        } else {
+            value = Memory.getDouble(location);
+        }
+        return value;
+    }
+}
@@ -23,19 +23,34 @@
  */
 package net.nativestruct;
 
+import net.nativestruct.implementation.memory.Memory;
+
 /**
  * Base class for all accessor interfaces. It encapsulates primitive arrays
  * holding struct field values.
  */
 @SuppressWarnings("UnusedDeclaration")
 public abstract class AbstractStruct {
-    private int         size;
-    private int[]       integers;
-    private double[]    doubles;
-    private Object[]    objects;
+    // Arrays, the current index and the capacity are read by accessors generated in
+    // ARRAY_ACCESS mode or for columnar layout.
+    // @checkstyle VisibilityModifier (13 lines)
+    protected int[]     integers;
+    protected long[]    longs;
+    protected float[]   floats;
+    protected double[]  doubles;
+    protected short[]   shorts;
+    protected byte[]    bytes;
+    protected char[]    chars;
+    protected boolean[] booleans;
+    protected Object[]  objects;
+
+    protected int       current = -1;
+    protected int       capacity;
 
+    private int                 size;
+    private long                address;
     private AbstractStruct[]    composites;
-    private int                 current = -1;
+    private ArrayHolder         storage;
 
     /**
      * @return Current record index. By default it equals -1.
@@ -65,6 +80,15 @@ public abstract class AbstractStruct {
         }
     }
 
+    /**
+     * Updates the vector size used by bounds checks, when the storage itself isn't reallocated.
+     *
+     * @param newSize Vector size.
+     */
+    final void size(int newSize) {
+        this.size = newSize;
+    }
+
     /**
      * Copies field array from a source array holder.
      *
@@ -72,13 +96,38 @@ public abstract class AbstractStruct {
      */
     protected final void copyFrom(ArrayHolder holder) {
         this.size = holder.size();
+        this.capacity = holder.capacity();
+        this.address = holder.address();
         this.integers = holder.integers();
+        this.longs = holder.longs();
+        this.floats = holder.floats();
         this.doubles = holder.doubles();
+        this.shorts = holder.shorts();
+        this.bytes = holder.bytes();
+        this.chars = holder.chars();
+        this.booleans = holder.booleans();
         this.objects = holder.objects();
         this.composites = holder.composites();
+        this.storage = holder;
         this.current = -1;
     }
 
+    /**
+     * @return Array holder, which the fields were copied from, or null.
+     */
+    final ArrayHolder storage() {
+        return storage;
+    }
+
+    /**
+     * Replaces child struct accessors, which are shared with the vector by default.
+     *
+     * @param children Child struct accessors.
+     */
+    final void composites(AbstractStruct[] children) {
+        this.composites = children;
+    }
+
     /**
      * Getter method of child struct field.
      *
@@ -113,6 +162,54 @@ public abstract class AbstractStruct {
         integers[index * fields + field] = value;
     }
 
+    /**
+     * Getter method of long struct field.
+     *
+     * @param fields The number of long fields in the struct.
+     * @param index  Struct index in the array.
+     * @param field  Field index among all the long fields.
+     * @return Long field value.
+     */
+    protected final long longFieldIndexed(int fields, int index, int field) {
+        return longs[index * fields + field];
+    }
+
+    /**
+     * Setter method of long struct field.
+     *
+     * @param fields The number of long fields in the struct.
+     * @param index  Struct index in the array.
+     * @param field  Field index among all the long fields.
+     * @param value  Value to be set.
+     */
+    protected final void updateLongFieldIndexed(int fields, int index, int field, long value) {
+        longs[index * fields + field] = value;
+    }
+
+    /**
+     * Getter method of float struct field.
+     *
+     * @param fields The number of float fields in the struct.
+     * @param index  Struct index in the array.
+     * @param field  Field index among all the float fields.
+     * @return Float field value.
+     */
+    protected final float floatFieldIndexed(int fields, int index, int field) {
+        return floats[index * fields + field];
+    }
+
+    /**
+     * Setter method of float struct field.
+     *
+     * @param fields The number of float fields in the struct.
+     * @param index  Struct index in the array.
+     * @param field  Field index among all the float fields.
+     * @param value  Value to be set.
+     */
+    protected final void updateFloatFieldIndexed(int fields, int index, int field, float value) {
+        floats[index * fields + field] = value;
+    }
+
     /**
      * Getter method of double struct field.
      *
@@ -137,6 +234,103 @@ public abstract class AbstractStruct {
         doubles[index * fields + field] = value;
     }
 
+    /**
+     * Getter method of short struct field.
+     *
+     * @param fields The number of short fields in the struct.
+     * @param index  Struct index in the array.
+     * @param field  Field index among all the short fields.
+     * @return Short field value.
+     */
+    protected final short shortFieldIndexed(int fields, int index, int field) {
+        return shorts[index * fields + field];
+    }
+
+    /**
+     * Setter method of short struct field.
+     *
+     * @param fields The number of short fields in the struct.
+     * @param index  Struct index in the array.
+     * @param field  Field index among all the short fields.
+     * @param value  Value to be set.
+     */
+    protected final void updateShortFieldIndexed(int fields, int index, int field, short value) {
+        shorts[index * fields + field] = value;
+    }
+
+    /**
+     * Getter method of byte struct field.
+     *
+     * @param fields The number of byte fields in the struct.
+     * @param index  Struct index in the array.
+     * @param field  Field index among all the byte fields.
+     * @return Byte field value.
+     */
+    protected final byte byteFieldIndexed(int fields, int index, int field) {
+        return bytes[index * fields + field];
+    }
+
+    /**
+     * Setter method of byte struct field.
+     *
+     * @param fields The number of byte fields in the struct.
+     * @param index  Struct index in the array.
+     * @param field  Field index among all the byte fields.
+     * @param value  Value to be set.
+     */
+    protected final void updateByteFieldIndexed(int fields, int index, int field, byte value) {
+        bytes[index * fields + field] = value;
+    }
+
+    /**
+     * Getter method of char struct field.
+     *
+     * @param fields The number of char fields in the struct.
+     * @param index  Struct index in the array.
+     * @param field  Field index among all the char fields.
+     * @return Char field value.
+     */
+    protected final char charFieldIndexed(int fields, int index, int field) {
+        return chars[index * fields + field];
+    }
+
+    /**
+     * Setter method of char struct field.
+     *
+     * @param fields The number of char fields in the struct.
+     * @param index  Struct index in the array.
+     * @param field  Field index among all the char fields.
+     * @param value  Value to be set.
+     */
+    protected final void updateCharFieldIndexed(int fields, int index, int field, char value) {
+        chars[index * fields + field] = value;
+    }
+
+    /**
+     * Getter method of boolean struct field.
+     *
+     * @param fields The number of boolean fields in the struct.
+     * @param index  Struct index in the array.
+     * @param field  Field index among all the boolean fields.
+     * @return Boolean field value.
+     */
+    protected final boolean booleanFieldIndexed(int fields, int index, int field) {
+        return booleans[index * fields + field];
+    }
+
+    /**
+     * Setter method of boolean struct field.
+     *
+     * @param fields The number of boolean fields in the struct.
+     * @param index  Struct index in the array.
+     * @param field  Field index among all the boolean fields.
+     * @param value  Value to be set.
+     */
+    protected final void updateBooleanFieldIndexed(int fields, int index, int field,
+                                                   boolean value) {
+        booleans[index * fields + field] = value;
+    }
+
     /**
      * Getter method of Object struct field.
      *
@@ -160,4 +354,192 @@ public abstract class AbstractStruct {
     protected final void updateObjectFieldIndexed(int fields, int index, int field, Object value) {
         objects[index * fields + field] = value;
     }
+
+    /**
+     * Computes the address of a field value in off-heap memory.
+     *
+     * @param region  Offset of the field type region in bytes per unit of capacity.
+     * @param element Element index within the region.
+     * @param scale   Size of the field value in bytes.
+     * @return Memory address.
+     */
+    private long elementAddress(int region, int element, int scale) {
+        return address + (long) capacity * region + (long) element * scale;
+    }
+
+    /**
+     * Reads long struct field from off-heap memory.
+     *
+     * @param region  Offset of the long fields region in bytes per unit of capacity.
+     * @param element Element index within the region.
+     * @return Long field value.
+     */
+    protected final long longFieldMemory(int region, int element) {
+        return Memory.getLong(elementAddress(region, element, Long.BYTES));
+    }
+
+    /**
+     * Writes long struct field to off-heap memory.
+     *
+     * @param region  Offset of the long fields region in bytes per unit of capacity.
+     * @param element Element index within the region.
+     * @param value   Value to be set.
+     */
+    protected final void updateLongFieldMemory(int region, int element, long value) {
+        Memory.putLong(elementAddress(region, element, Long.BYTES), value);
+    }
+
+    /**
+     * Reads double struct field from off-heap memory.
+     *
+     * @param region  Offset of the double fields region in bytes per unit of capacity.
+     * @param element Element index within the region.
+     * @return Double field value.
+     */
+    protected final double doubleFieldMemory(int region, int element) {
+        return Memory.getDouble(elementAddress(region, element, Double.BYTES));
+    }
+
+    /**
+     * Writes double struct field to off-heap memory.
+     *
+     * @param region  Offset of the double fields region in bytes per unit of capacity.
+     * @param element Element index within the region.
+     * @param value   Value to be set.
+     */
+    protected final void updateDoubleFieldMemory(int region, int element, double value) {
+        Memory.putDouble(elementAddress(region, element, Double.BYTES), value);
+    }
+
+    /**
+     * Reads int struct field from off-heap memory.
+     *
+     * @param region  Offset of the int fields region in bytes per unit of capacity.
+     * @param element Element index within the region.
+     * @return Int field value.
+     */
+    protected final int intFieldMemory(int region, int element) {
+        return Memory.getInt(elementAddress(region, element, Integer.BYTES));
+    }
+
+    /**
+     * Writes int struct field to off-heap memory.
+     *
+     * @param region  Offset of the int fields region in bytes per unit of capacity.
+     * @param element Element index within the region.
+     * @param value   Value to be set.
+     */
+    protected final void updateIntFieldMemory(int region, int element, int value) {
+        Memory.putInt(elementAddress(region, element, Integer.BYTES), value);
+    }
+
+    /**
+     * Reads float struct field from off-heap memory.
+     *
+     * @param region  Offset of the float fields region in bytes per unit of capacity.
+     * @param element Element index within the region.
+     * @return Float field value.
+     */
+    protected final float floatFieldMemory(int region, int element) {
+        return Memory.getFloat(elementAddress(region, element, Float.BYTES));
+    }
+
+    /**
+     * Writes float struct field to off-heap memory.
+     *
+     * @param region  Offset of the float fields region in bytes per unit of capacity.
+     * @param element Element index within the region.
+     * @param value   Value to be set.
+     */
+    protected final void updateFloatFieldMemory(int region, int element, float value) {
+        Memory.putFloat(elementAddress(region, element, Float.BYTES), value);
+    }
+
+    /**
+     * Reads short struct field from off-heap memory.
+     *
+     * @param region  Offset of the short fields region in bytes per unit of capacity.
+     * @param element Element index within the region.
+     * @return Short field value.
+     */
+    protected final short shortFieldMemory(int region, int element) {
+        return Memory.getShort(elementAddress(region, element, Short.BYTES));
+    }
+
+    /**
+     * Writes short struct field to off-heap memory.
+     *
+     * @param region  Offset of the short fields region in bytes per unit of capacity.
+     * @param element Element index within the region.
+     * @param value   Value to be set.
+     */
+    protected final void updateShortFieldMemory(int region, int element, short value) {
+        Memory.putShort(elementAddress(region, element, Short.BYTES), value);
+    }
+
+    /**
+     * Reads char struct field from off-heap memory.
+     *
+     * @param region  Offset of the char fields region in bytes per unit of capacity.
+     * @param element Element index within the region.
+     * @return Char field value.
+     */
+    protected final char charFieldMemory(int region, int element) {
+        return Memory.getChar(elementAddress(region, element, Character.BYTES));
+    }
+
+    /**
+     * Writes char struct field to off-heap memory.
+     *
+     * @param region  Offset of the char fields region in bytes per unit of capacity.
+     * @param element Element index within the region.
+     * @param value   Value to be set.
+     */
+    protected final void updateCharFieldMemory(int region, int element, char value) {
+        Memory.putChar(elementAddress(region, element, Character.BYTES), value);
+    }
+
+    /**
+     * Reads byte struct field from off-heap memory.
+     *
+     * @param region  Offset of the byte fields region in bytes per unit of capacity.
+     * @param element Element index within the region.
+     * @return Byte field value.
+     */
+    protected final byte byteFieldMemory(int region, int element) {
+        return Memory.getByte(elementAddress(region, element, Byte.BYTES));
+    }
+
+    /**
+     * Writes byte struct field to off-heap memory.
+     *
+     * @param region  Offset of the byte fields region in bytes per unit of capacity.
+     * @param element Element index within the region.
+     * @param value   Value to be set.
+     */
+    protected final void updateByteFieldMemory(int region, int element, byte value) {
+        Memory.putByte(elementAddress(region, element, Byte.BYTES), value);
+    }
+
+    /**
+     * Reads boolean struct field from off-heap memory.
+     *
+     * @param region  Offset of the boolean fields region in bytes per unit of capacity.
+     * @param element Element index within the region.
+     * @return Boolean field value.
+     */
+    protected final boolean booleanFieldMemory(int region, int element) {
+        return Memory.getBoolean(elementAddress(region, element, Byte.BYTES));
+    }
+
+    /**
+     * Writes boolean struct field to off-heap memory.
+     *
+     * @param region  Offset of the boolean fields region in bytes per unit of capacity.
+     * @param element Element index within the region.
+     * @param value   Value to be set.
+     */
+    protected final void updateBooleanFieldMemory(int region, int element, boolean value) {
+        Memory.putBoolean(elementAddress(region, element, Byte.BYTES), value);
+    }
 }
@@ -41,7 +41,7 @@ public enum AccessorType {
      */
     public boolean isGetter(String name) {
         return this == AccessorType.GETTER
-                || (this == AccessorType.AUTO && name.startsWith("get"));
+                || (this == AccessorType.AUTO && (name.startsWith("get") || name.startsWith("is")));
     }
 
     /**
@@ -24,7 +24,7 @@
 package net.nativestruct;
 
 /**
- * Struct arrays holder.
+ * Struct arrays holder. Primitive arrays are null if the holder keeps them in off-heap memory.
  */
 public interface ArrayHolder {
     /**
@@ -39,18 +39,65 @@ public interface ArrayHolder {
      */
     int[] integers();
 
+    /**
+     * @return An array holding all long fields. Fields are laid out sequentially with respect
+     * to field ordering specified in {@link net.nativestruct.StructField}.
+     */
+    long[] longs();
+
+    /**
+     * @return An array holding all float fields. Fields are laid out sequentially with respect
+     * to field ordering specified in {@link net.nativestruct.StructField}.
+     */
+    float[] floats();
+
     /**
      * @return An array holding all double fields. Fields are laid out sequentially with respect
      * to field ordering specified in {@link net.nativestruct.StructField}.
      */
     double[] doubles();
 
+    /**
+     * @return An array holding all short fields. Fields are laid out sequentially with respect
+     * to field ordering specified in {@link net.nativestruct.StructField}.
+     */
+    short[] shorts();
+
+    /**
+     * @return An array holding all byte fields. Fields are laid out sequentially with respect
+     * to field ordering specified in {@link net.nativestruct.StructField}.
+     */
+    byte[] bytes();
+
+    /**
+     * @return An array holding all char fields. Fields are laid out sequentially with respect
+     * to field ordering specified in {@link net.nativestruct.StructField}.
+     */
+    char[] chars();
+
+    /**
+     * @return An array holding all boolean fields. Fields are laid out sequentially with respect
+     * to field ordering specified in {@link net.nativestruct.StructField}.
+     */
+    boolean[] booleans();
+
     /**
      * @return An array holding all object fields. Fields are laid out sequentially with respect
      * to field ordering specified in {@link net.nativestruct.StructField}.
      */
     Object[] objects();
 
+    /**
+     * @return Allocated vector capacity, i.e. the number of records the storage can hold.
+     */
+    int capacity();
+
+    /**
+     * @return Address of the off-heap memory block holding primitive fields, or 0 if they are
+     *         stored in arrays.
+     */
+    long address();
+
     /**
      * @return An array holding on child struct fields.
      */
@@ -0,0 +1,360 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct;
+
+import net.nativestruct.implementation.field.StorageType;
+import net.nativestruct.implementation.memory.Memory;
+
+/**
+ * Values of a single field of all the records, which are read and written directly in the
+ * vector storage without going through accessors. Record indexes and the field type are
+ * checked on every access. A column becomes stale once the vector storage is reallocated,
+ * e.g. when the vector capacity changes or the vector is closed.
+ */
+public final class Column {
+    private final AbstractHolder holder;
+    private final int generation;
+    private final StorageType storage;
+    private final Object base;
+    private final long origin;
+    private final long pitch;
+
+    /**
+     * Values of object fields are addressed by array indexes rather than memory offsets.
+     *
+     * @param holder Storage holder of the vector.
+     * @param storage Field storage type.
+     * @param base Array holding the values, or null for off-heap memory.
+     * @param origin Offset of the first record value relative to the base.
+     * @param pitch Distance between values of adjacent records in bytes.
+     */
+    Column(AbstractHolder holder, StorageType storage, Object base, long origin, long pitch) {
+        this.holder = holder;
+        this.generation = holder.generation();
+        this.storage = storage;
+        this.base = base;
+        this.origin = origin;
+        this.pitch = pitch;
+    }
+
+    /**
+     * @return Field storage type.
+     */
+    public StorageType storageType() {
+        return storage;
+    }
+
+    /**
+     * @return Whether the vector storage has been reallocated since the column was obtained.
+     */
+    public boolean isStale() {
+        return holder.generation() != generation;
+    }
+
+    /**
+     * @param from The first record index, inclusive.
+     * @param end The last record index, exclusive.
+     * @return Statistics of the values of an int or double field in the range of records.
+     */
+    public ColumnStatistics statistics(int from, int end) {
+        checkValid();
+        if (from < 0 || from > end || end > holder.size()) {
+            throw new IndexOutOfBoundsException("Records [" + from + ", " + end
+                    + ") are out of the vector bounds");
+        }
+        return ColumnKernels.statistics(this, null, from, end);
+    }
+
+    /**
+     * @param rows Record indexes.
+     * @param from The first index in the rows, inclusive.
+     * @param end The last index in the rows, exclusive.
+     * @return Statistics of the values of an int or double field in the selected records.
+     */
+    public ColumnStatistics statistics(int[] rows, int from, int end) {
+        checkValid();
+        if (from < 0 || from > end || end > rows.length) {
+            throw new IndexOutOfBoundsException("Indexes [" + from + ", " + end
+                    + ") are out of the rows bounds");
+        }
+        for (int i = from; i < end; i++) {
+            checkIndex(rows[i]);
+        }
+        return ColumnKernels.statistics(this, rows, from, end);
+    }
+
+    /**
+     * @param index Record index.
+     * @return Value of an int field.
+     */
+    public int getInt(int index) {
+        return Memory.getInt(base, offset(index, StorageType.INT));
+    }
+
+    /**
+     * @param index Record index.
+     * @return Value of a long field.
+     */
+    public long getLong(int index) {
+        return Memory.getLong(base, offset(index, StorageType.LONG));
+    }
+
+    /**
+     * @param index Record index.
+     * @return Value of a float field.
+     */
+    public float getFloat(int index) {
+        return Memory.getFloat(base, offset(index, StorageType.FLOAT));
+    }
+
+    /**
+     * @param index Record index.
+     * @return Value of a double field.
+     */
+    public double getDouble(int index) {
+        return Memory.getDouble(base, offset(index, StorageType.DOUBLE));
+    }
+
+    /**
+     * @param index Record index.
+     * @param value New value of an int field.
+     */
+    public void setInt(int index, int value) {
+        Memory.putInt(base, offset(index, StorageType.INT), value);
+    }
+
+    /**
+     * @param index Record index.
+     * @param value New value of a long field.
+     */
+    public void setLong(int index, long value) {
+        Memory.putLong(base, offset(index, StorageType.LONG), value);
+    }
+
+    /**
+     * @param index Record index.
+     * @param value New value of a float field.
+     */
+    public void setFloat(int index, float value) {
+        Memory.putFloat(base, offset(index, StorageType.FLOAT), value);
+    }
+
+    /**
+     * @param index Record index.
+     * @param value New value of a double field.
+     */
+    public void setDouble(int index, double value) {
+        Memory.putDouble(base, offset(index, StorageType.DOUBLE), value);
+    }
+
+    /**
+     * @param index Record index.
+     * @return Value of a short field.
+     */
+    public short getShort(int index) {
+        return Memory.getShort(base, offset(index, StorageType.SHORT));
+    }
+
+    /**
+     * @param index Record index.
+     * @param value New value of a short field.
+     */
+    public void setShort(int index, short value) {
+        Memory.putShort(base, offset(index, StorageType.SHORT), value);
+    }
+
+    /**
+     * @param index Record index.
+     * @return Value of a byte field.
+     */
+    public byte getByte(int index) {
+        return Memory.getByte(base, offset(index, StorageType.BYTE));
+    }
+
+    /**
+     * @param index Record index.
+     * @param value New value of a byte field.
+     */
+    public void setByte(int index, byte value) {
+        Memory.putByte(base, offset(index, StorageType.BYTE), value);
+    }
+
+    /**
+     * @param index Record index.
+     * @return Value of a char field.
+     */
+    public char getChar(int index) {
+        return Memory.getChar(base, offset(index, StorageType.CHAR));
+    }
+
+    /**
+     * @param index Record index.
+     * @param value New value of a char field.
+     */
+    public void setChar(int index, char value) {
+        Memory.putChar(base, offset(index, StorageType.CHAR), value);
+    }
+
+    /**
+     * @param index Record index.
+     * @return Value of a boolean field.
+     */
+    public boolean getBoolean(int index) {
+        return Memory.getBoolean(base, offset(index, StorageType.BOOLEAN));
+    }
+
+    /**
+     * @param index Record index.
+     * @param value New value of a boolean field.
+     */
+    public void setBoolean(int index, boolean value) {
+        Memory.putBoolean(base, offset(index, StorageType.BOOLEAN), value);
+    }
+
+    /**
+     * @param index Record index.
+     * @return Value of an object field.
+     */
+    public Object getObject(int index) {
+        return ((Object[]) base)[(int) offset(index, StorageType.OBJECT)];
+    }
+
+    /**
+     * @param index Record index.
+     * @param value New value of an object field.
+     */
+    public void setObject(int index, Object value) {
+        ((Object[]) base)[(int) offset(index, StorageType.OBJECT)] = value;
+    }
+
+    /**
+     * Copies the values of an int or long field of the records into the array, the column and
+     * the records are checked once for all the values.
+     *
+     * @param from The first record index, inclusive.
+     * @param end The last record index, exclusive.
+     * @param values Array receiving the values, starting at the array index 0.
+     */
+    public void getLongs(int from, int end, long[] values) {
+        long offset = rangeOffset(from, end, values.length);
+        switch (storage) {
+            case INT:
+                for (int i = 0; i < end - from; i++) {
+                    values[i] = Memory.getInt(base, offset + i * pitch);
+                }
+                break;
+            case LONG:
+                for (int i = 0; i < end - from; i++) {
+                    values[i] = Memory.getLong(base, offset + i * pitch);
+                }
+                break;
+            default:
+                throw new IllegalStateException("Column of " + storage
+                        + " values is accessed as " + StorageType.LONG);
+        }
+    }
+
+    /**
+     * Copies the values of a float or double field of the records into the array, the column
+     * and the records are checked once for all the values.
+     *
+     * @param from The first record index, inclusive.
+     * @param end The last record index, exclusive.
+     * @param values Array receiving the values, starting at the array index 0.
+     */
+    public void getDoubles(int from, int end, double[] values) {
+        long offset = rangeOffset(from, end, values.length);
+        switch (storage) {
+            case FLOAT:
+                for (int i = 0; i < end - from; i++) {
+                    values[i] = Memory.getFloat(base, offset + i * pitch);
+                }
+                break;
+            case DOUBLE:
+                for (int i = 0; i < end - from; i++) {
+                    values[i] = Memory.getDouble(base, offset + i * pitch);
+                }
+                break;
+            default:
+                throw new IllegalStateException("Column of " + storage
+                        + " values is accessed as " + StorageType.DOUBLE);
+        }
+    }
+
+    /**
+     * Reads a value of an int field without checks, the caller validates the records.
+     *
+     * @param index Record index.
+     * @return Value of an int field.
+     */
+    int intAt(int index) {
+        return Memory.getInt(base, origin + index * pitch);
+    }
+
+    /**
+     * Reads a value of a double field without checks, the caller validates the records.
+     *
+     * @param index Record index.
+     * @return Value of a double field.
+     */
+    double doubleAt(int index) {
+        return Memory.getDouble(base, origin + index * pitch);
+    }
+
+    private long offset(int index, StorageType type) {
+        checkValid();
+        if (storage != type) {
+            throw new IllegalStateException("Column of " + storage + " values is accessed as "
+                    + type);
+        }
+        checkIndex(index);
+        return origin + index * pitch;
+    }
+
+    private long rangeOffset(int from, int end, int length) {
+        checkValid();
+        if (from < 0 || from > end || end > holder.size()) {
+            throw new IndexOutOfBoundsException("Records [" + from + ", " + end
+                    + ") are out of the vector bounds");
+        }
+        if (end - from > length) {
+            throw new IndexOutOfBoundsException("Records [" + from + ", " + end
+                    + ") don't fit into " + length + " values");
+        }
+        return origin + from * pitch;
+    }
+
+    private void checkValid() {
+        if (isStale()) {
+            throw new IllegalStateException("The column is stale, the vector storage has been "
+                    + "reallocated");
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= holder.size()) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+    }
+}
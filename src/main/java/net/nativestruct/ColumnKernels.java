@@ -0,0 +1,185 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct;
+
+import net.nativestruct.implementation.field.StorageType;
+
+/**
+ * Aggregates of int and double columns. Loops read the field values directly from the vector
+ * storage and keep several independent accumulators, so that additions of adjacent records
+ * don't wait for each other and the loop body can be unrolled.
+ */
+final class ColumnKernels {
+    private static final int LANES = 4;
+
+    private ColumnKernels() {
+    }
+
+    /**
+     * @param column Int or double column.
+     * @param rows Record indexes, or null for a contiguous range of records.
+     * @param from The first record or index in the rows, inclusive.
+     * @param end The last record or index in the rows, exclusive.
+     * @return Statistics of the column values.
+     */
+    static ColumnStatistics statistics(Column column, int[] rows, int from, int end) {
+        ColumnStatistics result;
+        if (column.storageType() == StorageType.INT) {
+            result = ints(column, rows, from, end);
+        } else if (column.storageType() == StorageType.DOUBLE) {
+            result = doubles(column, rows, from, end);
+        } else {
+            throw new IllegalArgumentException(
+                    "Statistics of " + column.storageType() + " fields aren't supported");
+        }
+        return result;
+    }
+
+    private static ColumnStatistics ints(Column column, int[] rows, int from, int end) {
+        int shift = from < end ? column.intAt(row(rows, from)) : 0;
+        IntLane first = new IntLane(shift);
+        IntLane second = new IntLane(shift);
+        IntLane third = new IntLane(shift);
+        IntLane fourth = new IntLane(shift);
+        int index = from;
+        for (; index <= end - LANES; index += LANES) {
+            first.add(column.intAt(row(rows, index)));
+            second.add(column.intAt(row(rows, index + 1)));
+            third.add(column.intAt(row(rows, index + 2)));
+            fourth.add(column.intAt(row(rows, index + 3)));
+        }
+        for (; index < end; index++) {
+            first.add(column.intAt(row(rows, index)));
+        }
+        return first.merge(second).merge(third).merge(fourth).statistics(end - from);
+    }
+
+    private static ColumnStatistics doubles(Column column, int[] rows, int from, int end) {
+        double shift = from < end ? column.doubleAt(row(rows, from)) : 0;
+        DoubleLane first = new DoubleLane(shift);
+        DoubleLane second = new DoubleLane(shift);
+        DoubleLane third = new DoubleLane(shift);
+        DoubleLane fourth = new DoubleLane(shift);
+        int index = from;
+        for (; index <= end - LANES; index += LANES) {
+            first.add(column.doubleAt(row(rows, index)));
+            second.add(column.doubleAt(row(rows, index + 1)));
+            third.add(column.doubleAt(row(rows, index + 2)));
+            fourth.add(column.doubleAt(row(rows, index + 3)));
+        }
+        for (; index < end; index++) {
+            first.add(column.doubleAt(row(rows, index)));
+        }
+        return first.merge(second).merge(third).merge(fourth).statistics(end - from);
+    }
+
+    /**
+     * @param count The number of values.
+     * @param deviations Sum of the differences of the values from the shift value.
+     * @param squares Sum of the squared differences of the values from the shift value.
+     * @return Population variance, a shift value close to the mean keeps the subtraction
+     *         from cancelling.
+     */
+    private static double variance(int count, double deviations, double squares) {
+        return (squares - deviations * deviations / count) / count;
+    }
+
+    private static int row(int[] rows, int index) {
+        return rows == null ? index : rows[index];
+    }
+
+    /**
+     * Accumulators of int values, the sum is exact.
+     */
+    private static final class IntLane {
+        private final int shift;
+        private long deviations;
+        private double squares;
+        private int min = Integer.MAX_VALUE;
+        private int max = Integer.MIN_VALUE;
+
+        IntLane(int shift) {
+            this.shift = shift;
+        }
+
+        void add(int value) {
+            long deviation = (long) value - shift;
+            deviations += deviation;
+            squares += (double) deviation * deviation;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        IntLane merge(IntLane other) {
+            deviations += other.deviations;
+            squares += other.squares;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+            return this;
+        }
+
+        ColumnStatistics statistics(int count) {
+            return new ColumnStatistics(
+                    count, (long) count * shift + deviations, min, max,
+                    variance(count, deviations, squares));
+        }
+    }
+
+    /**
+     * Accumulators of double values.
+     */
+    private static final class DoubleLane {
+        private final double shift;
+        private double deviations;
+        private double squares;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+
+        DoubleLane(double shift) {
+            this.shift = shift;
+        }
+
+        void add(double value) {
+            double deviation = value - shift;
+            deviations += deviation;
+            squares += deviation * deviation;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        DoubleLane merge(DoubleLane other) {
+            deviations += other.deviations;
+            squares += other.squares;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+            return this;
+        }
+
+        ColumnStatistics statistics(int count) {
+            return new ColumnStatistics(
+                    count, count * shift + deviations, min, max,
+                    variance(count, deviations, squares));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct;
+
+/**
+ * Count, sum, minimum, maximum, mean and population variance of an int or double field over
+ * a set of records. Sums of int fields are exact while they fit double precision.
+ */
+public final class ColumnStatistics {
+    private final int count;
+    private final double sum;
+    private final double min;
+    private final double max;
+    private final double variance;
+
+    /**
+     * @param count The number of values.
+     * @param sum Sum of the values.
+     * @param min Minimum value.
+     * @param max Maximum value.
+     * @param variance Population variance of the values.
+     */
+    ColumnStatistics(int count, double sum, double min, double max, double variance) {
+        this.count = count;
+        this.sum = sum;
+        this.min = count == 0 ? Double.NaN : min;
+        this.max = count == 0 ? Double.NaN : max;
+        this.variance = variance;
+    }
+
+    /**
+     * @return The number of values.
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * @return Sum of the values, zero if there are none.
+     */
+    public double sum() {
+        return sum;
+    }
+
+    /**
+     * @return Minimum value, NaN if there are no values.
+     */
+    public double min() {
+        return min;
+    }
+
+    /**
+     * @return Maximum value, NaN if there are no values.
+     */
+    public double max() {
+        return max;
+    }
+
+    /**
+     * @return Arithmetic mean of the values, NaN if there are no values.
+     */
+    public double mean() {
+        return sum / count;
+    }
+
+    /**
+     * @return Population variance of the values, NaN if there are no values.
+     */
+    public double variance() {
+        return variance;
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnStatistics{count=" + count + ", sum=" + sum + ", min=" + min
+                + ", max=" + max + ", mean=" + mean() + ", variance=" + variance() + '}';
+    }
+}
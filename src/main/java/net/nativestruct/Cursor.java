@@ -0,0 +1,166 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Additional accessor of a struct vector with its own current record. The accessor and its
+ * child struct accessors read and write the vector storage, so several threads may scan the
+ * vector concurrently through their own cursors, as long as the vector isn't modified
+ * meanwhile. A cursor should be used by a single thread at a time.
+ *
+ * @param <T> Struct type.
+ */
+public final class Cursor<T> implements MappedProjection<T> {
+    private final StructVector<T> vector;
+    private final AbstractHolder holder;
+    private final AbstractStruct[] accessors;
+    private final AbstractStruct[] composites;
+    private final T accessor;
+    private int version = -1;
+
+    @SuppressWarnings("unchecked")
+    private Cursor(StructVector<T> vector, AbstractHolder holder, List<AbstractStruct> accessors) {
+        this.vector = vector;
+        this.holder = holder;
+        this.accessors = accessors.toArray(new AbstractStruct[accessors.size()]);
+        this.composites = this.accessors.length > 1
+                ? Arrays.copyOfRange(this.accessors, 1, this.accessors.length) : null;
+        this.accessor = (T) this.accessors[0];
+        sync();
+    }
+
+    /**
+     * @param vector Struct vector.
+     * @param holder Storage of the vector.
+     * @param accessors New accessor followed by its child struct accessors.
+     * @param <T> Struct type.
+     * @return New cursor.
+     */
+    static <T> Cursor<T> of(StructVector<T> vector, AbstractHolder holder,
+                            List<AbstractStruct> accessors) {
+        return new Cursor<>(vector, holder, accessors);
+    }
+
+    /**
+     * @return Struct vector, which records the cursor accesses.
+     */
+    @Override
+    public StructVector<T> source() {
+        return vector;
+    }
+
+    /**
+     * @param index Record index.
+     * @return The same index, cursor records are the vector records.
+     */
+    @Override
+    public int sourceIndex(int index) {
+        return index;
+    }
+
+    @Override
+    public T accessor() {
+        return accessor;
+    }
+
+    @Override
+    public int size() {
+        return holder.size();
+    }
+
+    @Override
+    public int current() {
+        return accessors[0].current();
+    }
+
+    @Override
+    public void current(int index) {
+        if (index < 0 || index >= holder.size()) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        sync();
+        for (AbstractStruct struct : accessors) {
+            struct.current(index);
+        }
+    }
+
+    /**
+     * Positions the cursor at each record of the range in order and calls the action.
+     *
+     * @param from The first record index, inclusive.
+     * @param end The last record index, exclusive.
+     * @param action Action called with the cursor accessor.
+     */
+    void forEach(int from, int end, Consumer<? super T> action) {
+        sync();
+        forEach(accessors, accessor, from, end, action);
+    }
+
+    /**
+     * Advances accessors through the records of the range and calls the action. Child struct
+     * accessors are moved only if the struct has any, so that a flat struct costs a single
+     * store per record, the same as a loop calling current(index) on the accessor.
+     *
+     * @param accessors Accessor followed by its child struct accessors.
+     * @param accessor The first of the accessors passed to the action.
+     * @param from The first record index, inclusive.
+     * @param end The last record index, exclusive.
+     * @param action Action called with the accessor.
+     * @param <T> Struct type.
+     */
+    static <T> void forEach(AbstractStruct[] accessors, T accessor, int from, int end,
+                            Consumer<? super T> action) {
+        AbstractStruct struct = accessors[0];
+        if (accessors.length == 1) {
+            for (int index = from; index < end; index++) {
+                struct.current(index);
+                action.accept(accessor);
+            }
+        } else {
+            for (int index = from; index < end; index++) {
+                for (AbstractStruct child : accessors) {
+                    child.current(index);
+                }
+                action.accept(accessor);
+            }
+        }
+    }
+
+    /**
+     * Copies the storage arrays and the size to the accessors, if they were updated.
+     */
+    private void sync() {
+        if (version != vector.version()) {
+            version = vector.version();
+            for (AbstractStruct struct : accessors) {
+                struct.copyFrom(holder);
+                struct.composites(composites);
+            }
+        }
+    }
+}
@@ -0,0 +1,246 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct;
+
+import net.nativestruct.implementation.field.Field;
+import net.nativestruct.implementation.field.StorageType;
+import net.nativestruct.sorting.SortedProjection;
+
+/**
+ * Range queries over a vector or a projection sorted in ascending order by an int, long,
+ * float, double or comparable object field. Bounds are record indexes of the projection,
+ * ranges of records are returned as {@link RangeProjection} views.
+ *
+ * @param <T> Struct type.
+ */
+public final class FieldRanges<T> {
+    private final StructProjection<T> projection;
+    private final StructVector<T> vector;
+    private final SortedProjection<T> sorted;
+    private final Field field;
+    private final StorageType storage;
+
+    private FieldRanges(StructProjection<T> projection, StructVector<T> vector,
+                        SortedProjection<T> sorted, String name) {
+        this.projection = projection;
+        this.vector = vector;
+        this.sorted = sorted;
+        this.field = vector.field(name);
+        if (field == null) {
+            throw new IllegalArgumentException("Unknown field: " + name);
+        }
+        this.storage = field.storageType();
+    }
+
+    /**
+     * @param vector Vector sorted by the field.
+     * @param name Field name.
+     * @param <T> Struct type.
+     * @return Range queries over the vector.
+     */
+    public static <T> FieldRanges<T> of(StructVector<T> vector, String name) {
+        return new FieldRanges<>(vector, vector, null, name);
+    }
+
+    /**
+     * @param projection Projection sorted by the field.
+     * @param name Field name.
+     * @param <T> Struct type.
+     * @return Range queries over the projection.
+     */
+    public static <T> FieldRanges<T> of(SortedProjection<T> projection, String name) {
+        return new FieldRanges<>(projection, projection.vector(), projection, name);
+    }
+
+    /**
+     * @param value Value of an int or long field.
+     * @return Index of the first record, which key isn't less than the value, or the size.
+     */
+    public int lowerBound(long value) {
+        return bound(value, false);
+    }
+
+    /**
+     * @param value Value of a float or double field.
+     * @return Index of the first record, which key isn't less than the value, or the size.
+     */
+    public int lowerBound(double value) {
+        return bound(value, false);
+    }
+
+    /**
+     * @param value Value of an object field.
+     * @return Index of the first record, which key isn't less than the value, or the size.
+     */
+    public int lowerBound(Comparable<?> value) {
+        return bound(value, false);
+    }
+
+    /**
+     * @param value Value of an int or long field.
+     * @return Index of the first record, which key is greater than the value, or the size.
+     */
+    public int upperBound(long value) {
+        return bound(value, true);
+    }
+
+    /**
+     * @param value Value of a float or double field.
+     * @return Index of the first record, which key is greater than the value, or the size.
+     */
+    public int upperBound(double value) {
+        return bound(value, true);
+    }
+
+    /**
+     * @param value Value of an object field.
+     * @return Index of the first record, which key is greater than the value, or the size.
+     */
+    public int upperBound(Comparable<?> value) {
+        return bound(value, true);
+    }
+
+    /**
+     * @param value Value of an int or long field.
+     * @return Records, which keys are equal to the value.
+     */
+    public RangeProjection<T> equalRange(long value) {
+        return range(bound(value, false), bound(value, true));
+    }
+
+    /**
+     * @param value Value of a float or double field.
+     * @return Records, which keys are equal to the value.
+     */
+    public RangeProjection<T> equalRange(double value) {
+        return range(bound(value, false), bound(value, true));
+    }
+
+    /**
+     * @param value Value of an object field.
+     * @return Records, which keys are equal to the value.
+     */
+    public RangeProjection<T> equalRange(Comparable<?> value) {
+        return range(bound(value, false), bound(value, true));
+    }
+
+    /**
+     * @param from Inclusive lower value of an int or long field.
+     * @param end Exclusive upper value.
+     * @return Records, which keys are in the half-open interval.
+     */
+    public RangeProjection<T> between(long from, long end) {
+        return range(bound(from, false), bound(end, false));
+    }
+
+    /**
+     * @param from Inclusive lower value of a float or double field.
+     * @param end Exclusive upper value.
+     * @return Records, which keys are in the half-open interval.
+     */
+    public RangeProjection<T> between(double from, double end) {
+        return range(bound(from, false), bound(end, false));
+    }
+
+    /**
+     * @param from Inclusive lower value of an object field.
+     * @param end Exclusive upper value.
+     * @return Records, which keys are in the half-open interval.
+     */
+    public RangeProjection<T> between(Comparable<?> from, Comparable<?> end) {
+        return range(bound(from, false), bound(end, false));
+    }
+
+    private RangeProjection<T> range(int from, int end) {
+        return new RangeProjection<>(projection, from, Math.max(from, end));
+    }
+
+    private int bound(long value, boolean upper) {
+        check(storage == StorageType.INT || storage == StorageType.LONG);
+        Column column = vector.column(field);
+        boolean ints = storage == StorageType.INT;
+        int low = 0;
+        int high = projection.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int row = row(middle);
+            long key = ints ? column.getInt(row) : column.getLong(row);
+            if (key < value || upper && key == value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int bound(double value, boolean upper) {
+        check(storage == StorageType.FLOAT || storage == StorageType.DOUBLE);
+        Column column = vector.column(field);
+        boolean floats = storage == StorageType.FLOAT;
+        int low = 0;
+        int high = projection.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int row = row(middle);
+            int comparison = Double.compare(
+                    floats ? column.getFloat(row) : column.getDouble(row), value);
+            if (comparison < 0 || upper && comparison == 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int bound(Comparable<?> value, boolean upper) {
+        check(storage == StorageType.OBJECT);
+        Comparable<Object> comparable = (Comparable<Object>) value;
+        Column column = vector.column(field);
+        int low = 0;
+        int high = projection.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int comparison = comparable.compareTo(column.getObject(row(middle)));
+            if (comparison > 0 || upper && comparison == 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int row(int index) {
+        return sorted == null ? index : sorted.sourceIndex(index);
+    }
+
+    private void check(boolean matches) {
+        if (!matches) {
+            throw new IllegalArgumentException("Key type doesn't match field " + field.name());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * The projection of the records of another projection, which match a predicate. The predicate
+ * is evaluated once and the indexes of the matching records are kept in a selection vector,
+ * the records aren't copied. Filtering a filtered projection scans only its selected records.
+ *
+ * @param <T> Type of the accessor.
+ */
+public final class FilteredProjection<T> implements MappedProjection<T> {
+    private final StructProjection<T> projection;
+    private final int[] rows;
+
+    private int current = -1;
+
+    private FilteredProjection(StructProjection<T> projection, int[] rows) {
+        this.projection = projection;
+        this.rows = rows;
+    }
+
+    /**
+     * Selects the records, which match the predicate. The predicate is tested on the
+     * accessor of the underlying projection, which is moved to every record.
+     *
+     * @param projection Underlying vector or projection.
+     * @param predicate Record predicate.
+     * @param <T> Type of the accessor.
+     * @return Filtered projection.
+     */
+    public static <T> FilteredProjection<T> of(StructProjection<T> projection,
+                                               Predicate<? super T> predicate) {
+        int[] rows = new int[Math.min(projection.size(), 16)];
+        int size = 0;
+        T accessor = projection.accessor();
+        for (int index = 0; index < projection.size(); index++) {
+            projection.current(index);
+            if (predicate.test(accessor)) {
+                if (size == rows.length) {
+                    rows = Arrays.copyOf(rows, Math.min(size * 2, projection.size()));
+                }
+                rows[size++] = index;
+            }
+        }
+        return new FilteredProjection<>(projection, Arrays.copyOf(rows, size));
+    }
+
+    /**
+     * Selects the records of this projection, which match the predicate.
+     *
+     * @param predicate Record predicate.
+     * @return Filtered projection over this one.
+     */
+    public FilteredProjection<T> filter(Predicate<? super T> predicate) {
+        return of(this, predicate);
+    }
+
+    /**
+     * Transforms the filtered record index into the index of the underlying projection.
+     *
+     * @param index Record index for the filtered projection.
+     * @return Record index for the underlying projection.
+     */
+    @Override
+    public int sourceIndex(int index) {
+        if (index < 0 || index >= rows.length) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        return rows[index];
+    }
+
+    /**
+     * Aggregates the field values of the selected records without moving the accessor. The
+     * selection is resolved to the vector rows through the source indexes of the underlying
+     * projections.
+     *
+     * @param name Name of an int or double field.
+     * @return Statistics of the field values of the selected records.
+     */
+    public ColumnStatistics statistics(String name) {
+        return ProjectionRows.statistics(projection, rows.clone(), name);
+    }
+
+    @Override
+    public StructProjection<T> source() {
+        return projection;
+    }
+
+    @Override
+    public T accessor() {
+        return projection.accessor();
+    }
+
+    @Override
+    public int size() {
+        return rows.length;
+    }
+
+    @Override
+    public int current() {
+        return current;
+    }
+
+    @Override
+    public void current(int index) {
+        projection.current(sourceIndex(index));
+        this.current = index;
+    }
+}
@@ -0,0 +1,255 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import net.nativestruct.implementation.field.Field;
+import net.nativestruct.implementation.field.StorageType;
+import net.nativestruct.implementation.hash.RowTable;
+
+/**
+ * Secondary hash index mapping values of an int, long or object field to record indexes,
+ * several records may have the same key. The index is an open addressing table of record
+ * indexes, keys are read from the vector, so primitive keys are never boxed.
+ *
+ * <p>The vector keeps its indexes up to date: records appended at the end are indexed lazily
+ * by the next lookup, so their keys may be assigned through the accessor after insertion;
+ * records copied with {@link StructVector#updateFrom(int, StructVector, int)} are reindexed;
+ * insertion in the middle, shrinking and sorting rebuild the index on the next lookup.
+ * Changing the key of an already indexed record through the accessor requires
+ * {@link #rebuild()}. Lookups update the index, so they aren't thread safe.</p>
+ */
+public final class HashIndex {
+    private final StructVector<?> vector;
+    private final Field field;
+    private final StorageType storage;
+    private Column column;
+    private RowTable table = new RowTable(0);
+    private int indexed;
+    private boolean stale;
+
+    /**
+     * @param vector Indexed vector.
+     * @param field Int, long or object key field.
+     */
+    private HashIndex(StructVector<?> vector, Field field) {
+        this.vector = vector;
+        this.field = field;
+        this.storage = field.storageType();
+        if (storage != StorageType.INT && storage != StorageType.LONG
+                && storage != StorageType.OBJECT) {
+            throw new IllegalArgumentException("Field can't be indexed: " + field.name());
+        }
+    }
+
+    /**
+     * @param vector Indexed vector.
+     * @param name Name of int, long or object key field.
+     * @return New index, which is populated by the first lookup.
+     */
+    static HashIndex of(StructVector<?> vector, String name) {
+        Field field = vector.field(name);
+        if (field == null) {
+            throw new IllegalArgumentException("Unknown field: " + name);
+        }
+        return new HashIndex(vector, field);
+    }
+
+    /**
+     * @return Indexed field.
+     */
+    public Field field() {
+        return field;
+    }
+
+    /**
+     * @param key Value of an int or long field.
+     * @return Index of a record with the key, or -1 if there is none.
+     */
+    public int find(long key) {
+        checkPrimitive(true);
+        sync();
+        int hash = RowTable.mix(key);
+        int slot = next(table.home(hash), hash, key, null);
+        return slot < 0 ? -1 : table.row(slot);
+    }
+
+    /**
+     * @param key Value of an object field, which may be null.
+     * @return Index of a record with the key, or -1 if there is none.
+     */
+    public int find(Object key) {
+        checkPrimitive(false);
+        sync();
+        int hash = RowTable.mix(Objects.hashCode(key));
+        int slot = next(table.home(hash), hash, 0, key);
+        return slot < 0 ? -1 : table.row(slot);
+    }
+
+    /**
+     * @param key Value of an int or long field.
+     * @return Indexes of all records with the key, in no particular order.
+     */
+    public int[] findAll(long key) {
+        checkPrimitive(true);
+        sync();
+        return collect(RowTable.mix(key), key, null);
+    }
+
+    /**
+     * @param key Value of an object field, which may be null.
+     * @return Indexes of all records with the key, in no particular order.
+     */
+    public int[] findAll(Object key) {
+        checkPrimitive(false);
+        sync();
+        return collect(RowTable.mix(Objects.hashCode(key)), 0, key);
+    }
+
+    /**
+     * Rebuilds the index, e.g. after keys of indexed records were changed through the accessor.
+     */
+    public void rebuild() {
+        stale = true;
+        sync();
+    }
+
+    /**
+     * Notifies that the vector storage was reallocated.
+     */
+    void reallocated() {
+        column = null;
+    }
+
+    /**
+     * Notifies that records were moved, so the index should be rebuilt.
+     */
+    void invalidate() {
+        stale = true;
+    }
+
+    /**
+     * Notifies that the key of the record is about to change.
+     *
+     * @param row Record index.
+     */
+    void updating(int row) {
+        if (!stale && row < indexed) {
+            attach();
+            table.remove(hash(row), row);
+        }
+    }
+
+    /**
+     * Notifies that the key of the record was changed.
+     *
+     * @param row Record index.
+     */
+    void updated(int row) {
+        if (!stale && row < indexed) {
+            attach();
+            table.add(hash(row), row);
+        }
+    }
+
+    private void checkPrimitive(boolean primitive) {
+        if (storage.isPrimitive() != primitive) {
+            throw new IllegalArgumentException("Key type doesn't match field " + field.name());
+        }
+    }
+
+    private void attach() {
+        if (column == null) {
+            column = vector.column(field);
+        }
+    }
+
+    private void sync() {
+        attach();
+        if (stale || indexed > vector.size()) {
+            table = new RowTable(vector.size());
+            indexed = 0;
+            stale = false;
+        }
+        while (indexed < vector.size()) {
+            table.add(hash(indexed), indexed);
+            indexed++;
+        }
+    }
+
+    private int[] collect(int hash, long bits, Object key) {
+        int[] result = new int[1];
+        int size = 0;
+        for (int slot = next(table.home(hash), hash, bits, key); slot >= 0;
+                slot = next(table.next(slot), hash, bits, key)) {
+            if (size == result.length) {
+                result = Arrays.copyOf(result, size * 2);
+            }
+            result[size++] = table.row(slot);
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * @param from The first slot to check.
+     * @param hash Hash of the key.
+     * @param bits Primitive key.
+     * @param key Object key.
+     * @return The first slot at or after the given one holding a record with the key, or -1.
+     */
+    private int next(int from, int hash, long bits, Object key) {
+        for (int slot = from; !table.isEmpty(slot); slot = table.next(slot)) {
+            if (table.hash(slot) == hash && matches(table.row(slot), bits, key)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private boolean matches(int row, long bits, Object key) {
+        boolean result;
+        if (storage == StorageType.OBJECT) {
+            result = Objects.equals(column.getObject(row), key);
+        } else {
+            result = bits(row) == bits;
+        }
+        return result;
+    }
+
+    private long bits(int row) {
+        return storage == StorageType.INT ? column.getInt(row) : column.getLong(row);
+    }
+
+    private int hash(int row) {
+        int hash;
+        if (storage == StorageType.OBJECT) {
+            hash = RowTable.mix(Objects.hashCode(column.getObject(row)));
+        } else {
+            hash = RowTable.mix(bits(row));
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hash indexes of a vector, which are notified about its modifications.
+ */
+final class HashIndexes {
+    private final List<HashIndex> indexes = new ArrayList<>();
+
+    private HashIndexes() {
+    }
+
+    /**
+     * @return New empty list of indexes.
+     */
+    static HashIndexes empty() {
+        return new HashIndexes();
+    }
+
+    /**
+     * @param index Index to be maintained.
+     * @return The index.
+     */
+    HashIndex add(HashIndex index) {
+        indexes.add(index);
+        return index;
+    }
+
+    /**
+     * @param index Index to be no longer maintained.
+     */
+    void remove(HashIndex index) {
+        indexes.remove(index);
+    }
+
+    /**
+     * Storage of the vector was reallocated.
+     */
+    void reallocated() {
+        for (HashIndex index : indexes) {
+            index.reallocated();
+        }
+    }
+
+    /**
+     * Records of the vector were moved or removed.
+     */
+    void invalidate() {
+        for (HashIndex index : indexes) {
+            index.invalidate();
+        }
+    }
+
+    /**
+     * @param row Record which is going to be overwritten.
+     */
+    void updating(int row) {
+        for (HashIndex index : indexes) {
+            index.updating(row);
+        }
+    }
+
+    /**
+     * @param row Record which was overwritten.
+     */
+    void updated(int row) {
+        for (HashIndex index : indexes) {
+            index.updated(row);
+        }
+    }
+}
@@ -0,0 +1,422 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import net.nativestruct.implementation.field.Field;
+import net.nativestruct.implementation.field.FieldRun;
+import net.nativestruct.implementation.field.Fields;
+import net.nativestruct.implementation.field.StorageType;
+import net.nativestruct.implementation.memory.Memory;
+import net.nativestruct.sorting.AbstractSortedSubstitution;
+import net.nativestruct.sorting.SortedSubstitution;
+
+/**
+ * Holds struct fields in typed Java arrays, one array per storage type.
+ */
+public final class HeapHolder extends AbstractHolder {
+    private static final StorageType[] STORAGES = StorageType.values();
+
+    private static final Map<StorageType, SubstitutionFactory<?>> SUBSTITUTIONS =
+            substitutions();
+
+    private static final long[] OFFSETS = offsets();
+
+    private final Object[]      arrays;
+    private final Object[]      scratch;
+
+    /**
+     * Construct internal arrays holder.
+     *
+     * @param fields Fields description.
+     * @param accessors A list of fields accessors.
+     */
+    public HeapHolder(Fields fields, List<AbstractStruct> accessors) {
+        super(fields, accessors);
+        this.arrays = new Object[STORAGES.length];
+        this.scratch = new Object[STORAGES.length];
+        for (StorageType storage : STORAGES) {
+            scratch[storage.ordinal()] = storage.newArray(width(storage));
+        }
+    }
+
+    private static Map<StorageType, SubstitutionFactory<?>> substitutions() {
+        Map<StorageType, SubstitutionFactory<?>> map = new EnumMap<>(StorageType.class);
+        map.put(StorageType.INT, (SubstitutionFactory<int[]>)
+                AbstractSortedSubstitution.Integers::new);
+        map.put(StorageType.LONG, (SubstitutionFactory<long[]>)
+                AbstractSortedSubstitution.Longs::new);
+        map.put(StorageType.FLOAT, (SubstitutionFactory<float[]>)
+                AbstractSortedSubstitution.Floats::new);
+        map.put(StorageType.DOUBLE, (SubstitutionFactory<double[]>)
+                AbstractSortedSubstitution.Doubles::new);
+        map.put(StorageType.SHORT, (SubstitutionFactory<short[]>)
+                AbstractSortedSubstitution.Shorts::new);
+        map.put(StorageType.BYTE, (SubstitutionFactory<byte[]>)
+                AbstractSortedSubstitution.Bytes::new);
+        map.put(StorageType.CHAR, (SubstitutionFactory<char[]>)
+                AbstractSortedSubstitution.Chars::new);
+        map.put(StorageType.BOOLEAN, (SubstitutionFactory<boolean[]>)
+                AbstractSortedSubstitution.Booleans::new);
+        return map;
+    }
+
+    private static long[] offsets() {
+        long[] offsets = new long[STORAGES.length];
+        for (StorageType storage : STORAGES) {
+            offsets[storage.ordinal()] = Memory.arrayOffset(storage.newArray(0).getClass());
+        }
+        return offsets;
+    }
+
+    @Override
+    protected void allocate(int newCapacity) {
+        for (StorageType storage : STORAGES) {
+            int width = width(storage);
+            if (width > 0) {
+                Object array = storage.newArray(newCapacity * width);
+                Object previous = arrays[storage.ordinal()];
+                if (previous != null) {
+                    copyRuns(storage, previous, array, newCapacity);
+                }
+                arrays[storage.ordinal()] = array;
+            }
+        }
+    }
+
+    private void copyRuns(StorageType storage, Object previous, Object array, int newCapacity) {
+        for (FieldRun run : runs(storage)) {
+            System.arraycopy(previous, runStart(run, capacity()),
+                    array, runStart(run, newCapacity), size() * run.width());
+        }
+    }
+
+    @Override
+    protected void release() {
+        for (StorageType storage : STORAGES) {
+            arrays[storage.ordinal()] = null;
+        }
+    }
+
+    @Override
+    protected void moveElements(StorageType storage, int source, int target, int length) {
+        Object array = arrays[storage.ordinal()];
+        System.arraycopy(array, source, array, target, length);
+    }
+
+    @Override
+    protected void clearElements(StorageType storage, int from, int end) {
+        storage.clear(arrays[storage.ordinal()], from, end);
+    }
+
+    @Override
+    protected void swapElements(StorageType storage, int first, int second, int length) {
+        Object array = arrays[storage.ordinal()];
+        Object temp = scratch[storage.ordinal()];
+        System.arraycopy(array, first, temp, 0, length);
+        System.arraycopy(array, second, array, first, length);
+        System.arraycopy(temp, 0, array, second, length);
+    }
+
+    @Override
+    protected Object memoryBase(StorageType storage) {
+        return arrays[storage.ordinal()];
+    }
+
+    @Override
+    protected long memoryOffset(StorageType storage, int element) {
+        return OFFSETS[storage.ordinal()] + (long) element * storage.bytes();
+    }
+
+    @Override
+    public long address() {
+        return 0;
+    }
+
+    @Override
+    public int[] integers() {
+        return (int[]) arrays[StorageType.INT.ordinal()];
+    }
+
+    @Override
+    public long[] longs() {
+        return (long[]) arrays[StorageType.LONG.ordinal()];
+    }
+
+    @Override
+    public float[] floats() {
+        return (float[]) arrays[StorageType.FLOAT.ordinal()];
+    }
+
+    @Override
+    public double[] doubles() {
+        return (double[]) arrays[StorageType.DOUBLE.ordinal()];
+    }
+
+    @Override
+    public short[] shorts() {
+        return (short[]) arrays[StorageType.SHORT.ordinal()];
+    }
+
+    @Override
+    public byte[] bytes() {
+        return (byte[]) arrays[StorageType.BYTE.ordinal()];
+    }
+
+    @Override
+    public char[] chars() {
+        return (char[]) arrays[StorageType.CHAR.ordinal()];
+    }
+
+    @Override
+    public boolean[] booleans() {
+        return (boolean[]) arrays[StorageType.BOOLEAN.ordinal()];
+    }
+
+    @Override
+    public Object[] objects() {
+        return (Object[]) arrays[StorageType.OBJECT.ordinal()];
+    }
+
+    @Override
+    int binarySearch(int stride, int offset, int value) {
+        int[] array = integers();
+        int low = 0;
+        int high = size() - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int middleValue = array[middle * stride + offset];
+
+            if (middleValue < value) {
+                low = middle + 1;
+            } else if (middleValue > value) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    @Override
+    int binarySearch(int stride, int offset, long value) {
+        long[] array = longs();
+        int low = 0;
+        int high = size() - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long middleValue = array[middle * stride + offset];
+
+            if (middleValue < value) {
+                low = middle + 1;
+            } else if (middleValue > value) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    @Override
+    int binarySearch(int stride, int offset, float value) {
+        float[] array = floats();
+        int low = 0;
+        int high = size() - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            float middleValue = array[middle * stride + offset];
+
+            if (middleValue < value) {
+                low = middle + 1;
+            } else if (middleValue > value) {
+                high = middle - 1;
+            } else {
+                int middleBits = Float.floatToIntBits(middleValue);
+                int valueBits = Float.floatToIntBits(value);
+                if (middleBits == valueBits) {
+                    return middle;
+                } else if (middleBits < valueBits) {
+                    // (-0.0, 0.0) or (!NaN, NaN)
+                    low = middle + 1;
+                } else {
+                    // (0.0, -0.0) or (NaN, !NaN)
+                    high = middle - 1;
+                }
+            }
+        }
+        return -(low + 1);
+    }
+
+    @Override
+    int binarySearch(int stride, int offset, double value) {
+        double[] array = doubles();
+        int low = 0;
+        int high = size() - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            double middleValue = array[middle * stride + offset];
+
+            if (middleValue < value) {
+                low = middle + 1;
+            } else if (middleValue > value) {
+                high = middle - 1;
+            } else {
+                long middleBits = Double.doubleToLongBits(middleValue);
+                long valueBits = Double.doubleToLongBits(value);
+                if (middleBits == valueBits) {
+                    return middle;
+                } else if (middleBits < valueBits) {
+                    // (-0.0, 0.0) or (!NaN, NaN)
+                    low = middle + 1;
+                } else {
+                    // (0.0, -0.0) or (NaN, !NaN)
+                    high = middle - 1;
+                }
+            }
+        }
+        return -(low + 1);
+    }
+
+    @Override
+    int binarySearch(int stride, int offset, short value) {
+        short[] array = shorts();
+        int low = 0;
+        int high = size() - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            short middleValue = array[middle * stride + offset];
+
+            if (middleValue < value) {
+                low = middle + 1;
+            } else if (middleValue > value) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    @Override
+    int binarySearch(int stride, int offset, byte value) {
+        byte[] array = bytes();
+        int low = 0;
+        int high = size() - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            byte middleValue = array[middle * stride + offset];
+
+            if (middleValue < value) {
+                low = middle + 1;
+            } else if (middleValue > value) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    @Override
+    int binarySearch(int stride, int offset, char value) {
+        char[] array = chars();
+        int low = 0;
+        int high = size() - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char middleValue = array[middle * stride + offset];
+
+            if (middleValue < value) {
+                low = middle + 1;
+            } else if (middleValue > value) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    @Override
+    int binarySearch(int stride, int offset, boolean value) {
+        boolean[] array = booleans();
+        int low = 0;
+        int high = size() - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = Boolean.compare(array[middle * stride + offset], value);
+
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    @Override
+    SortedSubstitution sortedSubstitution(Field field) {
+        StorageType storage = field.storageType();
+        @SuppressWarnings("unchecked")
+        SubstitutionFactory<Object> factory =
+                (SubstitutionFactory<Object>) SUBSTITUTIONS.get(storage);
+        if (factory == null) {
+            throw new IllegalArgumentException("Sorting is not supported for field " + field);
+        }
+        return factory.create(arrays[storage.ordinal()], size(),
+                stride(field), offset(field));
+    }
+
+    /**
+     * Creates sorted substitution over a typed field array.
+     *
+     * @param <A> Array type.
+     */
+    @FunctionalInterface
+    private interface SubstitutionFactory<A> {
+        /**
+         * @param array Typed field array.
+         * @param size Struct vector size.
+         * @param width Distance between the field values of adjacent records.
+         * @param field Position of the field value of the first record.
+         * @return SortedSubstitution instance.
+         */
+        SortedSubstitution create(A array, int size, int width, int field);
+    }
+}
@@ -0,0 +1,46 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct;
+
+/**
+ * Specifies how struct vector arranges the values of fields sharing the same storage type.
+ */
+public enum Layout {
+    /**
+     * Field values of a record are adjacent, i.e. a value is located at
+     * {@code record * fields + field}. Reading a whole record touches a single cache line.
+     * Fields may be split into groups laid out separately, see {@link StructField#group()}.
+     */
+    ROWS,
+
+    /**
+     * Every field has its own contiguous column, i.e. a value is located at
+     * {@code field * capacity + record}. Scanning a single field of many records reads only
+     * the values of that field. Field groups are ignored. Since the column offset depends on
+     * the vector capacity, accessors of columnar structs always access field arrays directly,
+     * as if {@link AccessorMode#ARRAY_ACCESS} mode was specified. The same applies to structs
+     * with field groups.
+     */
+    COLUMNS
+}
@@ -0,0 +1,153 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import net.nativestruct.implementation.field.FieldRun;
+import net.nativestruct.implementation.field.Fields;
+import net.nativestruct.implementation.field.StorageType;
+import net.nativestruct.implementation.memory.Memory;
+
+/**
+ * Holds primitive struct fields in a memory mapped file. The file starts with a header,
+ * followed by the same regions {@link OffHeapHolder} keeps in native memory, so the records
+ * written by one process can be mapped back by another one without any parsing.
+ */
+public final class MappedHolder extends AbstractMemoryHolder {
+    private static final int HEADER = 64;
+    private static final long MAGIC = 0x4e53545255435431L;
+    private static final int LAYOUT_OFFSET = 8;
+    private static final int SIZE_OFFSET = 12;
+    private static final int CAPACITY_OFFSET = 16;
+
+    private final FileChannel       channel;
+    private MappedByteBuffer        buffer;
+    private long                    header;
+
+    /**
+     * Construct memory mapped file holder. Records stored in a non-empty file are attached.
+     *
+     * @param fields Fields description.
+     * @param accessors A list of fields accessors.
+     * @param channel Channel of the file, opened for reading and writing.
+     */
+    public MappedHolder(Fields fields, List<AbstractStruct> accessors, FileChannel channel) {
+        super(fields, accessors);
+        if (width(StorageType.OBJECT) > 0) {
+            throw new IllegalArgumentException("Object fields can't be mapped to a file");
+        }
+        this.channel = channel;
+        try {
+            if (channel.size() > 0) {
+                attach();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Creates holders of the vectors stored in the given file.
+     *
+     * @param channel Channel of the file, opened for reading and writing.
+     * @return Holder factory.
+     */
+    static BiFunction<Fields, List<AbstractStruct>, AbstractHolder> of(FileChannel channel) {
+        return (fields, accessors) -> new MappedHolder(fields, accessors, channel);
+    }
+
+    private static int layoutOf(Fields fields) {
+        int layout = 1;
+        for (StorageType storage : StorageType.values()) {
+            for (FieldRun run : fields.runsOf(storage)) {
+                layout = 31 * layout + run.width();
+            }
+            layout = 31 * layout;
+        }
+        return layout;
+    }
+
+    private void attach() throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(HEADER).order(ByteOrder.nativeOrder());
+        channel.read(bytes, 0);
+        if (bytes.getLong(0) != MAGIC || bytes.getInt(LAYOUT_OFFSET) != layoutOf(fields())) {
+            throw new IllegalArgumentException("The file doesn't hold a vector of this struct");
+        }
+        int size = bytes.getInt(SIZE_OFFSET);
+        int capacity = bytes.getInt(CAPACITY_OFFSET);
+        if (size < 0 || size > capacity
+                || HEADER + (long) capacity * fields().memoryBytes() > channel.size()) {
+            throw new IllegalArgumentException("The file header is corrupted");
+        }
+        attach(size, capacity);
+    }
+
+    @Override
+    protected long expand(int newCapacity, long bytes) {
+        MappedByteBuffer previous = buffer;
+        try {
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER + bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (previous != null) {
+            Memory.unmap(previous);
+        }
+        this.header = Memory.address(buffer);
+        Memory.putLong(header, MAGIC);
+        Memory.putInt(header + LAYOUT_OFFSET, layoutOf(fields()));
+        Memory.putInt(header + CAPACITY_OFFSET, newCapacity);
+        return header + HEADER;
+    }
+
+    @Override
+    protected void sizeChanged() {
+        if (buffer != null) {
+            Memory.putInt(header + SIZE_OFFSET, size());
+        }
+    }
+
+    @Override
+    protected void releaseMemory() {
+        if (buffer != null) {
+            buffer.force();
+            Memory.unmap(buffer);
+            this.buffer = null;
+            this.header = 0;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
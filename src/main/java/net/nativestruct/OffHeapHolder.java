@@ -0,0 +1,54 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct;
+
+import java.util.List;
+
+import net.nativestruct.implementation.field.Fields;
+import net.nativestruct.implementation.memory.Memory;
+
+/**
+ * Holds primitive struct fields in a block of native memory allocated outside of the Java heap.
+ */
+public final class OffHeapHolder extends AbstractMemoryHolder {
+    /**
+     * Construct off-heap memory holder.
+     *
+     * @param fields Fields description.
+     * @param accessors A list of fields accessors.
+     */
+    public OffHeapHolder(Fields fields, List<AbstractStruct> accessors) {
+        super(fields, accessors);
+    }
+
+    @Override
+    protected long expand(int newCapacity, long bytes) {
+        return Memory.reallocate(address(), bytes);
+    }
+
+    @Override
+    protected void releaseMemory() {
+        Memory.free(address());
+    }
+}
@@ -0,0 +1,164 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Specifies how a bulk operation over struct vector records may be split between the threads of
+ * a fork/join pool. Ranges not bigger than the threshold are processed by a single task.
+ */
+public final class Parallelism {
+    /**
+     * Processes the whole range in the calling thread.
+     */
+    public static final Parallelism SEQUENTIAL = new Parallelism(null, Integer.MAX_VALUE);
+
+    private static final int DEFAULT_THRESHOLD = 16_384;
+    // Bytes of records processed by a single task, which fit into the L2 cache of a core.
+    private static final int CACHE_BYTES = 262_144;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    /**
+     * Construct instance.
+     *
+     * @param pool Pool running the tasks.
+     * @param threshold Size of a range, below which it's not split any further.
+     */
+    public Parallelism(ForkJoinPool pool, int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Threshold should be positive: " + threshold);
+        }
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * @return Instance using the common pool and the default threshold.
+     */
+    public static Parallelism common() {
+        return new Parallelism(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * @param pool Pool running the tasks.
+     * @return Instance using the given pool and the default threshold.
+     */
+    public static Parallelism of(ForkJoinPool pool) {
+        return new Parallelism(pool, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * @return Pool running the tasks, null for sequential processing.
+     */
+    public ForkJoinPool pool() {
+        return pool;
+    }
+
+    /**
+     * @return Size of a range, below which it's not split any further.
+     */
+    public int threshold() {
+        return threshold;
+    }
+
+    /**
+     * Limits ranges to the records, which fit into the cache of a core, so that a task touches
+     * its records while they are still cached. Sequential processing isn't affected.
+     *
+     * @param recordBytes Size of a record in bytes.
+     * @return Instance using the same pool with the threshold not exceeding the cache size.
+     */
+    public Parallelism cacheSized(int recordBytes) {
+        int records = Math.max(1, CACHE_BYTES / Math.max(1, recordBytes));
+        return pool == null || threshold <= records ? this : new Parallelism(pool, records);
+    }
+
+    /**
+     * @param count Size of a range.
+     * @return True if the range should be split between several tasks.
+     */
+    public boolean splits(int count) {
+        return pool != null && count > threshold;
+    }
+
+    /**
+     * Processes a range of records, splitting it into independent sub-ranges processed by
+     * separate tasks. Returns when all the sub-ranges are processed.
+     *
+     * @param from The first record index, inclusive.
+     * @param end Index after the last record.
+     * @param consumer Processes a sub-range.
+     */
+    public void forEachRange(int from, int end, RangeConsumer consumer) {
+        if (splits(end - from)) {
+            pool.invoke(new RangeTask(from, end, consumer));
+        } else {
+            consumer.accept(from, end);
+        }
+    }
+
+    /**
+     * Processes a range of records.
+     */
+    @FunctionalInterface
+    public interface RangeConsumer {
+        /**
+         * @param from The first record index, inclusive.
+         * @param end Index after the last record.
+         */
+        void accept(int from, int end);
+    }
+
+    /**
+     * Splits a range in halves until it's not bigger than the threshold.
+     */
+    private final class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int lower;
+        private final int upper;
+        private final RangeConsumer consumer;
+
+        RangeTask(int lower, int upper, RangeConsumer consumer) {
+            this.lower = lower;
+            this.upper = upper;
+            this.consumer = consumer;
+        }
+
+        @Override
+        protected void compute() {
+            if (upper - lower <= threshold) {
+                consumer.accept(lower, upper);
+            } else {
+                int middle = (lower + upper) >>> 1;
+                invokeAll(new RangeTask(lower, middle, consumer),
+                        new RangeTask(middle, upper, consumer));
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct;
+
+import net.nativestruct.implementation.field.Field;
+
+/**
+ * Resolves record indexes of a projection into the rows of the underlying struct vector, so
+ * that aggregates read the vector columns directly. Records of mapped projections are resolved
+ * through their source indexes without moving accessors, other projections are positioned at
+ * each record to find the row their accessor reads.
+ */
+final class ProjectionRows {
+    private ProjectionRows() {
+    }
+
+    /**
+     * @param projection Projection of a struct vector.
+     * @param rows Record indexes for the projection, which are replaced by the vector rows.
+     * @param name Name of an int or double field.
+     * @return Statistics of the field values of the records.
+     */
+    static ColumnStatistics statistics(StructProjection<?> projection, int[] rows, String name) {
+        StructProjection<?> source = projection;
+        while (source instanceof MappedProjection) {
+            MappedProjection<?> mapped = (MappedProjection<?>) source;
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = mapped.sourceIndex(rows[i]);
+            }
+            source = mapped.source();
+        }
+        Column column;
+        if (source instanceof StructVector) {
+            column = ((StructVector<?>) source).column(name);
+        } else {
+            column = positioned(source, rows, name);
+        }
+        return column.statistics(rows, 0, rows.length);
+    }
+
+    /**
+     * @param projection Projection, which isn't a mapped projection or a struct vector.
+     * @param rows Record indexes for the projection, which are replaced by the rows read by its
+     *             accessor.
+     * @param name Name of an int or double field.
+     * @return Column of the field in the storage read by the accessor.
+     */
+    private static Column positioned(StructProjection<?> projection, int[] rows, String name) {
+        ArrayHolder holder = null;
+        for (int i = 0; i < rows.length; i++) {
+            projection.current(rows[i]);
+            AbstractStruct accessor = (AbstractStruct) projection.accessor();
+            if (holder != null && accessor.storage() != holder) {
+                throw new IllegalArgumentException("Records of the projection are stored in "
+                        + "different vectors");
+            }
+            holder = accessor.storage();
+            rows[i] = accessor.current();
+        }
+        if (holder == null) {
+            holder = ((AbstractStruct) projection.accessor()).storage();
+        }
+        Field field = (Field) ((AbstractHolder) holder).fields().field(name);
+        if (field == null) {
+            throw new IllegalArgumentException("Unknown field: " + name);
+        }
+        return ((AbstractHolder) holder).column(field);
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct;
+
+/**
+ * The projection is a contiguous range of records of another projection, the records aren't
+ * copied.
+ *
+ * @param <T> Struct type.
+ */
+public final class RangeProjection<T> implements MappedProjection<T> {
+    private final StructProjection<T> projection;
+    private final int from;
+    private final int end;
+
+    private int current = -1;
+
+    /**
+     * Creates projection of the records from the inclusive start to the exclusive end index.
+     *
+     * @param projection Underlying vector or projection.
+     * @param from The first record index.
+     * @param end The index after the last record.
+     */
+    public RangeProjection(StructProjection<T> projection, int from, int end) {
+        if (from < 0 || from > end) {
+            throw new ArrayIndexOutOfBoundsException(from);
+        }
+        if (end > projection.size()) {
+            throw new ArrayIndexOutOfBoundsException(end);
+        }
+        this.projection = projection;
+        this.from = from;
+        this.end = end;
+    }
+
+    /**
+     * @return Index of the first record in the underlying projection.
+     */
+    public int from() {
+        return from;
+    }
+
+    /**
+     * @return Index after the last record in the underlying projection.
+     */
+    public int end() {
+        return end;
+    }
+
+    /**
+     * Transforms the range record index into the index of the underlying projection.
+     *
+     * @param index Record index for the range.
+     * @return Record index for the underlying projection.
+     */
+    @Override
+    public int sourceIndex(int index) {
+        if (index < 0 || index >= size()) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        return from + index;
+    }
+
+    /**
+     * Aggregates the field values without moving the accessor. Records of nested projections
+     * are resolved to the vector rows through their source indexes.
+     *
+     * @param name Name of an int or double field.
+     * @return Statistics of the field values of the records in the range.
+     */
+    public ColumnStatistics statistics(String name) {
+        ColumnStatistics result;
+        if (projection instanceof StructVector) {
+            result = ((StructVector<?>) projection).column(name).statistics(from, end);
+        } else {
+            int[] rows = new int[size()];
+            for (int index = 0; index < rows.length; index++) {
+                rows[index] = index;
+            }
+            result = ProjectionRows.statistics(this, rows, name);
+        }
+        return result;
+    }
+
+    @Override
+    public StructProjection<T> source() {
+        return projection;
+    }
+
+    @Override
+    public T accessor() {
+        return projection.accessor();
+    }
+
+    @Override
+    public int size() {
+        return end - from;
+    }
+
+    @Override
+    public int current() {
+        return current;
+    }
+
+    @Override
+    public void current(int index) {
+        projection.current(sourceIndex(index));
+        this.current = index;
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntUnaryOperator;
+
+import net.nativestruct.sorting.SortedProjection;
+
+/**
+ * Spliterator over the records of a vector or a sorted projection. Records aren't copied: each
+ * split positions its own cursor at the records and passes the same accessor to the action,
+ * so the accessor shouldn't be retained after the action returns. Splits are halves of the
+ * remaining range.
+ *
+ * @param <T> Struct type.
+ */
+public final class RecordSpliterator<T> implements Spliterator<T> {
+    private final StructVector<T> vector;
+    private final IntUnaryOperator rows;
+    private int index;
+    private final int fence;
+    private Cursor<T> cursor;
+
+    private RecordSpliterator(StructVector<T> vector, IntUnaryOperator rows,
+                              int index, int fence) {
+        this.vector = vector;
+        this.rows = rows;
+        this.index = index;
+        this.fence = fence;
+    }
+
+    /**
+     * @param vector Struct vector.
+     * @param <T> Struct type.
+     * @return Spliterator over the records of the vector in order.
+     */
+    public static <T> RecordSpliterator<T> of(StructVector<T> vector) {
+        return new RecordSpliterator<>(vector, null, 0, vector.size());
+    }
+
+    /**
+     * @param projection Sorted projection.
+     * @param <T> Struct type.
+     * @return Spliterator over the records in the order of the projection.
+     */
+    public static <T> RecordSpliterator<T> of(SortedProjection<T> projection) {
+        return new RecordSpliterator<>(projection.vector(), projection::sourceIndex,
+                0, projection.size());
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        boolean advanced = index < fence;
+        if (advanced) {
+            cursor().current(row(index++));
+            action.accept(cursor.accessor());
+        }
+        return advanced;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        if (rows == null) {
+            cursor().forEach(index, fence, action);
+        } else {
+            Cursor<T> target = cursor();
+            for (int i = index; i < fence; i++) {
+                target.current(rows.applyAsInt(i));
+                action.accept(target.accessor());
+            }
+        }
+        index = fence;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        int middle = (index + fence) >>> 1;
+        RecordSpliterator<T> prefix = null;
+        if (middle > index) {
+            prefix = new RecordSpliterator<>(vector, rows, index, middle);
+            index = middle;
+        }
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return fence - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | NONNULL;
+    }
+
+    private int row(int position) {
+        return rows == null ? position : rows.applyAsInt(position);
+    }
+
+    private Cursor<T> cursor() {
+        if (cursor == null) {
+            cursor = vector.newCursor();
+        }
+        return cursor;
+    }
+}
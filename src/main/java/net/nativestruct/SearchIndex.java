@@ -0,0 +1,240 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct;
+
+import net.nativestruct.implementation.field.Field;
+import net.nativestruct.implementation.field.StorageType;
+
+/**
+ * Read optimized search index over an int, long or double field of a sorted vector. Keys are
+ * copied in the Eytzinger (breadth first) order of the implicit binary search tree, so the
+ * first levels of the tree share a few cache lines and the records visited by the next steps
+ * of the search are adjacent, unlike the strided loads of {@link StructVector#binarySearch}.
+ * The index is a snapshot of the vector and should be rebuilt after the field is modified.
+ */
+public final class SearchIndex {
+    /**
+     * Largest index searched without branches. Larger trees don't fit in the cache, and a
+     * predicted branch lets the processor load the next level before the comparison is done,
+     * which Java can't do with a prefetch.
+     */
+    private static final int BRANCH_FREE_LIMIT = 524_288;
+
+    private final StructVector<?> vector;
+    private final Field field;
+    private final StorageType storage;
+    private int size;
+    private int[] ints;
+    private long[] longs;
+    private int[] ranks;
+
+    /**
+     * Creates the index of the vector, which should be sorted by the field.
+     *
+     * @param vector Sorted vector.
+     * @param name Name of int, long or double field.
+     */
+    public SearchIndex(StructVector<?> vector, String name) {
+        this.vector = vector;
+        this.field = vector.field(name);
+        if (field == null) {
+            throw new IllegalArgumentException("Unknown field: " + name);
+        }
+        this.storage = field.storageType();
+        if (storage != StorageType.INT && storage != StorageType.LONG
+                && storage != StorageType.DOUBLE) {
+            throw new IllegalArgumentException("Field can't be indexed: " + name);
+        }
+        rebuild();
+    }
+
+    /**
+     * @return Indexed field.
+     */
+    public Field field() {
+        return field;
+    }
+
+    /**
+     * Rebuilds the index from the current contents of the vector, which should be sorted.
+     */
+    public void rebuild() {
+        Column column = vector.column(field);
+        size = vector.size();
+        ranks = new int[size + 1];
+        if (storage == StorageType.INT) {
+            ints = new int[size + 1];
+            longs = null;
+        } else {
+            ints = null;
+            longs = new long[size + 1];
+        }
+        int node = leftmost(1);
+        for (int rank = 0; rank < size; rank++) {
+            ranks[node] = rank;
+            if (ints != null) {
+                ints[node] = column.getInt(rank);
+            } else {
+                longs[node] = key(column, rank);
+            }
+            node = successor(node);
+        }
+    }
+
+    /**
+     * Searches the index for the specified value, the result is the same as of
+     * {@link StructVector#binarySearch(Field, int)}. If the vector contains multiple records with
+     * the specified value, the first one is found.
+     *
+     * @param value The value to be searched for.
+     * @return Index of the struct record, if it is contained in the vector.
+     *         Otherwise <tt>(-(<i>insertion point</i>) - 1)</tt>.
+     */
+    public int find(int value) {
+        if (ints == null) {
+            return find((long) value);
+        }
+        int[] keys = ints;
+        int node = 1;
+        if (size > BRANCH_FREE_LIMIT) {
+            while (node <= size) {
+                if (keys[node] < value) {
+                    node = 2 * node + 1;
+                } else {
+                    node = 2 * node;
+                }
+            }
+        } else {
+            while (node <= size) {
+                node = 2 * node + (keys[node] < value ? 1 : 0);
+            }
+        }
+        node >>>= Integer.numberOfTrailingZeros(~node) + 1;
+        return result(node, node != 0 && keys[node] == value);
+    }
+
+    /**
+     * Searches the index for the specified value, the result is the same as of
+     * {@link StructVector#binarySearch(Field, long)}. If the vector contains multiple records
+     * with the specified value, the first one is found.
+     *
+     * @param value The value to be searched for.
+     * @return Index of the struct record, if it is contained in the vector.
+     *         Otherwise <tt>(-(<i>insertion point</i>) - 1)</tt>.
+     */
+    public int find(long value) {
+        if (storage == StorageType.DOUBLE) {
+            throw new IllegalArgumentException("Key type doesn't match field " + field.name());
+        }
+        return ints == null ? search(value) : searchInt(value);
+    }
+
+    /**
+     * Searches the index for the specified value, the result is the same as of
+     * {@link StructVector#binarySearch(Field, double)}. If the vector contains multiple records
+     * with the specified value, the first one is found.
+     *
+     * @param value The value to be searched for.
+     * @return Index of the struct record, if it is contained in the vector.
+     *         Otherwise <tt>(-(<i>insertion point</i>) - 1)</tt>.
+     */
+    public int find(double value) {
+        if (storage != StorageType.DOUBLE) {
+            throw new IllegalArgumentException("Key type doesn't match field " + field.name());
+        }
+        return search(sortable(value));
+    }
+
+    private int searchInt(long value) {
+        return value < Integer.MIN_VALUE ? -1
+                : value > Integer.MAX_VALUE ? -size - 1 : find((int) value);
+    }
+
+    private int search(long value) {
+        long[] keys = longs;
+        int node = 1;
+        if (size > BRANCH_FREE_LIMIT) {
+            while (node <= size) {
+                if (keys[node] < value) {
+                    node = 2 * node + 1;
+                } else {
+                    node = 2 * node;
+                }
+            }
+        } else {
+            while (node <= size) {
+                node = 2 * node + (keys[node] < value ? 1 : 0);
+            }
+        }
+        node >>>= Integer.numberOfTrailingZeros(~node) + 1;
+        return result(node, node != 0 && keys[node] == value);
+    }
+
+    /**
+     * @param node Node of the lower bound of the value, or zero if all keys are less.
+     * @param found Whether the node key is equal to the value.
+     * @return Search result.
+     */
+    private int result(int node, boolean found) {
+        int rank = node == 0 ? size : ranks[node];
+        return found ? rank : -rank - 1;
+    }
+
+    private long key(Column column, int rank) {
+        return storage == StorageType.LONG
+                ? column.getLong(rank) : sortable(column.getDouble(rank));
+    }
+
+    /**
+     * @param value Double value.
+     * @return Long value, which is ordered the same way as {@link Double#compare}.
+     */
+    private static long sortable(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> (Long.SIZE - 1)) & Long.MAX_VALUE);
+    }
+
+    private int leftmost(int node) {
+        int left = node;
+        while (2 * left <= size) {
+            left *= 2;
+        }
+        return left;
+    }
+
+    /**
+     * @param node Node of the tree, which was just visited in order.
+     * @return The next node in order, or zero after the last one.
+     */
+    private int successor(int node) {
+        if (2 * node + 1 <= size) {
+            return leftmost(2 * node + 1);
+        }
+        int next = node;
+        while ((next & 1) == 1) {
+            next >>>= 1;
+        }
+        return next >>> 1;
+    }
+}
@@ -49,4 +49,15 @@ public @interface StructField {
      *         of a single field should have the same order, or it may be omitted.
      */
     int order() default -1;
+
+    /**
+     * @return Name of the field group. Values of fields of the same group and type are
+     *         interleaved record by record, while every group is kept in a separate part of the
+     *         storage. Fields which are accessed together should share a group, so that they
+     *         share cache lines, rarely accessed fields should be left out. Different accessors
+     *         of a single field should have the same group, or it may be omitted. Fields
+     *         without a group make up a group of their own. Groups of child struct fields are
+     *         shared with the parent struct.
+     */
+    String group() default "";
 }
@@ -23,16 +23,37 @@
  */
 package net.nativestruct;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import net.nativestruct.implementation.field.Field;
+import net.nativestruct.implementation.field.FieldLike;
 import net.nativestruct.implementation.field.Fields;
+import net.nativestruct.implementation.field.StorageType;
+import net.nativestruct.mapreduce.HashReducer;
 import net.nativestruct.mapreduce.InsertionReducer;
+import net.nativestruct.mapreduce.ParallelReducer;
 import net.nativestruct.mapreduce.Reducer;
+import net.nativestruct.mapreduce.SortingReducer;
 import net.nativestruct.sorting.AbstractSortedSubstitution;
 import net.nativestruct.sorting.OrderingSubstitution;
+import net.nativestruct.sorting.RecordComparator;
+import net.nativestruct.sorting.SortKey;
+import net.nativestruct.sorting.SortSpec;
 import net.nativestruct.sorting.SortedProjection;
 import net.nativestruct.sorting.SortedSubstitution;
 
@@ -43,18 +64,22 @@ import net.nativestruct.sorting.SortedSubstitution;
  *
  * @param <T> Accessor type.
  */
-public final class StructVector<T> implements StructProjection<T> {
+// @checkstyle ClassFanOutComplexity (1 line)
+public final class StructVector<T> implements StructProjection<T>, AutoCloseable {
 
     private static final int INITIAL_CAPACITY = 16;
     private static final double GROW_FACTOR = 1.5f;
+    private static final int RADIX_SORT_THRESHOLD = 4096;
+    private static final int SPECIALIZED_SORT_THRESHOLD = 1024;
 
     private final Fields fields;
-    private final Holder holder;
+    private final AbstractHolder holder;
+    private final StorageMode storage;
 
     private final AbstractStruct[] accessors;
     private final T accessor;
-
-    private int capacity;
+    private final HashIndexes indexes = HashIndexes.empty();
+    private int version;
 
     /**
      * Creates a new instance of struct vector given accessor interface.
@@ -73,17 +98,68 @@ public final class StructVector<T> implements StructProjection<T> {
      * @param capacity Initial vector capacity.
      */
     public StructVector(Class<T> type, int capacity) {
+        this(type, capacity, StorageMode.HEAP);
+    }
+
+    /**
+     * Creates a new instance of struct vector given accessor interface, vector capacity and
+     * the kind of storage for struct fields. Off-heap vectors should be closed when they are
+     * no longer needed.
+     *
+     * @param type     Struct accessor interface class.
+     * @param capacity Initial vector capacity.
+     * @param storage  Where to keep primitive struct fields.
+     */
+    public StructVector(Class<T> type, int capacity, StorageMode storage) {
+        this(type, capacity, storage, storage == StorageMode.OFF_HEAP
+            ? OffHeapHolder::new : HeapHolder::new);
+    }
+
+    private StructVector(Class<T> type, int capacity, StorageMode storage,
+                         BiFunction<Fields, List<AbstractStruct>, AbstractHolder> holders) {
         this.fields = Fields.forType(type);
+        this.storage = storage;
         this.accessors = buildAccessors();
         this.accessor = (T) accessors[0];
-        this.holder = new Holder(fields, Arrays.asList(accessors).subList(1, accessors.length));
+        this.holder = holders.apply(fields,
+                Arrays.asList(accessors).subList(1, accessors.length));
 
         reserve(capacity);
         updateAccessors();
     }
 
+    /**
+     * Opens a struct vector stored in a file, an empty file is initialized with a new vector.
+     * Struct fields are mapped to memory, so records are paged in lazily on access and all
+     * updates go to the file. The vector should be closed to release the mapping. Structs with
+     * object fields can't be stored in a file.
+     *
+     * @param type Struct accessor interface class.
+     * @param file Path to the file, it is created if it doesn't exist.
+     * @param <T> Accessor type.
+     * @return File backed struct vector.
+     * @throws IOException If the file can't be opened or mapped.
+     */
+    public static <T> StructVector<T> open(Class<T> type, Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean opened = false;
+        try {
+            StructVector<T> vector = new StructVector<>(type, INITIAL_CAPACITY,
+                    StorageMode.OFF_HEAP, MappedHolder.of(channel));
+            opened = true;
+            return vector;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            if (!opened) {
+                channel.close();
+            }
+        }
+    }
+
     private AbstractStruct[] buildAccessors() {
-        List<AbstractStruct> accessorsList = fields.buildAccessors();
+        List<AbstractStruct> accessorsList = fields.buildAccessors(storage);
         return accessorsList.toArray(new AbstractStruct[accessorsList.size()]);
     }
 
@@ -103,6 +179,13 @@ public final class StructVector<T> implements StructProjection<T> {
         updateCurrent(index);
     }
 
+    private void updateSize() {
+        version++;
+        for (int i = 0; i < accessors.length; i++) {
+            accessors[i].size(holder.size());
+        }
+    }
+
     private void updateCurrent(int index) {
         for (int i = 0; i < accessors.length; i++) {
             accessors[i].current(index);
@@ -115,7 +198,7 @@ public final class StructVector<T> implements StructProjection<T> {
      * @param index Index in vector.
      */
     protected void checkIndexBounds(int index) {
-        if (index < 0 || index >= size()) {
+        if (index < 0 || index >= holder.size()) {
             throw new ArrayIndexOutOfBoundsException(index);
         }
     }
@@ -127,6 +210,9 @@ public final class StructVector<T> implements StructProjection<T> {
      * @return This instance.
      */
     public StructVector<T> resize(int size) {
+        if (size < size()) {
+            indexes.invalidate();
+        }
         reserve(size);
         holder.resize(size);
         updateAccessors();
@@ -138,7 +224,16 @@ public final class StructVector<T> implements StructProjection<T> {
      * @return New vector capacity based on the existing capacity and grow factor.
      */
     private int alignCapacity(int size) {
-        return Math.max(size, (int) Math.ceil(capacity * GROW_FACTOR));
+        return Math.max(size, (int) Math.ceil(holder.capacity() * GROW_FACTOR));
+    }
+
+    /**
+     * @return Struct accessor class, which the vector was created for.
+     */
+    @SuppressWarnings("unchecked")
+    public Class<T> type() {
+        // Fields are built by forType(type) for the class this vector was created for.
+        return (Class<T>) fields.type();
     }
 
     /**
@@ -149,6 +244,37 @@ public final class StructVector<T> implements StructProjection<T> {
         return (Field) fields.field(name);
     }
 
+    /**
+     * Provides direct access to the values of a field, which is valid until the vector
+     * capacity changes.
+     *
+     * @param field Field of the struct, may be taken from another vector of the same struct.
+     * @return Column of the field values.
+     */
+    public Column column(Field field) {
+        FieldLike own = fields.field(field.name());
+        if (own != field && !(own instanceof Field
+                && ((Field) own).storageType() == field.storageType())) {
+            throw new IllegalArgumentException("Field isn't in the struct: " + field.name());
+        }
+        return holder.column((Field) own);
+    }
+
+    /**
+     * Provides direct access to the values of a field, which is valid until the vector
+     * capacity changes.
+     *
+     * @param name Name of a struct field.
+     * @return Column of the field values.
+     */
+    public Column column(String name) {
+        Field field = field(name);
+        if (field == null) {
+            throw new IllegalArgumentException("Unknown field: " + name);
+        }
+        return column(field);
+    }
+
     /**
      * @return The list of the struct field names.
      */
@@ -168,10 +294,14 @@ public final class StructVector<T> implements StructProjection<T> {
             throw new ArrayIndexOutOfBoundsException(index);
         }
         int newSize = size() + count;
-        if (newSize > capacity && reserve(alignCapacity(newSize))) {
+        if (newSize > holder.capacity() && reserve(alignCapacity(newSize))) {
             updateAccessors();
         }
         holder.insert(index, count);
+        if (index < size()) {
+            indexes.invalidate();
+        }
+        updateSize();
         updateCurrent(index);
         return index;
     }
@@ -186,11 +316,12 @@ public final class StructVector<T> implements StructProjection<T> {
         assert count > 0;
         int index = size();
         int newSize = index + count;
-        if (newSize > capacity) {
+        if (newSize > holder.capacity()) {
             reserve(alignCapacity(newSize));
             updateAccessors();
         }
         holder.increaseSize(count);
+        updateSize();
         updateCurrent(index);
         return index;
     }
@@ -211,9 +342,9 @@ public final class StructVector<T> implements StructProjection<T> {
      */
     private boolean reserve(int newCapacity) {
         assert newCapacity >= 0;
-        if (newCapacity > this.capacity) {
-            this.capacity = newCapacity;
+        if (newCapacity > holder.capacity()) {
             holder.reserve(newCapacity);
+            indexes.reallocated();
             return true;
         } else {
             return false;
@@ -221,30 +352,86 @@ public final class StructVector<T> implements StructProjection<T> {
     }
 
     private void updateAccessors() {
+        version++;
         for (int i = 0; i < accessors.length; i++) {
             accessors[i].copyFrom(holder);
         }
     }
 
+    /**
+     * Releases the vector storage. Off-heap memory is freed immediately, the vector becomes
+     * empty and allocates new storage when elements are inserted again. A file backed vector
+     * is flushed to the file, which is closed, and can't be used any more.
+     */
+    @Override
+    public void close() {
+        holder.close();
+        updateAccessors();
+        indexes.reallocated();
+        indexes.invalidate();
+    }
+
     @Override
     public T accessor() {
         return accessor;
     }
 
     /**
-     * @return An array holding all integer fields.
+     * @return An array holding all integer fields, or null for off-heap storage.
      */
     public int[] integers() {
         return holder.integers();
     }
 
     /**
-     * @return An array holding all double fields.
+     * @return An array holding all long fields, or null for off-heap storage.
+     */
+    public long[] longs() {
+        return holder.longs();
+    }
+
+    /**
+     * @return An array holding all float fields, or null for off-heap storage.
+     */
+    public float[] floats() {
+        return holder.floats();
+    }
+
+    /**
+     * @return An array holding all double fields, or null for off-heap storage.
      */
     public double[] doubles() {
         return holder.doubles();
     }
 
+    /**
+     * @return An array holding all short fields, or null for off-heap storage.
+     */
+    public short[] shorts() {
+        return holder.shorts();
+    }
+
+    /**
+     * @return An array holding all byte fields, or null for off-heap storage.
+     */
+    public byte[] bytes() {
+        return holder.bytes();
+    }
+
+    /**
+     * @return An array holding all char fields, or null for off-heap storage.
+     */
+    public char[] chars() {
+        return holder.chars();
+    }
+
+    /**
+     * @return An array holding all boolean fields, or null for off-heap storage.
+     */
+    public boolean[] booleans() {
+        return holder.booleans();
+    }
+
     /**
      * @return An array holding all object fields.
      */
@@ -252,6 +439,141 @@ public final class StructVector<T> implements StructProjection<T> {
         return holder.objects();
     }
 
+    /**
+     * Creates an accessor with its own current record, so that several threads can read the
+     * vector concurrently. Cursors follow reallocation of the vector storage, but the vector
+     * shouldn't be modified while it's accessed by other threads.
+     *
+     * @return New cursor, which isn't positioned at any record.
+     */
+    public Cursor<T> newCursor() {
+        return Cursor.of(this, holder, fields.buildAccessors(storage));
+    }
+
+    /**
+     * Positions the accessor at each record in order and calls the action.
+     *
+     * @param action Action called with the accessor.
+     */
+    public void forEach(Consumer<? super T> action) {
+        Cursor.forEach(accessors, accessor, 0, size(), action);
+    }
+
+    /**
+     * Calls the action for each record, splitting records between the tasks of the common pool.
+     *
+     * @param action Action called with an accessor positioned at a record, which may update
+     *               the record, but shouldn't access other records.
+     */
+    public void parallelForEach(Consumer<? super T> action) {
+        parallelForEach(Parallelism.common(), action);
+    }
+
+    /**
+     * Calls the action for each record, splitting records into ranges processed by separate
+     * tasks. Each task positions its own cursor at the records of the range in order. Ranges
+     * are limited to the records fitting into the cache of a core, see
+     * {@link Parallelism#cacheSized(int)}.
+     *
+     * @param parallelism Specifies the pool and the maximum size of ranges processed by a single
+     *                    task.
+     * @param action Action called with an accessor positioned at a record, which may update
+     *               the record, but shouldn't access other records.
+     */
+    public void parallelForEach(Parallelism parallelism, Consumer<? super T> action) {
+        parallelism.cacheSized(fields.memoryBytes()).forEachRange(0, size(),
+            (from, end) -> newCursor().forEach(from, end, action));
+    }
+
+    /**
+     * @param name Name of an int or double field.
+     * @return Statistics of the field values of all the records.
+     */
+    public ColumnStatistics statistics(String name) {
+        return column(name).statistics(0, size());
+    }
+
+    /**
+     * @return Spliterator over the records, see {@link RecordSpliterator}.
+     */
+    public Spliterator<T> spliterator() {
+        return RecordSpliterator.of(this);
+    }
+
+    /**
+     * Creates a stream passing the same accessor positioned at each record in order, parallel
+     * streams use separate accessors for each split. The vector shouldn't be modified
+     * structurally while the stream is processed.
+     *
+     * @return Sequential stream of the records.
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Creates a stream reading the field values through a {@link Column}, which checks every
+     * value. The stream throws {@link IllegalStateException} if the vector is reallocated or
+     * closed before it is consumed.
+     *
+     * @param name Name of an int field.
+     * @return Sequential stream of the field values in the order of records.
+     */
+    public IntStream intStream(String name) {
+        Column column = column(name, StorageType.INT);
+        return IntStream.range(0, holder.size()).map(column::getInt);
+    }
+
+    /**
+     * Creates a stream reading the field values through a {@link Column}, which checks every
+     * value. The stream throws {@link IllegalStateException} if the vector is reallocated or
+     * closed before it is consumed.
+     *
+     * @param name Name of a double field.
+     * @return Sequential stream of the field values in the order of records.
+     */
+    public DoubleStream doubleStream(String name) {
+        Column column = column(name, StorageType.DOUBLE);
+        return IntStream.range(0, holder.size()).mapToDouble(column::getDouble);
+    }
+
+    private Column column(String name, StorageType type) {
+        Column column = column(name);
+        if (column.storageType() != type) {
+            throw new IllegalArgumentException("Field isn't " + type + ": " + name);
+        }
+        return column;
+    }
+
+    /**
+     * Creates a projection of the records, which match the predicate. The predicate is
+     * evaluated once, later updates of the records don't change the selection.
+     *
+     * @param predicate Record predicate, which is tested on the vector accessor.
+     * @return Filtered projection.
+     */
+    public FilteredProjection<T> filter(Predicate<? super T> predicate) {
+        return FilteredProjection.of(this, predicate);
+    }
+
+    /**
+     * Creates range queries over the field the vector is sorted by in ascending order.
+     *
+     * @param name Name of the field.
+     * @return Range queries, which bounds are record indexes.
+     */
+    public FieldRanges<T> ranges(String name) {
+        return FieldRanges.of(this, name);
+    }
+
+    /**
+     * @return Counter of updates of the storage arrays and the size, which are copied to
+     *         accessors.
+     */
+    int version() {
+        return version;
+    }
+
     /**
      * Searches the struct vector for the specified value using the binary search algorithm.
      * The vector elements should be sorted prior to making the call. If the array contains
@@ -266,7 +588,41 @@ public final class StructVector<T> implements StructProjection<T> {
     public int binarySearch(Field field, int value) {
         assert fields.hasField(field);
         assert field.isType(int.class);
-        return holder.binarySearch(fields.intFields(), field.index(), value);
+        return holder.binarySearch(holder.stride(field), holder.offset(field), value);
+    }
+
+    /**
+     * Searches the struct vector for the specified value using the binary search algorithm.
+     * The vector elements should be sorted prior to making the call. If the array contains
+     * multiple elements with the specified value, there is no guarantee which one will be
+     * found.
+     *
+     * @param field Struct field to be search through.
+     * @param value The value to be searched for.
+     * @return Index of the struct record, if it is contained in the vector.
+     *         Otherwise <tt>(-(<i>insertion point</i>) - 1)</tt>.
+     */
+    public int binarySearch(Field field, long value) {
+        assert fields.hasField(field);
+        assert field.isType(long.class);
+        return holder.binarySearch(holder.stride(field), holder.offset(field), value);
+    }
+
+    /**
+     * Searches the struct vector for the specified value using the binary search algorithm.
+     * The vector elements should be sorted prior to making the call. If the array contains
+     * multiple elements with the specified value, there is no guarantee which one will be
+     * found.
+     *
+     * @param field Struct field to be search through.
+     * @param value The value to be searched for.
+     * @return Index of the struct record, if it is contained in the vector.
+     *         Otherwise <tt>(-(<i>insertion point</i>) - 1)</tt>.
+     */
+    public int binarySearch(Field field, float value) {
+        assert fields.hasField(field);
+        assert field.isType(float.class);
+        return holder.binarySearch(holder.stride(field), holder.offset(field), value);
     }
 
     /**
@@ -283,7 +639,75 @@ public final class StructVector<T> implements StructProjection<T> {
     public int binarySearch(Field field, double value) {
         assert fields.hasField(field);
         assert field.isType(double.class);
-        return holder.binarySearch(fields.doubleFields(), field.index(), value);
+        return holder.binarySearch(holder.stride(field), holder.offset(field), value);
+    }
+
+    /**
+     * Searches the struct vector for the specified value using the binary search algorithm.
+     * The vector elements should be sorted prior to making the call. If the array contains
+     * multiple elements with the specified value, there is no guarantee which one will be
+     * found.
+     *
+     * @param field Struct field to be search through.
+     * @param value The value to be searched for.
+     * @return Index of the struct record, if it is contained in the vector.
+     *         Otherwise <tt>(-(<i>insertion point</i>) - 1)</tt>.
+     */
+    public int binarySearch(Field field, short value) {
+        assert fields.hasField(field);
+        assert field.isType(short.class);
+        return holder.binarySearch(holder.stride(field), holder.offset(field), value);
+    }
+
+    /**
+     * Searches the struct vector for the specified value using the binary search algorithm.
+     * The vector elements should be sorted prior to making the call. If the array contains
+     * multiple elements with the specified value, there is no guarantee which one will be
+     * found.
+     *
+     * @param field Struct field to be search through.
+     * @param value The value to be searched for.
+     * @return Index of the struct record, if it is contained in the vector.
+     *         Otherwise <tt>(-(<i>insertion point</i>) - 1)</tt>.
+     */
+    public int binarySearch(Field field, byte value) {
+        assert fields.hasField(field);
+        assert field.isType(byte.class);
+        return holder.binarySearch(holder.stride(field), holder.offset(field), value);
+    }
+
+    /**
+     * Searches the struct vector for the specified value using the binary search algorithm.
+     * The vector elements should be sorted prior to making the call. If the array contains
+     * multiple elements with the specified value, there is no guarantee which one will be
+     * found.
+     *
+     * @param field Struct field to be search through.
+     * @param value The value to be searched for.
+     * @return Index of the struct record, if it is contained in the vector.
+     *         Otherwise <tt>(-(<i>insertion point</i>) - 1)</tt>.
+     */
+    public int binarySearch(Field field, char value) {
+        assert fields.hasField(field);
+        assert field.isType(char.class);
+        return holder.binarySearch(holder.stride(field), holder.offset(field), value);
+    }
+
+    /**
+     * Searches the struct vector for the specified value using the binary search algorithm.
+     * The vector elements should be sorted prior to making the call. If the array contains
+     * multiple elements with the specified value, there is no guarantee which one will be
+     * found.
+     *
+     * @param field Struct field to be search through.
+     * @param value The value to be searched for.
+     * @return Index of the struct record, if it is contained in the vector.
+     *         Otherwise <tt>(-(<i>insertion point</i>) - 1)</tt>.
+     */
+    public int binarySearch(Field field, boolean value) {
+        assert fields.hasField(field);
+        assert field.isType(boolean.class);
+        return holder.binarySearch(holder.stride(field), holder.offset(field), value);
     }
 
     /**
@@ -300,25 +724,75 @@ public final class StructVector<T> implements StructProjection<T> {
     public int binarySearch(Field field, Comparable<?> value) {
         assert fields.hasField(field);
         assert field.isType(value.getClass());
-        return holder.binarySearch(fields.objectFields(), field.index(), value);
+        return holder.binarySearch(holder.stride(field), holder.offset(field), value);
+    }
+
+    /**
+     * Searches the struct vector sorted by the spec for the records having the specified values
+     * of the key fields. If the vector contains multiple such records, there is no guarantee
+     * which one will be found.
+     *
+     * @param spec Sort spec the vector is ordered by.
+     * @param values Values of the key fields in the order of the keys, primitive values boxed.
+     * @return Index of the struct record, if it is contained in the vector.
+     *         Otherwise <tt>(-(<i>insertion point</i>) - 1)</tt>.
+     */
+    public int binarySearch(SortSpec spec, Object... values) {
+        List<SortKey> keys = spec.keys();
+        if (values.length != keys.size()) {
+            throw new IllegalArgumentException("Expected " + keys.size() + " key values");
+        }
+        return holder.binarySearch(keyFields(spec), keys, values);
+    }
+
+    /**
+     * Creates comparator ordering records as specified by the sort spec.
+     *
+     * @param spec Sort spec.
+     * @return RecordComparator instance.
+     */
+    public RecordComparator recordComparator(SortSpec spec) {
+        return holder.recordComparator(keyFields(spec), spec.keys());
+    }
+
+    private Field[] keyFields(SortSpec spec) {
+        List<SortKey> keys = spec.keys();
+        Field[] keyFields = keys.stream().map(key -> field(key.name())).toArray(Field[]::new);
+        for (int i = 0; i < keyFields.length; i++) {
+            if (keyFields[i] == null) {
+                throw new IllegalArgumentException("Unknown field: " + keys.get(i).name());
+            }
+        }
+        return keyFields;
     }
 
     /**
+     * Large vectors are sorted by int, long, float and double fields with radix sort. Other
+     * primitive fields of non-trivial vectors are sorted by merge sort generated for the field.
+     * The ordering is built before the substitution is returned, so it doesn't read the vector
+     * storage after it is reallocated or closed.
+     *
      * @param field Struct field that specifies ordering.
      * @return SortedSubstitution instance.
      */
     public SortedSubstitution sortedSubstitution(Field field) {
+        SortedSubstitution substitution = substitution(field);
+        substitution.ordering();
+        return substitution;
+    }
+
+    private SortedSubstitution substitution(Field field) {
         SortedSubstitution substitution;
-        if (field.isType(int.class)) {
-            substitution = holder.integerSortedSubstitution(field);
-        } else if (field.isType(double.class)) {
-            substitution = holder.doubleSortedSubstitution(field);
-        } else if (!field.isPrimitive()) {
+        if (size() >= RADIX_SORT_THRESHOLD && field.storageType().bytes() >= Integer.BYTES) {
+            substitution = holder.radixSortedSubstitution(field);
+        } else if (size() >= SPECIALIZED_SORT_THRESHOLD && field.isPrimitive()) {
+            substitution = holder.specializedSortedSubstitution(field);
+        } else if (field.isPrimitive()) {
+            substitution = holder.sortedSubstitution(field);
+        } else {
             //noinspection unchecked
             Comparator<Object> comparator = (left, right) -> ((Comparable) left).compareTo(right);
             substitution = holder.objectSortedSubstitution(field, comparator);
-        } else {
-            throw new IllegalArgumentException("Sorting is not supported for field " + field);
         }
         return substitution;
     }
@@ -331,14 +805,44 @@ public final class StructVector<T> implements StructProjection<T> {
         return sortedSubstitution(field(field));
     }
 
+    /**
+     * The ordering is built before the substitution is returned, like for a single field.
+     *
+     * @param spec Sort spec that specifies ordering.
+     * @return SortedSubstitution instance.
+     */
+    public SortedSubstitution sortedSubstitution(SortSpec spec) {
+        SortedSubstitution substitution = substitution(spec);
+        substitution.ordering();
+        return substitution;
+    }
+
+    private SortedSubstitution substitution(SortSpec spec) {
+        RecordComparator comparator = recordComparator(spec);
+        return AbstractSortedSubstitution.of(size(),
+            (left, right) -> comparator.compare(left, right) <= 0);
+    }
+
     /**
      * Perform struct record sorting by the specified field.
      *
      * @param field The field that will determine the sort ordering.
      */
     public void sort(Field field) {
-        holder.reorder(sortedSubstitution(field).ordering());
-        updateAccessors();
+        sort(field, Parallelism.SEQUENTIAL);
+    }
+
+    /**
+     * Perform struct record sorting by the specified field, splitting the work between threads.
+     * The resulting ordering is the same as for sequential sorting. Merge sorts split the
+     * records into sub-ranges, radix sort of large vectors counts and distributes blocks of
+     * records in separate tasks.
+     *
+     * @param field The field that will determine the sort ordering.
+     * @param parallelism Specifies the pool and the size of sub-ranges sorted by a single task.
+     */
+    public void sort(Field field, Parallelism parallelism) {
+        reorder(substitution(field).ordering(parallelism), parallelism);
     }
 
     /**
@@ -347,11 +851,41 @@ public final class StructVector<T> implements StructProjection<T> {
      * @param name Name of the field used for sorting.
      */
     public void sort(String name) {
+        sort(name, Parallelism.SEQUENTIAL);
+    }
+
+    /**
+     * Perform struct record sorting by the specified field, splitting the work between threads.
+     *
+     * @param name Name of the field used for sorting.
+     * @param parallelism Specifies the pool and the size of sub-ranges sorted by a single task.
+     */
+    public void sort(String name, Parallelism parallelism) {
         Field field = field(name);
         if (field == null) {
             throw new IllegalArgumentException("Unknown field: " + name);
         }
-        sort(field);
+        sort(field, parallelism);
+    }
+
+    /**
+     * Perform struct record sorting as specified by the sort spec.
+     *
+     * @param spec Sort spec that specifies ordering.
+     */
+    public void sort(SortSpec spec) {
+        sort(spec, Parallelism.SEQUENTIAL);
+    }
+
+    /**
+     * Perform struct record sorting as specified by the sort spec, splitting the work between
+     * threads.
+     *
+     * @param spec Sort spec that specifies ordering.
+     * @param parallelism Specifies the pool and the size of sub-ranges sorted by a single task.
+     */
+    public void sort(SortSpec spec, Parallelism parallelism) {
+        reorder(substitution(spec).ordering(parallelism), parallelism);
     }
 
     /**
@@ -362,8 +896,14 @@ public final class StructVector<T> implements StructProjection<T> {
      * @param <U> Type of the field being sorted.
      */
     public <U> void sort(Field field, Comparator<U> comparator) {
-        holder.reorder(holder.objectSortedSubstitution(field, comparator).ordering());
+        reorder(holder.objectSortedSubstitution(field, comparator).ordering(),
+                Parallelism.SEQUENTIAL);
+    }
+
+    private void reorder(OrderingSubstitution ordering, Parallelism parallelism) {
+        holder.reorder(ordering, parallelism);
         updateAccessors();
+        indexes.invalidate();
     }
 
     /**
@@ -388,10 +928,21 @@ public final class StructVector<T> implements StructProjection<T> {
      * @param name Name of the field.
      * @return Project instance.
      */
-    public StructProjection<T> asSorted(String name) {
+    public SortedProjection<T> asSorted(String name) {
         return new SortedProjection<>(this, field(name));
     }
 
+    /**
+     * Creates a projection with records ordered as specified by the sort spec.
+     * The original vector stays intact.
+     *
+     * @param spec Sort spec.
+     * @return Project instance.
+     */
+    public SortedProjection<T> asSorted(SortSpec spec) {
+        return new SortedProjection<>(this, spec);
+    }
+
     /**
      * Starts building reduce operation by the given field.
      *
@@ -402,6 +953,44 @@ public final class StructVector<T> implements StructProjection<T> {
         return new InsertionReducer<T>(this, field);
     }
 
+    /**
+     * Starts building reduce operation by the combination of the given fields. Records are
+     * grouped with a hash table instead of binary searches in the target, and the groups are
+     * produced in the order of their first occurrence, unless {@link HashReducer#sorted()} is
+     * requested. Common aggregates can be declared on the returned reducer instead of the
+     * reduction consumer.
+     *
+     * @param names Names of the fields, for which the reduce operation will be performed.
+     * @return New reducer builder object.
+     */
+    public HashReducer<T> hashReduceBy(String... names) {
+        return new HashReducer<T>(this, names);
+    }
+
+    /**
+     * Starts building reduce operation by the given field, splitting the source records between
+     * threads. The groups are produced in the field order, the reduction consumer also merges
+     * partial results, unless {@link ParallelReducer#combining} is given a combiner.
+     *
+     * @param field Field name for which the reduce operation will be performed.
+     * @param parallelism Specifies the pool and the number of records reduced by a single task.
+     * @return New reducer builder object.
+     */
+    public ParallelReducer<T> reduceBy(String field, Parallelism parallelism) {
+        return new ParallelReducer<T>(this, field, parallelism).sorted();
+    }
+
+    /**
+     * Starts building reduce operation, which groups records equal by all the keys of the spec.
+     * The groups are produced in the spec order.
+     *
+     * @param spec Sort spec.
+     * @return New reducer builder object.
+     */
+    public Reducer<T> reduceBy(SortSpec spec) {
+        return new SortingReducer<T>(this, spec);
+    }
+
     /**
      * Updates one record in the current vector by copying a record from source vector.
      * Both vectors should represent the same struct.
@@ -411,23 +1000,11 @@ public final class StructVector<T> implements StructProjection<T> {
      * @param sourceIndex Index of the record being copied.
      */
     public void updateFrom(int targetIndex, StructVector<T> source, int sourceIndex) {
-        int intFields = fields.intFields();
-        if (intFields > 0) {
-            System.arraycopy(source.integers(), sourceIndex * intFields,
-                    integers(), targetIndex * intFields, intFields);
-        }
-
-        int doubleFields = fields.doubleFields();
-        if (doubleFields > 0) {
-            System.arraycopy(source.doubles(), sourceIndex * doubleFields,
-                    doubles(), targetIndex * doubleFields, doubleFields);
-        }
-
-        int objectFields = fields.objectFields();
-        if (objectFields > 0) {
-            System.arraycopy(source.objects(), sourceIndex * objectFields,
-                    objects(), targetIndex * objectFields, objectFields);
-        }
+        checkIndexBounds(targetIndex);
+        source.checkIndexBounds(sourceIndex);
+        indexes.updating(targetIndex);
+        holder.copyRow(targetIndex, source.holder, sourceIndex);
+        indexes.updated(targetIndex);
     }
 
     /**
@@ -438,8 +1015,29 @@ public final class StructVector<T> implements StructProjection<T> {
      * @return Integer value of the field.
      */
     public int fieldValueInteger(Field field, int index) {
-        checkIndexBounds(index);
-        return accessors[0].intFieldIndexed(fields.intFields(), index, field.index());
+        return column(field).getInt(index);
+    }
+
+    /**
+     * Retrieve long field value.
+     *
+     * @param field Field object.
+     * @param index Record index.
+     * @return Long value of the field.
+     */
+    public long fieldValueLong(Field field, int index) {
+        return column(field).getLong(index);
+    }
+
+    /**
+     * Retrieve float field value.
+     *
+     * @param field Field object.
+     * @param index Record index.
+     * @return Float value of the field.
+     */
+    public float fieldValueFloat(Field field, int index) {
+        return column(field).getFloat(index);
     }
 
     /**
@@ -450,354 +1048,81 @@ public final class StructVector<T> implements StructProjection<T> {
      * @return Double value of the field.
      */
     public double fieldValueDouble(Field field, int index) {
-        checkIndexBounds(index);
-        return accessors[0].doubleFieldIndexed(fields.doubleFields(), index, field.index());
+        return column(field).getDouble(index);
     }
 
     /**
-     * Retrieve object field value.
+     * Retrieve short field value.
      *
      * @param field Field object.
      * @param index Record index.
-     * @return Object value of the field.
+     * @return Short value of the field.
      */
-    public Object fieldValueObject(Field field, int index) {
-        checkIndexBounds(index);
-        return accessors[0].objectFieldIndexed(fields.objectFields(), index, field.index());
+    public short fieldValueShort(Field field, int index) {
+        return column(field).getShort(index);
     }
 
     /**
-     * Holds internal arrays for storing struct fields.
+     * Retrieve byte field value.
+     *
+     * @param field Field object.
+     * @param index Record index.
+     * @return Byte value of the field.
      */
-    public static class Holder implements ArrayHolder {
-
-        private Fields      fields;
-        private int         size;
-        private int[]       integers;
-        private double[]    doubles;
-        private Object[]    objects;
-
-        private AbstractStruct[]    composites;
-
-        /**
-         * Construct internal arrays holder.
-         *
-         * @param fields Fields description.
-         * @param accessors A list of fields accessors.
-         */
-        public Holder(Fields fields, List<AbstractStruct> accessors) {
-            this.fields = fields;
-            if (fields.composites() > 0) {
-                this.composites = new AbstractStruct[fields.composites()];
-                for (int i = 0; i < composites.length; i++) {
-                    composites[i] = accessors.get(i);
-                }
-            }
-        }
-
-        /**
-         * Reallocates internal array for all fields of the struct.
-         * @param capacity The number of elements in array.
-         */
-        final void reserve(int capacity) {
-            reserveIntegers(capacity, fields.intFields());
-            reserveDoubles(capacity, fields.doubleFields());
-            reserveObjects(capacity, fields.objectFields());
-        }
-
-        /**
-         * Inserts empty elements in vector. Subsequent elements are shifted forward.
-         *
-         * @param index Insertion point.
-         * @param count The number of elements to insert.
-         */
-        final void insert(int index, int count) {
-            if (index < size) {
-                int intFields = fields.intFields();
-                if (intFields > 0) {
-                    insertInArray(index, count, this.integers, intFields);
-                    for (int i = 0; i < count * intFields; i++) {
-                        integers[index * intFields + i] = 0;
-                    }
-                }
-
-                int doubleFields = fields.doubleFields();
-                if (doubleFields > 0) {
-                    insertInArray(index, count, this.doubles, doubleFields);
-                    for (int i = 0; i < count * doubleFields; i++) {
-                        doubles[index * doubleFields + i] = 0;
-                    }
-                }
-
-                int objectFields = fields.objectFields();
-                if (objectFields > 0) {
-                    insertInArray(index, count, this.objects, objectFields);
-                    for (int i = 0; i < count * objectFields; i++) {
-                        objects[index * objectFields + i] = null;
-                    }
-                }
-            }
-
-            increaseSize(count);
-        }
-
-        private void increaseSize(int count) {
-            size += count;
-        }
-
-        @SuppressWarnings("SuspiciousSystemArraycopy")
-        private void insertInArray(int index, int count, Object array, int width) {
-            System.arraycopy(array, index * width,
-                    array, (index + count) * width, (size() - index) * width);
-        }
-
-        private void reserveIntegers(int newSize, int intFields) {
-            if (intFields > 0) {
-                int[] newIntegers = new int[newSize * intFields];
-                if (this.integers != null) {
-                    System.arraycopy(this.integers, 0, newIntegers, 0,
-                            Math.min(this.integers.length, newIntegers.length));
-                }
-                this.integers = newIntegers;
-            }
-        }
-
-        private void reserveDoubles(int newSize, int doubleFields) {
-            if (doubleFields > 0) {
-                double[] newDoubles = new double[newSize * doubleFields];
-                if (doubles != null) {
-                    System.arraycopy(doubles, 0, newDoubles, 0,
-                            Math.min(doubles.length, newDoubles.length));
-                }
-                this.doubles = newDoubles;
-            }
-        }
-
-        private void reserveObjects(int newSize, int objectFields) {
-            if (objectFields > 0) {
-                Object[] newObjects = new Object[newSize * objectFields];
-                if (objects != null) {
-                    System.arraycopy(objects, 0, newObjects, 0,
-                            Math.min(objects.length, newObjects.length));
-                }
-                this.objects = newObjects;
-            }
-        }
-
-        /**
-         * Updates internal size.
-         *
-         * @param newSize Vector size.
-         */
-        final void resize(int newSize) {
-            if (newSize < this.size) {
-                int intFields = fields.intFields();
-                if (intFields > 0) {
-                    for (int i = newSize * intFields; i < size * intFields; i++) {
-                        integers[i] = 0;
-                    }
-                }
-
-                int doubleFields = fields.doubleFields();
-                if (doubleFields > 0) {
-                    for (int i = newSize * doubleFields; i < size * doubleFields; i++) {
-                        doubles[i] = 0.0;
-                    }
-                }
-
-                int objectFields = fields.objectFields();
-                if (objectFields > 0) {
-                    for (int i = newSize * objectFields; i < size * objectFields; i++) {
-                        objects[i] = null;
-                    }
-                }
-            }
-            this.size = newSize;
-        }
-
-        @Override
-        public final int size() {
-            return this.size;
-        }
-
-        @Override
-        public final int[] integers() {
-            return integers;
-        }
-
-        @Override
-        public final double[] doubles() {
-            return doubles;
-        }
-
-        @Override
-        public final Object[] objects() {
-            return objects;
-        }
-
-        @Override
-        public final AbstractStruct[] composites() {
-            return composites;
-        }
-
-        /**
-         * Searches the struct vector for the specified value using the binary search algorithm.
-         * The vector elements should be sorted prior to making the call. If the array contains
-         * multiple elements with the specified value, there is no guarantee which one will be
-         * found.
-         *
-         * @param rowWidth The number of rowWidth of the same type.
-         * @param index Field index within a typed array.
-         * @param value The value to be searched for.
-         * @return Index of the struct record, if it is contained in the vector.
-         *         Otherwise <tt>(-(<i>insertion point</i>) - 1)</tt>.
-         */
-        final int binarySearch(int rowWidth, int index, int value) {
-            int low = 0;
-            int high = size - 1;
-
-            while (low <= high) {
-                int middle = (low + high) >>> 1;
-                int middleValue = integers[middle * rowWidth + index];
-
-                if (middleValue < value) {
-                    low = middle + 1;
-                } else if (middleValue > value) {
-                    high = middle - 1;
-                } else {
-                    return middle;
-                }
-            }
-            return -(low + 1);
-        }
-
-        /**
-         * Searches the struct vector for the specified value using the binary search algorithm.
-         * The vector elements should be sorted prior to making the call. If the array contains
-         * multiple elements with the specified value, there is no guarantee which one will be
-         * found.
-         *
-         * @param rowWidth The number of field of the same type.
-         * @param index Field index within a typed array.
-         * @param value The value to be searched for.
-         * @return Index of the struct record, if it is contained in the vector.
-         *         Otherwise <tt>(-(<i>insertion point</i>) - 1)</tt>.
-         */
-        final int binarySearch(int rowWidth, int index, double value) {
-            int low = 0;
-            int high = size - 1;
-
-            while (low <= high) {
-                int middle = (low + high) >>> 1;
-                double middleValue = doubles[middle * rowWidth + index];
-
-                if (middleValue < value) {
-                    low = middle + 1;
-                } else if (middleValue > value) {
-                    high = middle - 1;
-                } else {
-                    long middleBits = Double.doubleToLongBits(middleValue);
-                    long valueBits = Double.doubleToLongBits(value);
-                    if (middleBits == valueBits) {
-                        return middle;
-                    } else if (middleBits < valueBits) {
-                        // (-0.0, 0.0) or (!NaN, NaN)
-                        low = middle + 1;
-                    } else {
-                        // (0.0, -0.0) or (NaN, !NaN)
-                        high = middle - 1;
-                    }
-                }
-            }
-            return -(low + 1);
-        }
-
-        /**
-         * Searches the struct vector for the specified value using the binary search algorithm.
-         * The vector elements should be sorted prior to making the call. If the array contains
-         * multiple elements with the specified value, there is no guarantee which one will be
-         * found.
-         *
-         * @param <U> Field type.
-         * @param rowWidth The number of field of the same type.
-         * @param index Field index within a typed array.
-         * @param value The value to be searched for.
-         * @return Index of the struct record, if it is contained in the vector.
-         *         Otherwise <tt>(-(<i>insertion point</i>) - 1)</tt>.
-         */
-        final <U> int binarySearch(int rowWidth, int index, Comparable<U> value) {
-            int low = 0;
-            int high = size - 1;
-
-            while (low <= high) {
-                int middle = (low + high) >>> 1;
-                @SuppressWarnings("unchecked")
-                U middleValue = (U) objects[middle * rowWidth + index];
-                int comparison = value.compareTo(middleValue);
-
-                if (comparison > 0) {
-                    low = middle + 1;
-                } else if (comparison < 0) {
-                    high = middle - 1;
-                } else {
-                    return middle;
-                }
-            }
-            return -(low + 1);
-        }
-
-        private SortedSubstitution integerSortedSubstitution(Field field) {
-            return new AbstractSortedSubstitution.Integers(
-                    integers, size, fields.intFields(), field.index());
-        }
-
-        private SortedSubstitution doubleSortedSubstitution(Field field) {
-            return new AbstractSortedSubstitution.Doubles(
-                    doubles, size, fields.doubleFields(), field.index());
-        }
+    public byte fieldValueByte(Field field, int index) {
+        return column(field).getByte(index);
+    }
 
-        private <U> SortedSubstitution objectSortedSubstitution(
-                Field field, Comparator<U> comparator) {
-            return new AbstractSortedSubstitution.Objects(
-                    objects, size, fields.objectFields(), field.index(), comparator);
-        }
+    /**
+     * Retrieve char field value.
+     *
+     * @param field Field object.
+     * @param index Record index.
+     * @return Char value of the field.
+     */
+    public char fieldValueChar(Field field, int index) {
+        return column(field).getChar(index);
+    }
 
-        /**
-         * Reorder struct records by using substitution index array.
-         *
-         * @param substitution Substitution index array.
-         */
-        private void reorder(OrderingSubstitution substitution) {
-            substitution.reorder(this::swapRows);
-        }
+    /**
+     * Retrieve boolean field value.
+     *
+     * @param field Field object.
+     * @param index Record index.
+     * @return Boolean value of the field.
+     */
+    public boolean fieldValueBoolean(Field field, int index) {
+        return column(field).getBoolean(index);
+    }
 
-        /**
-         * Swap two struct records specified by their indexes.
-         *
-         * @param first First record index.
-         * @param second Second record index.
-         */
-        private void swapRows(int first, int second) {
-            int intFields = fields.intFields();
-            for (int i = 0; i < intFields; i++) {
-                int temp = integers[first * intFields + i];
-                integers[first * intFields + i] = integers[second * intFields + i];
-                integers[second * intFields + i] = temp;
-            }
+    /**
+     * Retrieve object field value.
+     *
+     * @param field Field object.
+     * @param index Record index.
+     * @return Object value of the field.
+     */
+    public Object fieldValueObject(Field field, int index) {
+        return column(field).getObject(index);
+    }
 
-            int doubleFields = fields.doubleFields();
-            for (int i = 0; i < doubleFields; i++) {
-                double temp = doubles[first * doubleFields + i];
-                doubles[first * doubleFields + i] = doubles[second * doubleFields + i];
-                doubles[second * doubleFields + i] = temp;
-            }
+    /**
+     * Creates a hash index on an int, long or object field, which is kept up to date by the
+     * vector until it's dropped.
+     *
+     * @param name Name of the key field.
+     * @return New hash index.
+     */
+    public HashIndex hashIndex(String name) {
+        return indexes.add(HashIndex.of(this, name));
+    }
 
-            int objectFields = fields.objectFields();
-            for (int i = 0; i < objectFields; i++) {
-                Object temp = objects[first * objectFields + i];
-                objects[first * objectFields + i] = objects[second * objectFields + i];
-                objects[second * objectFields + i] = temp;
-            }
-        }
+    /**
+     * Stops maintaining the hash index.
+     *
+     * @param index Hash index created by this vector.
+     */
+    public void dropIndex(HashIndex index) {
+        indexes.remove(index);
     }
 }
@@ -27,12 +27,28 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
+import net.bytebuddy.description.field.FieldDescription;
+import net.bytebuddy.description.field.FieldList;
 import net.bytebuddy.description.method.MethodDescription;
 import net.bytebuddy.description.method.MethodList;
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.dynamic.scaffold.InstrumentedType;
 import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.bytecode.ByteCodeAppender;
+import net.bytebuddy.implementation.bytecode.StackManipulation;
+import net.bytebuddy.implementation.bytecode.member.FieldAccess;
+import net.bytebuddy.implementation.bytecode.member.MethodInvocation;
+import net.bytebuddy.implementation.bytecode.member.MethodVariableAccess;
 import net.nativestruct.AbstractStruct;
+import net.nativestruct.AccessorMode;
+import net.nativestruct.StorageMode;
+import net.nativestruct.implementation.bytecode.array.ArrayGetterByteCodeAppender;
+import net.nativestruct.implementation.bytecode.array.ArraySetterByteCodeAppender;
+import net.nativestruct.implementation.bytecode.array.RunIndex;
+import net.nativestruct.implementation.bytecode.memory.MemoryGetterByteCodeAppender;
+import net.nativestruct.implementation.bytecode.memory.MemorySetterByteCodeAppender;
+import net.nativestruct.implementation.field.FieldSlot;
+import net.nativestruct.implementation.field.StorageType;
 
 import static net.bytebuddy.matcher.ElementMatchers.named;
 import static net.bytebuddy.matcher.ElementMatchers.returns;
@@ -51,11 +67,41 @@ public abstract class AbstractImplementation implements Implementation {
     public static final MethodDescription.InDefinedShape INT_FIELD_SETTER
             = STRUCT_METHODS.filter(named("updateIntFieldIndexed")).getOnly();
 
+    public static final MethodDescription.InDefinedShape LONG_FIELD_GETTER
+            = STRUCT_METHODS.filter(named("longFieldIndexed")).getOnly();
+    public static final MethodDescription.InDefinedShape LONG_FIELD_SETTER
+            = STRUCT_METHODS.filter(named("updateLongFieldIndexed")).getOnly();
+
+    public static final MethodDescription.InDefinedShape FLOAT_FIELD_GETTER
+            = STRUCT_METHODS.filter(named("floatFieldIndexed")).getOnly();
+    public static final MethodDescription.InDefinedShape FLOAT_FIELD_SETTER
+            = STRUCT_METHODS.filter(named("updateFloatFieldIndexed")).getOnly();
+
     public static final MethodDescription.InDefinedShape DOUBLE_FIELD_GETTER
             = STRUCT_METHODS.filter(named("doubleFieldIndexed")).getOnly();
     public static final MethodDescription.InDefinedShape DOUBLE_FIELD_SETTER
             = STRUCT_METHODS.filter(named("updateDoubleFieldIndexed")).getOnly();
 
+    public static final MethodDescription.InDefinedShape SHORT_FIELD_GETTER
+            = STRUCT_METHODS.filter(named("shortFieldIndexed")).getOnly();
+    public static final MethodDescription.InDefinedShape SHORT_FIELD_SETTER
+            = STRUCT_METHODS.filter(named("updateShortFieldIndexed")).getOnly();
+
+    public static final MethodDescription.InDefinedShape BYTE_FIELD_GETTER
+            = STRUCT_METHODS.filter(named("byteFieldIndexed")).getOnly();
+    public static final MethodDescription.InDefinedShape BYTE_FIELD_SETTER
+            = STRUCT_METHODS.filter(named("updateByteFieldIndexed")).getOnly();
+
+    public static final MethodDescription.InDefinedShape CHAR_FIELD_GETTER
+            = STRUCT_METHODS.filter(named("charFieldIndexed")).getOnly();
+    public static final MethodDescription.InDefinedShape CHAR_FIELD_SETTER
+            = STRUCT_METHODS.filter(named("updateCharFieldIndexed")).getOnly();
+
+    public static final MethodDescription.InDefinedShape BOOLEAN_FIELD_GETTER
+            = STRUCT_METHODS.filter(named("booleanFieldIndexed")).getOnly();
+    public static final MethodDescription.InDefinedShape BOOLEAN_FIELD_SETTER
+            = STRUCT_METHODS.filter(named("updateBooleanFieldIndexed")).getOnly();
+
     public static final MethodDescription.InDefinedShape OBJECT_FIELD_GETTER
             = STRUCT_METHODS.filter(named("objectFieldIndexed")).getOnly();
     public static final MethodDescription.InDefinedShape OBJECT_FIELD_SETTER
@@ -67,38 +113,111 @@ public abstract class AbstractImplementation implements Implementation {
     public static final MethodDescription.InDefinedShape STRUCT_COMPOSITE
             = STRUCT_METHODS.filter(named("composite")).getOnly();
 
-    public static final Map<Class<?>, MethodDescription.InDefinedShape> FIELD_GETTERS;
-    public static final Map<Class<?>, MethodDescription.InDefinedShape> FIELD_SETTERS;
+    public static final FieldList<FieldDescription.InDefinedShape> STRUCT_FIELDS
+            = STRUCT_TYPE.getDeclaredFields();
+
+    public static final FieldDescription.InDefinedShape STRUCT_CURRENT_FIELD
+            = STRUCT_FIELDS.filter(named("current")).getOnly();
+
+    public static final FieldDescription.InDefinedShape STRUCT_CAPACITY_FIELD
+            = STRUCT_FIELDS.filter(named("capacity")).getOnly();
+
+    public static final MethodDescription.InDefinedShape STRUCT_CHECK_BOUNDS
+            = STRUCT_METHODS.filter(named("checkIndexBounds")).getOnly();
+
+    public static final Map<Class<?>, MethodDescription.InDefinedShape> FIELD_GETTERS
+            = fieldGetters();
+    public static final Map<Class<?>, MethodDescription.InDefinedShape> FIELD_SETTERS
+            = fieldSetters();
+    public static final Map<Class<?>, FieldDescription.InDefinedShape> FIELD_ARRAYS
+            = fieldArrays();
+    public static final Map<Class<?>, MethodDescription.InDefinedShape> MEMORY_GETTERS
+            = memoryAccessors(false);
+    public static final Map<Class<?>, MethodDescription.InDefinedShape> MEMORY_SETTERS
+            = memoryAccessors(true);
+
+    private Class<?> type;
+    private int fields;
+    private int index;
+    private int region;
+    private int start;
+    private boolean split;
+    private AccessorMode mode;
+    private StorageMode storage;
+
+    /**
+     * Construct bytecode appender instance.
+     *
+     * @param slot Location of the field value.
+     * @param mode Accessor code generation mode.
+     * @param storage Storage of the struct vector the accessor is generated for.
+     */
+    public AbstractImplementation(FieldSlot slot, AccessorMode mode, StorageMode storage) {
+        this.type = slot.type();
+        this.fields = slot.run().width();
+        this.index = slot.position();
+        this.region = slot.region();
+        this.start = slot.run().start();
+        this.split = slot.isSplit();
+        this.mode = mode;
+        this.storage = storage;
+    }
 
-    static {
+    private static Map<Class<?>, MethodDescription.InDefinedShape> fieldGetters() {
         Map<Class<?>, MethodDescription.InDefinedShape> map = new HashMap<>();
         map.put(int.class, INT_FIELD_GETTER);
+        map.put(long.class, LONG_FIELD_GETTER);
+        map.put(float.class, FLOAT_FIELD_GETTER);
         map.put(double.class, DOUBLE_FIELD_GETTER);
+        map.put(short.class, SHORT_FIELD_GETTER);
+        map.put(byte.class, BYTE_FIELD_GETTER);
+        map.put(char.class, CHAR_FIELD_GETTER);
+        map.put(boolean.class, BOOLEAN_FIELD_GETTER);
         map.put(Object.class, OBJECT_FIELD_GETTER);
-        FIELD_GETTERS = Collections.unmodifiableMap(map);
+        return Collections.unmodifiableMap(map);
+    }
 
-        map = new HashMap<>();
+    private static Map<Class<?>, MethodDescription.InDefinedShape> fieldSetters() {
+        Map<Class<?>, MethodDescription.InDefinedShape> map = new HashMap<>();
         map.put(int.class, INT_FIELD_SETTER);
+        map.put(long.class, LONG_FIELD_SETTER);
+        map.put(float.class, FLOAT_FIELD_SETTER);
         map.put(double.class, DOUBLE_FIELD_SETTER);
+        map.put(short.class, SHORT_FIELD_SETTER);
+        map.put(byte.class, BYTE_FIELD_SETTER);
+        map.put(char.class, CHAR_FIELD_SETTER);
+        map.put(boolean.class, BOOLEAN_FIELD_SETTER);
         map.put(Object.class, OBJECT_FIELD_SETTER);
-        FIELD_SETTERS = Collections.unmodifiableMap(map);
+        return Collections.unmodifiableMap(map);
     }
 
-    private Class<?> type;
-    private int fields;
-    private int index;
+    private static Map<Class<?>, FieldDescription.InDefinedShape> fieldArrays() {
+        Map<Class<?>, FieldDescription.InDefinedShape> arrays = new HashMap<>();
+        arrays.put(int.class, STRUCT_FIELDS.filter(named("integers")).getOnly());
+        arrays.put(long.class, STRUCT_FIELDS.filter(named("longs")).getOnly());
+        arrays.put(float.class, STRUCT_FIELDS.filter(named("floats")).getOnly());
+        arrays.put(double.class, STRUCT_FIELDS.filter(named("doubles")).getOnly());
+        arrays.put(short.class, STRUCT_FIELDS.filter(named("shorts")).getOnly());
+        arrays.put(byte.class, STRUCT_FIELDS.filter(named("bytes")).getOnly());
+        arrays.put(char.class, STRUCT_FIELDS.filter(named("chars")).getOnly());
+        arrays.put(boolean.class, STRUCT_FIELDS.filter(named("booleans")).getOnly());
+        arrays.put(Object.class, STRUCT_FIELDS.filter(named("objects")).getOnly());
+        return Collections.unmodifiableMap(arrays);
+    }
 
-    /**
-     * Construct bytecode appender instance.
-     *
-     * @param type Field type.
-     * @param fields The number of integer fields in a struct.
-     * @param index Index of the field being updated.
-     */
-    public AbstractImplementation(Class<?> type, int fields, int index) {
-        this.type = type;
-        this.fields = fields;
-        this.index = index;
+    private static Map<Class<?>, MethodDescription.InDefinedShape> memoryAccessors(
+            boolean setters) {
+        Map<Class<?>, MethodDescription.InDefinedShape> map = new HashMap<>();
+        for (StorageType storage : StorageType.values()) {
+            if (storage.isPrimitive()) {
+                String name = storage.type().getName() + "FieldMemory";
+                if (setters) {
+                    name = "update" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+                }
+                map.put(storage.type(), STRUCT_METHODS.filter(named(name)).getOnly());
+            }
+        }
+        return Collections.unmodifiableMap(map);
     }
 
     @Override
@@ -114,16 +233,147 @@ public abstract class AbstractImplementation implements Implementation {
     }
 
     /**
-     * @return The number of fields of the same type.
+     * @return The number of fields of the same type interleaved with the field.
      */
     public final int fields() {
         return fields;
     }
 
     /**
-     * @return Field index within the fields with the same type.
+     * @return Field index within the fields of the same type interleaved with the field.
      */
     public final int index() {
         return index;
     }
+
+    /**
+     * @return Accessor code generation mode.
+     */
+    public final AccessorMode mode() {
+        return mode;
+    }
+
+    /**
+     * @return Whether accessor should load the backing array and access its element directly.
+     *         It is always required when the storage is split into several runs, since the run
+     *         offset depends on the vector capacity.
+     */
+    public final boolean isArrayAccess() {
+        return mode == AccessorMode.ARRAY_ACCESS || split;
+    }
+
+    /**
+     * @return Whether the field value is kept in off-heap memory.
+     */
+    public final boolean isOffHeap() {
+        return storage == StorageMode.OFF_HEAP && type.isPrimitive();
+    }
+
+    /**
+     * @return Component type of the array holding the field values.
+     */
+    protected final Class<?> storageType() {
+        return StorageType.of(type).type();
+    }
+
+    /**
+     * @return Stack manipulation loading the current record index of the struct.
+     */
+    protected static StackManipulation currentRow() {
+        return new StackManipulation.Compound(
+                MethodVariableAccess.REFERENCE.loadOffset(0),
+                FieldAccess.forField(STRUCT_CURRENT_FIELD).getter());
+    }
+
+    /**
+     * Creates getter appender accessing the backing array directly.
+     *
+     * @param row Stack manipulation loading the record index.
+     * @param checked Whether the record index should be checked against vector bounds. Array
+     *                bounds check suffices unless the storage is split into several runs, where
+     *                an index out of vector bounds addresses another run, so split storage is
+     *                checked regardless.
+     * @return Bytecode appender.
+     */
+    protected final ByteCodeAppender arrayGetter(StackManipulation row, boolean checked) {
+        return new ArrayGetterByteCodeAppender(arrayField(),
+                new TypeDescription.ForLoadedType(storageType()),
+                checkedElementIndex(row, checked),
+                new TypeDescription.ForLoadedType(type));
+    }
+
+    /**
+     * Creates setter appender accessing the backing array directly.
+     *
+     * @param row Stack manipulation loading the record index.
+     * @param checked Whether the record index should be checked against vector bounds, see
+     *                {@link #arrayGetter(StackManipulation, boolean)}.
+     * @param valueOffset Local variable offset of the value parameter.
+     * @return Bytecode appender.
+     */
+    protected final ByteCodeAppender arraySetter(StackManipulation row, boolean checked,
+                                                 int valueOffset) {
+        TypeDescription.ForLoadedType parameter = new TypeDescription.ForLoadedType(type);
+        return new ArraySetterByteCodeAppender(arrayField(),
+                new TypeDescription.ForLoadedType(storageType()),
+                checkedElementIndex(row, checked),
+                MethodVariableAccess.of(parameter).loadOffset(valueOffset));
+    }
+
+    /**
+     * Creates getter appender reading the value from off-heap memory.
+     *
+     * @param row Stack manipulation loading the record index.
+     * @param checked Whether the record index should be checked against vector bounds.
+     * @return Bytecode appender.
+     */
+    protected final ByteCodeAppender memoryGetter(StackManipulation row, boolean checked) {
+        return new MemoryGetterByteCodeAppender(boundsCheck(row, checked), region,
+                elementIndex(row), MEMORY_GETTERS.get(type),
+                new TypeDescription.ForLoadedType(type));
+    }
+
+    /**
+     * Creates setter appender writing the value to off-heap memory.
+     *
+     * @param row Stack manipulation loading the record index.
+     * @param checked Whether the record index should be checked against vector bounds.
+     * @param valueOffset Local variable offset of the value parameter.
+     * @return Bytecode appender.
+     */
+    protected final ByteCodeAppender memorySetter(StackManipulation row, boolean checked,
+                                                  int valueOffset) {
+        TypeDescription.ForLoadedType parameter = new TypeDescription.ForLoadedType(type);
+        return new MemorySetterByteCodeAppender(boundsCheck(row, checked), region,
+                elementIndex(row), MEMORY_SETTERS.get(type),
+                MethodVariableAccess.of(parameter).loadOffset(valueOffset));
+    }
+
+    private StackManipulation checkedElementIndex(StackManipulation row, boolean checked) {
+        return new StackManipulation.Compound(
+                boundsCheck(row, checked || split), elementIndex(row));
+    }
+
+    private StackManipulation elementIndex(StackManipulation row) {
+        return RunIndex.of(row, fields, index, STRUCT_CAPACITY_FIELD, start);
+    }
+
+    private static StackManipulation boundsCheck(StackManipulation row, boolean checked) {
+        StackManipulation check = StackManipulation.Trivial.INSTANCE;
+        if (checked) {
+            check = new StackManipulation.Compound(
+                    MethodVariableAccess.REFERENCE.loadOffset(0),
+                    row,
+                    MethodInvocation.invoke(STRUCT_CHECK_BOUNDS));
+        }
+        return check;
+    }
+
+    private FieldDescription.InDefinedShape arrayField() {
+        FieldDescription.InDefinedShape array = FIELD_ARRAYS.get(storageType());
+        if (array == null) {
+            throw new AssertionError("No array for type: " + type);
+        }
+        return array;
+    }
 }
@@ -0,0 +1,95 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct.implementation.bytecode.array;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.bytebuddy.description.field.FieldDescription;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.bytecode.ByteCodeAppender;
+import net.bytebuddy.implementation.bytecode.StackManipulation;
+import net.bytebuddy.implementation.bytecode.assign.TypeCasting;
+import net.bytebuddy.implementation.bytecode.collection.ArrayAccess;
+import net.bytebuddy.implementation.bytecode.member.FieldAccess;
+import net.bytebuddy.implementation.bytecode.member.MethodReturn;
+import net.bytebuddy.implementation.bytecode.member.MethodVariableAccess;
+import net.bytebuddy.jar.asm.MethodVisitor;
+
+/**
+ * Bytecode generator of the field getter, which loads the value straight from the backing array.
+ */
+public final class ArrayGetterByteCodeAppender implements ByteCodeAppender {
+
+    private final FieldDescription.InDefinedShape array;
+    private final TypeDescription.ForLoadedType component;
+    private final StackManipulation element;
+    private final TypeDescription.ForLoadedType returning;
+
+    /**
+     * Construct bytecode appender instance.
+     *
+     * @param array Descriptor of the backing array field of
+     *              {@link net.nativestruct.AbstractStruct}.
+     * @param component Array component type.
+     * @param element Stack manipulation computing array element index.
+     * @param returning Return type description.
+     */
+    public ArrayGetterByteCodeAppender(FieldDescription.InDefinedShape array,
+                                       TypeDescription.ForLoadedType component,
+                                       StackManipulation element,
+                                       TypeDescription.ForLoadedType returning) {
+        this.array = array;
+        this.component = component;
+        this.element = element;
+        this.returning = returning;
+    }
+
+    @Override
+    public Size apply(MethodVisitor methodVisitor,
+                      Implementation.Context context,
+                      MethodDescription method) {
+
+        List<StackManipulation> commands = new ArrayList<>(Arrays.asList(
+                MethodVariableAccess.REFERENCE.loadOffset(0),
+                FieldAccess.forField(array).getter(),
+                element,
+                ArrayAccess.of(component).load()
+        ));
+
+        if (!returning.isPrimitive() && !returning.represents(Object.class)) {
+            commands.add(TypeCasting.to(returning));
+        }
+
+        commands.add(MethodReturn.returning(returning));
+
+        StackManipulation.Size stackSize = new StackManipulation.Compound(commands)
+                .apply(methodVisitor, context);
+
+        return new Size(stackSize.getMaximalSize(), method.getStackSize());
+    }
+}
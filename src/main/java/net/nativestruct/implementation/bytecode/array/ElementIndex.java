@@ -0,0 +1,75 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct.implementation.bytecode.array;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.bytecode.StackManipulation;
+import net.bytebuddy.implementation.bytecode.constant.IntegerConstant;
+import net.bytebuddy.jar.asm.MethodVisitor;
+
+/**
+ * Computes position of a struct field value within a typed array: {@code row * stride + offset}.
+ * Multiplication and addition are omitted when they have no effect.
+ */
+public final class ElementIndex implements StackManipulation {
+    private final StackManipulation row;
+    private final int stride;
+    private final int offset;
+
+    /**
+     * Constructs instance.
+     *
+     * @param row Stack manipulation loading the record index.
+     * @param stride The number of array elements occupied by a single record.
+     * @param offset Field offset within a record.
+     */
+    public ElementIndex(StackManipulation row, int stride, int offset) {
+        this.row = row;
+        this.stride = stride;
+        this.offset = offset;
+    }
+
+    @Override
+    public boolean isValid() {
+        return row.isValid();
+    }
+
+    @Override
+    public Size apply(MethodVisitor methodVisitor, Implementation.Context context) {
+        List<StackManipulation> commands = new ArrayList<>();
+        commands.add(row);
+        if (stride != 1) {
+            commands.add(IntegerConstant.forValue(stride));
+            commands.add(IntegerOperation.MULTIPLY);
+        }
+        if (offset != 0) {
+            commands.add(IntegerConstant.forValue(offset));
+            commands.add(IntegerOperation.ADD);
+        }
+        return new StackManipulation.Compound(commands).apply(methodVisitor, context);
+    }
+}
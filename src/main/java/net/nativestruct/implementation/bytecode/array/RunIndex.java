@@ -0,0 +1,94 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct.implementation.bytecode.array;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.bytebuddy.description.field.FieldDescription;
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.bytecode.StackManipulation;
+import net.bytebuddy.implementation.bytecode.constant.IntegerConstant;
+import net.bytebuddy.implementation.bytecode.member.FieldAccess;
+import net.bytebuddy.implementation.bytecode.member.MethodVariableAccess;
+import net.bytebuddy.jar.asm.MethodVisitor;
+
+/**
+ * Computes position of a struct field value within a typed array split into runs:
+ * {@code element + start * capacity}, where element is the position within the run. The capacity
+ * is read from the struct instance, the run offset is omitted for the first run.
+ */
+public final class RunIndex implements StackManipulation {
+    private final StackManipulation element;
+    private final FieldDescription.InDefinedShape capacity;
+    private final int start;
+
+    /**
+     * Constructs instance.
+     *
+     * @param element Stack manipulation computing the position within the run.
+     * @param capacity Descriptor of the struct field holding the vector capacity.
+     * @param start The number of fields in the preceding runs.
+     */
+    public RunIndex(StackManipulation element, FieldDescription.InDefinedShape capacity,
+                    int start) {
+        this.element = element;
+        this.capacity = capacity;
+        this.start = start;
+    }
+
+    /**
+     * Creates stack manipulation computing the array index of a field value of a record.
+     *
+     * @param row Stack manipulation loading the record index.
+     * @param fields The number of fields interleaved within the run.
+     * @param index Field index within the run.
+     * @param capacity Descriptor of the struct field holding the vector capacity.
+     * @param start The number of fields in the preceding runs.
+     * @return Stack manipulation.
+     */
+    public static StackManipulation of(StackManipulation row, int fields, int index,
+                                       FieldDescription.InDefinedShape capacity, int start) {
+        return new RunIndex(new ElementIndex(row, fields, index), capacity, start);
+    }
+
+    @Override
+    public boolean isValid() {
+        return element.isValid();
+    }
+
+    @Override
+    public Size apply(MethodVisitor methodVisitor, Implementation.Context context) {
+        List<StackManipulation> commands = new ArrayList<>();
+        commands.add(element);
+        if (start != 0) {
+            commands.add(MethodVariableAccess.REFERENCE.loadOffset(0));
+            commands.add(FieldAccess.forField(capacity).getter());
+            commands.add(IntegerConstant.forValue(start));
+            commands.add(IntegerOperation.MULTIPLY);
+            commands.add(IntegerOperation.ADD);
+        }
+        return new StackManipulation.Compound(commands).apply(methodVisitor, context);
+    }
+}
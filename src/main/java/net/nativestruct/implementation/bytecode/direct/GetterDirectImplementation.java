@@ -26,7 +26,10 @@ package net.nativestruct.implementation.bytecode.direct;
 import net.bytebuddy.description.method.MethodDescription;
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.implementation.bytecode.ByteCodeAppender;
+import net.nativestruct.AccessorMode;
+import net.nativestruct.StorageMode;
 import net.nativestruct.implementation.bytecode.AbstractImplementation;
+import net.nativestruct.implementation.field.FieldSlot;
 
 /**
  * Implementation of int field getter.
@@ -35,17 +38,30 @@ public final class GetterDirectImplementation extends AbstractImplementation {
     /**
      * Construct getter method implementation for retrieving field value from primitive array.
      *
-     * @param type Primitive type.
-     * @param fields The number of struct fields of the same primitive type.
-     * @param index Index of the field.
+     * @param slot Location of the field value.
+     * @param mode Accessor code generation mode.
+     * @param storage Storage of the struct vector the accessor is generated for.
      */
-    public GetterDirectImplementation(Class<?> type, int fields, int index) {
-        super(type, fields, index);
+    public GetterDirectImplementation(FieldSlot slot, AccessorMode mode, StorageMode storage) {
+        super(slot, mode, storage);
     }
 
     @Override
     public ByteCodeAppender appender(Target target) {
-        Class<?> getterType = type().isPrimitive() ? type() : Object.class;
+        ByteCodeAppender appender;
+        if (isOffHeap()) {
+            // Unlike arrays, off-heap memory isn't guarded by bounds checks of its own.
+            appender = memoryGetter(currentRow(), true);
+        } else if (isArrayAccess()) {
+            appender = arrayGetter(currentRow(), false);
+        } else {
+            appender = methodCall();
+        }
+        return appender;
+    }
+
+    private ByteCodeAppender methodCall() {
+        Class<?> getterType = storageType();
         MethodDescription.InDefinedShape getter = FIELD_GETTERS.get(getterType);
         if (getter == null) {
             throw new AssertionError("No getter for type: " + type());
@@ -27,7 +27,10 @@ import net.bytebuddy.description.method.MethodDescription;
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.implementation.bytecode.ByteCodeAppender;
 import net.bytebuddy.implementation.bytecode.member.MethodVariableAccess;
+import net.nativestruct.AccessorMode;
+import net.nativestruct.StorageMode;
 import net.nativestruct.implementation.bytecode.AbstractImplementation;
+import net.nativestruct.implementation.field.FieldSlot;
 
 /**
  * Implementation of the int field setter.
@@ -36,17 +39,30 @@ public final class SetterDirectImplementation extends AbstractImplementation {
     /**
      * Construct bytecode appender instance.
      *
-     * @param type Field type.
-     * @param fields The number of integer fields in a struct.
-     * @param index Index of the field being updated.
+     * @param slot Location of the field value.
+     * @param mode Accessor code generation mode.
+     * @param storage Storage of the struct vector the accessor is generated for.
      */
-    public SetterDirectImplementation(Class<?> type, int fields, int index) {
-        super(type, fields, index);
+    public SetterDirectImplementation(FieldSlot slot, AccessorMode mode, StorageMode storage) {
+        super(slot, mode, storage);
     }
 
     @Override
     public ByteCodeAppender appender(Target target) {
-        Class<?> setterType = type().isPrimitive() ? type() : Object.class;
+        ByteCodeAppender appender;
+        if (isOffHeap()) {
+            // Unlike arrays, off-heap memory isn't guarded by bounds checks of its own.
+            appender = memorySetter(currentRow(), true, 1);
+        } else if (isArrayAccess()) {
+            appender = arraySetter(currentRow(), false, 1);
+        } else {
+            appender = methodCall();
+        }
+        return appender;
+    }
+
+    private ByteCodeAppender methodCall() {
+        Class<?> setterType = storageType();
         MethodDescription.InDefinedShape setter = FIELD_SETTERS.get(setterType);
         if (setter == null) {
             throw new AssertionError("No setter for type: " + type());
@@ -26,7 +26,11 @@ package net.nativestruct.implementation.bytecode.indexed;
 import net.bytebuddy.description.method.MethodDescription;
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.implementation.bytecode.ByteCodeAppender;
+import net.bytebuddy.implementation.bytecode.member.MethodVariableAccess;
+import net.nativestruct.AccessorMode;
+import net.nativestruct.StorageMode;
 import net.nativestruct.implementation.bytecode.AbstractImplementation;
+import net.nativestruct.implementation.field.FieldSlot;
 
 /**
  * Implementation of int field getter.
@@ -34,17 +38,29 @@ import net.nativestruct.implementation.bytecode.AbstractImplementation;
 public final class GetterIndexedImplementation extends AbstractImplementation {
     /**
      * Construct getter method implementation for retrieving field value from primitive array.
-     * @param type Primitive type.
-     * @param fields The number of struct fields of the same primitive type.
-     * @param index Index of the field.
+     * @param slot Location of the field value.
+     * @param mode Accessor code generation mode.
+     * @param storage Storage of the struct vector the accessor is generated for.
      */
-    public GetterIndexedImplementation(Class<?> type, int fields, int index) {
-        super(type, fields, index);
+    public GetterIndexedImplementation(FieldSlot slot, AccessorMode mode, StorageMode storage) {
+        super(slot, mode, storage);
     }
 
     @Override
     public ByteCodeAppender appender(Target target) {
-        Class<?> getterType = type().isPrimitive() ? type() : Object.class;
+        ByteCodeAppender appender;
+        if (isOffHeap()) {
+            appender = memoryGetter(MethodVariableAccess.INTEGER.loadOffset(1), true);
+        } else if (isArrayAccess()) {
+            appender = arrayGetter(MethodVariableAccess.INTEGER.loadOffset(1), true);
+        } else {
+            appender = methodCall();
+        }
+        return appender;
+    }
+
+    private ByteCodeAppender methodCall() {
+        Class<?> getterType = storageType();
         MethodDescription.InDefinedShape getter = FIELD_GETTERS.get(getterType);
         if (getter == null) {
             throw new AssertionError("No getter for type: " + type());
@@ -28,7 +28,10 @@ import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.implementation.bytecode.ByteCodeAppender;
 import net.bytebuddy.implementation.bytecode.member.MethodInvocation;
 import net.bytebuddy.implementation.bytecode.member.MethodVariableAccess;
+import net.nativestruct.AccessorMode;
+import net.nativestruct.StorageMode;
 import net.nativestruct.implementation.bytecode.AbstractImplementation;
+import net.nativestruct.implementation.field.FieldSlot;
 
 /**
  * Implementation of the int field setter.
@@ -36,17 +39,29 @@ import net.nativestruct.implementation.bytecode.AbstractImplementation;
 public final class SetterIndexedImplementation extends AbstractImplementation {
     /**
      * Construct bytecode appender instance.
-     * @param type Field type.
-     * @param fields The number of integer fields in a struct.
-     * @param index Index of the field being updated.
+     * @param slot Location of the field value.
+     * @param mode Accessor code generation mode.
+     * @param storage Storage of the struct vector the accessor is generated for.
      */
-    public SetterIndexedImplementation(Class<?> type, int fields, int index) {
-        super(type, fields, index);
+    public SetterIndexedImplementation(FieldSlot slot, AccessorMode mode, StorageMode storage) {
+        super(slot, mode, storage);
     }
 
     @Override
     public ByteCodeAppender appender(Target target) {
-        Class<?> setterType = type().isPrimitive() ? type() : Object.class;
+        ByteCodeAppender appender;
+        if (isOffHeap()) {
+            appender = memorySetter(MethodVariableAccess.INTEGER.loadOffset(1), true, 2);
+        } else if (isArrayAccess()) {
+            appender = arraySetter(MethodVariableAccess.INTEGER.loadOffset(1), true, 2);
+        } else {
+            appender = methodCall();
+        }
+        return appender;
+    }
+
+    private ByteCodeAppender methodCall() {
+        Class<?> setterType = storageType();
         MethodDescription.InDefinedShape setter = FIELD_SETTERS.get(setterType);
         if (setter == null) {
             throw new AssertionError("No setter for type: " + type());
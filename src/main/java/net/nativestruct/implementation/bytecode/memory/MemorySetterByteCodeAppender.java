@@ -0,0 +1,85 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct.implementation.bytecode.memory;
+
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.bytecode.ByteCodeAppender;
+import net.bytebuddy.implementation.bytecode.StackManipulation;
+import net.bytebuddy.implementation.bytecode.constant.IntegerConstant;
+import net.bytebuddy.implementation.bytecode.member.MethodInvocation;
+import net.bytebuddy.implementation.bytecode.member.MethodReturn;
+import net.bytebuddy.implementation.bytecode.member.MethodVariableAccess;
+import net.bytebuddy.jar.asm.MethodVisitor;
+
+/**
+ * Bytecode generator of the field setter, which writes the value to off-heap memory.
+ */
+public final class MemorySetterByteCodeAppender implements ByteCodeAppender {
+
+    private final StackManipulation check;
+    private final int region;
+    private final StackManipulation element;
+    private final MethodDescription.InDefinedShape setter;
+    private final StackManipulation value;
+
+    /**
+     * Construct bytecode appender instance.
+     *
+     * @param check Stack manipulation validating the record index, it should leave the stack
+     *              intact.
+     * @param region Offset of the field type region, measured in bytes per unit of capacity.
+     * @param element Stack manipulation computing element index within the region.
+     * @param setter Memory writing method of {@link net.nativestruct.AbstractStruct}.
+     * @param value Stack manipulation loading the value parameter.
+     */
+    public MemorySetterByteCodeAppender(StackManipulation check, int region,
+                                        StackManipulation element,
+                                        MethodDescription.InDefinedShape setter,
+                                        StackManipulation value) {
+        this.check = check;
+        this.region = region;
+        this.element = element;
+        this.setter = setter;
+        this.value = value;
+    }
+
+    @Override
+    public Size apply(MethodVisitor methodVisitor,
+                      Implementation.Context context,
+                      MethodDescription method) {
+
+        StackManipulation.Size stackSize = new StackManipulation.Compound(
+                check,
+                MethodVariableAccess.REFERENCE.loadOffset(0),
+                IntegerConstant.forValue(region),
+                element,
+                value,
+                MethodInvocation.invoke(setter),
+                MethodReturn.VOID
+        ).apply(methodVisitor, context);
+
+        return new Size(stackSize.getMaximalSize(), method.getStackSize());
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct.implementation.bytecode.sorting;
+
+/**
+ * Comparisons of field values called by specialized sorters. They follow the ordering of the
+ * boxed types, e.g. {@link Double#compare(double, double)} for doubles.
+ */
+public final class KeyOrder {
+    private KeyOrder() {
+    }
+
+    /**
+     * @param left First value, also used for short, char, byte and boolean values.
+     * @param right Second value.
+     * @return If the first value is less or equal to the second value.
+     */
+    public static boolean lessOrEqual(int left, int right) {
+        return left <= right;
+    }
+
+    /**
+     * @param left First value.
+     * @param right Second value.
+     * @return If the first value is less or equal to the second value.
+     */
+    public static boolean lessOrEqual(long left, long right) {
+        return left <= right;
+    }
+
+    /**
+     * @param left First value.
+     * @param right Second value.
+     * @return If the first value is less or equal to the second value.
+     */
+    public static boolean lessOrEqual(float left, float right) {
+        return Float.compare(left, right) <= 0;
+    }
+
+    /**
+     * @param left First value.
+     * @param right Second value.
+     * @return If the first value is less or equal to the second value.
+     */
+    public static boolean lessOrEqual(double left, double right) {
+        return Double.compare(left, right) <= 0;
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct.implementation.bytecode.sorting;
+
+import net.bytebuddy.description.field.FieldDescription;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.bytecode.ByteCodeAppender;
+import net.bytebuddy.implementation.bytecode.StackManipulation;
+import net.bytebuddy.implementation.bytecode.constant.LongConstant;
+import net.bytebuddy.implementation.bytecode.member.FieldAccess;
+import net.bytebuddy.implementation.bytecode.member.MethodInvocation;
+import net.bytebuddy.implementation.bytecode.member.MethodReturn;
+import net.bytebuddy.implementation.bytecode.member.MethodVariableAccess;
+import net.bytebuddy.jar.asm.MethodVisitor;
+
+/**
+ * Bytecode generator of the record comparison of a specialized sorter. It reads the field values
+ * of both records from memory, the distance between the values of adjacent records is a constant.
+ */
+public final class LessOrEqualByteCodeAppender implements ByteCodeAppender {
+    private final FieldDescription.InDefinedShape base;
+    private final FieldDescription.InDefinedShape origin;
+    private final long pitch;
+    private final MethodDescription.InDefinedShape getter;
+    private final MethodDescription.InDefinedShape comparison;
+
+    /**
+     * Construct bytecode appender instance.
+     *
+     * @param base Sorter field holding the base object of the field values.
+     * @param origin Sorter field holding the offset of the field value of the first record.
+     * @param pitch Distance between the field values of adjacent records in bytes.
+     * @param getter Memory reading method.
+     * @param comparison Comparison method of {@link KeyOrder}.
+     */
+    public LessOrEqualByteCodeAppender(FieldDescription.InDefinedShape base,
+                                       FieldDescription.InDefinedShape origin,
+                                       long pitch,
+                                       MethodDescription.InDefinedShape getter,
+                                       MethodDescription.InDefinedShape comparison) {
+        this.base = base;
+        this.origin = origin;
+        this.pitch = pitch;
+        this.getter = getter;
+        this.comparison = comparison;
+    }
+
+    @Override
+    public Size apply(MethodVisitor methodVisitor,
+                      Implementation.Context context,
+                      MethodDescription method) {
+
+        StackManipulation.Size stackSize = new StackManipulation.Compound(
+                value(1),
+                value(2),
+                MethodInvocation.invoke(comparison),
+                MethodReturn.returning(new TypeDescription.ForLoadedType(boolean.class))
+        ).apply(methodVisitor, context);
+
+        return new Size(stackSize.getMaximalSize(), method.getStackSize());
+    }
+
+    private StackManipulation value(int row) {
+        return new StackManipulation.Compound(
+                MethodVariableAccess.REFERENCE.loadOffset(0),
+                FieldAccess.forField(base).getter(),
+                MethodVariableAccess.REFERENCE.loadOffset(0),
+                FieldAccess.forField(origin).getter(),
+                MethodVariableAccess.INTEGER.loadOffset(row),
+                LongOperation.WIDEN,
+                LongConstant.forValue(pitch),
+                LongOperation.MULTIPLY,
+                LongOperation.ADD,
+                MethodInvocation.invoke(getter));
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct.implementation.bytecode.sorting;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import net.bytebuddy.description.field.FieldDescription;
+import net.bytebuddy.description.field.FieldList;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.method.MethodList;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.scaffold.InstrumentedType;
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.bytecode.ByteCodeAppender;
+import net.nativestruct.implementation.field.StorageType;
+import net.nativestruct.implementation.memory.Memory;
+
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static net.bytebuddy.matcher.ElementMatchers.takesArguments;
+
+/**
+ * Implementation of the record comparison of a specialized sorter.
+ */
+public final class LessOrEqualImplementation implements Implementation {
+    private static final Map<StorageType, MethodDescription.InDefinedShape> GETTERS = getters();
+    private static final Map<StorageType, MethodDescription.InDefinedShape> COMPARISONS =
+            comparisons();
+
+    private final StorageType storage;
+    private final int stride;
+
+    /**
+     * Construct implementation instance.
+     *
+     * @param storage Storage type of the field.
+     * @param stride Distance between the field values of adjacent records in elements.
+     */
+    public LessOrEqualImplementation(StorageType storage, int stride) {
+        this.storage = storage;
+        this.stride = stride;
+    }
+
+    private static Map<StorageType, MethodDescription.InDefinedShape> getters() {
+        MethodList<MethodDescription.InDefinedShape> methods =
+                new TypeDescription.ForLoadedType(Memory.class).getDeclaredMethods();
+        Map<StorageType, MethodDescription.InDefinedShape> map = new EnumMap<>(StorageType.class);
+        for (StorageType type : StorageType.values()) {
+            if (type.isPrimitive()) {
+                String name = type.type().getName();
+                name = "get" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+                map.put(type, methods.filter(named(name)
+                        .and(takesArguments(Object.class, long.class))).getOnly());
+            }
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    private static Map<StorageType, MethodDescription.InDefinedShape> comparisons() {
+        MethodList<MethodDescription.InDefinedShape> methods =
+                new TypeDescription.ForLoadedType(KeyOrder.class).getDeclaredMethods();
+        Map<StorageType, MethodDescription.InDefinedShape> map = new EnumMap<>(StorageType.class);
+        for (StorageType type : StorageType.values()) {
+            if (type.isPrimitive()) {
+                Class<?> argument = type.type();
+                if (type.bytes() < Integer.BYTES) {
+                    argument = int.class;
+                }
+                map.put(type, methods.filter(named("lessOrEqual")
+                        .and(takesArguments(argument, argument))).getOnly());
+            }
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    @Override
+    public InstrumentedType prepare(InstrumentedType instrumented) {
+        return instrumented;
+    }
+
+    @Override
+    public ByteCodeAppender appender(Target target) {
+        FieldList<FieldDescription.InDefinedShape> fields =
+                target.getInstrumentedType().getDeclaredFields();
+        return new LessOrEqualByteCodeAppender(
+                fields.filter(named("base")).getOnly(),
+                fields.filter(named("origin")).getOnly(),
+                (long) stride * storage.bytes(),
+                GETTERS.get(storage),
+                COMPARISONS.get(storage));
+    }
+}
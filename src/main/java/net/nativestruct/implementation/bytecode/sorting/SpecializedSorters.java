@@ -0,0 +1,112 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct.implementation.bytecode.sorting;
+
+import java.lang.reflect.Constructor;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.nativestruct.implementation.field.Field;
+import net.nativestruct.sorting.IndexedFieldComparator;
+import net.nativestruct.sorting.MergeSort;
+import net.nativestruct.sorting.RangeSorter;
+import net.nativestruct.sorting.SorterFactory;
+
+import static net.bytebuddy.matcher.ElementMatchers.named;
+
+/**
+ * Generates a copy of {@link MergeSort} per struct type and primitive field, whose record
+ * comparison reads the field values with the distance between adjacent records as a constant.
+ * Every copy has its own profile, so the comparison call in its merge loops stays monomorphic and
+ * gets inlined no matter how many different structs are sorted.
+ */
+public final class SpecializedSorters {
+    private static final ClassValue<Map<String, Constructor<?>>> CACHE = new SorterCache();
+
+    private SpecializedSorters() {
+    }
+
+    /**
+     * @param type Struct type.
+     * @param field Primitive struct field.
+     * @param base Base object of the field values, see
+     *             {@link net.nativestruct.implementation.memory.Memory}.
+     * @param origin Offset of the field value of the first record.
+     * @return Factory of the sorters specialized for the field.
+     */
+    public static SorterFactory factory(Class<?> type, Field field, Object base, long origin) {
+        Constructor<?> constructor = CACHE.get(type)
+                .computeIfAbsent(field.name(), name -> generate(type, field));
+        return (indexes, shadow) -> newSorter(constructor, indexes, shadow, base, origin);
+    }
+
+    private static Constructor<?> generate(Class<?> type, Field field) {
+        Class<?> sorter = new ByteBuddy()
+                .redefine(MergeSort.class)
+                .name(type.getName() + "$MergeSort$" + field.name())
+                .method(named("lessOrEqual"))
+                .intercept(new LessOrEqualImplementation(
+                        field.storageType(), field.slot().run().width()))
+                .make()
+                .load(classLoader(type), ClassLoadingStrategy.Default.WRAPPER)
+                .getLoaded();
+        try {
+            return sorter.getConstructor(int[].class, int[].class,
+                    IndexedFieldComparator.class, Object.class, long.class);
+        } catch (NoSuchMethodException e) {
+            throw new AssertionError("No sorter constructor for " + field.name(), e);
+        }
+    }
+
+    private static RangeSorter newSorter(Constructor<?> constructor, int[] indexes,
+                                         int[] shadow, Object base, long origin) {
+        try {
+            return (RangeSorter) constructor.newInstance(indexes, shadow, null, base, origin);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Cannot create sorter " + constructor.getName(), e);
+        }
+    }
+
+    /**
+     * @param type Struct type.
+     * @return Class loader of the struct type, so that the generated class can see the sorting
+     *         types, or the library class loader for bootstrap types.
+     */
+    private static ClassLoader classLoader(Class<?> type) {
+        ClassLoader loader = type.getClassLoader();
+        return loader == null ? SpecializedSorters.class.getClassLoader() : loader;
+    }
+
+    /**
+     * Generated sorter constructors of a struct type by field name.
+     */
+    private static final class SorterCache extends ClassValue<Map<String, Constructor<?>>> {
+        @Override
+        protected Map<String, Constructor<?>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    }
+}
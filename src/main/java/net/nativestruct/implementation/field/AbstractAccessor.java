@@ -34,7 +34,9 @@ import net.bytebuddy.dynamic.scaffold.InstrumentedType;
 import net.bytebuddy.implementation.Implementation;
 import net.bytebuddy.implementation.bytecode.ByteCodeAppender;
 import net.nativestruct.AbstractStruct;
+import net.nativestruct.AccessorMode;
 import net.nativestruct.AccessorType;
+import net.nativestruct.StorageMode;
 import net.nativestruct.implementation.bytecode.constant.StructGetterByteCodeAppender;
 import net.nativestruct.implementation.bytecode.direct.GetterDirectImplementation;
 import net.nativestruct.implementation.bytecode.direct.SetterDirectImplementation;
@@ -45,7 +47,9 @@ import net.nativestruct.implementation.bytecode.indexed.SetterIndexedImplementat
  * Encapsulates accessor type (getter or setter) and field type.
  */
 public abstract class AbstractAccessor implements Accessor {
-    private static final List<Class<?>> SUPPORTED_TYPES = Arrays.asList(int.class, double.class);
+    private static final List<Class<?>> SUPPORTED_TYPES = Arrays.asList(
+            int.class, long.class, float.class, double.class,
+            short.class, byte.class, char.class, boolean.class);
 
     private Class<?> type;
     private String name;
@@ -169,12 +173,13 @@ public abstract class AbstractAccessor implements Accessor {
 
         @Override
         public DynamicType.Builder<AbstractStruct> install(
-                DynamicType.Builder<AbstractStruct> struct, int index, FieldCounts counts) {
+                DynamicType.Builder<AbstractStruct> struct, int index, FieldCounts counts,
+                AccessorMode mode, StorageMode storage) {
             return struct
                     .defineMethod(getName(), getType(), Visibility.PUBLIC)
                     .withParameters(int.class)
                     .intercept(new GetterIndexedImplementation(
-                            getType(), counts.fieldsOf(getType()), index));
+                            counts.slotOf(getType(), index), mode, storage));
         }
     }
 
@@ -195,12 +200,13 @@ public abstract class AbstractAccessor implements Accessor {
 
         @Override
         public DynamicType.Builder<AbstractStruct> install(
-                DynamicType.Builder<AbstractStruct> struct, int index, FieldCounts counts) {
+                DynamicType.Builder<AbstractStruct> struct, int index, FieldCounts counts,
+                AccessorMode mode, StorageMode storage) {
             return struct
                     .defineMethod(getName(), void.class, Visibility.PUBLIC)
                     .withParameters(int.class, getType())
                     .intercept(new SetterIndexedImplementation(
-                            getType(), counts.fieldsOf(getType()), index));
+                            counts.slotOf(getType(), index), mode, storage));
         }
     }
 
@@ -221,12 +227,13 @@ public abstract class AbstractAccessor implements Accessor {
 
         @Override
         public DynamicType.Builder<AbstractStruct> install(
-                DynamicType.Builder<AbstractStruct> struct, int index, FieldCounts counts) {
+                DynamicType.Builder<AbstractStruct> struct, int index, FieldCounts counts,
+                AccessorMode mode, StorageMode storage) {
             return struct
                     .defineMethod(getName(), getType(), Visibility.PUBLIC)
                     .withParameters(Arrays.<Type>asList())
                     .intercept(new GetterDirectImplementation(
-                            getType(), counts.fieldsOf(getType()), index));
+                            counts.slotOf(getType(), index), mode, storage));
         }
     }
 
@@ -246,12 +253,13 @@ public abstract class AbstractAccessor implements Accessor {
 
         @Override
         public DynamicType.Builder<AbstractStruct> install(
-                DynamicType.Builder<AbstractStruct> struct, int index, FieldCounts counts) {
+                DynamicType.Builder<AbstractStruct> struct, int index, FieldCounts counts,
+                AccessorMode mode, StorageMode storage) {
             return struct
                     .defineMethod(getName(), void.class, Visibility.PUBLIC)
                     .withParameters(getType())
                     .intercept(new SetterDirectImplementation(
-                            getType(), counts.fieldsOf(getType()), index));
+                            counts.slotOf(getType(), index), mode, storage));
         }
     }
 
@@ -271,7 +279,8 @@ public abstract class AbstractAccessor implements Accessor {
 
         @Override
         public DynamicType.Builder<AbstractStruct> install(
-                DynamicType.Builder<AbstractStruct> struct, int index, FieldCounts counts) {
+                DynamicType.Builder<AbstractStruct> struct, int index, FieldCounts counts,
+                AccessorMode mode, StorageMode storage) {
             return struct
                     .defineMethod(getName(), getType(), Visibility.PUBLIC)
                     .withParameters(Arrays.<Type>asList())
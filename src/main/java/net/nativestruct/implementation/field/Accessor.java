@@ -25,6 +25,8 @@ package net.nativestruct.implementation.field;
 
 import net.bytebuddy.dynamic.DynamicType;
 import net.nativestruct.AbstractStruct;
+import net.nativestruct.AccessorMode;
+import net.nativestruct.StorageMode;
 
 /**
  * Represents struct field accessor.
@@ -36,10 +38,13 @@ public interface Accessor {
      * @param struct Bytecode builder.
      * @param index  Field index.
      * @param counts Field types counter.
+     * @param mode   Accessor code generation mode.
+     * @param storage Storage of the struct vector the accessor is generated for.
      * @return New bytecode builder instance.
      */
-    DynamicType.Builder<AbstractStruct> install(
-            DynamicType.Builder<AbstractStruct> struct, int index, FieldCounts counts);
+    DynamicType.Builder<AbstractStruct> install(DynamicType.Builder<AbstractStruct> struct,
+                                                int index, FieldCounts counts, AccessorMode mode,
+                                                StorageMode storage);
 
     /**
      * @return Primitive type
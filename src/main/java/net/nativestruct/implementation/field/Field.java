@@ -27,6 +27,8 @@ import java.util.List;
 
 import net.bytebuddy.dynamic.DynamicType;
 import net.nativestruct.AbstractStruct;
+import net.nativestruct.AccessorMode;
+import net.nativestruct.StorageMode;
 
 /**
 * Encapsulated accessor methods of a struct field.
@@ -37,6 +39,7 @@ public class Field implements FieldLike {
     private int index;
     private FieldCounts counts;
     private List<Accessor> accessors;
+    private FieldSlot slot;
 
     /**
      * Construct field object with field index and the counter object.
@@ -69,6 +72,17 @@ public class Field implements FieldLike {
         return index;
     }
 
+    /**
+     * @return Location of the field values within the field storage. It is valid once all the
+     *         struct fields are counted.
+     */
+    public final FieldSlot slot() {
+        if (slot == null) {
+            slot = counts.slotOf(type, index);
+        }
+        return slot;
+    }
+
     /**
      * @param aType A type.
      * @return If the field has the given type.
@@ -77,6 +91,13 @@ public class Field implements FieldLike {
         return type == aType;
     }
 
+    /**
+     * @return Type of the array holding field values.
+     */
+    public final StorageType storageType() {
+        return StorageType.of(type);
+    }
+
     /**
      * @return Is the field type primitive.
      */
@@ -91,11 +112,11 @@ public class Field implements FieldLike {
 
     @Override
     public final DynamicType.Builder<AbstractStruct> installAccessors(
-            DynamicType.Builder<AbstractStruct> struct) {
+            DynamicType.Builder<AbstractStruct> struct, AccessorMode mode, StorageMode storage) {
 
         DynamicType.Builder<AbstractStruct> result = struct;
         for (Accessor accessor : accessors) {
-            result = accessor.install(result, index, counts);
+            result = accessor.install(result, index, counts, mode, storage);
         }
         return result;
     }
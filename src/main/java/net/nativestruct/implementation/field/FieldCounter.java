@@ -24,29 +24,102 @@
 
 package net.nativestruct.implementation.field;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import net.nativestruct.Layout;
+
 /**
  * Field counter.
  */
 public final class FieldCounter implements FieldCounts {
-    private int integers;
-    private int doubles;
-    private int objects;
+    private final int[] counts = new int[StorageType.values().length];
+    private final List<List<String>> groups = new ArrayList<>();
+    private final Layout layout;
 
     private int composites;
 
+    /**
+     * Constructs field counter.
+     *
+     * @param layout Arrangement of field values in the struct vector.
+     */
+    public FieldCounter(Layout layout) {
+        this.layout = layout;
+        for (int i = 0; i < counts.length; i++) {
+            groups.add(new ArrayList<>());
+        }
+    }
+
     @Override
     public int fieldsOf(Class<?> type) {
-        int count;
-        if (type == int.class) {
-            count = integers;
-        } else if (type == double.class) {
-            count = doubles;
-        } else if (!type.isPrimitive()) {
-            count = objects;
-        } else {
-            throw new AssertionError("Unsupported type: " + type);
+        return fieldsOf(StorageType.of(type));
+    }
+
+    /**
+     * Returns the number of fields held in the array of a given storage type.
+     *
+     * @param storage Storage type.
+     * @return The number of fields.
+     */
+    public int fieldsOf(StorageType storage) {
+        return counts[storage.ordinal()];
+    }
+
+    @Override
+    public FieldSlot slotOf(Class<?> type, int index) {
+        StorageType storage = StorageType.of(type);
+        List<String> fieldGroups = groups.get(storage.ordinal());
+        String group = fieldGroups.get(index);
+        int run = runGroups(storage).indexOf(group);
+        int position = Collections.frequency(fieldGroups.subList(0, index), group);
+        return new FieldSlot(type, fieldsOf(storage), regionOf(storage),
+                runsOf(storage)[run], position);
+    }
+
+    /**
+     * Returns runs of fields of a storage type. Fields of the same group make up a run, runs
+     * follow in the order their groups first appear among the fields. Every field of columnar
+     * layout makes up a run on its own.
+     *
+     * @param storage Storage type.
+     * @return Field runs, or an empty array if there are no fields of the storage type.
+     */
+    public FieldRun[] runsOf(StorageType storage) {
+        List<String> fieldGroups = groups.get(storage.ordinal());
+        List<String> runGroups = runGroups(storage);
+        FieldRun[] runs = new FieldRun[runGroups.size()];
+        int start = 0;
+        for (int i = 0; i < runs.length; i++) {
+            int width = Collections.frequency(fieldGroups, runGroups.get(i));
+            runs[i] = new FieldRun(start, width);
+            start += width;
         }
-        return count;
+        return runs;
+    }
+
+    private List<String> runGroups(StorageType storage) {
+        return groups.get(storage.ordinal()).stream().distinct().collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the offset of a storage type region in off-heap memory. Regions follow each other
+     * in the order of storage type declaration, each one taking capacity multiplied by the
+     * number of bytes per record.
+     *
+     * @param storage Primitive storage type.
+     * @return Region offset measured in bytes per unit of vector capacity.
+     */
+    public int regionOf(StorageType storage) {
+        int offset = 0;
+        for (StorageType preceding : StorageType.values()) {
+            if (preceding.ordinal() < storage.ordinal()) {
+                offset += counts[preceding.ordinal()] * preceding.bytes();
+            }
+        }
+        return offset;
     }
 
     /**
@@ -60,20 +133,13 @@ public final class FieldCounter implements FieldCounts {
      * Increments the number of fields of a given type and returns the current field index.
      *
      * @param type Primitive type.
+     * @param group Name of the field group, see {@link net.nativestruct.StructField#group()}.
      * @return New field index of a given type.
      */
-    public int increment(Class<?> type) {
-        int index;
-        if (type == int.class) {
-            index = integers++;
-        } else if (type == double.class) {
-            index = doubles++;
-        } else if (!type.isPrimitive()) {
-            index = objects++;
-        } else {
-            throw new AssertionError("Unsupported type: " + type);
-        }
-        return index;
+    public int increment(Class<?> type, String group) {
+        int storage = StorageType.of(type).ordinal();
+        groups.get(storage).add(layout == Layout.COLUMNS ? "#" + counts[storage] : group);
+        return counts[storage]++;
     }
 
     /**
@@ -34,4 +34,13 @@ public interface FieldCounts {
      * @return The number of fields.
      */
     int fieldsOf(Class<?> type);
+
+    /**
+     * Returns the location of a field within the field storage.
+     *
+     * @param type Field type.
+     * @param index Field index among the fields of the same storage type.
+     * @return Field slot.
+     */
+    FieldSlot slotOf(Class<?> type, int index);
 }
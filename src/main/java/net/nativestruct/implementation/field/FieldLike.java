@@ -25,6 +25,8 @@ package net.nativestruct.implementation.field;
 
 import net.bytebuddy.dynamic.DynamicType;
 import net.nativestruct.AbstractStruct;
+import net.nativestruct.AccessorMode;
+import net.nativestruct.StorageMode;
 
 /**
  * Common abstraction for struct, child struct and value fields.
@@ -34,10 +36,12 @@ public interface FieldLike {
      * Builds bytecode for struct fields accessor methods.
      *
      * @param struct Accessor methods bytecode builder.
+     * @param mode Accessor code generation mode.
+     * @param storage Storage of the struct vector the accessors are generated for.
      * @return New instance of build.
      */
     DynamicType.Builder<AbstractStruct> installAccessors(
-            DynamicType.Builder<AbstractStruct> struct);
+            DynamicType.Builder<AbstractStruct> struct, AccessorMode mode, StorageMode storage);
 
     /**
      * @return If the fields is composite, i.e. it represents a child struct.
@@ -23,7 +23,7 @@
  */
 package net.nativestruct.implementation.field;
 
-import java.util.function.Supplier;
+import java.util.function.Function;
 
 /**
  * Specifies ordering of fields with the same type within an array.
@@ -31,17 +31,18 @@ import java.util.function.Supplier;
 public final class FieldOrdering implements Comparable<FieldOrdering> {
     private String name;
     private int order = -1;
-    private Supplier<FieldLike> supplier;
+    private String group = "";
+    private Function<String, FieldLike> factory;
 
     /**
      * Constructs ordering instance given a field name.
      * @param name Field name.
-     * @param supplier Supplier of field instance.
+     * @param factory Creates field instance given the field group.
      *
      */
-    public FieldOrdering(String name, Supplier<FieldLike> supplier) {
+    public FieldOrdering(String name, Function<String, FieldLike> factory) {
         this.name = name;
-        this.supplier = supplier;
+        this.factory = factory;
     }
 
     /**
@@ -77,6 +78,22 @@ public final class FieldOrdering implements Comparable<FieldOrdering> {
         return result;
     }
 
+    /**
+     * Updates the group.
+     *
+     * @param newGroup Group name specified for one of the field accessors, empty if omitted.
+     * @return If the group was updated successfully. Otherwise it means the group is ambiguous.
+     */
+    public boolean updateGroup(String newGroup) {
+        boolean result = true;
+        if (group.isEmpty()) {
+            group = newGroup;
+        } else if (!newGroup.isEmpty()) {
+            result = group.equals(newGroup);
+        }
+        return result;
+    }
+
     /**
      * Creates {@link net.nativestruct.implementation.field.Field} instance with the current field
      * index.
@@ -84,7 +101,7 @@ public final class FieldOrdering implements Comparable<FieldOrdering> {
      * @return New field instance.
      */
     public FieldLike createField() {
-        return supplier.get();
+        return factory.apply(group);
     }
 
     @Override
@@ -0,0 +1,61 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct.implementation.field;
+
+/**
+ * A group of fields of the same storage type, whose values are interleaved record by record.
+ * Runs of a storage type follow each other, each one taking vector capacity multiplied by the
+ * run width elements, so that a value is located at
+ * {@code start * capacity + record * width + position}.
+ */
+public final class FieldRun {
+    private final int start;
+    private final int width;
+
+    /**
+     * Constructs field run.
+     *
+     * @param start The number of fields in the preceding runs of the same storage type.
+     * @param width The number of fields in the run.
+     */
+    public FieldRun(int start, int width) {
+        this.start = start;
+        this.width = width;
+    }
+
+    /**
+     * @return The number of fields in the preceding runs of the same storage type.
+     */
+    public int start() {
+        return start;
+    }
+
+    /**
+     * @return The number of fields in the run, i.e. distance between the values of a field
+     *         in adjacent records.
+     */
+    public int width() {
+        return width;
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct.implementation.field;
+
+/**
+ * Location of a struct field value within the field storage.
+ */
+public final class FieldSlot {
+    private final Class<?> type;
+    private final int width;
+    private final int region;
+    private final FieldRun run;
+    private final int position;
+
+    /**
+     * Constructs field slot.
+     *
+     * @param type Field type.
+     * @param width The number of fields sharing the same storage type.
+     * @param region Offset of the storage type region in off-heap memory, measured in bytes per
+     *               unit of vector capacity.
+     * @param run Run of fields the field belongs to.
+     * @param position Field position within the run.
+     */
+    public FieldSlot(Class<?> type, int width, int region, FieldRun run, int position) {
+        this.type = type;
+        this.width = width;
+        this.region = region;
+        this.run = run;
+        this.position = position;
+    }
+
+    /**
+     * @return Field type.
+     */
+    public Class<?> type() {
+        return type;
+    }
+
+    /**
+     * @return The number of fields sharing the same storage type.
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * @return Offset of the storage type region in off-heap memory, measured in bytes per unit
+     *         of vector capacity.
+     */
+    public int region() {
+        return region;
+    }
+
+    /**
+     * @return Run of fields the field belongs to.
+     */
+    public FieldRun run() {
+        return run;
+    }
+
+    /**
+     * @return Field position within the run.
+     */
+    public int position() {
+        return position;
+    }
+
+    /**
+     * @return Whether the fields of the storage type are split into several runs.
+     */
+    public boolean isSplit() {
+        return run.width() < width;
+    }
+}
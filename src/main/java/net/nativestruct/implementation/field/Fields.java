@@ -24,9 +24,9 @@
 package net.nativestruct.implementation.field;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -34,6 +34,9 @@ import net.bytebuddy.ByteBuddy;
 import net.bytebuddy.dynamic.DynamicType;
 import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
 import net.nativestruct.AbstractStruct;
+import net.nativestruct.AccessorMode;
+import net.nativestruct.StorageMode;
+import net.nativestruct.Struct;
 
 /**
  * Encapsulates struct fields.
@@ -41,14 +44,22 @@ import net.nativestruct.AbstractStruct;
  * Name -> Accessor type -> Type -> Field counts -> Indexes -> Accessor
  */
 public final class Fields implements FieldLike {
-    private static final Map<Class<?>, Fields> CACHE = new HashMap<>();
+    private static final ClassValue<Fields> CACHE = new ClassValue<Fields>() {
+        @Override
+        protected Fields computeValue(Class<?> type) {
+            return new FieldsBuilder(type).build();
+        }
+    };
 
     private final Class<?> type;
     private final int index;
+    private final Object lock = new Object();
     private Map<String, FieldLike> fields;
     private FieldCounter counter;
     private List<Accessor> accessors;
     private List<Fields> composites;
+    private final AtomicReferenceArray<Class<? extends AbstractStruct>> generated =
+            new AtomicReferenceArray<>(StorageMode.values().length);
 
     /**
      * Initializes instance with the list of accessor methods group by struct field names.
@@ -78,14 +89,15 @@ public final class Fields implements FieldLike {
     }
 
     /**
-     * Returns Fields instance based on accessor type.
+     * Returns Fields instance based on accessor type. Instances are cached per accessor type,
+     * so the cached value is released together with the class loader of the accessor type.
      *
      * @param type Accessor type.
      * @param <T> Generic type.
      * @return Fields instance.
      */
     public static <T> Fields forType(Class<T> type) {
-        return CACHE.computeIfAbsent(type, aType -> new FieldsBuilder(aType).build());
+        return CACHE.get(type);
     }
 
     @Override
@@ -95,57 +107,120 @@ public final class Fields implements FieldLike {
 
     @Override
     public DynamicType.Builder<AbstractStruct> installAccessors(
-            DynamicType.Builder<AbstractStruct> struct) {
+            DynamicType.Builder<AbstractStruct> struct, AccessorMode mode, StorageMode storage) {
 
         DynamicType.Builder<AbstractStruct> result = struct;
         for (Accessor accessor : accessors) {
-            result = accessor.install(result, index, counter);
+            result = accessor.install(result, index, counter, mode, storage);
         }
         return result;
     }
 
     /**
      * Builds and returns a list of all accessors, including child struct fields and their children.
+     * Accessor classes are generated once per struct type and storage mode, subsequent calls
+     * only instantiate them.
      *
+     * @param storage Storage of the struct vector the accessors are built for.
      * @return A list of accessors.
      */
-    public List<AbstractStruct> buildAccessors() {
+    public List<AbstractStruct> buildAccessors(StorageMode storage) {
         List<AbstractStruct> result = new ArrayList<>();
 
-        result.add(buildAccessorInstance(bareStruct -> {
-            DynamicType.Builder<AbstractStruct> struct = bareStruct;
-            for (FieldLike field : fields.values()) {
-                struct = field.installAccessors(struct);
-            }
-            return struct;
-        }));
+        result.add(newAccessorInstance(storage));
 
         for (Fields composite : composites) {
-            result.addAll(composite.buildAccessors());
+            result.addAll(composite.buildAccessors(storage));
         }
 
         return result;
     }
 
-    private AbstractStruct buildAccessorInstance(
-            Function<DynamicType.Builder<AbstractStruct>,
-                    DynamicType.Builder<AbstractStruct>> install) {
+    private AbstractStruct newAccessorInstance(StorageMode storage) {
         try {
-            DynamicType.Builder<AbstractStruct> bareStruct =
-                    AbstractStruct.class.isAssignableFrom(this.type)
-                            ? new ByteBuddy().subclass((Class<AbstractStruct>) this.type)
-                            : new ByteBuddy().subclass(AbstractStruct.class).implement(this.type);
-
-            return install.apply(bareStruct)
-                    .make()
-                    .load(getClass().getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
-                    .getLoaded()
-                    .newInstance();
+            return accessorClass(storage).newInstance();
         } catch (InstantiationException | IllegalAccessException e) {
             throw new RuntimeException("Cannot create accessor for " + this.type, e);
         }
     }
 
+    /**
+     * @param storage Storage mode.
+     * @return Generated accessor class. It is built on the first call and reused afterwards,
+     *         the lock is taken only until the class is built (double-checked).
+     */
+    private Class<? extends AbstractStruct> accessorClass(StorageMode storage) {
+        Class<? extends AbstractStruct> result = generated.get(storage.ordinal());
+        if (result == null) {
+            synchronized (lock) {
+                result = generated.get(storage.ordinal());
+                if (result == null) {
+                    result = buildAccessorClass(storage);
+                    generated.set(storage.ordinal(), result);
+                }
+            }
+        }
+        return result;
+    }
+
+    private Class<? extends AbstractStruct> buildAccessorClass(StorageMode storage) {
+        AccessorMode mode = accessorMode();
+        return buildAccessorClass(bareStruct -> {
+            DynamicType.Builder<AbstractStruct> struct = bareStruct;
+            for (FieldLike field : fields.values()) {
+                struct = field.installAccessors(struct, mode, storage);
+            }
+            return struct;
+        });
+    }
+
+    private Class<? extends AbstractStruct> buildAccessorClass(
+            Function<DynamicType.Builder<AbstractStruct>,
+                    DynamicType.Builder<AbstractStruct>> install) {
+        DynamicType.Builder<AbstractStruct> bareStruct =
+                AbstractStruct.class.isAssignableFrom(this.type)
+                        ? new ByteBuddy().subclass((Class<AbstractStruct>) this.type)
+                        : new ByteBuddy().subclass(AbstractStruct.class).implement(this.type);
+
+        return install.apply(bareStruct)
+                .make()
+                .load(classLoader(), ClassLoadingStrategy.Default.WRAPPER)
+                .getLoaded();
+    }
+
+    /**
+     * @return Accessor code generation mode specified by {@link net.nativestruct.Struct}
+     *         annotation of the struct type.
+     */
+    private AccessorMode accessorMode() {
+        Struct annotation = this.type.getAnnotation(Struct.class);
+        return annotation == null ? AccessorMode.METHOD_CALL : annotation.accessors();
+    }
+
+    /**
+     * @return Class loader of the struct type, so that the generated class can see it, or the
+     *         library class loader if the struct type is loaded by the bootstrap class loader.
+     */
+    private ClassLoader classLoader() {
+        ClassLoader loader = this.type.getClassLoader();
+        return loader == null ? getClass().getClassLoader() : loader;
+    }
+
+    /**
+     * @return Struct type.
+     */
+    public Class<?> type() {
+        return type;
+    }
+
+    /**
+     * @param storage Storage type.
+     * @return Runs of fields of the storage type, see {@link FieldCounter#runsOf(StorageType)}.
+     */
+    public FieldRun[] runsOf(StorageType storage) {
+        return counter.runsOf(storage);
+    }
+
     /**
      * @return The number of child struct fields.
      */
@@ -153,6 +228,30 @@ public final class Fields implements FieldLike {
         return counter.composites();
     }
 
+    /**
+     * @param storage Storage type.
+     * @return The number of fields held in the array of the given storage type.
+     */
+    public int fieldsOf(StorageType storage) {
+        return counter.fieldsOf(storage);
+    }
+
+    /**
+     * @param storage Primitive storage type.
+     * @return Offset of the storage type region in off-heap memory, measured in bytes per unit of
+     *         vector capacity.
+     */
+    public int regionOf(StorageType storage) {
+        return counter.regionOf(storage);
+    }
+
+    /**
+     * @return The number of bytes taken by primitive fields of a single record in off-heap memory.
+     */
+    public int memoryBytes() {
+        return counter.regionOf(StorageType.OBJECT);
+    }
+
     /**
      * @return The number of int fields.
      */
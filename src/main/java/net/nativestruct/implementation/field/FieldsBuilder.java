@@ -33,6 +33,8 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 import net.nativestruct.AbstractStruct;
+import net.nativestruct.Layout;
+import net.nativestruct.Struct;
 import net.nativestruct.StructField;
 
 /**
@@ -67,7 +69,12 @@ class FieldsBuilder {
      * @param type Struct type.
      */
     FieldsBuilder(Class<?> type) {
-        this(type, -1, new FieldCounter(), Collections.emptyList());
+        this(type, -1, new FieldCounter(layoutOf(type)), Collections.emptyList());
+    }
+
+    private static Layout layoutOf(Class<?> type) {
+        Struct annotation = type.getAnnotation(Struct.class);
+        return annotation == null ? Layout.ROWS : annotation.layout();
     }
 
     /**
@@ -89,6 +96,10 @@ class FieldsBuilder {
                 throw new AssertionError(String.format(
                         "Ambiguous field ordering: %s.%s", type.getSimpleName(), fieldName));
             }
+            if (!ordering.updateGroup(annotation.group())) {
+                throw new AssertionError(String.format(
+                        "Ambiguous field group: %s.%s", type.getSimpleName(), fieldName));
+            }
         });
 
         return orderings.values().stream().sorted().collect(Collectors.toList());
@@ -97,12 +108,12 @@ class FieldsBuilder {
     private FieldOrdering createFieldOrdering(String name, List<Accessor> fieldAccessors) {
         Class<?> propertyType = fieldAccessors.get(0).getType();
         if (AbstractStruct.class.isAssignableFrom(propertyType)) {
-            return new FieldOrdering(name, () -> new FieldsBuilder(
+            return new FieldOrdering(name, group -> new FieldsBuilder(
                     propertyType, counter.incrementComposites(), counter, fieldAccessors)
                     .build());
         } else {
-            return new FieldOrdering(name, () -> new Field(name, propertyType,
-                counter.increment(propertyType), counter, fieldAccessors));
+            return new FieldOrdering(name, group -> new Field(name, propertyType,
+                counter.increment(propertyType, group), counter, fieldAccessors));
         }
     }
 
@@ -142,6 +153,8 @@ class FieldsBuilder {
             String methodName = method.getName();
             if (methodName.startsWith("get") || methodName.startsWith("set")) {
                 name = Character.toLowerCase(methodName.charAt(3)) + methodName.substring(4);
+            } else if (methodName.startsWith("is") && method.getReturnType() == boolean.class) {
+                name = Character.toLowerCase(methodName.charAt(2)) + methodName.substring(3);
             } else {
                 throw new RuntimeException(
                         "Cannot determine struct property for accessor method: " + methodName);
@@ -0,0 +1,279 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct.implementation.field;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+
+import net.nativestruct.implementation.memory.Memory;
+
+/**
+ * Type of the array which holds values of a struct field. Each primitive type is stored in
+ * its own array, values of all reference types share the same array of objects. Constants are
+ * declared in the descending order of their size, so that off-heap regions laid out in this
+ * order stay naturally aligned.
+ */
+public enum StorageType {
+    LONG(long.class, 8) {
+        @Override
+        public void clear(Object array, int from, int end) {
+            Arrays.fill((long[]) array, from, end, 0L);
+        }
+
+        @Override
+        public int compare(Object base, long left, long right) {
+            return Long.compare(Memory.getLong(base, left), Memory.getLong(base, right));
+        }
+
+        @Override
+        public Object read(Object base, long offset) {
+            return Memory.getLong(base, offset);
+        }
+    },
+    DOUBLE(double.class, 8) {
+        @Override
+        public void clear(Object array, int from, int end) {
+            Arrays.fill((double[]) array, from, end, 0.0);
+        }
+
+        @Override
+        public int compare(Object base, long left, long right) {
+            return Double.compare(Memory.getDouble(base, left), Memory.getDouble(base, right));
+        }
+
+        @Override
+        public Object read(Object base, long offset) {
+            return Memory.getDouble(base, offset);
+        }
+    },
+    INT(int.class, 4) {
+        @Override
+        public void clear(Object array, int from, int end) {
+            Arrays.fill((int[]) array, from, end, 0);
+        }
+
+        @Override
+        public int compare(Object base, long left, long right) {
+            return Integer.compare(Memory.getInt(base, left), Memory.getInt(base, right));
+        }
+
+        @Override
+        public Object read(Object base, long offset) {
+            return Memory.getInt(base, offset);
+        }
+    },
+    FLOAT(float.class, 4) {
+        @Override
+        public void clear(Object array, int from, int end) {
+            Arrays.fill((float[]) array, from, end, 0.0f);
+        }
+
+        @Override
+        public int compare(Object base, long left, long right) {
+            return Float.compare(Memory.getFloat(base, left), Memory.getFloat(base, right));
+        }
+
+        @Override
+        public Object read(Object base, long offset) {
+            return Memory.getFloat(base, offset);
+        }
+    },
+    SHORT(short.class, 2) {
+        @Override
+        public void clear(Object array, int from, int end) {
+            Arrays.fill((short[]) array, from, end, (short) 0);
+        }
+
+        @Override
+        public int compare(Object base, long left, long right) {
+            return Short.compare(Memory.getShort(base, left), Memory.getShort(base, right));
+        }
+
+        @Override
+        public Object read(Object base, long offset) {
+            return Memory.getShort(base, offset);
+        }
+    },
+    CHAR(char.class, 2) {
+        @Override
+        public void clear(Object array, int from, int end) {
+            Arrays.fill((char[]) array, from, end, (char) 0);
+        }
+
+        @Override
+        public int compare(Object base, long left, long right) {
+            return Character.compare(Memory.getChar(base, left), Memory.getChar(base, right));
+        }
+
+        @Override
+        public Object read(Object base, long offset) {
+            return Memory.getChar(base, offset);
+        }
+    },
+    BYTE(byte.class, 1) {
+        @Override
+        public void clear(Object array, int from, int end) {
+            Arrays.fill((byte[]) array, from, end, (byte) 0);
+        }
+
+        @Override
+        public int compare(Object base, long left, long right) {
+            return Byte.compare(Memory.getByte(base, left), Memory.getByte(base, right));
+        }
+
+        @Override
+        public Object read(Object base, long offset) {
+            return Memory.getByte(base, offset);
+        }
+    },
+    BOOLEAN(boolean.class, 1) {
+        @Override
+        public void clear(Object array, int from, int end) {
+            Arrays.fill((boolean[]) array, from, end, false);
+        }
+
+        @Override
+        public int compare(Object base, long left, long right) {
+            return Boolean.compare(Memory.getBoolean(base, left), Memory.getBoolean(base, right));
+        }
+
+        @Override
+        public Object read(Object base, long offset) {
+            return Memory.getBoolean(base, offset);
+        }
+    },
+    OBJECT(Object.class, 0) {
+        @Override
+        public void clear(Object array, int from, int end) {
+            Arrays.fill((Object[]) array, from, end, null);
+        }
+
+        @Override
+        public int compare(Object base, long left, long right) {
+            throw new UnsupportedOperationException("Object values are not kept in memory");
+        }
+
+        @Override
+        public Object read(Object base, long offset) {
+            throw new UnsupportedOperationException("Object values are not kept in memory");
+        }
+    };
+
+    private final Class<?> type;
+    private final int bytes;
+
+    /**
+     * Constructs storage type.
+     *
+     * @param type Array component type.
+     * @param bytes The number of bytes occupied by a value in off-heap memory.
+     */
+    StorageType(Class<?> type, int bytes) {
+        this.type = type;
+        this.bytes = bytes;
+    }
+
+    /**
+     * Determines storage type of a field.
+     *
+     * @param type Field type.
+     * @return Storage type.
+     */
+    public static StorageType of(Class<?> type) {
+        StorageType result = OBJECT;
+        if (type.isPrimitive()) {
+            result = null;
+            for (StorageType storage : values()) {
+                if (storage.type == type) {
+                    result = storage;
+                }
+            }
+            if (result == null) {
+                throw new AssertionError("Unsupported type: " + type);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return Array component type.
+     */
+    public Class<?> type() {
+        return type;
+    }
+
+    /**
+     * @return The number of bytes occupied by a value in off-heap memory, or 0 if values of the
+     *         type are always kept on heap.
+     */
+    public int bytes() {
+        return bytes;
+    }
+
+    /**
+     * @return Whether values of the type can be stored in off-heap memory.
+     */
+    public boolean isPrimitive() {
+        return type.isPrimitive();
+    }
+
+    /**
+     * Allocates a new array.
+     *
+     * @param length Array length.
+     * @return A new array of the storage component type.
+     */
+    public Object newArray(int length) {
+        return Array.newInstance(type, length);
+    }
+
+    /**
+     * Resets array elements to their default values.
+     *
+     * @param array Array of the storage component type.
+     * @param from Index of the first element, inclusive.
+     * @param end Index after the last element.
+     */
+    public abstract void clear(Object array, int from, int end);
+
+    /**
+     * Compares two primitive values in the natural order of their boxed type.
+     *
+     * @param base Base object of the values, see {@link Memory}.
+     * @param left Offset of the first value.
+     * @param right Offset of the second value.
+     * @return Negative number, zero or positive number if the first value is less than,
+     *         equal to or greater than the second value.
+     */
+    public abstract int compare(Object base, long left, long right);
+
+    /**
+     * Reads a primitive value.
+     *
+     * @param base Base object of the value, see {@link Memory}.
+     * @param offset Offset of the value.
+     * @return Boxed value.
+     */
+    public abstract Object read(Object base, long offset);
+}
@@ -0,0 +1,181 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct.implementation.hash;
+
+/**
+ * Open addressing hash table of record indexes with linear probing. The table stores only
+ * record indexes and their hash codes, keys are read from the vectors by the callers, which
+ * probe the slots starting at {@link #home(int)} until an empty slot.
+ */
+public final class RowTable {
+    private static final int MIN_CAPACITY = 16;
+    // PRIME64_2 multiplier and shift of the xxHash64 avalanche step.
+    private static final long MIX_MULTIPLIER = 0xC2B2AE3D27D4EB4FL;
+    private static final int MIX_SHIFT = 29;
+
+    private int[] rows;
+    private int[] hashes;
+    private int count;
+
+    /**
+     * Constructs an empty table.
+     *
+     * @param size The number of records, which fit into the table without growing it.
+     */
+    public RowTable(int size) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < size * 2) {
+            capacity *= 2;
+        }
+        rows = new int[capacity];
+        hashes = new int[capacity];
+    }
+
+    /**
+     * Spreads the key bits, so that the low bits used for slot selection depend on all of them.
+     *
+     * @param bits Key bits.
+     * @return Hash code.
+     */
+    public static int mix(long bits) {
+        long hash = (bits ^ (bits >>> 32)) * MIX_MULTIPLIER;
+        return (int) (hash ^ (hash >>> MIX_SHIFT));
+    }
+
+    /**
+     * @param hash Hash code of a key.
+     * @return The first slot to probe for the key.
+     */
+    public int home(int hash) {
+        return hash & (rows.length - 1);
+    }
+
+    /**
+     * @param slot Slot index.
+     * @return The slot probed after the given one.
+     */
+    public int next(int slot) {
+        return (slot + 1) & (rows.length - 1);
+    }
+
+    /**
+     * @param slot Slot index.
+     * @return Whether the slot ends the probe sequence.
+     */
+    public boolean isEmpty(int slot) {
+        return rows[slot] == 0;
+    }
+
+    /**
+     * @param slot Occupied slot index.
+     * @return Index of the record in the slot.
+     */
+    public int row(int slot) {
+        return rows[slot] - 1;
+    }
+
+    /**
+     * @param slot Occupied slot index.
+     * @return Hash code of the record in the slot.
+     */
+    public int hash(int slot) {
+        return hashes[slot];
+    }
+
+    /**
+     * Adds the record to the table, the table may grow, so slot indexes become invalid.
+     *
+     * @param hash Hash code of the record key.
+     * @param row Record index.
+     */
+    public void add(int hash, int row) {
+        int slot = home(hash);
+        while (rows[slot] != 0) {
+            slot = next(slot);
+        }
+        put(slot, hash, row);
+    }
+
+    /**
+     * Places the record into the empty slot, where the probe sequence of its key ended.
+     * The table may grow, so slot indexes become invalid.
+     *
+     * @param slot Empty slot index.
+     * @param hash Hash code of the record key.
+     * @param row Record index.
+     */
+    public void put(int slot, int hash, int row) {
+        rows[slot] = row + 1;
+        hashes[slot] = hash;
+        if (++count * 2 > rows.length) {
+            grow();
+        }
+    }
+
+    /**
+     * Removes the record and shifts back the following records of the cluster, which may be
+     * placed closer to their home slots. A record, which key was changed behind the table,
+     * isn't found and stays in the table.
+     *
+     * @param hash Hash code of the record key.
+     * @param row Record index.
+     */
+    public void remove(int hash, int row) {
+        int mask = rows.length - 1;
+        int hole = hash & mask;
+        while (rows[hole] != 0 && rows[hole] != row + 1) {
+            hole = (hole + 1) & mask;
+        }
+        if (rows[hole] != 0) {
+            for (int slot = (hole + 1) & mask; rows[slot] != 0; slot = (slot + 1) & mask) {
+                int home = hashes[slot] & mask;
+                if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                    rows[hole] = rows[slot];
+                    hashes[hole] = hashes[slot];
+                    hole = slot;
+                }
+            }
+            rows[hole] = 0;
+            count--;
+        }
+    }
+
+    private void grow() {
+        int[] oldRows = rows;
+        int[] oldHashes = hashes;
+        rows = new int[oldRows.length * 2];
+        hashes = new int[oldRows.length * 2];
+        int mask = rows.length - 1;
+        for (int i = 0; i < oldRows.length; i++) {
+            if (oldRows[i] != 0) {
+                int slot = oldHashes[i] & mask;
+                while (rows[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                rows[slot] = oldRows[i];
+                hashes[slot] = oldHashes[i];
+            }
+        }
+    }
+}
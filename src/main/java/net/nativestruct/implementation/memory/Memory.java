@@ -0,0 +1,493 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct.implementation.memory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+
+/**
+ * Raw memory access used by off-heap struct storage. Addresses are not checked, callers are
+ * responsible for staying within allocated blocks.
+ */
+public final class Memory {
+    private static final sun.misc.Unsafe UNSAFE = unsafe();
+    private static final long ADDRESS = addressOffset();
+
+    // Mappings are released by sun.misc.Unsafe.invokeCleaner since Java 9 and by the cleaner of
+    // the buffer before that. The internal types are reached through reflection only, when
+    // neither is available the mapping is released once the buffer is garbage collected.
+    private static final Method INVOKE_CLEANER =
+            method(UNSAFE.getClass(), "invokeCleaner", ByteBuffer.class);
+    private static final Method CLEANER = INVOKE_CLEANER == null
+            ? method(ByteBuffer.allocateDirect(1).getClass(), "cleaner") : null;
+    private static final Method CLEAN = CLEANER == null
+            ? null : method(CLEANER.getReturnType(), "clean");
+
+    private Memory() {
+    }
+
+    private static sun.misc.Unsafe unsafe() {
+        try {
+            Field field = sun.misc.Unsafe.class.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return (sun.misc.Unsafe) field.get(null);
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static long addressOffset() {
+        try {
+            return UNSAFE.objectFieldOffset(Buffer.class.getDeclaredField("address"));
+        } catch (NoSuchFieldException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static Method method(Class<?> type, String name, Class<?>... parameters) {
+        Method method;
+        try {
+            method = type.getMethod(name, parameters);
+            method.setAccessible(true);
+        } catch (NoSuchMethodException | SecurityException e) {
+            method = null;
+        }
+        return method;
+    }
+
+    /**
+     * Allocates a block of memory. The block content is cleared.
+     *
+     * @param bytes Block size.
+     * @return Block address, or 0 if the size is 0.
+     */
+    public static long allocate(long bytes) {
+        long address = 0L;
+        if (bytes > 0) {
+            address = UNSAFE.allocateMemory(bytes);
+            UNSAFE.setMemory(address, bytes, (byte) 0);
+        }
+        return address;
+    }
+
+    /**
+     * Resizes a block of memory preserving its content. Memory beyond the previous block size
+     * is not initialized.
+     *
+     * @param address Block address, 0 allocates a new block.
+     * @param bytes New block size.
+     * @return New block address.
+     */
+    public static long reallocate(long address, long bytes) {
+        return UNSAFE.reallocateMemory(address, bytes);
+    }
+
+    /**
+     * Releases a block of memory.
+     *
+     * @param address Block address returned by {@link #allocate(long)}, 0 is ignored.
+     */
+    public static void free(long address) {
+        if (address != 0L) {
+            UNSAFE.freeMemory(address);
+        }
+    }
+
+    /**
+     * Resets a memory region to zeros.
+     *
+     * @param address Region address.
+     * @param bytes Region size.
+     */
+    public static void clear(long address, long bytes) {
+        UNSAFE.setMemory(address, bytes, (byte) 0);
+    }
+
+    /**
+     * Copies a memory region. Source and target regions may overlap.
+     *
+     * @param source Source address.
+     * @param target Target address.
+     * @param bytes Region size.
+     */
+    public static void copy(long source, long target, long bytes) {
+        UNSAFE.copyMemory(source, target, bytes);
+    }
+
+    /**
+     * Copies a memory region, either of them may reside in a primitive array.
+     *
+     * @param source Source array, or null for off-heap memory.
+     * @param sourceOffset Source offset within the array, or source address.
+     * @param target Target array, or null for off-heap memory.
+     * @param targetOffset Target offset within the array, or target address.
+     * @param bytes Region size.
+     */
+    public static void copy(Object source, long sourceOffset, Object target, long targetOffset,
+                            long bytes) {
+        UNSAFE.copyMemory(source, sourceOffset, target, targetOffset, bytes);
+    }
+
+    /**
+     * @param type Primitive array type.
+     * @return Offset of the first array element to be used with
+     *         {@link #copy(Object, long, Object, long, long)}.
+     */
+    public static long arrayOffset(Class<?> type) {
+        return UNSAFE.arrayBaseOffset(type);
+    }
+
+    /**
+     * @param address Value address.
+     * @return Value read from memory.
+     */
+    public static int getInt(long address) {
+        return UNSAFE.getInt(address);
+    }
+
+    /**
+     * @param address Value address.
+     * @param value Value to be written.
+     */
+    public static void putInt(long address, int value) {
+        UNSAFE.putInt(address, value);
+    }
+
+    /**
+     * @param address Value address.
+     * @return Value read from memory.
+     */
+    public static long getLong(long address) {
+        return UNSAFE.getLong(address);
+    }
+
+    /**
+     * @param address Value address.
+     * @param value Value to be written.
+     */
+    public static void putLong(long address, long value) {
+        UNSAFE.putLong(address, value);
+    }
+
+    /**
+     * @param address Value address.
+     * @return Value read from memory.
+     */
+    public static float getFloat(long address) {
+        return UNSAFE.getFloat(address);
+    }
+
+    /**
+     * @param address Value address.
+     * @param value Value to be written.
+     */
+    public static void putFloat(long address, float value) {
+        UNSAFE.putFloat(address, value);
+    }
+
+    /**
+     * @param address Value address.
+     * @return Value read from memory.
+     */
+    public static double getDouble(long address) {
+        return UNSAFE.getDouble(address);
+    }
+
+    /**
+     * @param address Value address.
+     * @param value Value to be written.
+     */
+    public static void putDouble(long address, double value) {
+        UNSAFE.putDouble(address, value);
+    }
+
+    /**
+     * @param address Value address.
+     * @return Value read from memory.
+     */
+    public static short getShort(long address) {
+        return UNSAFE.getShort(address);
+    }
+
+    /**
+     * @param address Value address.
+     * @param value Value to be written.
+     */
+    public static void putShort(long address, short value) {
+        UNSAFE.putShort(address, value);
+    }
+
+    /**
+     * @param address Value address.
+     * @return Value read from memory.
+     */
+    public static byte getByte(long address) {
+        return UNSAFE.getByte(address);
+    }
+
+    /**
+     * @param address Value address.
+     * @param value Value to be written.
+     */
+    public static void putByte(long address, byte value) {
+        UNSAFE.putByte(address, value);
+    }
+
+    /**
+     * @param address Value address.
+     * @return Value read from memory.
+     */
+    public static char getChar(long address) {
+        return UNSAFE.getChar(address);
+    }
+
+    /**
+     * @param address Value address.
+     * @param value Value to be written.
+     */
+    public static void putChar(long address, char value) {
+        UNSAFE.putChar(address, value);
+    }
+
+    /**
+     * @param address Value address.
+     * @return Value read from memory, booleans are stored as a single byte.
+     */
+    public static boolean getBoolean(long address) {
+        return UNSAFE.getByte(address) != 0;
+    }
+
+    /**
+     * @param address Value address.
+     * @param value Value to be written, booleans are stored as a single byte.
+     */
+    public static void putBoolean(long address, boolean value) {
+        UNSAFE.putByte(address, value ? (byte) 1 : (byte) 0);
+    }
+
+    /**
+     * @param base Array holding the value, or null for off-heap memory.
+     * @param offset Value offset relative to the base.
+     * @return Value read from memory.
+     */
+    public static int getInt(Object base, long offset) {
+        return UNSAFE.getInt(base, offset);
+    }
+
+    /**
+     * @param base Array holding the value, or null for off-heap memory.
+     * @param offset Value offset relative to the base.
+     * @return Value read from memory.
+     */
+    public static long getLong(Object base, long offset) {
+        return UNSAFE.getLong(base, offset);
+    }
+
+    /**
+     * @param base Array holding the value, or null for off-heap memory.
+     * @param offset Value offset relative to the base.
+     * @return Value read from memory.
+     */
+    public static float getFloat(Object base, long offset) {
+        return UNSAFE.getFloat(base, offset);
+    }
+
+    /**
+     * @param base Array holding the value, or null for off-heap memory.
+     * @param offset Value offset relative to the base.
+     * @return Value read from memory.
+     */
+    public static double getDouble(Object base, long offset) {
+        return UNSAFE.getDouble(base, offset);
+    }
+
+    /**
+     * @param base Array holding the value, or null for off-heap memory.
+     * @param offset Value offset relative to the base.
+     * @return Value read from memory.
+     */
+    public static short getShort(Object base, long offset) {
+        return UNSAFE.getShort(base, offset);
+    }
+
+    /**
+     * @param base Array holding the value, or null for off-heap memory.
+     * @param offset Value offset relative to the base.
+     * @return Value read from memory.
+     */
+    public static byte getByte(Object base, long offset) {
+        return UNSAFE.getByte(base, offset);
+    }
+
+    /**
+     * @param base Array holding the value, or null for off-heap memory.
+     * @param offset Value offset relative to the base.
+     * @return Value read from memory.
+     */
+    public static char getChar(Object base, long offset) {
+        return UNSAFE.getChar(base, offset);
+    }
+
+    /**
+     * @param base Array holding the value, or null for off-heap memory.
+     * @param offset Value offset relative to the base.
+     * @return Value read from memory, booleans are stored as a byte.
+     */
+    public static boolean getBoolean(Object base, long offset) {
+        return UNSAFE.getByte(base, offset) != 0;
+    }
+
+    /**
+     * @param base Array holding the value, or null for off-heap memory.
+     * @param offset Value offset relative to the base.
+     * @param value Value written to memory.
+     */
+    public static void putInt(Object base, long offset, int value) {
+        UNSAFE.putInt(base, offset, value);
+    }
+
+    /**
+     * @param base Array holding the value, or null for off-heap memory.
+     * @param offset Value offset relative to the base.
+     * @param value Value written to memory.
+     */
+    public static void putLong(Object base, long offset, long value) {
+        UNSAFE.putLong(base, offset, value);
+    }
+
+    /**
+     * @param base Array holding the value, or null for off-heap memory.
+     * @param offset Value offset relative to the base.
+     * @param value Value written to memory.
+     */
+    public static void putFloat(Object base, long offset, float value) {
+        UNSAFE.putFloat(base, offset, value);
+    }
+
+    /**
+     * @param base Array holding the value, or null for off-heap memory.
+     * @param offset Value offset relative to the base.
+     * @param value Value written to memory.
+     */
+    public static void putDouble(Object base, long offset, double value) {
+        UNSAFE.putDouble(base, offset, value);
+    }
+
+    /**
+     * @param base Array holding the value, or null for off-heap memory.
+     * @param offset Value offset relative to the base.
+     * @param value Value written to memory.
+     */
+    public static void putShort(Object base, long offset, short value) {
+        UNSAFE.putShort(base, offset, value);
+    }
+
+    /**
+     * @param base Array holding the value, or null for off-heap memory.
+     * @param offset Value offset relative to the base.
+     * @param value Value written to memory.
+     */
+    public static void putByte(Object base, long offset, byte value) {
+        UNSAFE.putByte(base, offset, value);
+    }
+
+    /**
+     * @param base Array holding the value, or null for off-heap memory.
+     * @param offset Value offset relative to the base.
+     * @param value Value written to memory.
+     */
+    public static void putChar(Object base, long offset, char value) {
+        UNSAFE.putChar(base, offset, value);
+    }
+
+    /**
+     * @param base Array holding the value, or null for off-heap memory.
+     * @param offset Value offset relative to the base.
+     * @param value Value written to memory.
+     */
+    public static void putBoolean(Object base, long offset, boolean value) {
+        UNSAFE.putByte(base, offset, value ? (byte) 1 : (byte) 0);
+    }
+
+    /**
+     * Copies a single value, which is cheaper than {@link #copy(Object, long, Object, long, long)}
+     * for a few bytes.
+     *
+     * @param source Source array, or null for off-heap memory.
+     * @param sourceOffset Source value offset.
+     * @param target Target array, or null for off-heap memory.
+     * @param targetOffset Target value offset.
+     * @param bytes Value width: 8, 4, 2 or 1 bytes.
+     */
+    public static void copyValue(Object source, long sourceOffset, Object target,
+                                 long targetOffset, int bytes) {
+        switch (bytes) {
+            case Long.BYTES:
+                UNSAFE.putLong(target, targetOffset, UNSAFE.getLong(source, sourceOffset));
+                break;
+            case Integer.BYTES:
+                UNSAFE.putInt(target, targetOffset, UNSAFE.getInt(source, sourceOffset));
+                break;
+            case Short.BYTES:
+                UNSAFE.putShort(target, targetOffset, UNSAFE.getShort(source, sourceOffset));
+                break;
+            default:
+                UNSAFE.putByte(target, targetOffset, UNSAFE.getByte(source, sourceOffset));
+                break;
+        }
+    }
+
+    /**
+     * @param buffer Direct or mapped byte buffer.
+     * @return Address of the first buffer byte.
+     */
+    public static long address(ByteBuffer buffer) {
+        return UNSAFE.getLong(buffer, ADDRESS);
+    }
+
+    /**
+     * Unmaps a file mapping without waiting for the buffer to be garbage collected, when the
+     * runtime allows it. The buffer must not be accessed afterwards.
+     *
+     * @param buffer Mapped byte buffer.
+     */
+    public static void unmap(MappedByteBuffer buffer) {
+        try {
+            if (INVOKE_CLEANER != null) {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            } else if (CLEAN != null) {
+                Object cleaner = CLEANER.invoke(buffer);
+                if (cleaner != null) {
+                    CLEAN.invoke(cleaner);
+                }
+            }
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Failed to unmap the buffer", e);
+        }
+    }
+}
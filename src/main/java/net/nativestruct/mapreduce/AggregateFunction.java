@@ -0,0 +1,178 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct.mapreduce;
+
+/**
+ * Aggregate function accumulating the values of the group records into one value per group.
+ * Integral values are accumulated as longs, floating point values as doubles. Each function
+ * is a tight loop over a block of values already copied from the vector storage.
+ */
+enum AggregateFunction {
+    SUM {
+        @Override
+        void accumulate(int[] groups, long[] values, int length, long[] result) {
+            for (int i = 0; i < length; i++) {
+                result[groups[i]] = Math.addExact(result[groups[i]], values[i]);
+            }
+        }
+
+        @Override
+        void accumulate(int[] groups, double[] values, int length, double[] result) {
+            for (int i = 0; i < length; i++) {
+                result[groups[i]] += values[i];
+            }
+        }
+    },
+    MIN {
+        @Override
+        long initialLong() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        double initialDouble() {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        @Override
+        void accumulate(int[] groups, long[] values, int length, long[] result) {
+            for (int i = 0; i < length; i++) {
+                result[groups[i]] = Math.min(result[groups[i]], values[i]);
+            }
+        }
+
+        @Override
+        void accumulate(int[] groups, double[] values, int length, double[] result) {
+            for (int i = 0; i < length; i++) {
+                result[groups[i]] = Math.min(result[groups[i]], values[i]);
+            }
+        }
+    },
+    MAX {
+        @Override
+        long initialLong() {
+            return Long.MIN_VALUE;
+        }
+
+        @Override
+        double initialDouble() {
+            return Double.NEGATIVE_INFINITY;
+        }
+
+        @Override
+        void accumulate(int[] groups, long[] values, int length, long[] result) {
+            for (int i = 0; i < length; i++) {
+                result[groups[i]] = Math.max(result[groups[i]], values[i]);
+            }
+        }
+
+        @Override
+        void accumulate(int[] groups, double[] values, int length, double[] result) {
+            for (int i = 0; i < length; i++) {
+                result[groups[i]] = Math.max(result[groups[i]], values[i]);
+            }
+        }
+    },
+    COUNT {
+        @Override
+        boolean readsValues() {
+            return false;
+        }
+
+        @Override
+        void accumulate(int[] groups, long[] values, int length, long[] result) {
+            for (int i = 0; i < length; i++) {
+                result[groups[i]]++;
+            }
+        }
+
+        @Override
+        void accumulate(int[] groups, double[] values, int length, double[] result) {
+            for (int i = 0; i < length; i++) {
+                result[groups[i]]++;
+            }
+        }
+    },
+    AVG {
+        @Override
+        boolean counts() {
+            return true;
+        }
+
+        @Override
+        void accumulate(int[] groups, long[] values, int length, long[] result) {
+            SUM.accumulate(groups, values, length, result);
+        }
+
+        @Override
+        void accumulate(int[] groups, double[] values, int length, double[] result) {
+            SUM.accumulate(groups, values, length, result);
+        }
+    };
+
+    /**
+     * @return Whether the function needs the values of the records, count doesn't read them.
+     */
+    boolean readsValues() {
+        return true;
+    }
+
+    /**
+     * @return Whether the accumulated value is divided by the number of the group records.
+     */
+    boolean counts() {
+        return false;
+    }
+
+    /**
+     * @return Integral value of a group before accumulating its records.
+     */
+    long initialLong() {
+        return 0;
+    }
+
+    /**
+     * @return Floating point value of a group before accumulating its records.
+     */
+    double initialDouble() {
+        return 0;
+    }
+
+    /**
+     * @param groups Group of each record.
+     * @param values Value of each record.
+     * @param length The number of records.
+     * @param result Accumulated value of each group.
+     * @throws ArithmeticException If a sum overflows a long.
+     */
+    abstract void accumulate(int[] groups, long[] values, int length, long[] result);
+
+    /**
+     * @param groups Group of each record.
+     * @param values Value of each record.
+     * @param length The number of records.
+     * @param result Accumulated value of each group.
+     */
+    abstract void accumulate(int[] groups, double[] values, int length, double[] result);
+}
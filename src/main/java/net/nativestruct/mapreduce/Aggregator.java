@@ -0,0 +1,189 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct.mapreduce;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.nativestruct.StructVector;
+import net.nativestruct.implementation.field.Field;
+
+/**
+ * Groups records by key fields and computes declared aggregates of int, long, float and
+ * double fields without reduction callbacks. All the aggregates are computed in a single pass
+ * over blocks of records, which stay in the cache: the records of a block are grouped, after
+ * that each aggregate accumulates the field values of the block. The result holds one record
+ * per group: aggregated fields hold the aggregates, other fields are copied from the first
+ * record of the group. The average of integral fields is truncated towards zero, sums and
+ * averages, which don't fit into the field type, throw {@link ArithmeticException}.
+ *
+ * @param <T> Struct accessor type.
+ */
+public final class Aggregator<T> {
+    private static final int BLOCK_SIZE = 1024;
+
+    private final StructVector<T> source;
+    private final Field[] keys;
+    private final List<ColumnAggregate> aggregates = new ArrayList<>();
+    private StructVector<T> target;
+    private boolean sorted;
+
+    /**
+     * Constructs aggregator grouping records by the combination of the given fields.
+     *
+     * @param source Struct vector.
+     * @param keys Fields by which grouping is performed.
+     */
+    public Aggregator(StructVector<T> source, Field... keys) {
+        this.source = source;
+        this.keys = keys.clone();
+    }
+
+    /**
+     * Constructs aggregator grouping records by the combination of the given fields.
+     *
+     * @param source Struct vector.
+     * @param keys Fields by which grouping is performed.
+     */
+    public Aggregator(StructVector<T> source, String... keys) {
+        this(source, HashGroups.fields(source, keys));
+    }
+
+    /**
+     * @param field Field, which will hold the sum of the group values.
+     * @return This instance.
+     */
+    public Aggregator<T> sum(String field) {
+        return add(AggregateFunction.SUM, field);
+    }
+
+    /**
+     * @param field Field, which will hold the minimum of the group values.
+     * @return This instance.
+     */
+    public Aggregator<T> min(String field) {
+        return add(AggregateFunction.MIN, field);
+    }
+
+    /**
+     * @param field Field, which will hold the maximum of the group values.
+     * @return This instance.
+     */
+    public Aggregator<T> max(String field) {
+        return add(AggregateFunction.MAX, field);
+    }
+
+    /**
+     * @param field Field, which will hold the number of the group records.
+     * @return This instance.
+     */
+    public Aggregator<T> count(String field) {
+        return add(AggregateFunction.COUNT, field);
+    }
+
+    /**
+     * @param field Field, which will hold the average of the group values.
+     * @return This instance.
+     */
+    public Aggregator<T> avg(String field) {
+        return add(AggregateFunction.AVG, field);
+    }
+
+    private Aggregator<T> add(AggregateFunction function, String name) {
+        Field field = source.field(name);
+        if (field == null) {
+            throw new IllegalArgumentException("Unknown field: " + name);
+        }
+        for (Field key : keys) {
+            if (key.name().equals(name)) {
+                throw new IllegalArgumentException("Key field can't be aggregated: " + name);
+            }
+        }
+        for (ColumnAggregate aggregate : aggregates) {
+            if (aggregate.field().name().equals(name)) {
+                throw new IllegalArgumentException("Field is already aggregated: " + name);
+            }
+        }
+        aggregates.add(new ColumnAggregate(function, field));
+        return this;
+    }
+
+    /**
+     * Requests sorting the result by the key fields.
+     *
+     * @return This instance.
+     */
+    public Aggregator<T> sorted() {
+        this.sorted = true;
+        return this;
+    }
+
+    /**
+     * Assigns target vector before computing aggregates.
+     *
+     * @param vector The instance of struct vector for storing the result.
+     * @return This instance.
+     */
+    public Aggregator<T> into(StructVector<T> vector) {
+        this.target = vector;
+        return this;
+    }
+
+    /**
+     * Computes the aggregates.
+     *
+     * @return Struct vector with the result.
+     * @throws ArithmeticException If a sum or an average doesn't fit into the field type.
+     */
+    public StructVector<T> aggregate() {
+        target.resize(0);
+
+        HashGroups<T> groups = new HashGroups<>(target, keys).from(source);
+        int size = source.size();
+        int[] targetIndexes = new int[Math.min(size, BLOCK_SIZE)];
+        for (ColumnAggregate aggregate : aggregates) {
+            aggregate.start(source.column(aggregate.field()), targetIndexes.length);
+        }
+        for (int from = 0; from < size; from += targetIndexes.length) {
+            int end = Math.min(from + targetIndexes.length, size);
+            for (int sourceIndex = from; sourceIndex < end; sourceIndex++) {
+                int targetIndex = groups.group(sourceIndex);
+                targetIndexes[sourceIndex - from]
+                        = targetIndex < 0 ? -1 - targetIndex : targetIndex;
+            }
+            for (ColumnAggregate aggregate : aggregates) {
+                aggregate.accumulate(targetIndexes, from, end, target.size());
+            }
+        }
+
+        for (ColumnAggregate aggregate : aggregates) {
+            aggregate.finish(target.column(aggregate.field()), target.size());
+        }
+
+        if (sorted) {
+            HashGroups.sort(target, keys);
+        }
+        return target;
+    }
+}
@@ -0,0 +1,176 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct.mapreduce;
+
+import java.util.Arrays;
+
+import net.nativestruct.Column;
+import net.nativestruct.implementation.field.Field;
+import net.nativestruct.implementation.field.StorageType;
+
+/**
+ * Aggregate function applied to a field, the result is stored in the same field of the target
+ * records. The values of each block of records are copied from the source column at once, with
+ * the column and the records checked once per block, and accumulated by the function. Sums and
+ * averages of int fields, which don't fit into an int, are rejected. Averages of integral fields
+ * are truncated towards zero.
+ */
+final class ColumnAggregate {
+    private final AggregateFunction function;
+    private final Field field;
+    private final StorageType storage;
+    private Column source;
+    // Values of the block records, copied from the vector storage.
+    private long[] integral;
+    private double[] fractional;
+    // Accumulated value and the number of records of each group.
+    private long[] longs = new long[0];
+    private double[] doubles = new double[0];
+    private long[] counts = new long[0];
+
+    /**
+     * @param function Aggregate function.
+     * @param field Int, long, float or double field.
+     */
+    ColumnAggregate(AggregateFunction function, Field field) {
+        switch (field.storageType()) {
+            case INT:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+                break;
+            default:
+                throw new IllegalArgumentException("Field can't be aggregated: " + field.name());
+        }
+        this.function = function;
+        this.field = field;
+        this.storage = field.storageType();
+    }
+
+    /**
+     * @return Aggregated field.
+     */
+    Field field() {
+        return field;
+    }
+
+    /**
+     * Starts aggregation of the source records, there are no groups yet.
+     *
+     * @param values Field values of the source records.
+     * @param blockSize The maximum number of records in a block.
+     */
+    void start(Column values, int blockSize) {
+        source = values;
+        if (isIntegral()) {
+            integral = new long[blockSize];
+            longs = new long[0];
+        } else {
+            fractional = new double[blockSize];
+            doubles = new double[0];
+        }
+        counts = new long[0];
+    }
+
+    /**
+     * @param groups Group of each record in the block.
+     * @param from The first record of the block.
+     * @param end The last record of the block, exclusive.
+     * @param count The number of groups so far.
+     */
+    void accumulate(int[] groups, int from, int end, int count) {
+        reserve(count);
+        int length = end - from;
+        if (isIntegral()) {
+            if (function.readsValues()) {
+                source.getLongs(from, end, integral);
+            }
+            function.accumulate(groups, integral, length, longs);
+        } else {
+            if (function.readsValues()) {
+                source.getDoubles(from, end, fractional);
+            }
+            function.accumulate(groups, fractional, length, doubles);
+        }
+        if (function.counts()) {
+            for (int i = 0; i < length; i++) {
+                counts[groups[i]]++;
+            }
+        }
+    }
+
+    /**
+     * Stores the aggregated values.
+     *
+     * @param target Field values of the target records, one per group.
+     * @param count The number of groups.
+     */
+    void finish(Column target, int count) {
+        reserve(count);
+        for (int i = 0; i < count; i++) {
+            switch (storage) {
+                case INT:
+                    target.setInt(i, Math.toIntExact(longValue(i)));
+                    break;
+                case LONG:
+                    target.setLong(i, longValue(i));
+                    break;
+                case FLOAT:
+                    target.setFloat(i, (float) doubleValue(i));
+                    break;
+                default:
+                    target.setDouble(i, doubleValue(i));
+            }
+        }
+    }
+
+    private boolean isIntegral() {
+        return storage == StorageType.INT || storage == StorageType.LONG;
+    }
+
+    private long longValue(int group) {
+        return function.counts() ? longs[group] / counts[group] : longs[group];
+    }
+
+    private double doubleValue(int group) {
+        return function.counts() ? doubles[group] / counts[group] : doubles[group];
+    }
+
+    private void reserve(int count) {
+        int size = isIntegral() ? longs.length : doubles.length;
+        if (count > size) {
+            int capacity = Math.max(count, size * 2);
+            if (isIntegral()) {
+                longs = Arrays.copyOf(longs, capacity);
+                Arrays.fill(longs, size, capacity, function.initialLong());
+            } else {
+                doubles = Arrays.copyOf(doubles, capacity);
+                Arrays.fill(doubles, size, capacity, function.initialDouble());
+            }
+            if (function.counts()) {
+                counts = Arrays.copyOf(counts, capacity);
+            }
+        }
+    }
+}
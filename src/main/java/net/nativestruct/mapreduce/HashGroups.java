@@ -0,0 +1,148 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct.mapreduce;
+
+import net.nativestruct.StructVector;
+import net.nativestruct.implementation.field.Field;
+import net.nativestruct.implementation.hash.RowTable;
+import net.nativestruct.sorting.SortSpec;
+
+/**
+ * Groups records of one or several source vectors into a target vector by key fields. The
+ * first record of a group is copied to the end of the target vector. Records already present
+ * in the target vector are existing groups, so their keys should be distinct.
+ *
+ * @param <T> Struct accessor type.
+ */
+final class HashGroups<T> {
+    private final StructVector<T> target;
+    private final HashedKey<T> key;
+    private final RowTable table = new RowTable(0);
+    private StructVector<T> source;
+
+    /**
+     * @param target Vector receiving one record per group.
+     * @param fields Key fields.
+     */
+    HashGroups(StructVector<T> target, Field[] fields) {
+        this.target = target;
+        this.key = new HashedKey<>(target, fields);
+
+        key.source(target);
+        for (int index = 0; index < target.size(); index++) {
+            findOrAdd(index, index);
+        }
+    }
+
+    /**
+     * Assigns the vector of the records being grouped.
+     *
+     * @param vector Source vector, which isn't resized while it's grouped.
+     * @return This instance.
+     */
+    HashGroups<T> from(StructVector<T> vector) {
+        key.source(vector);
+        key.targetResized();
+        this.source = vector;
+        return this;
+    }
+
+    /**
+     * Finds the group of the source record, a new group is started by the copy of the record.
+     *
+     * @param sourceIndex Index of the source record.
+     * @return Index of the target record of an existing group, or (-(target index) - 1) if
+     *         a new group was started.
+     */
+    int group(int sourceIndex) {
+        int candidate = target.size();
+        int targetIndex = findOrAdd(sourceIndex, candidate);
+        if (targetIndex == candidate) {
+            target.insertLast();
+            target.updateFrom(targetIndex, source, sourceIndex);
+            key.targetResized();
+            targetIndex = -1 - targetIndex;
+        }
+        return targetIndex;
+    }
+
+    /**
+     * Searches the target record having the same key as the source record, and adds the
+     * candidate target record if there is none.
+     *
+     * @param sourceIndex Index of the source record.
+     * @param candidate Index of the target record to add.
+     * @return Index of the target record with the same key, or candidate if it was added.
+     */
+    private int findOrAdd(int sourceIndex, int candidate) {
+        int hash = key.hash(sourceIndex);
+        int slot = table.home(hash);
+        while (!table.isEmpty(slot)) {
+            int row = table.row(slot);
+            if (table.hash(slot) == hash && key.matches(sourceIndex, row)) {
+                return row;
+            }
+            slot = table.next(slot);
+        }
+        table.put(slot, hash, candidate);
+        return candidate;
+    }
+
+    /**
+     * @param vector Struct vector.
+     * @param names Names of key fields.
+     * @return Key fields.
+     */
+    static Field[] fields(StructVector<?> vector, String... names) {
+        if (names.length == 0) {
+            throw new IllegalArgumentException("No key fields");
+        }
+        Field[] fields = new Field[names.length];
+        for (int i = 0; i < names.length; i++) {
+            fields[i] = vector.field(names[i]);
+            if (fields[i] == null) {
+                throw new IllegalArgumentException("Unknown field: " + names[i]);
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Sorts grouped records by the key fields.
+     *
+     * @param vector Struct vector.
+     * @param fields Key fields, the first one determines the primary order.
+     */
+    static void sort(StructVector<?> vector, Field[] fields) {
+        if (fields.length == 1) {
+            vector.sort(fields[0]);
+        } else {
+            SortSpec spec = SortSpec.by(fields[0].name());
+            for (int i = 1; i < fields.length; i++) {
+                spec = spec.then(fields[i].name());
+            }
+            vector.sort(spec);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct.mapreduce;
+
+import java.util.function.BiConsumer;
+
+import net.nativestruct.StructVector;
+import net.nativestruct.implementation.field.Field;
+
+/**
+ * Performs reduce operation over a vector of structs. It iterates over source vector, looks up
+ * the key in a hash table of target records and then accumulates the result. New keys are
+ * appended to the target vector in the order of their first occurrence, unless the reducer
+ * is asked to sort the result.
+ *
+ * @param <T> Struct accessor type.
+ */
+public final class HashReducer<T> implements Reducer<T> {
+    private final StructVector<T> source;
+    private final Field[] fields;
+    private StructVector<T> target;
+    private boolean sorted;
+
+    /**
+     * Constructs Reduce instance grouping records by the combination of the given fields.
+     *
+     * @param source Struct vector.
+     * @param fields Fields by which grouping is performed.
+     */
+    public HashReducer(StructVector<T> source, Field... fields) {
+        this.source = source;
+        this.fields = fields.clone();
+    }
+
+    /**
+     * Constructs Reduce instance grouping records by the combination of the given fields.
+     *
+     * @param source Struct vector.
+     * @param fields Fields by which grouping is performed.
+     */
+    public HashReducer(StructVector<T> source, String... fields) {
+        this(source, HashGroups.fields(source, fields));
+    }
+
+    /**
+     * Requests sorting the reduce result by the key fields.
+     *
+     * @return This instance.
+     */
+    public HashReducer<T> sorted() {
+        this.sorted = true;
+        return this;
+    }
+
+    /**
+     * Switches to computing aggregates without the reduction consumer.
+     *
+     * @param field Field, which will hold the sum of the group values.
+     * @return Aggregator grouping records by the key field of this reducer.
+     */
+    public Aggregator<T> sum(String field) {
+        return aggregator().sum(field);
+    }
+
+    /**
+     * Switches to computing aggregates without the reduction consumer.
+     *
+     * @param field Field, which will hold the minimum of the group values.
+     * @return Aggregator grouping records by the key field of this reducer.
+     */
+    public Aggregator<T> min(String field) {
+        return aggregator().min(field);
+    }
+
+    /**
+     * Switches to computing aggregates without the reduction consumer.
+     *
+     * @param field Field, which will hold the maximum of the group values.
+     * @return Aggregator grouping records by the key field of this reducer.
+     */
+    public Aggregator<T> max(String field) {
+        return aggregator().max(field);
+    }
+
+    /**
+     * Switches to computing aggregates without the reduction consumer.
+     *
+     * @param field Field, which will hold the number of the group records.
+     * @return Aggregator grouping records by the key field of this reducer.
+     */
+    public Aggregator<T> count(String field) {
+        return aggregator().count(field);
+    }
+
+    /**
+     * Switches to computing aggregates without the reduction consumer.
+     *
+     * @param field Field, which will hold the average of the group values.
+     * @return Aggregator grouping records by the key field of this reducer.
+     */
+    public Aggregator<T> avg(String field) {
+        return aggregator().avg(field);
+    }
+
+    private Aggregator<T> aggregator() {
+        Aggregator<T> aggregator = new Aggregator<>(source, fields).into(target);
+        if (sorted) {
+            aggregator.sorted();
+        }
+        return aggregator;
+    }
+
+    @Override
+    public HashReducer<T> into(StructVector<T> vector) {
+        this.target = vector;
+        return this;
+    }
+
+    @Override
+    public StructVector<T> with(BiConsumer<T, T> consumer) {
+        target.resize(0);
+
+        T sourceAccessor = source.accessor();
+        T targetAccessor = target.accessor();
+
+        HashGroups<T> groups = new HashGroups<>(target, fields).from(source);
+
+        int size = source.size();
+        for (int sourceIndex = 0; sourceIndex < size; sourceIndex++) {
+            int targetIndex = groups.group(sourceIndex);
+            if (targetIndex >= 0) {
+                source.current(sourceIndex);
+                target.current(targetIndex);
+                consumer.accept(targetAccessor, sourceAccessor);
+            }
+        }
+
+        if (sorted) {
+            HashGroups.sort(target, fields);
+        }
+        return target;
+    }
+}
@@ -0,0 +1,159 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct.mapreduce;
+
+import java.util.Objects;
+
+import net.nativestruct.Column;
+import net.nativestruct.StructVector;
+import net.nativestruct.implementation.field.Field;
+import net.nativestruct.implementation.field.StorageType;
+import net.nativestruct.implementation.hash.RowTable;
+
+/**
+ * Hashes the key fields of source records and matches them against target records without
+ * boxing primitive keys or allocating composite keys. Keys are read through columns, which are
+ * refreshed when a vector may have been reallocated. Floating point keys are compared by their
+ * bits, which agrees with the ordering used for sorting.
+ *
+ * @param <T> Struct accessor type.
+ */
+final class HashedKey<T> {
+    // Fibonacci hashing constant, 2^64 divided by the golden ratio.
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final StructVector<T> target;
+    private final Field[] fields;
+    private final StorageType[] storages;
+    private final Column[] sources;
+    private final Column[] targets;
+
+    /**
+     * @param target Vector of the records being matched.
+     * @param fields Key fields.
+     */
+    HashedKey(StructVector<T> target, Field[] fields) {
+        this.target = target;
+        this.fields = fields.clone();
+        this.storages = new StorageType[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            storages[i] = fields[i].storageType();
+        }
+        this.sources = new Column[fields.length];
+        this.targets = new Column[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            targets[i] = target.column(fields[i]);
+        }
+    }
+
+    /**
+     * Assigns the vector of the records being hashed.
+     *
+     * @param vector Source vector, which isn't resized while it's hashed.
+     */
+    void source(StructVector<T> vector) {
+        for (int i = 0; i < fields.length; i++) {
+            sources[i] = vector.column(fields[i]);
+        }
+    }
+
+    /**
+     * Notifies that records were added to the target vector, target columns are refreshed only
+     * if its storage was reallocated.
+     */
+    void targetResized() {
+        if (targets[0].isStale()) {
+            for (int i = 0; i < fields.length; i++) {
+                targets[i] = target.column(fields[i]);
+            }
+        }
+    }
+
+    /**
+     * @param sourceIndex Index of the source record.
+     * @return Hash code of the key.
+     */
+    int hash(int sourceIndex) {
+        long hash = 0;
+        for (int i = 0; i < storages.length; i++) {
+            long part;
+            if (storages[i].isPrimitive()) {
+                part = bits(storages[i], sources[i], sourceIndex);
+            } else {
+                part = Objects.hashCode(sources[i].getObject(sourceIndex));
+            }
+            hash = (hash + part) * GOLDEN_GAMMA;
+        }
+        return RowTable.mix(hash);
+    }
+
+    /**
+     * @param sourceIndex Index of the source record.
+     * @param targetIndex Index of the target record.
+     * @return Whether both records have the same key.
+     */
+    boolean matches(int sourceIndex, int targetIndex) {
+        boolean result = true;
+        for (int i = 0; result && i < storages.length; i++) {
+            if (storages[i].isPrimitive()) {
+                result = bits(storages[i], sources[i], sourceIndex)
+                        == bits(storages[i], targets[i], targetIndex);
+            } else {
+                result = Objects.equals(sources[i].getObject(sourceIndex),
+                        targets[i].getObject(targetIndex));
+            }
+        }
+        return result;
+    }
+
+    private static long bits(StorageType storage, Column column, int index) {
+        long result;
+        switch (storage) {
+            case INT:
+                result = column.getInt(index);
+                break;
+            case LONG:
+                result = column.getLong(index);
+                break;
+            case FLOAT:
+                result = Float.floatToIntBits(column.getFloat(index));
+                break;
+            case DOUBLE:
+                result = Double.doubleToLongBits(column.getDouble(index));
+                break;
+            case SHORT:
+                result = column.getShort(index);
+                break;
+            case BYTE:
+                result = column.getByte(index);
+                break;
+            case CHAR:
+                result = column.getChar(index);
+                break;
+            default:
+                result = column.getBoolean(index) ? 1 : 0;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct.mapreduce;
+
+import java.util.function.BiConsumer;
+
+import net.nativestruct.StructVector;
+import net.nativestruct.implementation.field.Field;
+
+/**
+ * Folds batches of records into a long-lived target vector by key fields. The target isn't
+ * cleared between batches: a batch record with a known key is accumulated into the target
+ * record, a new key is appended to the target. The hash table of target records is kept
+ * between batches, so merging a batch costs in proportion to the batch size.
+ *
+ * <p>Reordering or removing target records invalidates the table, {@link #reindex()} should
+ * be called after that, e.g. after sorting the target.</p>
+ *
+ * @param <T> Struct accessor type.
+ */
+public final class IncrementalReducer<T> {
+    private final StructVector<T> target;
+    private final Field[] fields;
+    private HashGroups<T> groups;
+
+    /**
+     * Constructs reducer grouping records by the combination of the given fields. Records
+     * already present in the target vector are accumulators of their keys, which should be
+     * distinct.
+     *
+     * @param target Vector accumulating the reduce result.
+     * @param fields Fields by which grouping is performed.
+     */
+    public IncrementalReducer(StructVector<T> target, Field... fields) {
+        this.target = target;
+        this.fields = fields.clone();
+        reindex();
+    }
+
+    /**
+     * Constructs reducer grouping records by the combination of the given fields. Records
+     * already present in the target vector are accumulators of their keys, which should be
+     * distinct.
+     *
+     * @param target Vector accumulating the reduce result.
+     * @param fields Fields by which grouping is performed.
+     */
+    public IncrementalReducer(StructVector<T> target, String... fields) {
+        this(target, HashGroups.fields(target, fields));
+    }
+
+    /**
+     * Rebuilds the hash table after target records were reordered or removed.
+     */
+    public void reindex() {
+        groups = new HashGroups<>(target, fields);
+    }
+
+    /**
+     * Merges a batch of records into the target vector.
+     *
+     * @param batch Struct vector with new records.
+     * @param consumer The first parameter is accumulator,
+     *                 the second parameter is value being reduced.
+     * @return Target vector with the reduce result.
+     */
+    public StructVector<T> merge(StructVector<T> batch, BiConsumer<T, T> consumer) {
+        T batchAccessor = batch.accessor();
+        T targetAccessor = target.accessor();
+
+        groups.from(batch);
+        int size = batch.size();
+        for (int batchIndex = 0; batchIndex < size; batchIndex++) {
+            int targetIndex = groups.group(batchIndex);
+            if (targetIndex >= 0) {
+                batch.current(batchIndex);
+                target.current(targetIndex);
+                consumer.accept(targetAccessor, batchAccessor);
+            }
+        }
+        return target;
+    }
+
+    /**
+     * @return Vector accumulating the reduce result.
+     */
+    public StructVector<T> target() {
+        return target;
+    }
+}
@@ -75,17 +75,7 @@ public final class InsertionReducer<T> implements Reducer<T> {
 
         int size = source.size();
         for (int sourceIndex = 0; sourceIndex < size; sourceIndex++) {
-            int targetIndex;
-            if (field.isType(int.class)) {
-                targetIndex = target.binarySearch(
-                        field, source.fieldValueInteger(field, sourceIndex));
-            } else if (field.isType(double.class)) {
-                targetIndex = target.binarySearch(
-                        field, source.fieldValueDouble(field, sourceIndex));
-            } else {
-                targetIndex = target.binarySearch(
-                        field, (Comparable) source.fieldValueObject(field, sourceIndex));
-            }
+            int targetIndex = searchTarget(sourceIndex);
 
             if (targetIndex < 0) {
                 targetIndex = -1 - targetIndex;
@@ -100,4 +90,44 @@ public final class InsertionReducer<T> implements Reducer<T> {
 
         return target;
     }
+
+    /**
+     * Searches the target vector for the key of a source record.
+     *
+     * @param sourceIndex Index of the source record.
+     * @return Result of the target vector binary search.
+     */
+    private int searchTarget(int sourceIndex) {
+        int result;
+        switch (field.storageType()) {
+            case INT:
+                result = target.binarySearch(field, source.fieldValueInteger(field, sourceIndex));
+                break;
+            case LONG:
+                result = target.binarySearch(field, source.fieldValueLong(field, sourceIndex));
+                break;
+            case FLOAT:
+                result = target.binarySearch(field, source.fieldValueFloat(field, sourceIndex));
+                break;
+            case DOUBLE:
+                result = target.binarySearch(field, source.fieldValueDouble(field, sourceIndex));
+                break;
+            case SHORT:
+                result = target.binarySearch(field, source.fieldValueShort(field, sourceIndex));
+                break;
+            case BYTE:
+                result = target.binarySearch(field, source.fieldValueByte(field, sourceIndex));
+                break;
+            case CHAR:
+                result = target.binarySearch(field, source.fieldValueChar(field, sourceIndex));
+                break;
+            case BOOLEAN:
+                result = target.binarySearch(field, source.fieldValueBoolean(field, sourceIndex));
+                break;
+            default:
+                result = target.binarySearch(
+                        field, (Comparable) source.fieldValueObject(field, sourceIndex));
+        }
+        return result;
+    }
 }
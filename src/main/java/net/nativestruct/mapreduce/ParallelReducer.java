@@ -0,0 +1,175 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct.mapreduce;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiConsumer;
+
+import net.nativestruct.Cursor;
+import net.nativestruct.Parallelism;
+import net.nativestruct.StructVector;
+import net.nativestruct.implementation.field.Field;
+
+/**
+ * Performs reduce operation over a vector of structs using several threads. The source range
+ * is split into partitions, each partition is reduced into a separate vector, then the partial
+ * results are merged into the target vector in the order of the partitions. The groups appear
+ * in the order of their first occurrence, unless the reducer is asked to sort the result.
+ *
+ * <p>The reduction consumer is applied to records of one partition, the combiner merges
+ * partial results of different partitions. For sums, counts, minimums and maximums both are
+ * the same, which is the default.</p>
+ *
+ * @param <T> Struct accessor type.
+ */
+public final class ParallelReducer<T> implements Reducer<T> {
+    private final StructVector<T> source;
+    private final Field[] fields;
+    private final Parallelism parallelism;
+    private StructVector<T> target;
+    private BiConsumer<T, T> combiner;
+    private boolean sorted;
+
+    /**
+     * Constructs Reduce instance grouping records by the given field.
+     *
+     * @param source Struct vector.
+     * @param field Field by which grouping is performed.
+     * @param parallelism Specifies the pool and the number of records reduced by a single task.
+     */
+    public ParallelReducer(StructVector<T> source, Field field, Parallelism parallelism) {
+        this(source, new Field[]{field}, parallelism);
+    }
+
+    /**
+     * Constructs Reduce instance grouping records by the given field.
+     *
+     * @param source Struct vector.
+     * @param field Field by which grouping is performed.
+     * @param parallelism Specifies the pool and the number of records reduced by a single task.
+     */
+    public ParallelReducer(StructVector<T> source, String field, Parallelism parallelism) {
+        this(source, HashGroups.fields(source, field), parallelism);
+    }
+
+    /**
+     * Constructs Reduce instance grouping records by the combination of the given fields.
+     *
+     * @param source Struct vector.
+     * @param fields Fields by which grouping is performed.
+     * @param parallelism Specifies the pool and the number of records reduced by a single task.
+     */
+    public ParallelReducer(StructVector<T> source, Field[] fields, Parallelism parallelism) {
+        this.source = source;
+        this.fields = fields.clone();
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Specifies how partial results are merged, by default the reduction consumer is used.
+     *
+     * @param consumer The first parameter is accumulator, the second parameter is
+     *                 a partial result being merged.
+     * @return This instance.
+     */
+    public ParallelReducer<T> combining(BiConsumer<T, T> consumer) {
+        this.combiner = consumer;
+        return this;
+    }
+
+    /**
+     * Requests sorting the reduce result by the key fields.
+     *
+     * @return This instance.
+     */
+    public ParallelReducer<T> sorted() {
+        this.sorted = true;
+        return this;
+    }
+
+    @Override
+    public ParallelReducer<T> into(StructVector<T> vector) {
+        this.target = vector;
+        return this;
+    }
+
+    @Override
+    public StructVector<T> with(BiConsumer<T, T> consumer) {
+        Map<Integer, StructVector<T>> partials = new ConcurrentSkipListMap<>();
+        parallelism.forEachRange(0, source.size(),
+            (from, end) -> partials.put(from, reduce(from, end, consumer)));
+
+        target.resize(0);
+        T targetAccessor = target.accessor();
+        HashGroups<T> groups = new HashGroups<>(target, fields);
+        BiConsumer<T, T> merge = combiner == null ? consumer : combiner;
+
+        for (StructVector<T> partial : partials.values()) {
+            T partialAccessor = partial.accessor();
+            groups.from(partial);
+            for (int index = 0; index < partial.size(); index++) {
+                int targetIndex = groups.group(index);
+                if (targetIndex >= 0) {
+                    partial.current(index);
+                    target.current(targetIndex);
+                    merge.accept(targetAccessor, partialAccessor);
+                }
+            }
+        }
+
+        if (sorted) {
+            HashGroups.sort(target, fields);
+        }
+        return target;
+    }
+
+    /**
+     * Reduces a partition of the source vector. The accessor of the source vector isn't thread
+     * safe, so the partition reads the source records through a cursor of its own.
+     *
+     * @param from The first record index, inclusive.
+     * @param end The last record index, exclusive.
+     * @param consumer The reduction consumer.
+     * @return Partial reduce result.
+     */
+    private StructVector<T> reduce(int from, int end, BiConsumer<T, T> consumer) {
+        StructVector<T> partial = new StructVector<>(source.type());
+        Cursor<T> cursor = source.newCursor();
+
+        T partialAccessor = partial.accessor();
+        T sourceAccessor = cursor.accessor();
+        HashGroups<T> groups = new HashGroups<>(partial, fields).from(source);
+
+        for (int sourceIndex = from; sourceIndex < end; sourceIndex++) {
+            int partialIndex = groups.group(sourceIndex);
+            if (partialIndex >= 0) {
+                cursor.current(sourceIndex);
+                partial.current(partialIndex);
+                consumer.accept(partialAccessor, sourceAccessor);
+            }
+        }
+        return partial;
+    }
+}
@@ -28,6 +28,7 @@ import java.util.function.BiConsumer;
 import net.nativestruct.StructVector;
 import net.nativestruct.implementation.field.Field;
 import net.nativestruct.sorting.IndexedFieldComparator;
+import net.nativestruct.sorting.SortSpec;
 import net.nativestruct.sorting.SortedProjection;
 
 /**
@@ -62,6 +63,17 @@ public final class SortingReducer<T> implements Reducer<T> {
         this(vector, vector.field(field));
     }
 
+    /**
+     * Constructs Reduce instance grouping records equal by all the keys of the sort spec.
+     *
+     * @param vector Struct vector.
+     * @param spec Sort spec, which determines the groups and their order.
+     */
+    public SortingReducer(StructVector<T> vector, SortSpec spec) {
+        this.source = vector;
+        this.projection = new SortedProjection<>(source, spec);
+    }
+
     @Override
     public SortingReducer<T> into(StructVector<T> vector) {
         this.target = vector;
@@ -24,18 +24,21 @@
 package net.nativestruct.sorting;
 
 import java.util.Comparator;
+import java.util.concurrent.RecursiveAction;
+
+import net.nativestruct.Parallelism;
 
 /**
  * The class performs sorting of record indexes according to ordering, specified by a struct field.
  * It returns index substitution array, which is used to reorder struct records.
+ * The indexes are sorted once, when the ordering is requested for the first time.
  */
 public abstract class AbstractSortedSubstitution implements SortedSubstitution {
-    private static final int INSERTION_SORT_THRESHOLD = 10;
-
     private final IndexedFieldComparator comparator;
     private final int[] indexes;
     private final int[] shadow;
-    private final OrderingSubstitution ordering;
+    private final RangeSorter sorter;
+    private OrderingSubstitution ordering;
 
     /**
      * Construct instance.
@@ -44,18 +47,46 @@ public abstract class AbstractSortedSubstitution implements SortedSubstitution {
      * @param comparator Comparator for record comparison, specified by their indexes.
      */
     public AbstractSortedSubstitution(int size, IndexedFieldComparator comparator) {
+        this(size, comparator, (sorted, buffer)
+            -> new MergeSort(sorted, buffer, comparator, null, 0L));
+    }
+
+    /**
+     * Construct instance.
+     *
+     * @param size Vector size.
+     * @param comparator Comparator for record comparison, specified by their indexes.
+     * @param sorters Creates sorter of the record indexes.
+     */
+    protected AbstractSortedSubstitution(int size, IndexedFieldComparator comparator,
+                                         SorterFactory sorters) {
         this.comparator = comparator;
         this.indexes = new int[size];
         this.shadow = new int[size];
-        this.ordering = buildOrdering();
+        this.sorter = sorters.create(indexes, shadow);
+    }
+
+    /**
+     * Creates substitution sorted with the generic merge sort.
+     *
+     * @param size Vector size.
+     * @param comparator Comparator for record comparison, specified by their indexes.
+     * @return SortedSubstitution instance.
+     */
+    public static SortedSubstitution of(int size, IndexedFieldComparator comparator) {
+        return new Generic(size, comparator);
     }
 
-    private OrderingSubstitution buildOrdering() {
+    private OrderingSubstitution buildOrdering(Parallelism parallelism) {
         for (int i = 0; i < indexes.length; i++) {
             indexes[i] = i;
         }
 
-        sort(0, indexes.length);
+        if (parallelism.splits(indexes.length)) {
+            parallelism.pool().invoke(new SortTask(0, indexes.length, parallelism.threshold()));
+        } else {
+            sorter.sort(0, indexes.length);
+        }
 
         for (int i = 0; i < indexes.length; i++) {
             shadow[indexes[i]] = i;
@@ -71,142 +102,217 @@ public abstract class AbstractSortedSubstitution implements SortedSubstitution {
 
     @Override
     public final OrderingSubstitution ordering() {
+        return ordering(Parallelism.SEQUENTIAL);
+    }
+
+    @Override
+    public final OrderingSubstitution ordering(Parallelism parallelism) {
+        if (ordering == null) {
+            ordering = buildOrdering(parallelism);
+        }
         return ordering;
     }
 
     /**
-     * Recursive sort algorithm. It uses insertion sort for small sub-arrays and merge sort for
-     * bigger ones.
-     *
-     * @param lower Lower bound of sub-array to sort.
-     * @param upper Lower bound of sub-array to sort.
+     * Sorts halves of a sub-array concurrently and merges them. It splits the sub-array at the same
+     * points as the sequential sort does, so both produce the same stable ordering.
+     * The merges of disjoint sub-arrays touch disjoint parts of the shared arrays.
      */
-    private void sort(int lower, int upper) {
-        int count = upper - lower;
-        if (count <= INSERTION_SORT_THRESHOLD) {
-            insertionSort(lower, upper);
-        } else {
-            int middle = (lower + upper) / 2;
-            sort(lower, middle);
-            sort(middle, upper);
-            merge(lower, upper, middle);
+    private final class SortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int lower;
+        private final int upper;
+        private final int threshold;
+
+        SortTask(int lower, int upper, int threshold) {
+            this.lower = lower;
+            this.upper = upper;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (upper - lower <= threshold) {
+                sorter.sort(lower, upper);
+            } else {
+                int middle = (lower + upper) / 2;
+                invokeAll(new SortTask(lower, middle, threshold),
+                        new SortTask(middle, upper, threshold));
+                sorter.merge(lower, upper, middle);
+            }
         }
     }
 
     /**
-     * Insertion sort algorithm for small sub-array.
-     *
-     * @param lower Lower bound of sub-array to sort.
-     * @param upper Lower bound of sub-array to sort.
+     * Sorted substitution implement for integer fields.
      */
-    private void insertionSort(int lower, int upper) {
-        for (int i = lower + 1; i < upper; i++) {
-            int prev = indexes[i - 1];
-            int current = indexes[i];
-
-            if (!comparator.lessOrEqual(prev, current)) {
-                indexes[i] = prev;
-                int insertion = i - 1;
-                while (--insertion >= lower
-                        && !comparator.lessOrEqual(indexes[insertion], current)) {
-                    indexes[insertion + 1] = indexes[insertion];
-                }
-                indexes[insertion + 1] = current;
-            }
+    public static class Integers extends AbstractSortedSubstitution {
+        /**
+         * Construct instance.
+         *
+         * @param integers Integer struct fields array.
+         * @param size Struct vector size.
+         * @param width The number of integer fields in the struct.
+         * @param field Index of the field to be used for sorting.
+         */
+        public Integers(int[] integers, int size, int width, int field) {
+            super(size, (left, right)
+                -> integers[width * left + field] <= integers[width * right + field]);
         }
     }
 
     /**
-     * Merge sorted lower and upper sub-arrays.
-     *
-     * @param lower Lower bound of sub-array to sort.
-     * @param upper Upper bound of sub-array to sort.
-     * @param middle Middle element.
+     * Sorted substitution implement for long fields.
      */
-    private void merge(int lower, int upper, int middle) {
-        skipSmallestAndMerge(lower, upper, middle);
+    public static class Longs extends AbstractSortedSubstitution {
+        /**
+         * Construct instance.
+         *
+         * @param longs Long struct fields array.
+         * @param size Struct vector size.
+         * @param width The number of long fields in the struct.
+         * @param field Index of the field to be used for sorting.
+         */
+        public Longs(long[] longs, int size, int width, int field) {
+            super(size, (left, right)
+                -> longs[width * left + field] <= longs[width * right + field]);
+        }
     }
 
-    private void skipSmallestAndMerge(int originalLower, int upper, int middle) {
-        int lower = originalLower;
-        int leastUpper = indexes[middle];
-        while (comparator.lessOrEqual(indexes[lower], leastUpper)) {
-            if (++lower >= middle) {
-                return;
-            }
+    /**
+     * Sorted substitution implement for float fields, ordered like {@link Float#compare}.
+     */
+    public static class Floats extends AbstractSortedSubstitution {
+        /**
+         * Construct instance.
+         *
+         * @param floats Float struct fields array.
+         * @param size Struct vector size.
+         * @param width The number of float fields in the struct.
+         * @param field Index of the field to be used for sorting.
+         */
+        public Floats(float[] floats, int size, int width, int field) {
+            super(size, (left, right)
+                -> Float.compare(floats[width * left + field], floats[width * right + field])
+                    <= 0);
         }
-
-        skipLargestAndMerge(lower, upper, middle);
     }
 
-    private void skipLargestAndMerge(int lower, int originalUpper, int middle) {
-        int upper = originalUpper;
-        int mostLower = indexes[middle - 1];
-        while (comparator.lessOrEqual(mostLower, indexes[upper - 1])) {
-            if (--upper <= middle) {
-                return;
-            }
+    /**
+     * Sorted substitution implement for double fields, ordered like {@link Double#compare}.
+     */
+    public static class Doubles extends AbstractSortedSubstitution {
+        /**
+         * Construct instance.
+         *
+         * @param doubles Double struct fields array.
+         * @param size Struct vector size.
+         * @param width The number of double fields in the struct.
+         * @param field Index of the field to be used for sorting.
+         */
+        public Doubles(double[] doubles, int size, int width, int field) {
+            super(size, (left, right)
+                -> Double.compare(doubles[width * left + field], doubles[width * right + field])
+                    <= 0);
         }
-
-        mergeNoSmallestLargest(lower, upper, middle);
     }
 
-    private void mergeNoSmallestLargest(int lower, int upper, int middle) {
-        int first = lower;
-        int second = middle;
-        int target = lower;
-
-        shadow[target++] = indexes[second++];
-
-        while (second < upper) {
-            int left = indexes[first];
-            int right = indexes[second];
-            if (comparator.lessOrEqual(left, right)) {
-                shadow[target++] = left;
-                first++;
-            } else {
-                shadow[target++] = right;
-                second++;
-            }
+    /**
+     * Sorted substitution implement for short fields.
+     */
+    public static class Shorts extends AbstractSortedSubstitution {
+        /**
+         * Construct instance.
+         *
+         * @param shorts Short struct fields array.
+         * @param size Struct vector size.
+         * @param width The number of short fields in the struct.
+         * @param field Index of the field to be used for sorting.
+         */
+        public Shorts(short[] shorts, int size, int width, int field) {
+            super(size, (left, right)
+                -> shorts[width * left + field] <= shorts[width * right + field]);
         }
+    }
 
-        System.arraycopy(indexes, first, indexes, target, middle - first);
-        System.arraycopy(shadow, lower, indexes, lower, upper - lower - (middle - first));
+    /**
+     * Sorted substitution implement for byte fields.
+     */
+    public static class Bytes extends AbstractSortedSubstitution {
+        /**
+         * Construct instance.
+         *
+         * @param bytes Byte struct fields array.
+         * @param size Struct vector size.
+         * @param width The number of byte fields in the struct.
+         * @param field Index of the field to be used for sorting.
+         */
+        public Bytes(byte[] bytes, int size, int width, int field) {
+            super(size, (left, right)
+                -> bytes[width * left + field] <= bytes[width * right + field]);
+        }
     }
 
     /**
-     * Sorted substitution implement for integer fields.
+     * Sorted substitution implement for char fields.
      */
-    public static class Integers extends AbstractSortedSubstitution {
+    public static class Chars extends AbstractSortedSubstitution {
         /**
          * Construct instance.
          *
-         * @param integers Integer struct fields array.
+         * @param chars Char struct fields array.
          * @param size Struct vector size.
-         * @param width The number of integer fields in the struct.
+         * @param width The number of char fields in the struct.
          * @param field Index of the field to be used for sorting.
          */
-        public Integers(int[] integers, int size, int width, int field) {
+        public Chars(char[] chars, int size, int width, int field) {
             super(size, (left, right)
-                -> integers[width * left + field] <= integers[width * right + field]);
+                -> chars[width * left + field] <= chars[width * right + field]);
         }
     }
 
     /**
-     * Sorted substitution implement for double fields.
+     * Sorted substitution implement for boolean fields.
      */
-    public static class Doubles extends AbstractSortedSubstitution {
+    public static class Booleans extends AbstractSortedSubstitution {
         /**
          * Construct instance.
          *
-         * @param doubles Double struct fields array.
+         * @param booleans Boolean struct fields array.
          * @param size Struct vector size.
-         * @param width The number of double fields in the struct.
+         * @param width The number of boolean fields in the struct.
          * @param field Index of the field to be used for sorting.
          */
-        public Doubles(double[] doubles, int size, int width, int field) {
+        public Booleans(boolean[] booleans, int size, int width, int field) {
             super(size, (left, right)
-                -> doubles[width * left + field] <= doubles[width * right + field]);
+                -> !booleans[width * left + field] || booleans[width * right + field]);
+        }
+    }
+
+    /**
+     * Sorted substitution implement for an arbitrary record comparator.
+     */
+    public static class Generic extends AbstractSortedSubstitution {
+        /**
+         * Construct instance.
+         *
+         * @param size Struct vector size.
+         * @param comparator Comparator for record comparison, specified by their indexes.
+         */
+        public Generic(int size, IndexedFieldComparator comparator) {
+            super(size, comparator);
+        }
+
+        /**
+         * Construct instance.
+         *
+         * @param size Struct vector size.
+         * @param comparator Comparator for record comparison, specified by their indexes.
+         * @param sorters Creates sorter of the record indexes, e.g. a specialized one.
+         */
+        public Generic(int size, IndexedFieldComparator comparator, SorterFactory sorters) {
+            super(size, comparator, sorters);
         }
     }
 
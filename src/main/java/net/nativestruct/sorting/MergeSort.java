@@ -0,0 +1,172 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct.sorting;
+
+/**
+ * Stable merge sort of record indexes, which uses insertion sort for small sub-arrays.
+ * The class also serves as a template for sorters specialized for a struct field: generated
+ * copies of it replace {@link #lessOrEqual(int, int)} with reading field values from the base
+ * object, so that the comparison is inlined into the merge loops of every copy. Hence the class
+ * refers only to public types and its own members.
+ */
+public final class MergeSort implements RangeSorter {
+    private static final int INSERTION_SORT_THRESHOLD = 10;
+
+    private final int[] indexes;
+    private final int[] shadow;
+    private final IndexedFieldComparator comparator;
+    private final Object base;
+    private final long origin;
+
+    /**
+     * Construct instance.
+     *
+     * @param indexes Record indexes being sorted.
+     * @param shadow Buffer of the same size as indexes.
+     * @param comparator Comparator for record comparison, unused by specialized copies.
+     * @param base Base object of the field values for specialized copies.
+     * @param origin Offset of the field value of the first record for specialized copies.
+     */
+    public MergeSort(int[] indexes, int[] shadow, IndexedFieldComparator comparator,
+                     Object base, long origin) {
+        this.indexes = indexes;
+        this.shadow = shadow;
+        this.comparator = comparator;
+        this.base = base;
+        this.origin = origin;
+    }
+
+    /**
+     * Recursive sort algorithm. It uses insertion sort for small sub-arrays and merge sort for
+     * bigger ones.
+     *
+     * @param lower Lower bound of sub-array to sort.
+     * @param upper Lower bound of sub-array to sort.
+     */
+    @Override
+    public void sort(int lower, int upper) {
+        int count = upper - lower;
+        if (count <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(lower, upper);
+        } else {
+            int middle = (lower + upper) / 2;
+            sort(lower, middle);
+            sort(middle, upper);
+            merge(lower, upper, middle);
+        }
+    }
+
+    /**
+     * Insertion sort algorithm for small sub-array.
+     *
+     * @param lower Lower bound of sub-array to sort.
+     * @param upper Lower bound of sub-array to sort.
+     */
+    private void insertionSort(int lower, int upper) {
+        for (int i = lower + 1; i < upper; i++) {
+            int prev = indexes[i - 1];
+            int current = indexes[i];
+
+            if (!lessOrEqual(prev, current)) {
+                indexes[i] = prev;
+                int insertion = i - 1;
+                while (--insertion >= lower
+                        && !lessOrEqual(indexes[insertion], current)) {
+                    indexes[insertion + 1] = indexes[insertion];
+                }
+                indexes[insertion + 1] = current;
+            }
+        }
+    }
+
+    /**
+     * Merge sorted lower and upper sub-arrays.
+     *
+     * @param lower Lower bound of sub-array to sort.
+     * @param upper Upper bound of sub-array to sort.
+     * @param middle Middle element.
+     */
+    @Override
+    public void merge(int lower, int upper, int middle) {
+        skipSmallestAndMerge(lower, upper, middle);
+    }
+
+    private void skipSmallestAndMerge(int originalLower, int upper, int middle) {
+        int lower = originalLower;
+        int leastUpper = indexes[middle];
+        while (lessOrEqual(indexes[lower], leastUpper)) {
+            if (++lower >= middle) {
+                return;
+            }
+        }
+
+        skipLargestAndMerge(lower, upper, middle);
+    }
+
+    private void skipLargestAndMerge(int lower, int originalUpper, int middle) {
+        int upper = originalUpper;
+        int mostLower = indexes[middle - 1];
+        while (lessOrEqual(mostLower, indexes[upper - 1])) {
+            if (--upper <= middle) {
+                return;
+            }
+        }
+
+        mergeNoSmallestLargest(lower, upper, middle);
+    }
+
+    private void mergeNoSmallestLargest(int lower, int upper, int middle) {
+        int first = lower;
+        int second = middle;
+        int target = lower;
+
+        shadow[target++] = indexes[second++];
+
+        while (second < upper) {
+            int left = indexes[first];
+            int right = indexes[second];
+            if (lessOrEqual(left, right)) {
+                shadow[target++] = left;
+                first++;
+            } else {
+                shadow[target++] = right;
+                second++;
+            }
+        }
+
+        System.arraycopy(indexes, first, indexes, target, middle - first);
+        System.arraycopy(shadow, lower, indexes, lower, upper - lower - (middle - first));
+    }
+
+    /**
+     * Compares records, specialized copies generate the body.
+     *
+     * @param left First record index.
+     * @param right Second record index.
+     * @return If the first record is less or equal to the second record.
+     */
+    boolean lessOrEqual(int left, int right) {
+        return comparator.lessOrEqual(left, right);
+    }
+}
@@ -0,0 +1,284 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct.sorting;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntToLongFunction;
+
+import net.nativestruct.Parallelism;
+
+/**
+ * The class sorts record indexes with LSD radix sort over field values mapped to unsigned keys.
+ * It's stable and takes a fixed number of passes over the records, skipping the passes where
+ * all keys have the same digit. The keys order floating point values the same way as
+ * {@link Double#compare(double, double)} does, so -0.0 precedes 0.0 and NaN goes last.
+ */
+public final class RadixSortedSubstitution implements SortedSubstitution {
+    private static final int DIGIT_BITS = 8;
+    private static final int RADIX = 1 << DIGIT_BITS;
+    private static final long DIGIT_MASK = RADIX - 1;
+    private static final long INDEX_MASK = 0xFFFFFFFFL;
+    // Blocks per thread of the pool, so that threads finishing early take the remaining blocks.
+    private static final int BLOCKS_PER_THREAD = 4;
+
+    private final int size;
+    private final IntToLongFunction keys;
+    private final boolean wide;
+    private final IndexedFieldComparator comparator;
+    private OrderingSubstitution ordering;
+
+    private RadixSortedSubstitution(int size, IntToLongFunction keys, boolean wide) {
+        this.size = size;
+        this.keys = keys;
+        this.wide = wide;
+        this.comparator = (left, right)
+            -> Long.compareUnsigned(keys.applyAsLong(left), keys.applyAsLong(right)) <= 0;
+    }
+
+    /**
+     * @param size Struct vector size.
+     * @param keys Unsigned 32 bit key of a record specified by its index.
+     * @return SortedSubstitution instance.
+     */
+    public static RadixSortedSubstitution ofNarrowKeys(int size, IntToLongFunction keys) {
+        return new RadixSortedSubstitution(size, keys, false);
+    }
+
+    /**
+     * @param size Struct vector size.
+     * @param keys Unsigned 64 bit key of a record specified by its index.
+     * @return SortedSubstitution instance.
+     */
+    public static RadixSortedSubstitution ofWideKeys(int size, IntToLongFunction keys) {
+        return new RadixSortedSubstitution(size, keys, true);
+    }
+
+    /**
+     * @param value Integer field value.
+     * @return Unsigned 32 bit key.
+     */
+    public static long intKey(int value) {
+        return (value ^ Integer.MIN_VALUE) & INDEX_MASK;
+    }
+
+    /**
+     * @param value Long field value.
+     * @return Unsigned 64 bit key.
+     */
+    public static long longKey(long value) {
+        return value ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * @param value Float field value.
+     * @return Unsigned 32 bit key.
+     */
+    public static long floatKey(float value) {
+        int bits = Float.floatToIntBits(value);
+        return (bits ^ (bits >> (Integer.SIZE - 1) | Integer.MIN_VALUE)) & INDEX_MASK;
+    }
+
+    /**
+     * @param value Double field value.
+     * @return Unsigned 64 bit key.
+     */
+    public static long doubleKey(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ (bits >> (Long.SIZE - 1) | Long.MIN_VALUE);
+    }
+
+    @Override
+    public IndexedFieldComparator comparator() {
+        return comparator;
+    }
+
+    @Override
+    public OrderingSubstitution ordering() {
+        return ordering(Parallelism.SEQUENTIAL);
+    }
+
+    /**
+     * Vectors bigger than the parallelism threshold are split into blocks of records. Every pass
+     * counts the digits of the blocks and distributes their records in separate tasks, the
+     * blocks of a digit are placed in order, so the sort stays stable.
+     *
+     * @param parallelism Specifies the pool and the minimum number of records in a block.
+     * @return Substitution array, which can be used to reorder struct records.
+     */
+    @Override
+    public OrderingSubstitution ordering(Parallelism parallelism) {
+        if (ordering == null) {
+            int[] indexes = sortedIndexes(parallelism);
+            int[] shadow = new int[size];
+            for (int i = 0; i < size; i++) {
+                shadow[indexes[i]] = i;
+            }
+            ordering = new IndexBasedSubstitution(indexes, shadow);
+        }
+        return ordering;
+    }
+
+    private int[] sortedIndexes(Parallelism parallelism) {
+        long[] values = new long[size];
+        int[] indexes;
+        if (wide) {
+            int[] unsorted = new int[size];
+            parallelism.forEachRange(0, size, (from, end) -> {
+                for (int i = from; i < end; i++) {
+                    values[i] = keys.applyAsLong(i);
+                    unsorted[i] = i;
+                }
+            });
+            indexes = new Passes(values, unsorted, parallelism).sort(0).indexes;
+        } else {
+            // Narrow keys share a long with the record index, which is kept in the lower bits.
+            parallelism.forEachRange(0, size, (from, end) -> {
+                for (int i = from; i < end; i++) {
+                    values[i] = keys.applyAsLong(i) << Integer.SIZE | i;
+                }
+            });
+            long[] sorted = new Passes(values, null, parallelism).sort(Integer.SIZE).values;
+            indexes = new int[size];
+            for (int i = 0; i < size; i++) {
+                indexes[i] = (int) (sorted[i] & INDEX_MASK);
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * Stable distribution of keys and optional record indexes by one digit at a time.
+     * Every pass moves the data to the other pair of arrays.
+     */
+    private static final class Passes {
+        private long[] values;
+        private long[] buffer;
+        private int[] indexes;
+        private int[] shadow;
+        private final int blocks;
+        private final int[][] offsets;
+        private final Parallelism tasks;
+
+        Passes(long[] values, int[] indexes, Parallelism parallelism) {
+            this.values = values;
+            this.buffer = new long[values.length];
+            this.indexes = indexes;
+            if (indexes != null) {
+                this.shadow = new int[indexes.length];
+            }
+            if (parallelism.splits(values.length)) {
+                int ranges = (values.length - 1) / parallelism.threshold() + 1;
+                this.blocks = Math.min(ranges,
+                        parallelism.pool().getParallelism() * BLOCKS_PER_THREAD);
+                this.tasks = new Parallelism(parallelism.pool(), 1);
+            } else {
+                this.blocks = 1;
+                this.tasks = Parallelism.SEQUENTIAL;
+            }
+            this.offsets = new int[blocks][RADIX];
+        }
+
+        Passes sort(int lowestBit) {
+            for (int pass = lowestBit; pass < Long.SIZE; pass += DIGIT_BITS) {
+                int shift = pass;
+                forEachBlock(block -> countDigits(block, shift));
+                if (positions()) {
+                    forEachBlock(block -> distribute(block, shift));
+                    swap();
+                }
+            }
+            return this;
+        }
+
+        private void forEachBlock(IntConsumer action) {
+            tasks.forEachRange(0, blocks, (from, end) -> {
+                for (int block = from; block < end; block++) {
+                    action.accept(block);
+                }
+            });
+        }
+
+        private int start(int block) {
+            return (int) ((long) values.length * block / blocks);
+        }
+
+        private void countDigits(int block, int shift) {
+            int[] counts = offsets[block];
+            Arrays.fill(counts, 0);
+            int end = start(block + 1);
+            for (int i = start(block); i < end; i++) {
+                counts[digit(values[i], shift)]++;
+            }
+        }
+
+        /**
+         * Turns the digit counts of the blocks into the first position of every digit in every
+         * block. Positions of a digit follow the block order.
+         *
+         * @return False if all the keys have the same digit, so the pass can be skipped.
+         */
+        private boolean positions() {
+            int position = 0;
+            for (int digit = 0; digit < RADIX; digit++) {
+                int first = position;
+                for (int[] counts : offsets) {
+                    int count = counts[digit];
+                    counts[digit] = position;
+                    position += count;
+                }
+                if (position - first == values.length) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void distribute(int block, int shift) {
+            int[] positions = offsets[block];
+            int end = start(block + 1);
+            for (int i = start(block); i < end; i++) {
+                int target = positions[digit(values[i], shift)]++;
+                buffer[target] = values[i];
+                if (indexes != null) {
+                    shadow[target] = indexes[i];
+                }
+            }
+        }
+
+        private void swap() {
+            long[] sorted = buffer;
+            buffer = values;
+            values = sorted;
+
+            int[] moved = shadow;
+            shadow = indexes;
+            indexes = moved;
+        }
+
+        private static int digit(long value, int shift) {
+            return (int) (value >>> shift & DIGIT_MASK);
+        }
+    }
+}
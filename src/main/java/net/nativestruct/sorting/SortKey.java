@@ -0,0 +1,108 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct.sorting;
+
+/**
+ * A struct field along with the direction and null placement it orders records in.
+ */
+public final class SortKey {
+    private final String name;
+    private final SortDirection direction;
+    private final NullOrdering nulls;
+
+    /**
+     * Construct instance.
+     *
+     * @param name Name of the field.
+     * @param direction Sort direction.
+     * @param nulls Placement of null values.
+     */
+    public SortKey(String name, SortDirection direction, NullOrdering nulls) {
+        this.name = name;
+        this.direction = direction;
+        this.nulls = nulls;
+    }
+
+    /**
+     * @return Name of the field.
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return Sort direction.
+     */
+    public SortDirection direction() {
+        return direction;
+    }
+
+    /**
+     * @return Placement of null values.
+     */
+    public NullOrdering nulls() {
+        return nulls;
+    }
+
+    /**
+     * @return True if larger values go first.
+     */
+    public boolean isDescending() {
+        return direction == SortDirection.DESCENDING;
+    }
+
+    /**
+     * Compares field values, which should be mutually comparable or null.
+     *
+     * @param left First value.
+     * @param right Second value.
+     * @return Negative number, zero or positive number if the first value goes before,
+     *         together with or after the second value.
+     */
+    @SuppressWarnings("unchecked")
+    public int compare(Object left, Object right) {
+        int comparison;
+        if (left == null || right == null) {
+            comparison = compareNulls(left == null, right == null);
+        } else if (isDescending()) {
+            comparison = ((Comparable<Object>) right).compareTo(left);
+        } else {
+            comparison = ((Comparable<Object>) left).compareTo(right);
+        }
+        return comparison;
+    }
+
+    private int compareNulls(boolean leftNull, boolean rightNull) {
+        int comparison = Boolean.compare(leftNull, rightNull);
+        if (nulls == NullOrdering.NULLS_FIRST) {
+            comparison = -comparison;
+        }
+        return comparison;
+    }
+
+    @Override
+    public String toString() {
+        return name + " " + direction + " " + nulls;
+    }
+}
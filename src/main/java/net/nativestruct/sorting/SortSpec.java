@@ -0,0 +1,109 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2016 by Vlad Liashkevich
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.nativestruct.sorting;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ordering of struct records by several fields, e.g. by region and then by descending timestamp.
+ * Later keys order records which are equal by all the preceding keys. The instances are
+ * immutable, every {@code then} call returns a new spec.
+ */
+public final class SortSpec {
+    private final List<SortKey> keys;
+
+    private SortSpec(List<SortKey> keys) {
+        this.keys = Collections.unmodifiableList(keys);
+    }
+
+    /**
+     * @param name Name of the field, sorted ascending with nulls last.
+     * @return New spec.
+     */
+    public static SortSpec by(String name) {
+        return by(name, SortDirection.ASCENDING);
+    }
+
+    /**
+     * @param name Name of the field, sorted with nulls last.
+     * @param direction Sort direction.
+     * @return New spec.
+     */
+    public static SortSpec by(String name, SortDirection direction) {
+        return by(name, direction, NullOrdering.NULLS_LAST);
+    }
+
+    /**
+     * @param name Name of the field.
+     * @param direction Sort direction.
+     * @param nulls Placement of null values.
+     * @return New spec.
+     */
+    public static SortSpec by(String name, SortDirection direction, NullOrdering nulls) {
+        return new SortSpec(Collections.singletonList(new SortKey(name, direction, nulls)));
+    }
+
+    /**
+     * @param name Name of the next field, sorted ascending with nulls last.
+     * @return New spec.
+     */
+    public SortSpec then(String name) {
+        return then(name, SortDirection.ASCENDING);
+    }
+
+    /**
+     * @param name Name of the next field, sorted with nulls last.
+     * @param direction Sort direction.
+     * @return New spec.
+     */
+    public SortSpec then(String name, SortDirection direction) {
+        return then(name, direction, NullOrdering.NULLS_LAST);
+    }
+
+    /**
+     * @param name Name of the next field.
+     * @param direction Sort direction.
+     * @param nulls Placement of null values.
+     * @return New spec.
+     */
+    public SortSpec then(String name, SortDirection direction, NullOrdering nulls) {
+        List<SortKey> extended = new ArrayList<>(keys);
+        extended.add(new SortKey(name, direction, nulls));
+        return new SortSpec(extended);
+    }
+
+    /**
+     * @return Sort keys, the most significant first.
+     */
+    public List<SortKey> keys() {
+        return keys;
+    }
+
+    @Override
+    public String toString() {
+        return keys.toString();
+    }
+}
@@ -23,7 +23,16 @@
  */
 package net.nativestruct.sorting;
 
-import net.nativestruct.StructProjection;
+import java.util.Spliterator;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import net.nativestruct.ColumnStatistics;
+import net.nativestruct.FieldRanges;
+import net.nativestruct.FilteredProjection;
+import net.nativestruct.MappedProjection;
+import net.nativestruct.RecordSpliterator;
 import net.nativestruct.StructVector;
 import net.nativestruct.implementation.field.Field;
 
@@ -31,7 +40,7 @@ import net.nativestruct.implementation.field.Field;
  * The projection is based on struct vector records reordering based on a specified sorting.
  * @param <T>
  */
-public final class SortedProjection<T> implements StructProjection<T> {
+public final class SortedProjection<T> implements MappedProjection<T> {
     private final StructVector<T> vector;
     private final SortedSubstitution substitution;
     private final OrderingSubstitution ordering;
@@ -45,11 +54,94 @@ public final class SortedProjection<T> implements StructProjection<T> {
      * @param field Field that specifies order of the records.
      */
     public SortedProjection(StructVector<T> vector, Field field) {
+        this(vector, vector.sortedSubstitution(field));
+    }
+
+    /**
+     * Creates projection with sort order specified by the sort spec.
+     *
+     * @param vector Struct vector.
+     * @param spec Sort spec that specifies order of the records.
+     */
+    public SortedProjection(StructVector<T> vector, SortSpec spec) {
+        this(vector, vector.sortedSubstitution(spec));
+    }
+
+    private SortedProjection(StructVector<T> vector, SortedSubstitution substitution) {
         this.vector = vector;
-        this.substitution = vector.sortedSubstitution(field);
+        this.substitution = substitution;
         this.ordering = substitution.ordering();
     }
 
+    /**
+     * @return Underlying struct vector.
+     */
+    public StructVector<T> vector() {
+        return vector;
+    }
+
+    /**
+     * Creates range queries over the field the projection is sorted by in ascending order.
+     *
+     * @param name Name of the field.
+     * @return Range queries, which bounds are projection record indexes.
+     */
+    public FieldRanges<T> ranges(String name) {
+        return FieldRanges.of(this, name);
+    }
+
+    /**
+     * Creates a projection of the records, which match the predicate, in the sorted order.
+     *
+     * @param predicate Record predicate.
+     * @return Filtered projection.
+     */
+    public FilteredProjection<T> filter(Predicate<? super T> predicate) {
+        return FilteredProjection.of(this, predicate);
+    }
+
+    /**
+     * @return Spliterator over the records in the order of the projection.
+     */
+    public Spliterator<T> spliterator() {
+        return RecordSpliterator.of(this);
+    }
+
+    /**
+     * @return Sequential stream of the records in the order of the projection, see
+     *         {@link StructVector#stream()}.
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * @param name Name of an int or double field.
+     * @return Statistics of the field values of all the records, which don't depend on the
+     *         order.
+     */
+    public ColumnStatistics statistics(String name) {
+        return vector.statistics(name);
+    }
+
+    /**
+     * @param name Name of an int or double field.
+     * @param from The first record index in the sorted order, inclusive.
+     * @param end The last record index in the sorted order, exclusive.
+     * @return Statistics of the field values of the records in the range.
+     */
+    public ColumnStatistics statistics(String name, int from, int end) {
+        if (from < 0 || from > end || end > size()) {
+            throw new IndexOutOfBoundsException("Records [" + from + ", " + end
+                    + ") are out of the vector bounds");
+        }
+        int[] rows = new int[end - from];
+        for (int index = 0; index < rows.length; index++) {
+            rows[index] = sourceIndex(from + index);
+        }
+        return vector.column(name).statistics(rows, 0, rows.length);
+    }
+
     /**
      * @return Substitution object.
      */
@@ -63,10 +155,16 @@ public final class SortedProjection<T> implements StructProjection<T> {
      * @param index Record index for the current projection.
      * @return Record index for the underlying struct vector.
      */
+    @Override
     public int sourceIndex(int index) {
         return ordering.forIndex(index);
     }
 
+    @Override
+    public StructVector<T> source() {
+        return vector;
+    }
+
     @Override
     public T accessor() {
         return vector.accessor();
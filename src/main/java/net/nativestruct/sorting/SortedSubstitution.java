@@ -1,5 +1,7 @@
 package net.nativestruct.sorting;
 
+import net.nativestruct.Parallelism;
+
 /**
  * The abstraction encapsulates struct vector records substitution according to specified order.
  */
@@ -13,4 +15,10 @@ public interface SortedSubstitution {
      * @return Substitution array, which can be used to reorder struct records.
      */
     OrderingSubstitution ordering();
+
+    /**
+     * @param parallelism Specifies how sorting is split between threads, if it's not done yet.
+     * @return Substitution array, which can be used to reorder struct records.
+     */
+    OrderingSubstitution ordering(Parallelism parallelism);
 }
@@ -2,14 +2,24 @@ package net.nativestruct;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiFunction;
 
+import net.nativestruct.implementation.field.Field;
+import net.nativestruct.mapreduce.HashReducer;
+import net.nativestruct.mapreduce.IncrementalReducer;
 import net.nativestruct.mapreduce.InsertionReducer;
+import net.nativestruct.mapreduce.ParallelReducer;
 import net.nativestruct.mapreduce.Reducer;
 import net.nativestruct.mapreduce.SortingReducer;
+import net.nativestruct.sorting.SortDirection;
+import net.nativestruct.sorting.SortSpec;
 import org.junit.Test;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class MapReduceTest {
     @Test
@@ -22,6 +32,419 @@ public class MapReduceTest {
         runWordCount(InsertionReducer::new);
     }
 
+    @Test
+    public void longKeySortingTest() {
+        runLongKeySum(SortingReducer::new);
+    }
+
+    @Test
+    public void longKeyInsertionTest() {
+        runLongKeySum(InsertionReducer::new);
+    }
+
+    @Test
+    public void wordCountHashTest() {
+        runWordCount((vector, field) -> new HashReducer<>(vector, field).sorted());
+    }
+
+    @Test
+    public void longKeyHashTest() {
+        runLongKeySum((vector, field) -> new HashReducer<>(vector, field).sorted());
+    }
+
+    @Test
+    public void hashReducerFirstOccurrenceOrderTest() {
+        StructVector<LongSum> values = new StructVector<>(LongSum.class);
+        long[] keys = {3L << 33, 1L << 33, 3L << 33, 2L, 1L << 33};
+        for (int i = 0; i < keys.length; i++) {
+            values.insertLast();
+            values.accessor().setKey(keys[i]);
+            values.accessor().setSum(i);
+        }
+
+        StructVector<LongSum> sums = values.hashReduceBy("key")
+                .into(new StructVector<>(LongSum.class))
+                .with((accumulator, value)
+                        -> accumulator.setSum(accumulator.getSum() + value.getSum()));
+
+        assertEquals(3, sums.size());
+        assertArrayEquals(new long[]{3L << 33, 1L << 33, 2L}, Arrays.copyOf(sums.longs(), 3));
+        assertArrayEquals(new float[]{2.0f, 5.0f, 3.0f}, Arrays.copyOf(sums.floats(), 3), 1e-6f);
+    }
+
+    @Test
+    public void hashReducerManyKeysTest() {
+        StructVector<WordCount> words = new StructVector<>(WordCount.class);
+        int size = 50_000;
+        for (int i = 0; i < size; i++) {
+            words.insertLast();
+            words.accessor().setWord(String.valueOf(i % 10_000));
+            words.accessor().setCount(1);
+        }
+
+        StructVector<WordCount> counts = words.reduceBy("word")
+                .into(new StructVector<>(WordCount.class))
+                .with((accumulator, value)
+                        -> accumulator.setCount(accumulator.getCount() + value.getCount()));
+
+        assertEquals(10_000, counts.size());
+        String previous = "";
+        for (int i = 0; i < counts.size(); i++) {
+            counts.current(i);
+            assertEquals(5, counts.accessor().getCount());
+            assertTrue(previous.compareTo(counts.accessor().getWord()) < 0);
+            previous = counts.accessor().getWord();
+        }
+    }
+
+    @Test
+    public void wordCountParallelTest() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Parallelism parallelism = new Parallelism(pool, 4);
+            runWordCount((vector, field) -> new ParallelReducer<>(vector, field, parallelism).sorted());
+            runLongKeySum((vector, field) -> new ParallelReducer<>(vector, field, parallelism).sorted());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void parallelReducerCombinerTest() {
+        StructVector<WordCount> words = new StructVector<>(WordCount.class);
+        int size = 100_000;
+        for (int i = 0; i < size; i++) {
+            words.insertLast();
+            words.accessor().setWord(String.valueOf((i * 7) % 1000));
+            words.accessor().setCount(1);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            StructVector<WordCount> counts = new ParallelReducer<>(words, "word", new Parallelism(pool, 1000))
+                    .combining((accumulator, value)
+                            -> accumulator.setCount(accumulator.getCount() + value.getCount()))
+                    .into(new StructVector<>(WordCount.class))
+                    .with((accumulator, value) -> accumulator.setCount(accumulator.getCount() + 1));
+
+            assertEquals(1000, counts.size());
+            for (int i = 0; i < counts.size(); i++) {
+                counts.current(i);
+                assertEquals(String.valueOf((i * 7) % 1000), counts.accessor().getWord());
+                assertEquals(100, counts.accessor().getCount());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void reduceByCombinerTest() {
+        StructVector<WordCount> words = new StructVector<>(WordCount.class);
+        for (int i = 0; i < 10_000; i++) {
+            words.insertLast();
+            words.accessor().setWord(String.valueOf(i % 100));
+            words.accessor().setCount(1);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            StructVector<WordCount> counts = words.reduceBy("word", new Parallelism(pool, 500))
+                    .combining((accumulator, value)
+                            -> accumulator.setCount(accumulator.getCount() + value.getCount()))
+                    .into(new StructVector<>(WordCount.class))
+                    .with((accumulator, value) -> accumulator.setCount(accumulator.getCount() + 1));
+
+            assertEquals(100, counts.size());
+            String previous = "";
+            for (int i = 0; i < counts.size(); i++) {
+                counts.current(i);
+                assertTrue(previous.compareTo(counts.accessor().getWord()) < 0);
+                assertEquals(100, counts.accessor().getCount());
+                previous = counts.accessor().getWord();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void wordCountAggregateTest() {
+        StructVector<WordCount> words = new StructVector<>(WordCount.class);
+        Random random = new Random(11);
+        for (int i = 0; i < 20_000; i++) {
+            words.insertLast();
+            words.accessor().setWord(Integer.toString(random.nextInt(500), 36));
+            words.accessor().setCount(random.nextInt(10));
+        }
+
+        StructVector<WordCount> expected = words.reduceBy("word")
+                .into(new StructVector<>(WordCount.class))
+                .with((accumulator, value)
+                        -> accumulator.setCount(accumulator.getCount() + value.getCount()));
+        StructVector<WordCount> actual = words.hashReduceBy("word")
+                .sorted()
+                .sum("count")
+                .into(new StructVector<>(WordCount.class))
+                .aggregate();
+
+        assertEquals(expected.size(), actual.size());
+        assertArrayEquals(Arrays.copyOf(expected.objects(), expected.size()),
+                Arrays.copyOf(actual.objects(), actual.size()));
+        assertArrayEquals(Arrays.copyOf(expected.integers(), expected.size()),
+                Arrays.copyOf(actual.integers(), actual.size()));
+    }
+
+    @Test
+    public void aggregateFunctionsTest() {
+        checkAggregateFunctions(StorageMode.HEAP);
+        checkAggregateFunctions(StorageMode.OFF_HEAP);
+    }
+
+    private void checkAggregateFunctions(StorageMode mode) {
+        int[] sensors = {7, 3, 7, 7, 3};
+        double[] values = {1.5, -2.0, 4.5, 0.0, 6.0};
+        try (StructVector<Reading> readings = new StructVector<>(Reading.class, 8, mode);
+             StructVector<Reading> result = new StructVector<>(Reading.class, 8, mode)) {
+            for (int i = 0; i < sensors.length; i++) {
+                readings.insertLast();
+                Reading reading = readings.accessor();
+                reading.setSensor(sensors[i]);
+                reading.setCount(i);
+                reading.setTotal(i * 10L);
+                reading.setMin(values[i]);
+                reading.setMax(values[i]);
+                reading.setAvg((float) values[i]);
+            }
+
+            readings.hashReduceBy("sensor").sorted()
+                    .count("count").sum("total").min("min").max("max").avg("avg")
+                    .into(result)
+                    .aggregate();
+
+            assertEquals(2, result.size());
+            Reading reading = result.accessor();
+            result.current(0);
+            assertEquals(3, reading.getSensor());
+            assertEquals(2, reading.getCount());
+            assertEquals(50L, reading.getTotal());
+            assertEquals(-2.0, reading.getMin(), 0.0);
+            assertEquals(6.0, reading.getMax(), 0.0);
+            assertEquals(2.0f, reading.getAvg(), 0.0f);
+            result.current(1);
+            assertEquals(7, reading.getSensor());
+            assertEquals(3, reading.getCount());
+            assertEquals(50L, reading.getTotal());
+            assertEquals(0.0, reading.getMin(), 0.0);
+            assertEquals(4.5, reading.getMax(), 0.0);
+            assertEquals(2.0f, reading.getAvg(), 0.0f);
+        }
+    }
+
+    @Test
+    public void aggregateIntegralAverageTest() {
+        int[] sensors = {1, 1, 2, 2, 3, 3};
+        int[] counts = {1, 2, -1, -2, Integer.MAX_VALUE, Integer.MAX_VALUE};
+        StructVector<Reading> readings = new StructVector<>(Reading.class);
+        for (int i = 0; i < sensors.length; i++) {
+            readings.insertLast();
+            readings.accessor().setSensor(sensors[i]);
+            readings.accessor().setCount(counts[i]);
+            readings.accessor().setTotal(counts[i] * 3L);
+        }
+
+        StructVector<Reading> result = readings.hashReduceBy("sensor").sorted()
+                .avg("count").avg("total")
+                .into(new StructVector<>(Reading.class))
+                .aggregate();
+
+        int[] averages = {1, -1, Integer.MAX_VALUE};
+        long[] totals = {4L, -4L, Integer.MAX_VALUE * 3L};
+        assertEquals(3, result.size());
+        for (int i = 0; i < averages.length; i++) {
+            result.current(i);
+            assertEquals(i + 1, result.accessor().getSensor());
+            assertEquals(averages[i], result.accessor().getCount());
+            assertEquals(totals[i], result.accessor().getTotal());
+        }
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void aggregateIntSumOverflowTest() {
+        StructVector<WordCount> words = new StructVector<>(WordCount.class);
+        for (int i = 0; i < 2; i++) {
+            words.insertLast();
+            words.accessor().setWord("a");
+            words.accessor().setCount(Integer.MAX_VALUE);
+        }
+        words.hashReduceBy("word").sum("count").into(new StructVector<>(WordCount.class))
+                .aggregate();
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void aggregateLongSumOverflowTest() {
+        StructVector<Reading> readings = new StructVector<>(Reading.class);
+        for (int i = 0; i < 2; i++) {
+            readings.insertLast();
+            readings.accessor().setTotal(Long.MAX_VALUE);
+        }
+        readings.hashReduceBy("sensor").sum("total").into(new StructVector<>(Reading.class))
+                .aggregate();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void aggregateObjectFieldTest() {
+        new StructVector<>(WordCount.class).hashReduceBy("count").sum("word");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void aggregateKeyFieldTest() {
+        new StructVector<>(WordCount.class).hashReduceBy("count").sum("count");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void aggregateFieldTwiceTest() {
+        new StructVector<>(WordCount.class).hashReduceBy("word").sum("count").max("count");
+    }
+
+    @Test
+    public void incrementalReducerTest() {
+        StructVector<WordCount> all = new StructVector<>(WordCount.class);
+        IncrementalReducer<WordCount> reducer
+                = new IncrementalReducer<>(new StructVector<>(WordCount.class), "word");
+        Random random = new Random(5);
+        for (int batchIndex = 0; batchIndex < 10; batchIndex++) {
+            StructVector<WordCount> batch = new StructVector<>(WordCount.class);
+            for (int i = 0; i < 1000; i++) {
+                String word = Integer.toString(random.nextInt(300 + batchIndex * 50), 36);
+                batch.insertLast();
+                batch.accessor().setWord(word);
+                batch.accessor().setCount(i % 3);
+                all.insertLast();
+                all.accessor().setWord(word);
+                all.accessor().setCount(i % 3);
+            }
+            reducer.merge(batch, (accumulator, value)
+                    -> accumulator.setCount(accumulator.getCount() + value.getCount()));
+            if (batchIndex == 4) {
+                reducer.target().sort("word");
+                reducer.reindex();
+            }
+        }
+
+        StructVector<WordCount> expected = all.reduceBy("word")
+                .into(new StructVector<>(WordCount.class))
+                .with((accumulator, value)
+                        -> accumulator.setCount(accumulator.getCount() + value.getCount()));
+        StructVector<WordCount> actual = reducer.target();
+        actual.sort("word");
+
+        assertEquals(expected.size(), actual.size());
+        assertArrayEquals(Arrays.copyOf(expected.objects(), expected.size()),
+                Arrays.copyOf(actual.objects(), actual.size()));
+        assertArrayEquals(Arrays.copyOf(expected.integers(), expected.size()),
+                Arrays.copyOf(actual.integers(), actual.size()));
+    }
+
+    @Test
+    public void multiKeyReducerTest() {
+        StructVector<Sale> sales = new StructVector<>(Sale.class);
+        String[] customers = {"b", "a", "b", "b", "a", "b", null};
+        int[] days = {2, 1, 1, 2, 1, 2, 1};
+        double[] prices = {1.5, 1.5, 1.5, 1.5, 1.5, 2.5, 1.5};
+        for (int i = 0; i < customers.length; i++) {
+            sales.insertLast();
+            Sale sale = sales.accessor();
+            sale.setCustomer(customers[i]);
+            sale.setDay(days[i]);
+            sale.setPrice(prices[i]);
+            sale.setQuantity(i + 1);
+        }
+
+        StructVector<Sale> reduced = sales.hashReduceBy("customer", "day", "price")
+                .sorted()
+                .into(new StructVector<>(Sale.class))
+                .with((accumulator, value)
+                        -> accumulator.setQuantity(accumulator.getQuantity() + value.getQuantity()));
+        checkSalesByCustomerDayPrice(reduced);
+
+        StructVector<Sale> aggregated = sales.hashReduceBy("customer", "day", "price")
+                .sorted()
+                .sum("quantity")
+                .into(new StructVector<>(Sale.class))
+                .aggregate();
+        checkSalesByCustomerDayPrice(aggregated);
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            StructVector<Sale> parallel = new ParallelReducer<>(sales,
+                    new Field[]{sales.field("customer"), sales.field("day"), sales.field("price")},
+                    new Parallelism(pool, 2))
+                    .sorted()
+                    .into(new StructVector<>(Sale.class))
+                    .with((accumulator, value)
+                            -> accumulator.setQuantity(accumulator.getQuantity() + value.getQuantity()));
+            checkSalesByCustomerDayPrice(parallel);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void checkSalesByCustomerDayPrice(StructVector<Sale> reduced) {
+        assertEquals(5, reduced.size());
+        String[] customers = {"a", "b", "b", "b", null};
+        int[] days = {1, 1, 2, 2, 1};
+        double[] prices = {1.5, 1.5, 1.5, 2.5, 1.5};
+        int[] quantities = {7, 3, 5, 6, 7};
+        Sale sale = reduced.accessor();
+        for (int i = 0; i < 5; i++) {
+            reduced.current(i);
+            assertEquals(customers[i], sale.getCustomer());
+            assertEquals(days[i], sale.getDay());
+            assertEquals(prices[i], sale.getPrice(), 0.0);
+            assertEquals(quantities[i], sale.getQuantity());
+        }
+    }
+
+    @Test
+    public void sortSpecReducerTest() {
+        StructVector<WordCount> words = new StructVector<>(WordCount.class);
+        String[] keys = {"b", "a", "b", "a", "b"};
+        int[] counts = {1, 2, 1, 3, 2};
+        for (int i = 0; i < keys.length; i++) {
+            words.insertLast();
+            words.accessor().setWord(keys[i]);
+            words.accessor().setCount(counts[i]);
+        }
+
+        StructVector<WordCount> reduced = words
+                .reduceBy(SortSpec.by("word", SortDirection.DESCENDING).then("count"))
+                .into(new StructVector<>(WordCount.class))
+                .with((accumulator, value) -> { });
+
+        assertEquals(4, reduced.size());
+        assertArrayEquals(new Object[]{"b", "b", "a", "a"}, Arrays.copyOf(reduced.objects(), 4));
+        assertArrayEquals(new int[]{1, 2, 2, 3}, Arrays.copyOf(reduced.integers(), 4));
+    }
+
+    private void runLongKeySum(BiFunction<StructVector<LongSum>, String, Reducer<LongSum>> reducerF) {
+        StructVector<LongSum> values = new StructVector<>(LongSum.class);
+        long[] keys = {3L << 33, 1L << 33, 3L << 33, 2L, 1L << 33};
+        for (int i = 0; i < keys.length; i++) {
+            values.insertLast();
+            values.accessor().setKey(keys[i]);
+            values.accessor().setSum(i + 0.5f);
+        }
+
+        StructVector<LongSum> sums = reducerF.apply(values, "key")
+                .into(new StructVector<>(LongSum.class))
+                .with((accumulator, value)
+                        -> accumulator.setSum(accumulator.getSum() + value.getSum()));
+
+        assertArrayEquals(new long[]{2L, 1L << 33, 3L << 33}, Arrays.copyOf(sums.longs(), 3));
+        assertArrayEquals(new float[]{3.5f, 6.0f, 3.0f}, Arrays.copyOf(sums.floats(), 3), 1e-6f);
+    }
+
     private void runWordCount(BiFunction<StructVector<WordCount>, String, Reducer<WordCount>> reducerF) {
         StructVector<WordCount> words = new StructVector<>(WordCount.class);
 
@@ -54,6 +477,72 @@ public class MapReduceTest {
         assertEquals(2, wordCounts.accessor().getCount());
     }
 
+    public static abstract class LongSum extends AbstractStruct {
+        @StructField
+        public abstract long getKey();
+        @StructField
+        public abstract void setKey(long key);
+
+        @StructField
+        public abstract float getSum();
+        @StructField
+        public abstract void setSum(float sum);
+    }
+
+    public static abstract class Sale extends AbstractStruct {
+        @StructField
+        public abstract String getCustomer();
+        @StructField
+        public abstract void setCustomer(String customer);
+
+        @StructField
+        public abstract int getDay();
+        @StructField
+        public abstract void setDay(int day);
+
+        @StructField
+        public abstract double getPrice();
+        @StructField
+        public abstract void setPrice(double price);
+
+        @StructField
+        public abstract int getQuantity();
+        @StructField
+        public abstract void setQuantity(int quantity);
+    }
+
+    public static abstract class Reading extends AbstractStruct {
+        @StructField
+        public abstract int getSensor();
+        @StructField
+        public abstract void setSensor(int sensor);
+
+        @StructField
+        public abstract int getCount();
+        @StructField
+        public abstract void setCount(int count);
+
+        @StructField
+        public abstract long getTotal();
+        @StructField
+        public abstract void setTotal(long total);
+
+        @StructField
+        public abstract double getMin();
+        @StructField
+        public abstract void setMin(double min);
+
+        @StructField
+        public abstract double getMax();
+        @StructField
+        public abstract void setMax(double max);
+
+        @StructField
+        public abstract float getAvg();
+        @StructField
+        public abstract void setAvg(float avg);
+    }
+
     public static abstract class WordCount extends AbstractStruct {
         @StructField
         public abstract String getWord();
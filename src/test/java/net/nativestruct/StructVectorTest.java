@@ -1,13 +1,42 @@
 package net.nativestruct;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import net.nativestruct.implementation.field.Field;
+import net.nativestruct.sorting.NullOrdering;
+import net.nativestruct.sorting.RadixSortedSubstitution;
+import net.nativestruct.sorting.SortDirection;
+import net.nativestruct.sorting.SortSpec;
+import net.nativestruct.sorting.SortedSubstitution;
+import net.nativestruct.sorting.SortedProjection;
 import org.junit.Test;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class StructVectorTest {
     @Test
@@ -180,6 +209,84 @@ public class StructVectorTest {
         public abstract void setString(String value);
     }
 
+    @Test
+    public void arrayAccessDirectTest() {
+        StructVector<StructArrayAccess> struct = new StructVector<>(StructArrayAccess.class, 2);
+        struct.resize(2);
+        StructArrayAccess accessor = struct.accessor();
+        struct.current(1);
+        accessor.setInt(55);
+        accessor.setInt2(66);
+        accessor.setDouble(2.5);
+        accessor.setString("22");
+        struct.current(0);
+        accessor.setDouble(1.5);
+
+        assertArrayEquals(new int[]{0, 0, 55, 66}, struct.integers());
+        assertArrayEquals(new double[]{1.5, 2.5}, struct.doubles(), 1e-6);
+        assertArrayEquals(new Object[]{null, "22"}, struct.objects());
+
+        assertEquals(0, accessor.getInt2());
+        assertEquals(1.5, accessor.getDouble(), 1e-6);
+        assertEquals(null, accessor.getString());
+        struct.current(1);
+        assertEquals(55, accessor.getInt());
+        assertEquals(66, accessor.getInt2());
+        assertEquals("22", accessor.getString());
+    }
+
+    @Test
+    public void arrayAccessIndexedTest() {
+        StructVector<StructArrayAccess> struct = new StructVector<>(StructArrayAccess.class, 2);
+        struct.resize(2);
+        StructArrayAccess accessor = struct.accessor();
+        accessor.setInt2(1, 77);
+        accessor.setString(0, "11");
+
+        assertArrayEquals(new int[]{0, 0, 0, 77}, struct.integers());
+        assertEquals(77, accessor.getInt2(1));
+        assertEquals("11", accessor.getString(0));
+        assertEquals(null, accessor.getString(1));
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void arrayAccessIndexedBoundsErrorTest() {
+        StructVector<StructArrayAccess> struct = new StructVector<>(StructArrayAccess.class, 2);
+        struct.resize(2);
+        struct.accessor().getString(2);
+    }
+
+    @Struct(accessors = AccessorMode.ARRAY_ACCESS)
+    public static abstract class StructArrayAccess extends AbstractStruct {
+        @StructField
+        public abstract int getInt();
+        @StructField
+        public abstract void setInt(int value);
+
+        @StructField
+        public abstract int getInt2();
+        @StructField(accessor = AccessorType.GETTER_INDEXED)
+        public abstract int getInt2(int index);
+        @StructField
+        public abstract void setInt2(int value);
+        @StructField(accessor = AccessorType.SETTER_INDEXED)
+        public abstract void setInt2(int index, int value);
+
+        @StructField
+        public abstract double getDouble();
+        @StructField
+        public abstract void setDouble(double value);
+
+        @StructField
+        public abstract String getString();
+        @StructField(accessor = AccessorType.GETTER_INDEXED)
+        public abstract String getString(int index);
+        @StructField
+        public abstract void setString(String value);
+        @StructField(accessor = AccessorType.SETTER_INDEXED)
+        public abstract void setString(int index, String value);
+    }
+
     public static abstract class StructDirectIntOnly extends AbstractStruct {
         @StructField
         public abstract int getInt();
@@ -417,6 +524,365 @@ public class StructVectorTest {
                 Arrays.stream(struct.objects()).collect(Collectors.toList()));
     }
 
+    @Test
+    public void parallelSortTest() {
+        int size = 4_000;
+        StructVector<StructDirect> sequential = new StructVector<>(StructDirect.class, size);
+        StructVector<StructDirect> parallel = new StructVector<>(StructDirect.class, size);
+        sequential.resize(size);
+        parallel.resize(size);
+
+        Random random = new Random(42);
+        for (int i = 0; i < size; i++) {
+            int value = random.nextInt(100);
+            updateIntegerAndString(sequential, i, value, String.valueOf(i));
+            updateIntegerAndString(parallel, i, value, String.valueOf(i));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            sequential.sort("int");
+            parallel.sort("int", new Parallelism(pool, 100));
+        } finally {
+            pool.shutdown();
+        }
+
+        assertArrayEquals(sequential.integers(), parallel.integers());
+        assertArrayEquals(sequential.objects(), parallel.objects());
+        for (int i = 1; i < size; i++) {
+            parallel.current(i - 1);
+            int previous = parallel.accessor().getInt();
+            int previousIndex = Integer.parseInt(parallel.accessor().getString());
+            parallel.current(i);
+            assertTrue(previous < parallel.accessor().getInt()
+                    || previous == parallel.accessor().getInt()
+                    && previousIndex < Integer.parseInt(parallel.accessor().getString()));
+        }
+    }
+
+    @Test
+    public void radixSortTest() {
+        int size = 10_000;
+        StructVector<StructDirect> radix = new StructVector<>(StructDirect.class, size);
+        radix.resize(size);
+
+        Random random = new Random(42);
+        for (int i = 0; i < size; i++) {
+            updateIntegerAndString(radix, i, random.nextInt(200) - 100, String.valueOf(i));
+        }
+
+        assertTrue(radix.sortedSubstitution("int") instanceof RadixSortedSubstitution);
+        radix.sort("int");
+
+        for (int i = 1; i < size; i++) {
+            radix.current(i - 1);
+            int previous = radix.accessor().getInt();
+            int previousIndex = Integer.parseInt(radix.accessor().getString());
+            radix.current(i);
+            assertTrue(previous < radix.accessor().getInt()
+                    || previous == radix.accessor().getInt()
+                    && previousIndex < Integer.parseInt(radix.accessor().getString()));
+        }
+        radix.current(radix.binarySearch(radix.field("int"), -100));
+        assertEquals(-100, radix.accessor().getInt());
+    }
+
+    @Test
+    public void parallelRadixSortTest() {
+        int size = 20_000;
+        StructVector<StructDirect> sequential = new StructVector<>(StructDirect.class, size);
+        StructVector<StructDirect> parallel = new StructVector<>(StructDirect.class, size);
+        sequential.resize(size);
+        parallel.resize(size);
+
+        Random random = new Random(42);
+        for (int i = 0; i < size; i++) {
+            int value = random.nextInt(1000) - 500;
+            double weight = random.nextInt(100) / 4.0;
+            updateIntegerAndString(sequential, i, value, String.valueOf(i));
+            updateIntegerAndString(parallel, i, value, String.valueOf(i));
+            sequential.accessor().setDouble(weight);
+            parallel.accessor().setDouble(weight);
+        }
+
+        assertTrue(parallel.sortedSubstitution("int") instanceof RadixSortedSubstitution);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            sequential.sort("int");
+            parallel.sort("int", new Parallelism(pool, 1000));
+            assertArrayEquals(sequential.objects(), parallel.objects());
+            sequential.sort("double");
+            parallel.sort("double", new Parallelism(pool, 1000));
+            assertArrayEquals(sequential.objects(), parallel.objects());
+        } finally {
+            pool.shutdown();
+        }
+        assertArrayEquals(sequential.integers(), parallel.integers());
+        assertArrayEquals(sequential.doubles(), parallel.doubles(), 0);
+    }
+
+    @Test
+    public void radixSortDoubleOrderingTest() {
+        double[] special = {Double.NaN, 0.0, -0.0, Double.NEGATIVE_INFINITY,
+            Double.POSITIVE_INFINITY, -Double.MIN_VALUE, Double.MAX_VALUE, -1.5};
+        int size = 10_000;
+        StructVector<StructDirect> radix = new StructVector<>(StructDirect.class, size);
+        radix.resize(size);
+
+        Random random = new Random(42);
+        double[] expected = new double[size];
+        for (int i = 0; i < size; i++) {
+            double value = i < special.length ? special[i] : random.nextGaussian();
+            expected[i] = value;
+            radix.current(i);
+            radix.accessor().setDouble(value);
+        }
+        Arrays.sort(expected);
+
+        radix.sort("double");
+
+        for (int i = 0; i < size; i++) {
+            radix.current(i);
+            assertEquals(Double.doubleToLongBits(expected[i]),
+                    Double.doubleToLongBits(radix.accessor().getDouble()));
+        }
+        Field field = radix.field("double");
+        for (double value : special) {
+            int index = radix.binarySearch(field, value);
+            radix.current(index);
+            assertEquals(Double.doubleToLongBits(value),
+                    Double.doubleToLongBits(radix.accessor().getDouble()));
+        }
+    }
+
+    @Test
+    public void sortedSubstitutionAfterCloseTest() {
+        int size = 5_000;
+        StructVector<StructDirectIntOnly> struct
+                = new StructVector<>(StructDirectIntOnly.class, size, StorageMode.OFF_HEAP);
+        struct.resize(size);
+        for (int i = 0; i < size; i++) {
+            struct.current(i);
+            struct.accessor().setInt(size - i);
+        }
+        SortedSubstitution radix = struct.sortedSubstitution("int");
+        SortedSubstitution spec = struct.sortedSubstitution(SortSpec.by("int"));
+        struct.close();
+
+        for (int i = 0; i < size; i++) {
+            assertEquals(size - 1 - i, radix.ordering().forIndex(i));
+            assertEquals(size - 1 - i, spec.ordering().forIndex(i));
+        }
+    }
+
+    @Test
+    public void radixSortOffHeapTest() {
+        int size = 5_000;
+        try (StructVector<StructDirectIntOnly> radix
+                = new StructVector<>(StructDirectIntOnly.class, size, StorageMode.OFF_HEAP)) {
+            radix.resize(size);
+            for (int i = 0; i < size; i++) {
+                radix.current(i);
+                radix.accessor().setInt(size - i);
+            }
+
+            radix.sort("int");
+
+            for (int i = 0; i < size; i++) {
+                radix.current(i);
+                assertEquals(i + 1, radix.accessor().getInt());
+            }
+        }
+    }
+
+    @Test
+    public void parallelSortBelowThresholdTest() {
+        StructVector<StructDirect> struct = new StructVector<>(StructDirect.class, 8);
+        struct.resize(3);
+
+        updateIntegerAndString(struct, 0, 30, "a");
+        updateIntegerAndString(struct, 1, 10, "b");
+        updateIntegerAndString(struct, 2, 20, "c");
+
+        struct.sort("int", Parallelism.common());
+
+        assertArrayEquals(new int[]{10, 20, 30, 0, 0, 0, 0, 0}, struct.integers());
+        assertArrayEquals(new Object[]{"b", "c", "a", null, null, null, null, null},
+                struct.objects());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parallelismThresholdTest() {
+        new Parallelism(ForkJoinPool.commonPool(), 0);
+    }
+
+    @Test
+    public void parallelismCacheSizedTest() {
+        assertSame(Parallelism.SEQUENTIAL, Parallelism.SEQUENTIAL.cacheSized(16));
+        Parallelism small = new Parallelism(ForkJoinPool.commonPool(), 100);
+        assertSame(small, small.cacheSized(16));
+        Parallelism large = new Parallelism(ForkJoinPool.commonPool(), 1_000_000);
+        assertEquals(16_384, large.cacheSized(16).threshold());
+        assertEquals(1, large.cacheSized(1 << 20).threshold());
+        assertSame(ForkJoinPool.commonPool(), large.cacheSized(16).pool());
+    }
+
+    @Test
+    public void gatherReorderTest() {
+        checkGatherReorder(StorageMode.HEAP, Parallelism.SEQUENTIAL);
+    }
+
+    @Test
+    public void gatherReorderOffHeapTest() {
+        checkGatherReorder(StorageMode.OFF_HEAP, Parallelism.SEQUENTIAL);
+    }
+
+    @Test
+    public void gatherReorderParallelTest() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            checkGatherReorder(StorageMode.HEAP, new Parallelism(pool, 1000));
+            checkGatherReorder(StorageMode.OFF_HEAP, new Parallelism(pool, 1000));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void checkGatherReorder(StorageMode mode, Parallelism parallelism) {
+        int size = 100_000;
+        try (StructVector<StructDirect> struct = new StructVector<>(StructDirect.class, size, mode)) {
+            struct.resize(size);
+            Random random = new Random(42);
+            for (int i = 0; i < size; i++) {
+                int value = random.nextInt();
+                updateIntegerAndString(struct, i, value, String.valueOf(value));
+                struct.accessor().setDouble(value / 2.0);
+            }
+
+            struct.sort("string", parallelism);
+
+            String previous = "";
+            for (int i = 0; i < size; i++) {
+                struct.current(i);
+                String string = struct.accessor().getString();
+                assertTrue(previous.compareTo(string) <= 0);
+                assertEquals(string, String.valueOf(struct.accessor().getInt()));
+                assertEquals(struct.accessor().getInt() / 2.0, struct.accessor().getDouble(), 0.0);
+                previous = string;
+            }
+        }
+    }
+
+    @Test
+    public void specializedSortTest() {
+        checkSpecializedSort(StorageMode.HEAP);
+    }
+
+    @Test
+    public void specializedSortOffHeapTest() {
+        checkSpecializedSort(StorageMode.OFF_HEAP);
+    }
+
+    private void checkSpecializedSort(StorageMode mode) {
+        int size = 2000;
+        try (StructVector<StructPrimitives> struct
+                = new StructVector<>(StructPrimitives.class, size, mode)) {
+            struct.resize(size);
+            StructPrimitives accessor = struct.accessor();
+            Random random = new Random(7);
+            for (int i = 0; i < size; i++) {
+                struct.current(i);
+                updatePrimitives(accessor, i, random.nextInt(100) - 50.5f, (short) random.nextInt(),
+                        (byte) random.nextInt(), (char) random.nextInt(), random.nextBoolean());
+            }
+
+            checkSortedStable(struct, "short", StructPrimitives::getShort);
+            checkSortedStable(struct, "char", StructPrimitives::getChar);
+            checkSortedStable(struct, "byte", StructPrimitives::getByte);
+            checkSortedStable(struct, "float", StructPrimitives::getFloat);
+            checkSortedStable(struct, "boolean", value -> value.isBoolean() ? 1 : 0);
+        }
+    }
+
+    private void checkSortedStable(StructVector<StructPrimitives> struct, String field,
+                                   ToDoubleFunction<StructPrimitives> key) {
+        StructPrimitives accessor = struct.accessor();
+        for (int i = 0; i < struct.size(); i++) {
+            struct.current(i);
+            accessor.setLong(i);
+        }
+        struct.sort(field);
+        for (int i = 1; i < struct.size(); i++) {
+            struct.current(i - 1);
+            double previous = key.applyAsDouble(accessor);
+            long order = accessor.getLong();
+            struct.current(i);
+            assertTrue(previous <= key.applyAsDouble(accessor));
+            assertTrue(previous < key.applyAsDouble(accessor) || order < accessor.getLong());
+        }
+    }
+
+    @Test
+    public void sortSpecTest() {
+        StructVector<StructDirect> struct = new StructVector<>(StructDirect.class, 8);
+        struct.resize(6);
+
+        int index = -1;
+        updateIntegerAndString(struct, ++index, 1, "b");
+        updateIntegerAndString(struct, ++index, 3, "a");
+        updateIntegerAndString(struct, ++index, 2, null);
+        updateIntegerAndString(struct, ++index, 2, "b");
+        updateIntegerAndString(struct, ++index, 5, "a");
+        updateIntegerAndString(struct, ++index, 4, null);
+
+        SortSpec spec = SortSpec.by("string", SortDirection.ASCENDING, NullOrdering.NULLS_FIRST)
+                .then("int", SortDirection.DESCENDING);
+        struct.sort(spec);
+
+        assertArrayEquals(new Object[]{null, null, "a", "a", "b", "b", null, null}, struct.objects());
+        assertArrayEquals(new int[]{4, 2, 5, 3, 2, 1, 0, 0}, struct.integers());
+
+        assertEquals(2, struct.binarySearch(spec, "a", 5));
+        assertEquals(0, struct.binarySearch(spec, null, 4));
+        assertEquals(5, struct.binarySearch(spec, "b", 1));
+        assertEquals(-5, struct.binarySearch(spec, "a", 0));
+        assertEquals(-7, struct.binarySearch(spec, "c", 9));
+
+        struct.sort(SortSpec.by("string", SortDirection.DESCENDING).then("int"));
+
+        assertArrayEquals(new Object[]{"b", "b", "a", "a", null, null, null, null}, struct.objects());
+        assertArrayEquals(new int[]{1, 2, 3, 5, 2, 4, 0, 0}, struct.integers());
+    }
+
+    @Test
+    public void sortSpecProjectionTest() {
+        StructVector<StructDirect> struct = new StructVector<>(StructDirect.class, 8);
+        struct.resize(4);
+
+        int index = -1;
+        updateIntegerAndString(struct, ++index, 1, "x");
+        updateIntegerAndString(struct, ++index, 2, "y");
+        updateIntegerAndString(struct, ++index, 2, "x");
+        updateIntegerAndString(struct, ++index, 1, "y");
+
+        StructProjection<StructDirect> sorted = struct.asSorted(
+                SortSpec.by("int", SortDirection.DESCENDING).then("string", SortDirection.DESCENDING));
+
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < sorted.size(); i++) {
+            sorted.current(i);
+            result.add(sorted.accessor().getInt() + sorted.accessor().getString());
+        }
+        assertEquals(Arrays.asList("2y", "2x", "1y", "1x"), result);
+        assertArrayEquals(new int[]{1, 2, 2, 1, 0, 0, 0, 0}, struct.integers());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void sortSpecUnknownFieldTest() {
+        StructVector<StructDirect> struct = new StructVector<>(StructDirect.class);
+        struct.sort(SortSpec.by("int").then("unknown"));
+    }
+
     private void updateIntegerAndString(StructVector<StructDirect> struct, int n, int integer, String string) {
         struct.current(n);
         struct.accessor().setInt(integer);
@@ -456,12 +922,218 @@ public class StructVectorTest {
                 Arrays.stream(struct.objects()).collect(Collectors.toList()));
     }
 
+    @Test
+    public void cursorTest() {
+        StructVector<StructParent> struct = new StructVector<>(StructParent.class, 2);
+        struct.resize(2);
+        struct.current(0);
+        struct.accessor().getFirst().setInt(15);
+        struct.accessor().getSecond().setString("aa");
+        struct.current(1);
+        struct.accessor().getFirst().setInt(35);
+        struct.accessor().getSecond().setString("bb");
+
+        Cursor<StructParent> cursor = struct.newCursor();
+        assertEquals(-1, cursor.current());
+        assertNotSame(struct.accessor(), cursor.accessor());
+        assertNotSame(struct.accessor().getFirst(), cursor.accessor().getFirst());
+        cursor.current(0);
+        assertEquals(0, cursor.current());
+        assertEquals(1, struct.current());
+        assertEquals(15, cursor.accessor().getFirst().getInt());
+        assertEquals("aa", cursor.accessor().getSecond().getString());
+        assertEquals(35, struct.accessor().getFirst().getInt());
+
+        cursor.accessor().getFirst().setInt(16);
+        struct.current(0);
+        assertEquals(16, struct.accessor().getFirst().getInt());
+
+        for (int i = 0; i < 100; i++) {
+            struct.insertLast();
+            struct.accessor().getFirst().setInt(i);
+        }
+        cursor.current(101);
+        assertEquals(99, cursor.accessor().getFirst().getInt());
+        assertEquals(102, cursor.size());
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void cursorBoundsTest() {
+        StructVector<StructDirect> struct = new StructVector<>(StructDirect.class);
+        struct.resize(2);
+        struct.newCursor().current(2);
+    }
+
+    @Test
+    public void cursorConcurrentScanTest() throws Exception {
+        try (StructVector<StructDirect> struct =
+                     new StructVector<>(StructDirect.class, 4, StorageMode.OFF_HEAP)) {
+            struct.resize(100_000);
+            for (int i = 0; i < struct.size(); i++) {
+                struct.current(i);
+                struct.accessor().setInt(i % 7);
+            }
+            List<Callable<Long>> scans = new ArrayList<>();
+            for (int task = 0; task < 4; task++) {
+                scans.add(() -> {
+                    Cursor<StructDirect> cursor = struct.newCursor();
+                    long sum = 0;
+                    for (int i = 0; i < cursor.size(); i++) {
+                        cursor.current(i);
+                        sum += cursor.accessor().getInt();
+                    }
+                    return sum;
+                });
+            }
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                for (Future<Long> sum : executor.invokeAll(scans)) {
+                    assertEquals(299_995L, (long) sum.get());
+                }
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void forEachTest() {
+        StructVector<StructParent> struct = new StructVector<>(StructParent.class);
+        for (int i = 0; i < 10; i++) {
+            struct.insertLast();
+            struct.accessor().getFirst().setInt(i);
+        }
+        List<Integer> values = new ArrayList<>();
+        struct.forEach(parent -> {
+            values.add(parent.getFirst().getInt());
+            parent.getSecond().setInt(parent.getFirst().getInt() * 2);
+        });
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), values);
+        struct.current(9);
+        assertEquals(18, struct.accessor().getSecond().getInt());
+    }
+
+    @Test
+    public void forEachFlatTest() {
+        StructVector<StructDirect> struct = new StructVector<>(StructDirect.class);
+        struct.resize(1000);
+        struct.forEach(record -> record.setInt(record.getInt() + 1));
+        struct.forEach(record -> record.setDouble(record.getInt() * 0.5));
+        for (int i = 0; i < struct.size(); i++) {
+            struct.current(i);
+            assertEquals(1, struct.accessor().getInt());
+            assertEquals(0.5, struct.accessor().getDouble(), 0);
+        }
+    }
+
+    @Test
+    public void parallelForEachTest() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            StructVector<StructParent> struct = new StructVector<>(StructParent.class);
+            struct.resize(100_000);
+            for (int i = 0; i < struct.size(); i++) {
+                struct.current(i);
+                struct.accessor().getFirst().setInt(i);
+            }
+            struct.parallelForEach(new Parallelism(pool, 1000),
+                parent -> parent.getSecond().setInt(parent.getFirst().getInt() + 1));
+            for (int i = 0; i < struct.size(); i++) {
+                struct.current(i);
+                assertEquals(i + 1, struct.accessor().getSecond().getInt());
+            }
+            struct.parallelForEach(parent -> parent.getFirst().setInt(0));
+            struct.forEach(parent -> assertEquals(0, parent.getFirst().getInt()));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void streamTest() {
+        StructVector<StructDirect> struct = new StructVector<>(StructDirect.class);
+        for (int i = 0; i < 10_000; i++) {
+            struct.insertLast();
+            struct.accessor().setInt(i);
+            struct.accessor().setDouble(i / 2.0);
+            struct.accessor().setString(Integer.toString(i % 3));
+        }
+        assertEquals(Arrays.asList(3, 4, 5),
+                struct.stream().skip(3).limit(3).map(StructDirect::getInt)
+                        .collect(Collectors.toList()));
+        assertEquals(3333, struct.stream().filter(record -> "1".equals(record.getString()))
+                .count());
+        assertEquals(49_995_000L, struct.stream().parallel()
+                .mapToLong(StructDirect::getInt).sum());
+        assertEquals(49_995_000L, struct.intStream("int").parallel().asLongStream().sum());
+        assertEquals(24_997_500.0, struct.doubleStream("double").sum(), 0.0);
+        assertEquals(Arrays.asList(9998, 9999), struct.intStream("int").parallel()
+                .filter(value -> value > 9997).boxed().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void spliteratorTest() {
+        StructVector<StructDirect> struct = new StructVector<>(StructDirect.class);
+        struct.resize(5);
+        Spliterator<StructDirect> spliterator = struct.spliterator();
+        assertTrue(spliterator.hasCharacteristics(
+                Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED));
+        Spliterator<StructDirect> prefix = spliterator.trySplit();
+        assertEquals(2, prefix.estimateSize());
+        assertEquals(3, spliterator.estimateSize());
+        List<StructDirect> accessors = new ArrayList<>();
+        prefix.forEachRemaining(accessors::add);
+        spliterator.tryAdvance(accessors::add);
+        assertEquals(5, accessors.size() + spliterator.estimateSize());
+        assertSame(accessors.get(0), accessors.get(1));
+        assertNotSame(accessors.get(1), accessors.get(2));
+        assertNotSame(struct.accessor(), accessors.get(0));
+    }
+
+    @Test
+    public void sortedProjectionStreamTest() {
+        StructVector<StructDirect> struct = new StructVector<>(StructDirect.class, 8);
+        struct.resize(4);
+        updateIntegerAndString(struct, 0, 20, "33");
+        updateIntegerAndString(struct, 1, 10, "44");
+        updateIntegerAndString(struct, 2, 40, "55");
+        updateIntegerAndString(struct, 3, 30, "66");
+        assertEquals(Arrays.asList("44", "33", "66", "55"), struct.asSorted("int").stream()
+                .parallel().map(StructDirect::getString).collect(Collectors.toList()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void intStreamTypeTest() {
+        new StructVector<>(StructDirect.class).intStream("double");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void intStreamClosedTest() {
+        StructVector<StructDirectIntOnly> struct =
+                new StructVector<>(StructDirectIntOnly.class, 4, StorageMode.OFF_HEAP);
+        struct.resize(4);
+        IntStream values = struct.intStream("int");
+        struct.close();
+        values.sum();
+    }
+
     @Test
     public void allFieldNamesTest() {
         StructVector<StructParent> struct = new StructVector<>(StructParent.class, 3);
         assertEquals(Arrays.asList("first", "second"), struct.allFieldNames());
     }
 
+    @Test
+    public void accessorClassReuseTest() {
+        StructVector<StructParent> struct = new StructVector<>(StructParent.class, 3);
+        StructVector<StructParent> struct2 = new StructVector<>(StructParent.class, 3);
+
+        assertNotSame(struct.accessor(), struct2.accessor());
+        assertSame(struct.accessor().getClass(), struct2.accessor().getClass());
+        assertNotSame(struct.accessor().getFirst(), struct2.accessor().getFirst());
+        assertSame(struct.accessor().getFirst().getClass(), struct2.accessor().getFirst().getClass());
+    }
+
     @Test
     public void asSortedTest() {
         StructVector<StructDirect> struct = new StructVector<>(StructDirect.class, 8);
@@ -494,6 +1166,355 @@ public class StructVectorTest {
         assertArrayEquals(new Object[]{"33", "44", "55", "66", "77", "88", "99", null}, struct.objects());
     }
 
+    @Test
+    public void rangesTest() {
+        StructVector<StructDirect> struct = new StructVector<>(StructDirect.class);
+        int[] keys = {10, 20, 20, 20, 30, 40, 40, 50};
+        for (int key : keys) {
+            struct.insertLast();
+            struct.accessor().setInt(key);
+            struct.accessor().setDouble(key / 10.0);
+            struct.accessor().setString("k" + key);
+        }
+        FieldRanges<StructDirect> ints = struct.ranges("int");
+        assertEquals(0, ints.lowerBound(5));
+        assertEquals(1, ints.lowerBound(20));
+        assertEquals(4, ints.upperBound(20));
+        assertEquals(4, ints.lowerBound(25));
+        assertEquals(8, ints.upperBound(50));
+        assertEquals(8, ints.lowerBound(Long.MAX_VALUE));
+
+        RangeProjection<StructDirect> range = ints.equalRange(40);
+        assertEquals(5, range.from());
+        assertEquals(2, range.size());
+        range.current(1);
+        assertEquals(1, range.current());
+        assertEquals(6, struct.current());
+        assertEquals(40, range.accessor().getInt());
+        assertEquals(0, ints.equalRange(35).size());
+        assertEquals(5, ints.equalRange(35).from());
+
+        FieldRanges<StructDirect> doubles = struct.ranges("double");
+        assertEquals(3, doubles.equalRange(2.0).size());
+        RangeProjection<StructDirect> window = doubles.between(2.0, 4.0);
+        assertEquals(1, window.from());
+        assertEquals(5, window.end());
+        assertEquals(0, doubles.between(4.0, 2.0).size());
+
+        FieldRanges<StructDirect> strings = struct.ranges("string");
+        assertEquals(2, strings.equalRange("k40").size());
+        assertEquals(4, strings.between("k20", "k4").size());
+        assertEquals(8, strings.lowerBound("l"));
+    }
+
+    @Test
+    public void sortedProjectionRangesTest() {
+        StructVector<StructDirect> struct = new StructVector<>(StructDirect.class, 8);
+        struct.resize(7);
+        int index = -1;
+        updateIntegerAndString(struct, ++index, 20, "33");
+        updateIntegerAndString(struct, ++index, 10, "44");
+        updateIntegerAndString(struct, ++index, 60, "55");
+        updateIntegerAndString(struct, ++index, 40, "66");
+        updateIntegerAndString(struct, ++index, 30, "77");
+        updateIntegerAndString(struct, ++index, 70, "88");
+        updateIntegerAndString(struct, ++index, 40, "99");
+
+        SortedProjection<StructDirect> sorted = struct.asSorted("int");
+        FieldRanges<StructDirect> ranges = sorted.ranges("int");
+        assertEquals(3, ranges.lowerBound(40));
+        assertEquals(5, ranges.upperBound(40));
+        RangeProjection<StructDirect> range = ranges.between(25, 65);
+        assertEquals(4, range.size());
+        List<String> strings = new ArrayList<>();
+        for (int i = 0; i < range.size(); i++) {
+            range.current(i);
+            strings.add(range.accessor().getString());
+        }
+        assertEquals(Arrays.asList("77", "66", "99", "55"), strings);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rangesKeyTypeTest() {
+        new StructVector<>(StructDirect.class).ranges("int").lowerBound(1.5);
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void rangeProjectionBoundsTest() {
+        StructVector<StructDirect> struct = new StructVector<>(StructDirect.class);
+        struct.resize(2);
+        new RangeProjection<>(struct, 1, 2).current(1);
+    }
+
+    @Test
+    public void statisticsTest() {
+        StructVector<StructDirect> struct = new StructVector<>(StructDirect.class);
+        assertEquals(0, struct.statistics("int").count());
+        assertTrue(Double.isNaN(struct.statistics("double").mean()));
+        Random random = new Random(7);
+        double[] ints = new double[103];
+        double[] doubles = new double[ints.length];
+        for (int i = 0; i < ints.length; i++) {
+            struct.insertLast();
+            struct.accessor().setInt(1_000_000_000 + random.nextInt(1000));
+            struct.accessor().setDouble(1e9 + random.nextDouble());
+            ints[i] = struct.accessor().getInt();
+            doubles[i] = struct.accessor().getDouble();
+        }
+        checkStatistics(struct.statistics("int"), ints);
+        checkStatistics(struct.statistics("double"), doubles);
+    }
+
+    @Test
+    public void statisticsOffHeapTest() {
+        try (StructVector<StructDirectDoubleOnly> struct =
+                     new StructVector<>(StructDirectDoubleOnly.class, 4, StorageMode.OFF_HEAP)) {
+            double[] values = {3, -1.5, 8, 0.25, 2};
+            for (double value : values) {
+                struct.insertLast();
+                struct.accessor().setDouble(value);
+            }
+            checkStatistics(struct.statistics("double"), values);
+            checkStatistics(struct.column("double").statistics(1, 4), -1.5, 8, 0.25);
+            checkStatistics(struct.column("double").statistics(new int[] {4, 0, 2}, 1, 3), 3, 8);
+        }
+    }
+
+    @Test
+    public void rangeStatisticsTest() {
+        StructVector<StructDirect> struct = new StructVector<>(StructDirect.class, 8);
+        struct.resize(7);
+        int index = -1;
+        updateIntegerAndString(struct, ++index, 20, "33");
+        updateIntegerAndString(struct, ++index, 10, "44");
+        updateIntegerAndString(struct, ++index, 60, "55");
+        updateIntegerAndString(struct, ++index, 40, "66");
+        updateIntegerAndString(struct, ++index, 30, "77");
+        updateIntegerAndString(struct, ++index, 70, "88");
+        updateIntegerAndString(struct, ++index, 40, "99");
+
+        SortedProjection<StructDirect> sorted = struct.asSorted("int");
+        checkStatistics(sorted.statistics("int"), 20, 10, 60, 40, 30, 70, 40);
+        checkStatistics(sorted.ranges("int").between(25, 65).statistics("int"), 30, 40, 40, 60);
+        checkStatistics(struct.ranges("int").between(5, 1000).statistics("int"),
+                20, 10, 60, 40, 30, 70, 40);
+        checkStatistics(new RangeProjection<>(struct, 2, 4).statistics("int"), 60, 40);
+        checkStatistics(new RangeProjection<>(sorted.ranges("int").between(25, 65), 1, 3)
+                .statistics("int"), 40, 40);
+        checkStatistics(new RangeProjection<>(new RangeProjection<>(struct, 1, 6), 1, 3)
+                .statistics("int"), 60, 40);
+        checkStatistics(new RangeProjection<>(struct.newCursor(), 5, 7).statistics("int"), 70, 40);
+
+        StructProjection<StructDirect> reversed = new StructProjection<StructDirect>() {
+            private int current = -1;
+
+            @Override
+            public StructDirect accessor() {
+                return struct.accessor();
+            }
+
+            @Override
+            public int size() {
+                return struct.size();
+            }
+
+            @Override
+            public int current() {
+                return current;
+            }
+
+            @Override
+            public void current(int index) {
+                struct.current(struct.size() - 1 - index);
+                current = index;
+            }
+        };
+        checkStatistics(new RangeProjection<>(reversed, 1, 3).statistics("int"), 70, 30);
+        checkStatistics(FilteredProjection.of(reversed, record -> record.getInt() > 50)
+                .statistics("int"), 70, 60);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void statisticsTypeTest() {
+        new StructVector<>(StructDirect.class).statistics("string");
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void columnIndexBoundsTest() {
+        StructVector<StructDirect> struct = new StructVector<>(StructDirect.class, 4);
+        struct.resize(2);
+        struct.column("int").getInt(2);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void columnTypeTest() {
+        StructVector<StructDirect> struct = new StructVector<>(StructDirect.class, 4);
+        struct.resize(2);
+        struct.column("int").getDouble(0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void columnReallocatedTest() {
+        try (StructVector<StructDirectDoubleOnly> struct =
+                     new StructVector<>(StructDirectDoubleOnly.class, 2, StorageMode.OFF_HEAP)) {
+            struct.resize(2);
+            Column column = struct.column("double");
+            assertFalse(column.isStale());
+            struct.insertLast();
+            assertTrue(column.isStale());
+            column.getDouble(0);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void columnAfterCloseTest() {
+        StructVector<StructDirectDoubleOnly> struct =
+                new StructVector<>(StructDirectDoubleOnly.class, 2, StorageMode.OFF_HEAP);
+        struct.resize(2);
+        Column column = struct.column("double");
+        struct.close();
+        column.setDouble(0, 1);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void columnStatisticsBoundsTest() {
+        StructVector<StructDirect> struct = new StructVector<>(StructDirect.class, 4);
+        struct.resize(2);
+        struct.column("int").statistics(0, 3);
+    }
+
+    @Test
+    public void columnBulkReadTest() {
+        StructVector<StructDirect> struct = new StructVector<>(StructDirect.class, 4);
+        struct.resize(3);
+        for (int i = 0; i < 3; i++) {
+            struct.current(i);
+            struct.accessor().setInt(i + 10);
+            struct.accessor().setDouble(i + 0.5);
+        }
+        long[] longs = new long[2];
+        struct.column("int").getLongs(1, 3, longs);
+        assertArrayEquals(new long[] {11, 12}, longs);
+        double[] doubles = new double[3];
+        struct.column("double").getDoubles(0, 2, doubles);
+        assertArrayEquals(new double[] {0.5, 1.5, 0}, doubles, 0.0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void columnBulkReadBoundsTest() {
+        StructVector<StructDirect> struct = new StructVector<>(StructDirect.class, 4);
+        struct.resize(2);
+        struct.column("int").getLongs(0, 3, new long[4]);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void columnBulkReadAfterCloseTest() {
+        StructVector<StructDirectDoubleOnly> struct =
+                new StructVector<>(StructDirectDoubleOnly.class, 2, StorageMode.OFF_HEAP);
+        struct.resize(2);
+        Column column = struct.column("double");
+        struct.close();
+        column.getDoubles(0, 2, new double[2]);
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void columnStatisticsRowsBoundsTest() {
+        StructVector<StructDirect> struct = new StructVector<>(StructDirect.class, 4);
+        struct.resize(2);
+        struct.column("int").statistics(new int[] {1, 3}, 0, 2);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void sortedStatisticsBoundsTest() {
+        StructVector<StructDirect> struct = new StructVector<>(StructDirect.class, 4);
+        struct.resize(2);
+        struct.asSorted("int").statistics("int", 2, 1);
+    }
+
+    private static void checkStatistics(ColumnStatistics statistics, double... values) {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        double mean = sum / values.length;
+        double squares = 0;
+        for (double value : values) {
+            squares += (value - mean) * (value - mean);
+        }
+        assertEquals(values.length, statistics.count());
+        assertEquals(sum, statistics.sum(), Math.ulp(sum) * values.length);
+        assertEquals(mean, statistics.mean(), Math.ulp(mean) * values.length);
+        assertEquals(squares / values.length, statistics.variance(), 1e-9);
+        assertEquals(Arrays.stream(values).min().getAsDouble(), statistics.min(), 0);
+        assertEquals(Arrays.stream(values).max().getAsDouble(), statistics.max(), 0);
+    }
+
+    @Test
+    public void filterTest() {
+        StructVector<StructDirect> struct = new StructVector<>(StructDirect.class);
+        for (int i = 0; i < 100; i++) {
+            struct.insertLast();
+            struct.accessor().setInt(i);
+            struct.accessor().setDouble(i % 7);
+        }
+        FilteredProjection<StructDirect> even =
+                struct.filter(accessor -> accessor.getInt() % 2 == 0);
+        assertEquals(50, even.size());
+        even.current(10);
+        assertEquals(10, even.current());
+        assertEquals(20, struct.current());
+        assertEquals(20, even.accessor().getInt());
+
+        FilteredProjection<StructDirect> sixes =
+                even.filter(accessor -> accessor.getInt() % 3 == 0);
+        assertEquals(17, sixes.size());
+        assertEquals(12, sixes.sourceIndex(4));
+        sixes.current(4);
+        assertEquals(24, sixes.accessor().getInt());
+        assertEquals(0, sixes.filter(accessor -> accessor.getInt() % 2 == 1).size());
+
+        struct.current(24);
+        struct.accessor().setString("updated");
+        sixes.current(4);
+        assertEquals("updated", sixes.accessor().getString());
+        checkStatistics(struct.filter(accessor -> accessor.getInt() < 4).statistics("double"),
+                0, 1, 2, 3);
+        checkStatistics(even.filter(accessor -> accessor.getInt() < 7).statistics("double"),
+                0, 2, 4, 6);
+    }
+
+    @Test
+    public void sortedProjectionFilterTest() {
+        StructVector<StructDirect> struct = new StructVector<>(StructDirect.class, 8);
+        struct.resize(7);
+        int index = -1;
+        updateIntegerAndString(struct, ++index, 20, "33");
+        updateIntegerAndString(struct, ++index, 10, "44");
+        updateIntegerAndString(struct, ++index, 60, "55");
+        updateIntegerAndString(struct, ++index, 40, "66");
+        updateIntegerAndString(struct, ++index, 30, "77");
+        updateIntegerAndString(struct, ++index, 70, "88");
+        updateIntegerAndString(struct, ++index, 40, "99");
+
+        FilteredProjection<StructDirect> filtered = struct.asSorted("int")
+                .filter(accessor -> accessor.getString().compareTo("60") > 0)
+                .filter(accessor -> accessor.getInt() < 70);
+        List<String> strings = new ArrayList<>();
+        for (int i = 0; i < filtered.size(); i++) {
+            filtered.current(i);
+            strings.add(filtered.accessor().getString());
+        }
+        assertEquals(Arrays.asList("77", "66", "99"), strings);
+        checkStatistics(filtered.statistics("int"), 30, 40, 40);
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void filterBoundsTest() {
+        StructVector<StructDirect> struct = new StructVector<>(StructDirect.class);
+        struct.resize(3);
+        struct.filter(accessor -> true).current(3);
+    }
+
     @Test
     public void updateFromTest() {
         StructVector<StructDirect> struct = new StructVector<>(StructDirect.class, 4);
@@ -514,6 +1535,28 @@ public class StructVectorTest {
         assertArrayEquals(new Object[]{"33", "44", "544", null}, struct.objects());
     }
 
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void updateFromTargetOutOfBoundsTest() {
+        StructVector<StructDirect> struct = new StructVector<>(StructDirect.class, 4);
+        struct.resize(3);
+        StructVector<StructDirect> struct2 = new StructVector<>(StructDirect.class, 4);
+        struct2.resize(3);
+        struct.updateFrom(3, struct2, 0);
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void updateFromClosedSourceTest() {
+        try (StructVector<StructPrimitives> struct =
+                     new StructVector<>(StructPrimitives.class, 2, StorageMode.OFF_HEAP)) {
+            struct.resize(2);
+            StructVector<StructPrimitives> struct2 =
+                    new StructVector<>(StructPrimitives.class, 2, StorageMode.OFF_HEAP);
+            struct2.resize(2);
+            struct2.close();
+            struct.updateFrom(0, struct2, 1);
+        }
+    }
+
     @Test
     public void reserveTest() {
         StructVector<StructDirect> struct = new StructVector<>(StructDirect.class, 2);
@@ -532,4 +1575,902 @@ public class StructVectorTest {
         assertEquals(Arrays.asList(11, 0, 55, 0, 88, 0, 0, 0),
                 Arrays.stream(struct.integers()).boxed().collect(Collectors.toList()));
     }
+
+    @Test
+    public void primitiveTypesTest() {
+        checkPrimitiveTypes(new StructVector<>(StructPrimitives.class, 2));
+    }
+
+    @Test
+    public void primitiveTypesArrayAccessTest() {
+        checkPrimitiveTypes(new StructVector<>(StructPrimitivesArrayAccess.class, 2));
+    }
+
+    private static <T extends Primitives> void checkPrimitiveTypes(StructVector<T> struct) {
+        struct.resize(2);
+        T accessor = struct.accessor();
+        struct.current(1);
+        updatePrimitives(accessor, 1L << 40, 1.5f, (short) -7, (byte) 100, 'x', true);
+
+        assertArrayEquals(new long[]{0L, 1L << 40}, struct.longs());
+        assertArrayEquals(new float[]{0.0f, 1.5f}, struct.floats(), 1e-6f);
+        assertArrayEquals(new short[]{0, -7}, struct.shorts());
+        assertArrayEquals(new byte[]{0, 100}, struct.bytes());
+        assertArrayEquals(new char[]{0, 'x'}, struct.chars());
+        assertArrayEquals(new boolean[]{false, true}, struct.booleans());
+
+        assertEquals(1L << 40, accessor.getLong());
+        assertEquals(1.5f, accessor.getFloat(), 1e-6f);
+        assertEquals(-7, accessor.getShort());
+        assertEquals(100, accessor.getByte());
+        assertEquals('x', accessor.getChar());
+        assertEquals(true, accessor.isBoolean());
+        assertEquals(0L, accessor.getLong(0));
+        assertEquals(1L << 40, accessor.getLong(1));
+    }
+
+    @Test
+    public void sortPrimitiveTypesTest() {
+        StructVector<StructPrimitives> struct = new StructVector<>(StructPrimitives.class, 3);
+        struct.resize(3);
+        StructPrimitives accessor = struct.accessor();
+        struct.current(0);
+        updatePrimitives(accessor, 30L, 2.5f, (short) 1, (byte) -1, 'b', true);
+        struct.current(1);
+        updatePrimitives(accessor, -10L, -0.5f, (short) 3, (byte) 5, 'a', false);
+        struct.current(2);
+        updatePrimitives(accessor, 20L, 1.5f, (short) 2, (byte) 0, 'c', true);
+
+        struct.sort("long");
+        assertArrayEquals(new long[]{-10L, 20L, 30L}, struct.longs());
+        assertEquals(2, struct.binarySearch(struct.field("long"), 30L));
+        assertEquals(-2, struct.binarySearch(struct.field("long"), 0L));
+
+        struct.sort("float");
+        assertArrayEquals(new float[]{-0.5f, 1.5f, 2.5f}, struct.floats(), 1e-6f);
+        assertEquals(1, struct.binarySearch(struct.field("float"), 1.5f));
+
+        struct.sort("short");
+        assertArrayEquals(new short[]{1, 2, 3}, struct.shorts());
+        assertEquals(2, struct.binarySearch(struct.field("short"), (short) 3));
+
+        struct.sort("byte");
+        assertArrayEquals(new byte[]{-1, 0, 5}, struct.bytes());
+        assertEquals(-4, struct.binarySearch(struct.field("byte"), (byte) 6));
+
+        struct.sort("char");
+        assertArrayEquals(new char[]{'a', 'b', 'c'}, struct.chars());
+        assertEquals(0, struct.binarySearch(struct.field("char"), 'a'));
+
+        struct.sort("boolean");
+        assertArrayEquals(new boolean[]{false, true, true}, struct.booleans());
+        assertArrayEquals(new long[]{-10L, 30L, 20L}, struct.longs());
+        assertEquals(0, struct.binarySearch(struct.field("boolean"), false));
+    }
+
+    @Test
+    public void updateFromPrimitiveTypesTest() {
+        StructVector<StructPrimitives> struct = new StructVector<>(StructPrimitives.class, 2);
+        struct.resize(2);
+        StructVector<StructPrimitives> struct2 = new StructVector<>(StructPrimitives.class, 2);
+        struct2.resize(2);
+        struct2.current(0);
+        updatePrimitives(struct2.accessor(), 5L, 0.25f, (short) 6, (byte) 7, 'z', true);
+
+        struct.updateFrom(1, struct2, 0);
+
+        assertArrayEquals(new long[]{0L, 5L}, struct.longs());
+        assertArrayEquals(new float[]{0.0f, 0.25f}, struct.floats(), 1e-6f);
+        assertArrayEquals(new short[]{0, 6}, struct.shorts());
+        assertArrayEquals(new byte[]{0, 7}, struct.bytes());
+        assertArrayEquals(new char[]{0, 'z'}, struct.chars());
+        assertArrayEquals(new boolean[]{false, true}, struct.booleans());
+    }
+
+    @Test
+    public void offHeapPrimitiveTypesTest() {
+        try (StructVector<StructPrimitives> struct =
+                     new StructVector<>(StructPrimitives.class, 2, StorageMode.OFF_HEAP)) {
+            checkOffHeapPrimitiveTypes(struct);
+        }
+    }
+
+    @Test
+    public void offHeapPrimitiveTypesArrayAccessTest() {
+        try (StructVector<StructPrimitivesArrayAccess> struct = new StructVector<>(
+                StructPrimitivesArrayAccess.class, 2, StorageMode.OFF_HEAP)) {
+            checkOffHeapPrimitiveTypes(struct);
+        }
+    }
+
+    private static <T extends Primitives> void checkOffHeapPrimitiveTypes(
+            StructVector<T> struct) {
+        struct.resize(2);
+        T accessor = struct.accessor();
+        struct.current(1);
+        updatePrimitives(accessor, 1L << 40, 1.5f, (short) -7, (byte) 100, 'x', true);
+
+        assertNull(struct.longs());
+        assertEquals(1L << 40, accessor.getLong());
+        assertEquals(1.5f, accessor.getFloat(), 1e-6f);
+        assertEquals(-7, accessor.getShort());
+        assertEquals(100, accessor.getByte());
+        assertEquals('x', accessor.getChar());
+        assertEquals(true, accessor.isBoolean());
+        assertEquals(0L, accessor.getLong(0));
+        assertEquals(1L << 40, accessor.getLong(1));
+
+        struct.current(0);
+        assertEquals(0L, accessor.getLong());
+        assertEquals(false, accessor.isBoolean());
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void offHeapIndexedAccessorBoundsErrorTest() {
+        try (StructVector<StructIntOnly> struct =
+                     new StructVector<>(StructIntOnly.class, 10, StorageMode.OFF_HEAP)) {
+            struct.resize(2);
+            struct.accessor().updateIntField(2, 0);
+        }
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void offHeapUnpositionedAccessorTest() {
+        try (StructVector<StructDirectDoubleOnly> struct =
+                     new StructVector<>(StructDirectDoubleOnly.class, 4, StorageMode.OFF_HEAP)) {
+            struct.resize(2);
+            struct.accessor().getDouble();
+        }
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void offHeapAccessAfterCloseTest() {
+        StructVector<StructDirectDoubleOnly> struct =
+                new StructVector<>(StructDirectDoubleOnly.class, 4, StorageMode.OFF_HEAP);
+        struct.resize(2);
+        struct.current(1);
+        struct.accessor().setDouble(1.5);
+        struct.close();
+        struct.accessor().setDouble(2.5);
+    }
+
+    @Test
+    public void offHeapReserveTest() {
+        try (StructVector<StructDirect> struct =
+                     new StructVector<>(StructDirect.class, 2, StorageMode.OFF_HEAP)) {
+            struct.insertLast();
+            struct.current(0);
+            struct.accessor().setInt(11);
+            struct.accessor().setString("11");
+            for (int i = 0; i < 5; i++) {
+                struct.insertLast();
+            }
+            struct.current(2);
+            struct.accessor().setInt(55);
+            struct.insert(1, 1);
+            struct.current(1);
+            struct.accessor().setDouble(0.5);
+
+            assertEquals(7, struct.size());
+            assertEquals(Arrays.asList(11, 0, 0, 55, 0, 0, 0), intValues(struct));
+            struct.current(0);
+            assertEquals("11", struct.accessor().getString());
+            struct.current(1);
+            assertEquals(0.5, struct.accessor().getDouble(), 1e-9);
+        }
+    }
+
+    @Test
+    public void offHeapSortTest() {
+        try (StructVector<StructPrimitives> struct =
+                     new StructVector<>(StructPrimitives.class, 3, StorageMode.OFF_HEAP)) {
+            struct.resize(3);
+            StructPrimitives accessor = struct.accessor();
+            struct.current(0);
+            updatePrimitives(accessor, 30L, 2.5f, (short) 1, (byte) -1, 'b', true);
+            struct.current(1);
+            updatePrimitives(accessor, -10L, -0.5f, (short) 3, (byte) 5, 'a', false);
+            struct.current(2);
+            updatePrimitives(accessor, 20L, 1.5f, (short) 2, (byte) 0, 'c', true);
+
+            struct.sort("long");
+            assertArrayEquals(new long[]{-10L, 20L, 30L}, longValues(struct));
+            assertEquals(2, struct.binarySearch(struct.field("long"), 30L));
+            assertEquals(-2, struct.binarySearch(struct.field("long"), 0L));
+
+            struct.sort("float");
+            assertArrayEquals(new long[]{-10L, 20L, 30L}, longValues(struct));
+            assertEquals(1, struct.binarySearch(struct.field("float"), 1.5f));
+
+            struct.sort("char");
+            assertArrayEquals(new long[]{-10L, 30L, 20L}, longValues(struct));
+            assertEquals(0, struct.binarySearch(struct.field("char"), 'a'));
+
+            struct.sort("byte");
+            assertEquals(-4, struct.binarySearch(struct.field("byte"), (byte) 6));
+
+            struct.sort("boolean");
+            assertArrayEquals(new long[]{-10L, 30L, 20L}, longValues(struct));
+            assertEquals(0, struct.binarySearch(struct.field("boolean"), false));
+        }
+    }
+
+    @Test
+    public void offHeapUpdateFromTest() {
+        StructVector<StructPrimitives> heap = new StructVector<>(StructPrimitives.class, 2);
+        heap.resize(2);
+        heap.current(0);
+        updatePrimitives(heap.accessor(), 5L, 0.25f, (short) 6, (byte) 7, 'z', true);
+
+        try (StructVector<StructPrimitives> struct =
+                     new StructVector<>(StructPrimitives.class, 2, StorageMode.OFF_HEAP)) {
+            struct.resize(2);
+            struct.updateFrom(1, heap, 0);
+            struct.current(1);
+            assertEquals(5L, struct.accessor().getLong());
+            assertEquals(0.25f, struct.accessor().getFloat(), 1e-6f);
+            assertEquals('z', struct.accessor().getChar());
+            assertEquals(true, struct.accessor().isBoolean());
+
+            heap.updateFrom(1, struct, 1);
+            assertArrayEquals(new long[]{5L, 5L}, heap.longs());
+            assertArrayEquals(new short[]{6, 6}, heap.shorts());
+        }
+    }
+
+    @Test
+    public void offHeapCloseTest() {
+        StructVector<StructIntOnly> struct =
+                new StructVector<>(StructIntOnly.class, 4, StorageMode.OFF_HEAP);
+        struct.resize(2);
+        struct.close();
+        assertEquals(0, struct.size());
+
+        struct.resize(1);
+        struct.accessor().updateIntField(0, 42);
+        assertEquals(42, struct.accessor().getIntField(0));
+        struct.close();
+    }
+
+    @Test
+    public void mappedFileTest() throws IOException {
+        Path file = Files.createTempFile("struct", ".bin");
+        try {
+            try (StructVector<StructPrimitives> struct =
+                         StructVector.open(StructPrimitives.class, file)) {
+                assertEquals(0, struct.size());
+                for (int i = 0; i < 20; i++) {
+                    struct.current(struct.insertLast());
+                    updatePrimitives(struct.accessor(), i * 10L, i, (short) i, (byte) i,
+                            (char) ('a' + i), i % 2 == 0);
+                }
+                struct.sort("boolean");
+            }
+
+            try (StructVector<StructPrimitives> struct =
+                         StructVector.open(StructPrimitives.class, file)) {
+                assertEquals(20, struct.size());
+                struct.current(0);
+                assertEquals(10L, struct.accessor().getLong());
+                assertEquals(false, struct.accessor().isBoolean());
+                struct.current(19);
+                assertEquals('s', struct.accessor().getChar());
+                assertEquals(true, struct.accessor().isBoolean());
+
+                struct.sort("long");
+                assertEquals(19, struct.binarySearch(struct.field("long"), 190L));
+                struct.insertLast(100);
+                struct.current(119);
+                struct.accessor().setLong(-1L);
+            }
+
+            try (StructVector<StructPrimitives> struct =
+                         StructVector.open(StructPrimitives.class, file)) {
+                assertEquals(120, struct.size());
+                struct.current(19);
+                assertEquals(190L, struct.accessor().getLong());
+                assertEquals(18.0f, struct.accessor().getFloat() - 1.0f, 1e-6f);
+                struct.current(119);
+                assertEquals(-1L, struct.accessor().getLong());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mappedFileLayoutErrorTest() throws IOException {
+        Path file = Files.createTempFile("struct", ".bin");
+        try {
+            StructVector.open(StructPrimitives.class, file).close();
+            StructVector.open(StructIntOnly.class, file).close();
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void mappedFileCorruptedHeaderTest() throws IOException {
+        Path file = Files.createTempFile("struct", ".bin");
+        try {
+            try (StructVector<StructIntOnly> struct = StructVector.open(StructIntOnly.class, file)) {
+                struct.resize(3);
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                ByteBuffer size = ByteBuffer.allocate(4).order(ByteOrder.nativeOrder());
+                channel.write(size.putInt(0, 1 << 20), 12);
+            }
+            checkOpenFails(file);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                ByteBuffer size = ByteBuffer.allocate(4).order(ByteOrder.nativeOrder());
+                channel.write(size.putInt(0, 3), 12);
+                channel.truncate(channel.size() - 1);
+            }
+            checkOpenFails(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static void checkOpenFails(Path file) throws IOException {
+        try {
+            StructVector.open(StructIntOnly.class, file).close();
+            throw new AssertionError("Corrupted file was opened");
+        } catch (IllegalArgumentException e) {
+            assertEquals("The file header is corrupted", e.getMessage());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mappedFileObjectFieldsErrorTest() throws IOException {
+        Path file = Files.createTempFile("struct", ".bin");
+        try {
+            StructVector.open(StructDirect.class, file).close();
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void columnsTest() {
+        StructVector<StructColumns> struct = new StructVector<>(StructColumns.class, 4);
+        fillColumns(struct);
+
+        assertArrayEquals(new int[]{3, 1, 2, 0, 30, 10, 20, 0}, struct.integers());
+        assertArrayEquals(new Object[]{"c", "a", "b", null}, struct.objects());
+        assertEquals(10, struct.accessor().getSecond(1));
+
+        struct.sort("second");
+        assertArrayEquals(new int[]{1, 2, 3, 0, 10, 20, 30, 0}, struct.integers());
+        assertEquals(2, struct.binarySearch(struct.field("second"), 30));
+        assertEquals(-2, struct.binarySearch(struct.field("second"), 15));
+        assertEquals(-1, struct.binarySearch(struct.field("name"), "0"));
+
+        struct.insert(1, 2);
+        assertEquals(5, struct.size());
+        assertArrayEquals(new int[]{1, 0, 0, 2, 3, 0, 10, 0, 0, 20, 30, 0},
+                struct.integers());
+        struct.updateFrom(1, struct, 4);
+        struct.current(1);
+        assertEquals(3, struct.accessor().getFirst());
+        assertEquals(30, struct.accessor().getSecond());
+        assertEquals("c", struct.accessor().getName());
+        assertEquals(30, struct.fieldValueInteger(struct.field("second"), 1));
+    }
+
+    @Test
+    public void offHeapColumnsTest() {
+        try (StructVector<StructColumns> struct =
+                     new StructVector<>(StructColumns.class, 2, StorageMode.OFF_HEAP)) {
+            fillColumns(struct);
+            struct.sort("second");
+            for (int i = 0; i < 3; i++) {
+                struct.current(i);
+                assertEquals(i + 1, struct.accessor().getFirst());
+                assertEquals((i + 1) * 10, struct.accessor().getSecond(i));
+            }
+            assertEquals(1, struct.binarySearch(struct.field("second"), 20));
+            assertEquals(20, struct.fieldValueInteger(struct.field("second"), 1));
+        }
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void fieldValueIndexBoundsTest() {
+        try (StructVector<StructDirectIntOnly> struct =
+                     new StructVector<>(StructDirectIntOnly.class, 2, StorageMode.OFF_HEAP)) {
+            struct.resize(2);
+            struct.fieldValueInteger(struct.field("int"), 2);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void fieldValueTypeTest() {
+        StructVector<StructDirect> struct = new StructVector<>(StructDirect.class, 2);
+        struct.resize(2);
+        struct.fieldValueLong(struct.field("int"), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fieldValueForeignFieldTest() {
+        StructVector<StructDirect> struct = new StructVector<>(StructDirect.class, 2);
+        struct.resize(2);
+        StructVector<StructColumns> columns = new StructVector<>(StructColumns.class, 2);
+        struct.fieldValueInteger(columns.field("second"), 0);
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void columnsIndexedAccessorBoundsErrorTest() {
+        StructVector<StructColumns> struct = new StructVector<>(StructColumns.class, 4);
+        fillColumns(struct);
+        struct.accessor().getSecond(3);
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void columnsUnpositionedAccessorTest() {
+        StructVector<StructColumns> struct = new StructVector<>(StructColumns.class, 4);
+        fillColumns(struct);
+        struct.accessor().current(-1);
+        struct.accessor().getSecond();
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void columnsDirectAccessorBoundsErrorTest() {
+        StructVector<StructColumns> struct = new StructVector<>(StructColumns.class, 4);
+        fillColumns(struct);
+        struct.accessor().current(3);
+        struct.accessor().setSecond(1);
+    }
+
+    private static void fillColumns(StructVector<StructColumns> struct) {
+        struct.resize(3);
+        StructColumns accessor = struct.accessor();
+        for (int i = 0; i < 3; i++) {
+            struct.current(i);
+            accessor.setFirst((i + 2) % 3 + 1);
+            accessor.setSecond(((i + 2) % 3 + 1) * 10);
+            accessor.setName(String.valueOf((char) ('a' + (i + 2) % 3)));
+        }
+    }
+
+    @Test
+    public void groupsTest() {
+        StructVector<StructGroups> struct = new StructVector<>(StructGroups.class, 4);
+        fillGroups(struct);
+
+        assertArrayEquals(new double[]{3, 30, 1, 10, 2, 20, 0, 0, 0.3, 0.1, 0.2, 0},
+                struct.doubles(), 1e-9);
+        assertArrayEquals(new Object[]{"c", "a", "b", null, "#c", "#a", "#b", null},
+                struct.objects());
+
+        struct.sort("y");
+        assertArrayEquals(new double[]{1, 10, 2, 20, 3, 30, 0, 0, 0.1, 0.2, 0.3, 0},
+                struct.doubles(), 1e-9);
+        assertEquals(1, struct.binarySearch(struct.field("y"), 20.0));
+        assertEquals(2, struct.binarySearch(struct.field("weight"), 0.3));
+        assertEquals(0, struct.binarySearch(struct.field("name"), "a"));
+
+        struct.insert(0, 2);
+        struct.updateFrom(0, struct, 4);
+        checkGroupsRecord(struct, 0, 3);
+        checkGroupsRecord(struct, 3, 2);
+        assertEquals(0.3, struct.fieldValueDouble(struct.field("weight"), 0), 1e-9);
+        assertEquals("#c", struct.fieldValueObject(struct.field("tag"), 0));
+    }
+
+    @Test
+    public void offHeapGroupsTest() {
+        try (StructVector<StructGroups> struct =
+                     new StructVector<>(StructGroups.class, 2, StorageMode.OFF_HEAP)) {
+            fillGroups(struct);
+            struct.sort("weight");
+            for (int i = 0; i < 3; i++) {
+                checkGroupsRecord(struct, i, i + 1);
+            }
+            assertEquals(2, struct.binarySearch(struct.field("x"), 3.0));
+        }
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void groupsIndexedAccessorBoundsErrorTest() {
+        StructVector<StructGroups> struct = new StructVector<>(StructGroups.class, 4);
+        fillGroups(struct);
+        struct.accessor().getWeight(3);
+    }
+
+    private static void fillGroups(StructVector<StructGroups> struct) {
+        struct.resize(3);
+        StructGroups accessor = struct.accessor();
+        for (int i = 0; i < 3; i++) {
+            int value = (i + 2) % 3 + 1;
+            struct.current(i);
+            accessor.setX(value);
+            accessor.setY(value * 10);
+            accessor.setWeight(value / 10.0);
+            accessor.setName(String.valueOf((char) ('a' + value - 1)));
+            accessor.setTag("#" + accessor.getName());
+        }
+    }
+
+    private static void checkGroupsRecord(StructVector<StructGroups> struct, int index,
+                                          int value) {
+        struct.current(index);
+        StructGroups accessor = struct.accessor();
+        assertEquals(value, accessor.getX(), 1e-9);
+        assertEquals(value * 10, accessor.getY(), 1e-9);
+        assertEquals(value / 10.0, accessor.getWeight(), 1e-9);
+        assertEquals(value / 10.0, accessor.getWeight(index), 1e-9);
+        assertEquals(String.valueOf((char) ('a' + value - 1)), accessor.getName());
+        assertEquals("#" + accessor.getName(), accessor.getTag());
+    }
+
+    private static List<Integer> intValues(StructVector<StructDirect> struct) {
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < struct.size(); i++) {
+            struct.current(i);
+            values.add(struct.accessor().getInt());
+        }
+        return values;
+    }
+
+    private static long[] longValues(StructVector<StructPrimitives> struct) {
+        long[] values = new long[struct.size()];
+        for (int i = 0; i < values.length; i++) {
+            struct.current(i);
+            values[i] = struct.accessor().getLong();
+        }
+        return values;
+    }
+
+    private static void updatePrimitives(Primitives accessor, long longValue,
+                                         float floatValue, short shortValue, byte byteValue,
+                                         char charValue, boolean booleanValue) {
+        accessor.setLong(longValue);
+        accessor.setFloat(floatValue);
+        accessor.setShort(shortValue);
+        accessor.setByte(byteValue);
+        accessor.setChar(charValue);
+        accessor.setBoolean(booleanValue);
+    }
+
+    @Struct(layout = Layout.COLUMNS)
+    public static abstract class StructColumns extends AbstractStruct {
+        @StructField
+        public abstract int getFirst();
+        @StructField
+        public abstract void setFirst(int value);
+
+        @StructField
+        public abstract int getSecond();
+        @StructField
+        public abstract void setSecond(int value);
+        @StructField(accessor = AccessorType.GETTER_INDEXED)
+        public abstract int getSecond(int index);
+
+        @StructField
+        public abstract String getName();
+        @StructField
+        public abstract void setName(String value);
+    }
+
+    public static abstract class StructGroups extends AbstractStruct {
+        @StructField(order = 0, group = "hot")
+        public abstract double getX();
+        @StructField
+        public abstract void setX(double value);
+
+        @StructField(order = 1)
+        public abstract double getWeight();
+        @StructField
+        public abstract void setWeight(double value);
+        @StructField(accessor = AccessorType.GETTER_INDEXED)
+        public abstract double getWeight(int index);
+
+        @StructField(order = 2, group = "hot")
+        public abstract double getY();
+        @StructField
+        public abstract void setY(double value);
+
+        @StructField(order = 3, group = "cold")
+        public abstract String getName();
+        @StructField
+        public abstract void setName(String value);
+
+        @StructField(order = 4)
+        public abstract String getTag();
+        @StructField
+        public abstract void setTag(String value);
+    }
+
+    @Test
+    public void hashIndexTest() {
+        checkHashIndex(new StructVector<>(StructDirect.class));
+    }
+
+    @Test
+    public void hashIndexOffHeapTest() {
+        try (StructVector<StructDirect> struct =
+                     new StructVector<>(StructDirect.class, 4, StorageMode.OFF_HEAP)) {
+            checkHashIndex(struct);
+        }
+    }
+
+    private void checkHashIndex(StructVector<StructDirect> struct) {
+        HashIndex ints = struct.hashIndex("int");
+        HashIndex strings = struct.hashIndex("string");
+        StructDirect accessor = struct.accessor();
+        for (int i = 0; i < 1000; i++) {
+            struct.insertLast();
+            accessor.setInt(i % 100);
+            accessor.setDouble(i);
+            accessor.setString("s" + i % 10);
+        }
+        assertEquals(-1, ints.find(100));
+        assertEquals(-1, strings.find("s10"));
+        assertEquals(37, ints.find(37));
+        assertEquals(3, strings.find("s3"));
+        checkHashIndexRows(struct, ints, 37, 10);
+        checkHashIndexRows(struct, strings, "s3", 100);
+
+        struct.insert(0, 1);
+        accessor.setInt(37);
+        accessor.setString("s3");
+        checkHashIndexRows(struct, ints, 37, 11);
+        checkHashIndexRows(struct, strings, "s3", 101);
+
+        StructVector<StructDirect> source = new StructVector<>(StructDirect.class);
+        source.insertLast();
+        source.accessor().setInt(1000);
+        source.accessor().setString("s3");
+        struct.updateFrom(38, source, 0);
+        assertEquals(38, ints.find(1000));
+        checkHashIndexRows(struct, ints, 37, 10);
+        checkHashIndexRows(struct, strings, "s3", 102);
+
+        struct.sort(SortSpec.by("double", SortDirection.DESCENDING));
+        assertEquals(1000, ints.find(1000));
+        checkHashIndexRows(struct, ints, 37, 10);
+        struct.resize(500);
+        assertEquals(-1, ints.find(1000));
+        checkHashIndexRows(struct, ints, 37, 5);
+        checkHashIndexRows(struct, strings, "s3", 50);
+
+        struct.current(0);
+        accessor.setInt(2000);
+        assertEquals(-1, ints.find(2000));
+        ints.rebuild();
+        assertEquals(0, ints.find(2000));
+        checkHashIndexRows(struct, ints, 99, 4);
+    }
+
+    private void checkHashIndexRows(StructVector<StructDirect> struct, HashIndex index,
+                                    Object key, int count) {
+        Field field = index.field();
+        int[] rows = key instanceof Integer
+                ? index.findAll(((Integer) key).intValue()) : index.findAll(key);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < struct.size(); i++) {
+            Object value = key instanceof Integer
+                    ? struct.fieldValueInteger(field, i) : struct.fieldValueObject(field, i);
+            if (key.equals(value)) {
+                expected.add(i);
+            }
+        }
+        Arrays.sort(rows);
+        assertEquals(count, rows.length);
+        assertEquals(expected, Arrays.stream(rows).boxed().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void hashIndexLongTest() {
+        StructVector<StructPrimitives> struct = new StructVector<>(StructPrimitives.class);
+        HashIndex index = struct.hashIndex("long");
+        for (int i = 0; i < 100; i++) {
+            struct.insertLast();
+            struct.accessor().setLong((long) (i % 7) << 40);
+        }
+        assertEquals(3, index.find(3L << 40));
+        assertEquals(-1, index.find(3));
+        assertEquals(14, index.findAll(2L << 40).length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void hashIndexDoubleFieldTest() {
+        new StructVector<>(StructDirect.class).hashIndex("double");
+    }
+
+    @Test
+    public void searchIndexTest() {
+        Random random = new Random(7);
+        for (int size = 0; size < 70; size++) {
+            StructVector<StructDirect> struct = new StructVector<>(StructDirect.class);
+            for (int i = 0; i < size; i++) {
+                struct.insertLast();
+                struct.accessor().setInt(random.nextInt(40) - 20);
+                struct.accessor().setDouble(random.nextInt(40) / 4.0 - 5);
+            }
+            struct.sort("int");
+            SearchIndex ints = new SearchIndex(struct, "int");
+            for (int value = -22; value < 22; value++) {
+                assertEquals(lowerBound(struct, "int", value), ints.find(value));
+                assertEquals(lowerBound(struct, "int", value), ints.find((long) value));
+            }
+            struct.sort("double");
+            SearchIndex doubles = new SearchIndex(struct, "double");
+            for (double value = -6; value < 6; value += 0.125) {
+                assertEquals(lowerBound(struct, "double", value), doubles.find(value));
+            }
+        }
+    }
+
+    @Test
+    public void searchIndexLongOffHeapTest() {
+        try (StructVector<StructPrimitives> struct =
+                     new StructVector<>(StructPrimitives.class, 4, StorageMode.OFF_HEAP)) {
+            for (int i = 0; i < 1000; i++) {
+                struct.insertLast();
+                struct.accessor().setLong((long) (i / 3) << 33);
+            }
+            SearchIndex index = new SearchIndex(struct, "long");
+            for (long value = -1; value < 340; value++) {
+                assertEquals(lowerBound(struct, "long", value << 33), index.find(value << 33));
+            }
+            struct.insertLast();
+            struct.accessor().setLong(Long.MAX_VALUE);
+            assertEquals(-1001, index.find(Long.MAX_VALUE));
+            index.rebuild();
+            assertEquals(1000, index.find(Long.MAX_VALUE));
+        }
+    }
+
+    @Test
+    public void searchIndexLargeTest() {
+        int size = 600000;
+        StructVector<StructDirect> struct = new StructVector<>(StructDirect.class);
+        for (int i = 0; i < size; i++) {
+            struct.insertLast();
+            struct.accessor().setInt(i / 2 * 2);
+            struct.accessor().setDouble(i / 2 * 2);
+        }
+        SearchIndex ints = new SearchIndex(struct, "int");
+        SearchIndex doubles = new SearchIndex(struct, "double");
+        Random random = new Random(7);
+        for (int probe = 0; probe < 10000; probe++) {
+            int value = random.nextInt(size + 4) - 2;
+            int index = Math.min(Math.max(value + (value & 1), 0), size);
+            int expected = value == index && index < size ? index : -index - 1;
+            assertEquals(expected, ints.find(value));
+            assertEquals(expected, doubles.find((double) value));
+        }
+    }
+
+    @Test
+    public void searchIndexSpecialValuesTest() {
+        StructVector<StructDirect> struct = new StructVector<>(StructDirect.class);
+        double[] values = {Double.NEGATIVE_INFINITY, -0.0, 0.0, 1, Double.NaN};
+        for (double value : values) {
+            struct.insertLast();
+            struct.accessor().setDouble(value);
+            struct.accessor().setInt(value > 0 ? Integer.MAX_VALUE : Integer.MIN_VALUE);
+        }
+        SearchIndex doubles = new SearchIndex(struct, "double");
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(i, doubles.find(values[i]));
+            assertEquals(struct.binarySearch(struct.field("double"), values[i]),
+                    doubles.find(values[i]));
+        }
+        assertEquals(-5, doubles.find(Double.POSITIVE_INFINITY));
+        SearchIndex ints = new SearchIndex(struct, "int");
+        assertEquals(-1, ints.find(Integer.MIN_VALUE - 1L));
+        assertEquals(-6, ints.find(Integer.MAX_VALUE + 1L));
+        assertEquals(0, ints.find(Integer.MIN_VALUE));
+        assertEquals(3, ints.find(Integer.MAX_VALUE));
+    }
+
+    private static int lowerBound(StructVector<?> struct, String name, double value) {
+        Column column = struct.column(name);
+        int index = 0;
+        while (index < struct.size() && columnValue(column, index) < value) {
+            index++;
+        }
+        boolean found = index < struct.size() && columnValue(column, index) == value;
+        return found ? index : -index - 1;
+    }
+
+    private static double columnValue(Column column, int index) {
+        switch (column.storageType()) {
+            case INT:
+                return column.getInt(index);
+            case LONG:
+                return column.getLong(index);
+            default:
+                return column.getDouble(index);
+        }
+    }
+
+    public interface Primitives {
+        long getLong();
+        void setLong(long value);
+        long getLong(int index);
+        float getFloat();
+        void setFloat(float value);
+        short getShort();
+        void setShort(short value);
+        byte getByte();
+        void setByte(byte value);
+        char getChar();
+        void setChar(char value);
+        boolean isBoolean();
+        void setBoolean(boolean value);
+    }
+
+    public static abstract class StructPrimitives extends AbstractStruct
+            implements Primitives {
+        @StructField
+        public abstract long getLong();
+        @StructField
+        public abstract void setLong(long value);
+        @StructField(accessor = AccessorType.GETTER_INDEXED)
+        public abstract long getLong(int index);
+
+        @StructField
+        public abstract float getFloat();
+        @StructField
+        public abstract void setFloat(float value);
+
+        @StructField
+        public abstract short getShort();
+        @StructField
+        public abstract void setShort(short value);
+
+        @StructField
+        public abstract byte getByte();
+        @StructField
+        public abstract void setByte(byte value);
+
+        @StructField
+        public abstract char getChar();
+        @StructField
+        public abstract void setChar(char value);
+
+        @StructField
+        public abstract boolean isBoolean();
+        @StructField
+        public abstract void setBoolean(boolean value);
+    }
+
+    @Struct(accessors = AccessorMode.ARRAY_ACCESS)
+    public static abstract class StructPrimitivesArrayAccess extends AbstractStruct
+            implements Primitives {
+        @StructField
+        public abstract long getLong();
+        @StructField
+        public abstract void setLong(long value);
+        @StructField(accessor = AccessorType.GETTER_INDEXED)
+        public abstract long getLong(int index);
+
+        @StructField
+        public abstract float getFloat();
+        @StructField
+        public abstract void setFloat(float value);
+
+        @StructField
+        public abstract short getShort();
+        @StructField
+        public abstract void setShort(short value);
+
+        @StructField
+        public abstract byte getByte();
+        @StructField
+        public abstract void setByte(byte value);
+
+        @StructField
+        public abstract char getChar();
+        @StructField
+        public abstract void setChar(char value);
+
+        @StructField
+        public abstract boolean isBoolean();
+        @StructField
+        public abstract void setBoolean(boolean value);
+    }
 }
@@ -20,16 +20,21 @@ import org.openjdk.jmh.runner.RunnerException;
 import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 
+import static org.junit.Assert.assertArrayEquals;
+
 /**
  * Benchmarks.
  */
 @State(Scope.Benchmark)
 public class Benchmarks {
     private static final int SIZE = 2_000_000;
+    private static final double STEP = 0.001;
     private static final Random random = new Random(System.currentTimeMillis());
 
     private List<Point> pointsList;
+    private StructVector<PointStruct> pointsVector;
     private PointStruct pointsAccessor;
+    private PointStructArrayAccess pointsArrayAccessor;
 
     public double publishResult;
 
@@ -37,10 +42,11 @@ public class Benchmarks {
     public void setUp() {
         allocList(SIZE);
         allocVector(SIZE);
+        allocArrayAccessVector(SIZE);
     }
 
     private void allocVector(int size) {
-        StructVector<PointStruct> pointsVector = new StructVector<>(PointStruct.class, size);
+        pointsVector = new StructVector<>(PointStruct.class, size);
         pointsAccessor = pointsVector.accessor();
         for (int i = 0; i < SIZE; i++) {
             pointsVector.insertLast();
@@ -49,6 +55,17 @@ public class Benchmarks {
         }
     }
 
+    private void allocArrayAccessVector(int size) {
+        StructVector<PointStructArrayAccess> pointsVector
+                = new StructVector<>(PointStructArrayAccess.class, size);
+        pointsArrayAccessor = pointsVector.accessor();
+        for (int i = 0; i < SIZE; i++) {
+            pointsVector.insertLast();
+            pointsArrayAccessor.setX(random.nextDouble());
+            pointsArrayAccessor.setY(random.nextDouble());
+        }
+    }
+
     private void allocList(int size) {
         pointsList = new ArrayList<>(size);
         for (int i = 0; i < SIZE; i++) {
@@ -133,6 +150,13 @@ public class Benchmarks {
         publishResult = result;
     }
 
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public StructVector<PointStruct> pointsStructConstruct() {
+        return new StructVector<>(PointStruct.class);
+    }
+
     @Benchmark
     @BenchmarkMode(Mode.AverageTime)
     @OutputTimeUnit(TimeUnit.MICROSECONDS)
@@ -144,6 +168,53 @@ public class Benchmarks {
         publishResult = result;
     }
 
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void pointsStructArrayAccess() {
+        double result = 0.0;
+        for (int i = 0; i < SIZE; i++) {
+            pointsArrayAccessor.current(i);
+            result += pointsArrayAccessor.square();
+        }
+        publishResult = result;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void pointsStructIndexedArrayAccess() {
+        double result = 0.0;
+        for (int i = 0; i < SIZE; i++) {
+            result += pointsArrayAccessor.square(i);
+        }
+        publishResult = result;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void pointsStructMove() {
+        for (int i = 0; i < SIZE; i++) {
+            pointsAccessor.current(i);
+            pointsAccessor.setX(pointsAccessor.getX() + pointsAccessor.getY() * STEP);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void pointsStructMoveForEach() {
+        pointsVector.forEach(point -> point.setX(point.getX() + point.getY() * STEP));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void pointsStructMoveParallel() {
+        pointsVector.parallelForEach(point -> point.setX(point.getX() + point.getY() * STEP));
+    }
+
     public static void main(String args[]) throws RunnerException {
         Options options = new OptionsBuilder()
                 .include(Benchmarks.class.getSimpleName())
@@ -156,4 +227,19 @@ public class Benchmarks {
     public void pointsStructWithAllocTest() {
         pointsStructWithAlloc();
     }
+
+    @Test
+    public void pointsStructMoveTest() {
+        allocVector(SIZE);
+        double[] expected = pointsVector.doubles().clone();
+        for (int i = 0; i < SIZE; i++) {
+            for (int step = 0; step < 3; step++) {
+                expected[2 * i] += expected[2 * i + 1] * STEP;
+            }
+        }
+        pointsStructMove();
+        pointsStructMoveForEach();
+        pointsStructMoveParallel();
+        assertArrayEquals(expected, pointsVector.doubles(), 0.0);
+    }
 }
@@ -0,0 +1,21 @@
+package net.nativestruct.benchmark;
+
+import net.nativestruct.AbstractStruct;
+import net.nativestruct.StructField;
+
+public abstract class EventStruct extends AbstractStruct {
+    @StructField
+    public abstract int getKey();
+    @StructField
+    public abstract void setKey(int value);
+
+    @StructField
+    public abstract int getCount();
+    @StructField
+    public abstract void setCount(int value);
+
+    @StructField
+    public abstract double getAmount();
+    @StructField
+    public abstract void setAmount(double value);
+}
@@ -0,0 +1,119 @@
+package net.nativestruct.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import net.nativestruct.Parallelism;
+import net.nativestruct.StructVector;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Particle update benchmarks, which move x by y * step for each of 20M records. The number of
+ * cores is given by the pool parallelism, the scaling of parallelForEach is the ratio of its
+ * time with one core to its time with more cores.
+ */
+@State(Scope.Benchmark)
+public class ForEachBenchmarks {
+    private static final int SIZE = 20_000_000;
+    private static final double STEP = 0.001;
+
+    @Param({"1", "2", "4", "8"})
+    public int cores = 2;
+
+    private ForkJoinPool pool;
+    private StructVector<PointStruct> particles;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pool = new ForkJoinPool(cores);
+        allocate(SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    private void allocate(int size) {
+        Random random = new Random(42);
+        particles = new StructVector<>(PointStruct.class, size);
+        particles.resize(size);
+        PointStruct accessor = particles.accessor();
+        for (int i = 0; i < size; i++) {
+            accessor.setX(i, random.nextDouble());
+            accessor.setY(i, random.nextDouble());
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void manual() {
+        PointStruct accessor = particles.accessor();
+        int size = particles.size();
+        for (int i = 0; i < size; i++) {
+            accessor.current(i);
+            accessor.setX(accessor.getX() + accessor.getY() * STEP);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void forEach() {
+        particles.forEach(point -> point.setX(point.getX() + point.getY() * STEP));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void parallelForEach() {
+        particles.parallelForEach(Parallelism.of(pool),
+            point -> point.setX(point.getX() + point.getY() * STEP));
+    }
+
+    public static void main(String args[]) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ForEachBenchmarks.class.getSimpleName())
+                .forks(1)
+                .build();
+        new Runner(options).run();
+    }
+
+    @Test
+    public void forEachTest() {
+        pool = new ForkJoinPool(cores);
+        try {
+            allocate(100_000);
+            double[] expected = particles.doubles().clone();
+            for (int i = 0; i < particles.size(); i++) {
+                for (int step = 0; step < 3; step++) {
+                    expected[2 * i] += expected[2 * i + 1] * STEP;
+                }
+            }
+            manual();
+            forEach();
+            parallelForEach();
+            assertArrayEquals(expected, particles.doubles(), 0);
+        } finally {
+            tearDown();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package net.nativestruct.benchmark;
+
+import net.nativestruct.AbstractStruct;
+import net.nativestruct.StructField;
+
+public abstract class KeyStruct extends AbstractStruct {
+    @StructField
+    public abstract int getKey();
+    @StructField
+    public abstract void setKey(int value);
+}
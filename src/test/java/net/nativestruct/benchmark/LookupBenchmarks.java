@@ -0,0 +1,121 @@
+package net.nativestruct.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.nativestruct.HashIndex;
+import net.nativestruct.SearchIndex;
+import net.nativestruct.StructVector;
+import net.nativestruct.implementation.field.Field;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Point lookup benchmarks, which find records by random keys, half of them are missing.
+ */
+@State(Scope.Benchmark)
+public class LookupBenchmarks {
+    private static final int PROBES = 1 << 12;
+
+    // 100M rows take about 4.5GB of heap, mostly for the hash index table.
+    @Param({"1000", "1000000", "100000000"})
+    public int size = 1000;
+
+    private StructVector<KeyStruct> keys;
+    private Field key;
+    private HashIndex index;
+    private SearchIndex search;
+    private int[] probes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = new StructVector<>(KeyStruct.class, size);
+        keys.resize(size);
+        KeyStruct accessor = keys.accessor();
+        for (int i = 0; i < size; i++) {
+            keys.current(i);
+            accessor.setKey(i * 2);
+        }
+        key = keys.field("key");
+        index = keys.hashIndex("key");
+        index.rebuild();
+        search = new SearchIndex(keys, "key");
+        Random random = new Random(42);
+        probes = new int[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probes[i] = random.nextInt(size * 2);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation(PROBES)
+    public int binarySearch() {
+        int found = 0;
+        for (int probe : probes) {
+            found += keys.binarySearch(key, probe) >= 0 ? 1 : 0;
+        }
+        return found;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation(PROBES)
+    public int hashIndex() {
+        int found = 0;
+        for (int probe : probes) {
+            found += index.find(probe) >= 0 ? 1 : 0;
+        }
+        return found;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation(PROBES)
+    public int searchIndex() {
+        int found = 0;
+        for (int probe : probes) {
+            found += search.find(probe) >= 0 ? 1 : 0;
+        }
+        return found;
+    }
+
+    public static void main(String args[]) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(LookupBenchmarks.class.getSimpleName())
+                .forks(1)
+                .jvmArgsAppend("-Xmx8g")
+                .build();
+        new Runner(options).run();
+    }
+
+    @Test
+    public void lookupTest() {
+        setUp();
+        for (int probe : probes) {
+            int position = keys.binarySearch(key, probe);
+            assertEquals(position >= 0 ? position : -1, index.find(probe));
+            assertEquals(position, search.find(probe));
+        }
+        assertEquals(binarySearch(), hashIndex());
+        assertEquals(binarySearch(), searchIndex());
+    }
+}
@@ -0,0 +1,171 @@
+package net.nativestruct.benchmark;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.nativestruct.ColumnStatistics;
+import net.nativestruct.Parallelism;
+import net.nativestruct.StructVector;
+import net.nativestruct.mapreduce.HashReducer;
+import net.nativestruct.mapreduce.InsertionReducer;
+import net.nativestruct.mapreduce.ParallelReducer;
+import net.nativestruct.mapreduce.Reducer;
+import net.nativestruct.mapreduce.SortingReducer;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Reduce benchmarks, which sum event counts and amounts per key.
+ */
+@State(Scope.Benchmark)
+public class ReduceBenchmarks {
+    private static final int SIZE = 1_000_000;
+
+    @Param({"1000", "100000"})
+    public int keys = 1000;
+
+    private StructVector<EventStruct> events;
+    private StructVector<EventStruct> result;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        events = new StructVector<>(EventStruct.class, SIZE);
+        events.resize(SIZE);
+        EventStruct accessor = events.accessor();
+        for (int i = 0; i < SIZE; i++) {
+            events.current(i);
+            accessor.setKey(random.nextInt(keys));
+            accessor.setCount(1);
+            accessor.setAmount(random.nextDouble());
+        }
+        result = new StructVector<>(EventStruct.class);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public StructVector<EventStruct> insertionReduce() {
+        return sum(new InsertionReducer<>(events, "key"));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public StructVector<EventStruct> sortingReduce() {
+        return sum(new SortingReducer<>(events, "key"));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public StructVector<EventStruct> hashReduce() {
+        return sum(new HashReducer<>(events, "key"));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public StructVector<EventStruct> hashReduceSorted() {
+        return sum(new HashReducer<>(events, "key").sorted());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public StructVector<EventStruct> parallelReduce() {
+        return sum(new ParallelReducer<>(events, "key", Parallelism.common()));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public StructVector<EventStruct> aggregate() {
+        return events.hashReduceBy("key").sorted().sum("count").sum("amount").into(result).aggregate();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ColumnStatistics statistics() {
+        return events.statistics("amount");
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public DoubleSummaryStatistics statisticsStream() {
+        return events.doubleStream("amount").summaryStatistics();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public double statisticsAccessor() {
+        EventStruct accessor = events.accessor();
+        double sum = 0;
+        double squares = 0;
+        for (int i = 0; i < events.size(); i++) {
+            events.current(i);
+            double amount = accessor.getAmount();
+            sum += amount;
+            squares += amount * amount;
+        }
+        double mean = sum / events.size();
+        return squares / events.size() - mean * mean;
+    }
+
+    private StructVector<EventStruct> sum(Reducer<EventStruct> reducer) {
+        return reducer.into(result).with((accumulator, value) -> {
+            accumulator.setCount(accumulator.getCount() + value.getCount());
+            accumulator.setAmount(accumulator.getAmount() + value.getAmount());
+        });
+    }
+
+    public static void main(String args[]) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ReduceBenchmarks.class.getSimpleName())
+                .forks(1)
+                .build();
+        new Runner(options).run();
+    }
+
+    @Test
+    public void reduceTest() {
+        setUp();
+        int[] sorted = sortingReduce().integers().clone();
+        int[] hashed = hashReduceSorted().integers().clone();
+        assertEquals(keys, result.size());
+        for (int i = 0; i < sorted.length; i++) {
+            assertEquals(sorted[i], hashed[i]);
+        }
+        assertEquals(keys, parallelReduce().size());
+        int[] aggregated = aggregate().integers().clone();
+        for (int i = 0; i < sorted.length; i++) {
+            assertEquals(sorted[i], aggregated[i]);
+        }
+    }
+
+    @Test
+    public void statisticsTest() {
+        setUp();
+        assertEquals(SIZE, statistics().count());
+        assertEquals(statisticsStream().getAverage(), statistics().mean(), 1e-9);
+        assertEquals(statisticsAccessor(), statistics().variance(), 1e-9);
+    }
+}
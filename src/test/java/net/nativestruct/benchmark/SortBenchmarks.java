@@ -0,0 +1,126 @@
+package net.nativestruct.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import net.nativestruct.Parallelism;
+import net.nativestruct.StructVector;
+import net.nativestruct.sorting.AbstractSortedSubstitution;
+import net.nativestruct.sorting.OrderingSubstitution;
+import net.nativestruct.sorting.SortedSubstitution;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Sorting benchmarks, the number of cores is given by the pool parallelism.
+ * Merge sort works on the row layout of {@link PointStruct}, where x is the first of two doubles.
+ */
+@State(Scope.Benchmark)
+public class SortBenchmarks {
+    private static final int SIZE = 2_000_000;
+    private static final Random random = new Random(System.currentTimeMillis());
+
+    @Param({"1", "4", "16"})
+    public int cores = 4;
+
+    private ForkJoinPool pool;
+    private StructVector<PointStruct> pointsVector;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pool = new ForkJoinPool(cores);
+        pointsVector = new StructVector<>(PointStruct.class, SIZE);
+        pointsVector.resize(SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Setup(Level.Invocation)
+    public void shuffle() {
+        PointStruct accessor = pointsVector.accessor();
+        for (int i = 0; i < SIZE; i++) {
+            accessor.setX(i, random.nextDouble());
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public OrderingSubstitution mergeSort() {
+        return mergeSubstitution().ordering();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public OrderingSubstitution mergeSortParallel() {
+        return mergeSubstitution().ordering(Parallelism.of(pool));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public OrderingSubstitution radixSort() {
+        return pointsVector.sortedSubstitution("x").ordering();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void sortVector() {
+        pointsVector.sort("x", Parallelism.of(pool));
+    }
+
+    private SortedSubstitution mergeSubstitution() {
+        return new AbstractSortedSubstitution.Doubles(pointsVector.doubles(), SIZE, 2, 0);
+    }
+
+    public static void main(String args[]) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SortBenchmarks.class.getSimpleName())
+                .forks(1)
+                .build();
+        new Runner(options).run();
+    }
+
+    @Test
+    public void sortTest() {
+        setUp();
+        try {
+            shuffle();
+            OrderingSubstitution merge = mergeSortParallel();
+            OrderingSubstitution radix = radixSort();
+            for (int i = 0; i < SIZE; i++) {
+                assertEquals(merge.forIndex(i), radix.forIndex(i));
+            }
+
+            sortVector();
+            PointStruct accessor = pointsVector.accessor();
+            for (int i = 1; i < SIZE; i++) {
+                assertTrue(accessor.getX(i - 1) <= accessor.getX(i));
+            }
+        } finally {
+            tearDown();
+        }
+    }
+}